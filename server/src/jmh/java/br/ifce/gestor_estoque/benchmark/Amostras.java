@@ -0,0 +1,63 @@
+package br.ifce.gestor_estoque.benchmark;
+
+import br.ifce.gestor_estoque.domain.estoque.EntradaProduto;
+import br.ifce.gestor_estoque.domain.estoque.Fornecedor;
+import br.ifce.gestor_estoque.domain.estoque.Produto;
+import br.ifce.gestor_estoque.domain.estoque.SaidaProduto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Entidades montadas em memória, com valores parecidos com os de produção, para os benchmarks.
+ */
+final class Amostras {
+
+    private Amostras() {
+    }
+
+    static Produto produto(long id, int quantidadeEstoque) {
+        Produto produto = new Produto();
+        produto.setId(id);
+        produto.setNome("Parafuso sextavado 8mm " + id);
+        produto.setDescricao("Parafuso de aço galvanizado, rosca métrica, caixa com 100 unidades");
+        produto.setPreco(new BigDecimal("39.90"));
+        produto.setQuantidadeEstoque(quantidadeEstoque);
+        produto.setUnidadeMedida("CX");
+        return produto;
+    }
+
+    static Fornecedor fornecedor(long id) {
+        Fornecedor fornecedor = new Fornecedor();
+        fornecedor.setId(id);
+        fornecedor.setNome("Distribuidora Ferragens Ceará " + id);
+        fornecedor.setContatoNome("Maria Souza");
+        fornecedor.setContatoEmail("compras@ferragensce.com.br");
+        fornecedor.setContatoTelefone("(85) 99999-0000");
+        return fornecedor;
+    }
+
+    static EntradaProduto entrada(long id, Produto produto, Fornecedor fornecedor) {
+        EntradaProduto entrada = new EntradaProduto();
+        entrada.setId(id);
+        entrada.setProduto(produto);
+        entrada.setFornecedor(fornecedor);
+        entrada.setQuantidade(25);
+        entrada.setDataMovimentacao(LocalDate.of(2025, 3, 14));
+        entrada.setPrecoCusto(new BigDecimal("27.35"));
+        entrada.setObservacao("Nota fiscal 004512");
+        return entrada;
+    }
+
+    static SaidaProduto saida(long id, Produto produto, int quantidade) {
+        SaidaProduto saida = new SaidaProduto();
+        saida.setId(id);
+        saida.setProduto(produto);
+        saida.setQuantidade(quantidade);
+        saida.setDataMovimentacao(LocalDate.of(2025, 3, 15));
+        saida.setMotivo("Venda");
+        saida.setCliente("Construtora Litoral");
+        saida.setObservacao("Pedido 7781");
+        return saida;
+    }
+}
@@ -0,0 +1,59 @@
+package br.ifce.gestor_estoque.benchmark;
+
+import br.ifce.gestor_estoque.domain.estoque.Produto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Regras de estoque da entidade {@link Produto}. Entrada e saída da mesma quantidade são medidas juntas
+ * para o estoque não derivar entre as iterações.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProdutoEstoqueBenchmark {
+
+    private Produto produto;
+    private int quantidade;
+
+    @Setup
+    public void preparar() {
+        produto = Amostras.produto(1L, 1_000);
+        quantidade = 7;
+    }
+
+    @Benchmark
+    public boolean temEstoqueSuficiente() {
+        return produto.temEstoqueSuficiente(quantidade);
+    }
+
+    @Benchmark
+    public Integer entradaESaidaEstoque() {
+        produto.entradaEstoque(quantidade);
+        produto.saidaEstoque(quantidade);
+        return produto.getQuantidadeEstoque();
+    }
+
+    @Benchmark
+    public Integer saidaRecusadaPorEstoqueInsuficiente() {
+        try {
+            produto.saidaEstoque(1_000_000);
+        } catch (IllegalArgumentException e) {
+            // Caminho medido: montagem da mensagem e da exceção
+        }
+        return produto.getQuantidadeEstoque();
+    }
+}
@@ -0,0 +1,102 @@
+package br.ifce.gestor_estoque.benchmark;
+
+import br.ifce.gestor_estoque.domain.estoque.EntradaProduto;
+import br.ifce.gestor_estoque.domain.estoque.Fornecedor;
+import br.ifce.gestor_estoque.domain.estoque.Produto;
+import br.ifce.gestor_estoque.domain.estoque.SaidaProduto;
+import br.ifce.gestor_estoque.dto.estoque.EntradaProdutoResponse;
+import br.ifce.gestor_estoque.dto.estoque.SaidaProdutoResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversão das movimentações em DTOs de resposta e serialização em JSON, como nas listagens da API.
+ * O {@link ObjectMapper} é montado com os mesmos padrões que o Spring Boot aplica (datas ISO, módulos Java 8).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RespostaMovimentacaoBenchmark {
+
+    // Linhas por página; 50 é o tamanho padrão da paginação
+    @Param({"1", "50"})
+    public int tamanhoPagina;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private List<EntradaProduto> entradas;
+    private List<SaidaProduto> saidas;
+    private List<EntradaProdutoResponse> respostasEntrada;
+    private List<SaidaProdutoResponse> respostasSaida;
+
+    @Setup
+    public void preparar() {
+        entradas = new ArrayList<>(tamanhoPagina);
+        saidas = new ArrayList<>(tamanhoPagina);
+        Fornecedor fornecedor = Amostras.fornecedor(1L);
+        for (long i = 1; i <= tamanhoPagina; i++) {
+            Produto produto = Amostras.produto(i, 1_000);
+            entradas.add(Amostras.entrada(i, produto, fornecedor));
+            saidas.add(Amostras.saida(i, produto, 3));
+        }
+        respostasEntrada = mapearEntradas();
+        respostasSaida = mapearSaidas();
+    }
+
+    @Benchmark
+    public List<EntradaProdutoResponse> mapearEntradas() {
+        List<EntradaProdutoResponse> respostas = new ArrayList<>(entradas.size());
+        for (EntradaProduto entrada : entradas) {
+            respostas.add(new EntradaProdutoResponse(entrada));
+        }
+        return respostas;
+    }
+
+    @Benchmark
+    public List<SaidaProdutoResponse> mapearSaidas() {
+        List<SaidaProdutoResponse> respostas = new ArrayList<>(saidas.size());
+        for (SaidaProduto saida : saidas) {
+            respostas.add(new SaidaProdutoResponse(saida));
+        }
+        return respostas;
+    }
+
+    @Benchmark
+    public byte[] serializarEntradas() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(respostasEntrada);
+    }
+
+    @Benchmark
+    public byte[] serializarSaidas() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(respostasSaida);
+    }
+
+    @Benchmark
+    public byte[] mapearESerializarEntradas() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(mapearEntradas());
+    }
+
+    @Benchmark
+    public byte[] mapearESerializarSaidas() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(mapearSaidas());
+    }
+}
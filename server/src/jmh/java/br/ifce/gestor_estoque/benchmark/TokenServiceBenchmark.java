@@ -0,0 +1,64 @@
+package br.ifce.gestor_estoque.benchmark;
+
+import br.ifce.gestor_estoque.domain.user.User;
+import br.ifce.gestor_estoque.infra.security.TokenService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Emissão e validação de JWT (HMAC256), feitas no login e em toda requisição autenticada.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenServiceBenchmark {
+
+    private TokenService tokenService;
+    private User user;
+    private String token;
+    private String tokenAdulterado;
+
+    @Setup
+    public void preparar() {
+        // Fora do contexto Spring: injeta o segredo e executa o @PostConstruct manualmente
+        tokenService = new TokenService();
+        ReflectionTestUtils.setField(tokenService, "secret", "segredo-de-benchmark-com-32-caracteres");
+        ReflectionTestUtils.invokeMethod(tokenService, "init");
+
+        user = new User();
+        user.setEmail("benchmark@gestor.com.br");
+        token = tokenService.generateToken(user);
+        // Troca o último caractere da assinatura: o token é decodificado, mas a verificação falha
+        char ultimo = token.charAt(token.length() - 1);
+        tokenAdulterado = token.substring(0, token.length() - 1) + (ultimo == 'A' ? 'B' : 'A');
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return tokenService.generateToken(user);
+    }
+
+    @Benchmark
+    public String validateToken() {
+        return tokenService.validateToken(token);
+    }
+
+    @Benchmark
+    public String validateTokenInvalido() {
+        return tokenService.validateToken(tokenAdulterado);
+    }
+}
@@ -0,0 +1,53 @@
+package br.ifce.gestor_estoque.benchmark;
+
+import br.ifce.gestor_estoque.domain.user.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo do BCrypt nas operações de senha do {@link User}: o hash no cadastro e na troca de senha,
+ * e a comparação no login. Cada operação leva dezenas de milissegundos, daí as iterações mais longas.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserSenhaBenchmark {
+
+    private static final String SENHA = "senha-forte-123";
+
+    private User user;
+
+    @Setup
+    public void preparar() {
+        user = new User("Usuário Benchmark", "benchmark@gestor.com.br", SENHA);
+    }
+
+    @Benchmark
+    public String updatePassword() {
+        user.updatePassword(SENHA);
+        return user.getPassword();
+    }
+
+    @Benchmark
+    public boolean checkPasswordCorreta() {
+        return user.checkPassword(SENHA);
+    }
+
+    @Benchmark
+    public boolean checkPasswordIncorreta() {
+        return user.checkPassword("senha-errada-456");
+    }
+}
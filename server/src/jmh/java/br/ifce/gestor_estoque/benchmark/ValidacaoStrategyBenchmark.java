@@ -0,0 +1,70 @@
+package br.ifce.gestor_estoque.benchmark;
+
+import br.ifce.gestor_estoque.domain.estoque.EntradaProduto;
+import br.ifce.gestor_estoque.domain.estoque.Produto;
+import br.ifce.gestor_estoque.domain.estoque.SaidaProduto;
+import br.ifce.gestor_estoque.exceptions.BusinessException;
+import br.ifce.gestor_estoque.strategy.ValidacaoEntradaStrategy;
+import br.ifce.gestor_estoque.strategy.ValidacaoSaidaStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validadores de movimentação: o caminho de sucesso, executado em toda entrada e saída, e a recusa
+ * por estoque insuficiente, que cria uma {@link BusinessException} com stack trace.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidacaoStrategyBenchmark {
+
+    private final ValidacaoEntradaStrategy validacaoEntrada = new ValidacaoEntradaStrategy();
+    private final ValidacaoSaidaStrategy validacaoSaida = new ValidacaoSaidaStrategy();
+
+    private EntradaProduto entrada;
+    private SaidaProduto saida;
+    private SaidaProduto saidaSemEstoque;
+
+    @Setup
+    public void preparar() {
+        Produto produto = Amostras.produto(1L, 100);
+        entrada = Amostras.entrada(1L, produto, Amostras.fornecedor(1L));
+        saida = Amostras.saida(1L, produto, 10);
+        saidaSemEstoque = Amostras.saida(2L, produto, 500);
+    }
+
+    @Benchmark
+    public EntradaProduto validarEntrada() {
+        validacaoEntrada.validar(entrada);
+        return entrada;
+    }
+
+    @Benchmark
+    public SaidaProduto validarSaida() {
+        validacaoSaida.validar(saida);
+        return saida;
+    }
+
+    @Benchmark
+    public BusinessException validarSaidaSemEstoque() {
+        try {
+            validacaoSaida.validar(saidaSemEstoque);
+            return null;
+        } catch (BusinessException e) {
+            return e;
+        }
+    }
+}
@@ -2,8 +2,10 @@ package br.ifce.gestor_estoque;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class GestorDeEstoqueApplication {
 
 	public static void main(String[] args) {
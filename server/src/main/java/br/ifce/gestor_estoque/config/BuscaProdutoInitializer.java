@@ -0,0 +1,41 @@
+package br.ifce.gestor_estoque.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Prepara o banco para a busca textual de produtos: habilita a extensão pg_trgm
+ * e cria os índices GIN trigram sobre nome e descrição, que o ddl-auto não sabe gerar.
+ * Os comandos são idempotentes e rodam a cada inicialização.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class BuscaProdutoInitializer implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(BuscaProdutoInitializer.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BuscaProdutoInitializer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void run(String... args) {
+        try {
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+        } catch (DataAccessException e) {
+            // Sem permissão para criar a extensão, ela precisa ser habilitada por um administrador do banco
+            logger.error("Não foi possível habilitar a extensão pg_trgm; a busca de produtos ficará indisponível: {}", e.getMessage());
+            return;
+        }
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_produto_nome_trgm ON produto USING gin (nome gin_trgm_ops)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_produto_descricao_trgm ON produto USING gin (descricao gin_trgm_ops)");
+    }
+}
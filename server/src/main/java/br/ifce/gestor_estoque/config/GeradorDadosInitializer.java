@@ -0,0 +1,71 @@
+package br.ifce.gestor_estoque.config;
+
+import br.ifce.gestor_estoque.infra.dados.GeradorDados;
+import br.ifce.gestor_estoque.repositores.ProdutoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * Popula um banco vazio com dados sintéticos ({@code dados.gerador.habilitado=true}). Roda antes do
+ * ApplicationReadyEvent, então os totais de movimentação, os snapshots e os estados em memória são montados já
+ * com os dados gerados. Com {@code dados.gerador.encerrar=true} a aplicação termina em seguida, para uso na linha
+ * de comando: {@code java -jar app.jar --dados.gerador.habilitado=true --dados.gerador.encerrar=true}.
+ */
+@Component
+@ConditionalOnProperty(name = "dados.gerador.habilitado", havingValue = "true")
+public class GeradorDadosInitializer implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeradorDadosInitializer.class);
+
+    private final GeradorDados geradorDados;
+    private final ProdutoRepository produtoRepository;
+    private final ConfigurableApplicationContext contexto;
+
+    @Value("${dados.gerador.produtos:10000}")
+    private int produtos;
+
+    @Value("${dados.gerador.fornecedores:200}")
+    private int fornecedores;
+
+    @Value("${dados.gerador.movimentacoes:1000000}")
+    private long movimentacoes;
+
+    @Value("${dados.gerador.dias:365}")
+    private int dias;
+
+    @Value("${dados.gerador.expoente-zipf:1.0}")
+    private double expoenteZipf;
+
+    @Value("${dados.gerador.semente:42}")
+    private long semente;
+
+    @Value("${dados.gerador.encerrar:false}")
+    private boolean encerrar;
+
+    public GeradorDadosInitializer(GeradorDados geradorDados, ProdutoRepository produtoRepository,
+                                   ConfigurableApplicationContext contexto) {
+        this.geradorDados = geradorDados;
+        this.produtoRepository = produtoRepository;
+        this.contexto = contexto;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        // Nunca mistura dados sintéticos com um catálogo existente
+        if (produtoRepository.count() > 0) {
+            logger.warn("Geração de dados sintéticos ignorada: o banco já tem produtos");
+        } else {
+            geradorDados.gerar(new GeradorDados.Parametros(produtos, fornecedores, movimentacoes, dias, expoenteZipf, semente));
+        }
+        if (encerrar) {
+            System.exit(SpringApplication.exit(contexto, () -> 0));
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package br.ifce.gestor_estoque.config;
+
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Alinha as sequências das tabelas de movimentação com os IDs já existentes.
+ * Bancos criados quando as movimentações usavam IDENTITY têm IDs que a nova sequência
+ * geraria de novo; aqui a sequência é avançada para além do maior ID de cada tabela.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SequenciaMovimentacaoInitializer implements CommandLineRunner {
+
+    // Deve ser igual ao allocationSize da sequência gerada pelo Hibernate (padrão 50)
+    private static final int TAMANHO_BLOCO = 50;
+
+    private static final List<String> TABELAS = List.of("entrada_produto", "saida_produto");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SequenciaMovimentacaoInitializer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void run(String... args) {
+        for (String tabela : TABELAS) {
+            String sequencia = tabela + "_seq";
+            jdbcTemplate.queryForObject(
+                    "SELECT setval('" + sequencia + "', GREATEST((SELECT last_value FROM " + sequencia + "), "
+                            + "(SELECT COALESCE(MAX(id), 0) FROM " + tabela + ") + " + TAMANHO_BLOCO + "))",
+                    Long.class);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package br.ifce.gestor_estoque.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Informa na inicialização o modelo de threads em uso. O Spring Boot ignora silenciosamente
+ * {@code spring.threads.virtual.enabled} em JVMs anteriores à 21; aqui isso vira um aviso.
+ */
+@Component
+public class ThreadsVirtuaisInitializer implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ThreadsVirtuaisInitializer.class);
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean habilitadas;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int conexoes;
+
+    @Override
+    public void run(String... args) {
+        if (!habilitadas) {
+            return;
+        }
+        int versao = Runtime.version().feature();
+        if (versao < 21) {
+            logger.warn("Threads virtuais habilitadas, mas a JVM é a {}: requisições continuam em threads de plataforma (requer Java 21+)", versao);
+            return;
+        }
+        // Sem o teto do pool do Tomcat, as requisições que usam o banco ficam limitadas às conexões do Hikari
+        logger.info("Threads virtuais habilitadas: requisições e tarefas agendadas em threads virtuais, até {} conexões simultâneas com o banco", conexoes);
+    }
+}
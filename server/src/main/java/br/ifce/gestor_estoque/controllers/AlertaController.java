@@ -0,0 +1,31 @@
+package br.ifce.gestor_estoque.controllers;
+
+import br.ifce.gestor_estoque.dto.MessageDTO;
+import br.ifce.gestor_estoque.exceptions.BusinessException;
+import br.ifce.gestor_estoque.services.AlertaEstoqueService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/alertas")
+public class AlertaController {
+
+    @Autowired
+    private AlertaEstoqueService alertaEstoqueService;
+
+    // Servido pelo índice em memória do motor de alertas; só os nomes da página vêm do banco
+    @GetMapping("/estoque-baixo")
+    public ResponseEntity<?> listarEstoqueBaixo(@RequestParam(required = false) String cursor,
+                                                @RequestParam(required = false) Integer tamanho,
+                                                @RequestParam(required = false) String nivel) {
+        try {
+            return ResponseEntity.ok(alertaEstoqueService.listar(cursor, tamanho, nivel));
+        } catch (BusinessException e) {
+            return ResponseEntity.badRequest().body(new MessageDTO(e.getMessage()));
+        }
+    }
+}
@@ -1,11 +1,15 @@
 package br.ifce.gestor_estoque.controllers;
 
 import br.ifce.gestor_estoque.dto.DashboardOverviewResponse;
+import br.ifce.gestor_estoque.dto.MessageDTO;
+import br.ifce.gestor_estoque.exceptions.BusinessException;
 import br.ifce.gestor_estoque.services.DashboardService;
+import br.ifce.gestor_estoque.services.RankingVendasService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -14,10 +18,22 @@ import org.springframework.web.bind.annotation.RestController;
 public class DashboardController {
 
     private final DashboardService dashboardService;
+    private final RankingVendasService rankingVendasService;
 
     @GetMapping("/overview")
     public ResponseEntity<DashboardOverviewResponse> getDashboardOverview() {
         DashboardOverviewResponse response = dashboardService.getDashboardOverview();
         return ResponseEntity.ok(response);
     }
+
+    // Ranking mantido em memória pelas saídas confirmadas; janela 1h, 24h (padrão) ou 7d
+    @GetMapping("/top-sellers")
+    public ResponseEntity<?> getTopSellers(@RequestParam(required = false) String window,
+                                           @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(rankingVendasService.getMaisVendidos(window, limit));
+        } catch (BusinessException e) {
+            return ResponseEntity.badRequest().body(new MessageDTO(e.getMessage()));
+        }
+    }
 }
@@ -1,17 +1,27 @@
 package br.ifce.gestor_estoque.controllers;
 
 import br.ifce.gestor_estoque.dto.MessageDTO;
+import br.ifce.gestor_estoque.dto.estoque.FormatoExportacao;
+import br.ifce.gestor_estoque.dto.estoque.LoteMovimentacaoResponse;
 import br.ifce.gestor_estoque.dto.estoque.EntradaProdutoRequest;
 import br.ifce.gestor_estoque.dto.estoque.EntradaProdutoResponse;
 import br.ifce.gestor_estoque.exceptions.BusinessException;
 import br.ifce.gestor_estoque.exceptions.NotFoundException;
+import br.ifce.gestor_estoque.services.ExportacaoMovimentacaoService;
 import br.ifce.gestor_estoque.services.EntradaProdutoService; // Import EntradaProdutoService
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,6 +32,9 @@ public class EntradaProdutoController {
     @Autowired
     private EntradaProdutoService entradaProdutoService; // Use EntradaProdutoService
 
+    @Autowired
+    private ExportacaoMovimentacaoService exportacaoMovimentacaoService;
+
     @GetMapping
     public ResponseEntity<List<EntradaProdutoResponse>> listarTodas() {
         List<EntradaProdutoResponse> entradas = entradaProdutoService.listarTodas();
@@ -31,6 +44,27 @@ public class EntradaProdutoController {
         return ResponseEntity.ok(entradas);
     }
 
+    // Escreve direto na resposta, em fluxo; para o histórico completo, no lugar da listagem
+    @GetMapping("/export")
+    public ResponseEntity<?> exportar(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate inicio,
+                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fim,
+                                      @RequestParam(required = false) Long produtoId,
+                                      @RequestParam(required = false) String formato,
+                                      HttpServletResponse response) throws IOException, SQLException {
+        try {
+            FormatoExportacao formatoExportacao = FormatoExportacao.fromParametro(formato);
+            exportacaoMovimentacaoService.exportarEntradas(inicio, fim, produtoId, formatoExportacao, () -> {
+                response.setContentType(formatoExportacao.getContentType());
+                response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("entradas" + formatoExportacao.getExtensao()).build().toString());
+                return response.getOutputStream();
+            });
+            return null; // Resposta já escrita
+        } catch (BusinessException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new MessageDTO(e.getMessage()));
+        }
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<?> getEntradaById(@PathVariable Long id) {
         Optional<EntradaProdutoResponse> entradaResponse = entradaProdutoService.getEntradaById(id);
@@ -50,6 +84,16 @@ public class EntradaProdutoController {
         }
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<?> createEntradasEmLote(@RequestBody List<EntradaProdutoRequest> requests) {
+        try {
+            LoteMovimentacaoResponse resultado = entradaProdutoService.createEntradasEmLote(requests);
+            return ResponseEntity.ok(resultado);
+        } catch (BusinessException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new MessageDTO(e.getMessage()));
+        }
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<?> updateEntrada(@PathVariable Long id, @Valid @RequestBody EntradaProdutoRequest request) {
         try {
@@ -0,0 +1,38 @@
+package br.ifce.gestor_estoque.controllers;
+
+import br.ifce.gestor_estoque.exceptions.BusinessException;
+import br.ifce.gestor_estoque.services.EstoqueStreamService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.HashSet;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/estoque")
+public class EstoqueStreamController {
+
+    @Autowired
+    private EstoqueStreamService estoqueStreamService;
+
+    /**
+     * Stream SSE das alterações de estoque: eventos "estoque" com produto, quantidade atual, variação e tipo
+     * da movimentação, e comentários de heartbeat. Sem {@code produtoId}, recebe as alterações de todos os produtos.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestParam(name = "produtoId", required = false) List<Long> produtoIds) {
+        try {
+            return estoqueStreamService.assinar(produtoIds != null ? new HashSet<>(produtoIds) : new HashSet<>());
+        } catch (BusinessException e) {
+            // O corpo de um stream SSE não comporta o MessageDTO usual
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        }
+    }
+}
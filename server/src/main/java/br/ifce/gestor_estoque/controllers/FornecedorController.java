@@ -2,13 +2,17 @@ package br.ifce.gestor_estoque.controllers;
 
 import br.ifce.gestor_estoque.domain.estoque.Fornecedor;
 import br.ifce.gestor_estoque.dto.MessageDTO;
+import br.ifce.gestor_estoque.dto.estoque.OrdenacaoFornecedor;
 import br.ifce.gestor_estoque.exceptions.NotFoundException; // Import NotFoundException
+import br.ifce.gestor_estoque.infra.cache.VersaoColecoes;
 import br.ifce.gestor_estoque.services.FornecedorService; // Import FornecedorService
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Optional;
@@ -17,22 +21,43 @@ import java.util.Optional;
 @RequestMapping("/api/fornecedores")
 public class FornecedorController {
 
+    // Permite guardar a resposta, mas obriga a revalidá-la pela ETag a cada uso
+    private static final CacheControl REVALIDAR = CacheControl.noCache();
+
     @Autowired
     private FornecedorService fornecedorService; // Injetar FornecedorService
 
+    @Autowired
+    private VersaoColecoes versaoColecoes;
+
     @GetMapping
-    public ResponseEntity<List<Fornecedor>> listarTodos() {
+    public ResponseEntity<?> listarTodos(@RequestParam(required = false) String cursor,
+                                         @RequestParam(required = false) Integer tamanho,
+                                         @RequestParam(required = false) String ordenacao,
+                                         WebRequest request) {
+        // A versão é lida antes dos dados; se o cliente já tem a atual, responde 304 sem consultar o banco
+        if (request.checkNotModified(versaoColecoes.etagFornecedores())) {
+            return null;
+        }
+        // Com qualquer parâmetro de paginação a resposta é uma página keyset; sem eles mantém a lista completa
+        if (cursor != null || tamanho != null || ordenacao != null) {
+            return ResponseEntity.ok().cacheControl(REVALIDAR)
+                    .body(fornecedorService.listarPagina(cursor, tamanho, OrdenacaoFornecedor.fromParametro(ordenacao)));
+        }
         List<Fornecedor> fornecedores = fornecedorService.listarTodos();
         if (fornecedores.isEmpty()) {
-            return ResponseEntity.noContent().build();
+            return ResponseEntity.noContent().cacheControl(REVALIDAR).build();
         }
-        return ResponseEntity.ok(fornecedores);
+        return ResponseEntity.ok().cacheControl(REVALIDAR).body(fornecedores);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<?> obterPorId(@PathVariable Long id) {
+    public ResponseEntity<?> obterPorId(@PathVariable Long id, WebRequest request) {
+        if (request.checkNotModified(versaoColecoes.etagFornecedor(id))) {
+            return null;
+        }
         Optional<Fornecedor> fornecedor = fornecedorService.obterPorId(id);
-        return fornecedor.<ResponseEntity<?>>map(ResponseEntity::ok)
+        return fornecedor.<ResponseEntity<?>>map(f -> ResponseEntity.ok().cacheControl(REVALIDAR).body(f))
                 .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(new MessageDTO("Fornecedor com ID " + id + " não encontrado.")));
     }
 
@@ -0,0 +1,41 @@
+package br.ifce.gestor_estoque.controllers;
+
+import br.ifce.gestor_estoque.dto.MessageDTO;
+import br.ifce.gestor_estoque.exceptions.BusinessException;
+import br.ifce.gestor_estoque.services.PrevisaoDemandaService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/previsoes")
+public class PrevisaoController {
+
+    @Autowired
+    private PrevisaoDemandaService previsaoDemandaService;
+
+    // Lê a tabela calculada pela rotina noturna; apenasRepor=true devolve só os produtos com compra sugerida
+    @GetMapping
+    public ResponseEntity<?> listar(@RequestParam(required = false) String cursor,
+                                    @RequestParam(required = false) Integer tamanho,
+                                    @RequestParam(required = false) Long fornecedorId,
+                                    @RequestParam(defaultValue = "false") boolean apenasRepor) {
+        try {
+            return ResponseEntity.ok(previsaoDemandaService.listar(cursor, tamanho, fornecedorId, apenasRepor));
+        } catch (BusinessException e) {
+            return ResponseEntity.badRequest().body(new MessageDTO(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{produtoId}")
+    public ResponseEntity<?> obterPorProduto(@PathVariable Long produtoId) {
+        return previsaoDemandaService.getPrevisao(produtoId).<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(new MessageDTO("Previsão do produto com ID " + produtoId + " não encontrada.")));
+    }
+}
@@ -1,52 +1,169 @@
 package br.ifce.gestor_estoque.controllers;
 
 import br.ifce.gestor_estoque.dto.MessageDTO;
+import br.ifce.gestor_estoque.dto.estoque.EstoqueNaDataResponse;
+import br.ifce.gestor_estoque.dto.estoque.OrdenacaoProduto;
 import br.ifce.gestor_estoque.dto.estoque.ProdutoRequest;
 import br.ifce.gestor_estoque.dto.estoque.ProdutoResponse;
+import br.ifce.gestor_estoque.exceptions.BusinessException;
+import br.ifce.gestor_estoque.exceptions.ConflictException;
+import br.ifce.gestor_estoque.infra.cache.VersaoColecoes;
+import br.ifce.gestor_estoque.services.EstoqueHistoricoService;
+import br.ifce.gestor_estoque.services.ImportacaoProdutoService;
 import br.ifce.gestor_estoque.services.ProdutoService; // Import ProdutoService
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/produtos")
 public class ProdutoController {
 
+    // Permite guardar a resposta, mas obriga a revalidá-la pela ETag a cada uso
+    private static final CacheControl REVALIDAR = CacheControl.noCache();
+
     @Autowired
     private ProdutoService produtoService; // Use ProdutoService
 
+    @Autowired
+    private EstoqueHistoricoService estoqueHistoricoService;
+
+    @Autowired
+    private VersaoColecoes versaoColecoes;
+
+    @Autowired
+    private ImportacaoProdutoService importacaoProdutoService;
+
     @GetMapping
-    public ResponseEntity<List<ProdutoResponse>> listarTodos() {
+    public ResponseEntity<?> listarTodos(@RequestParam(required = false) String cursor,
+                                         @RequestParam(required = false) Integer tamanho,
+                                         @RequestParam(required = false) String ordenacao,
+                                         WebRequest request) {
+        // A versão é lida antes dos dados; se o cliente já tem a atual, responde 304 sem consultar o banco
+        if (request.checkNotModified(versaoColecoes.etagProdutos())) {
+            return null;
+        }
+        // Com qualquer parâmetro de paginação a resposta é uma página keyset; sem eles mantém a lista completa
+        if (cursor != null || tamanho != null || ordenacao != null) {
+            return ResponseEntity.ok().cacheControl(REVALIDAR)
+                    .body(produtoService.listarPagina(cursor, tamanho, OrdenacaoProduto.fromParametro(ordenacao)));
+        }
         List<ProdutoResponse> produtos = produtoService.listarTodos();
         if (produtos.isEmpty()) {
-            return ResponseEntity.noContent().build();
+            return ResponseEntity.noContent().cacheControl(REVALIDAR).build();
+        }
+        return ResponseEntity.ok().cacheControl(REVALIDAR).body(produtos);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<?> buscar(@RequestParam(required = false) String q,
+                                    @RequestParam(required = false) String cursor,
+                                    @RequestParam(required = false) Integer tamanho,
+                                    WebRequest request) {
+        if (request.checkNotModified(versaoColecoes.etagProdutos())) {
+            return null;
+        }
+        try {
+            return ResponseEntity.ok().cacheControl(REVALIDAR).body(produtoService.buscar(q, cursor, tamanho));
+        } catch (BusinessException e) {
+            return ResponseEntity.badRequest().body(new MessageDTO(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/estoque")
+    public ResponseEntity<?> getEstoqueDeTodosNaData(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate data) {
+        return ResponseEntity.ok(estoqueHistoricoService.getEstoqueDeTodosNaData(data));
+    }
+
+    @GetMapping("/{id}/estoque")
+    public ResponseEntity<?> getEstoqueNaData(@PathVariable Long id,
+                                              @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate data) {
+        Optional<EstoqueNaDataResponse> estoque = estoqueHistoricoService.getEstoqueNaData(id, data);
+        if (estoque.isPresent()) {
+            return ResponseEntity.ok(estoque.get());
         }
-        return ResponseEntity.ok(produtos);
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new MessageDTO("Produto com ID " + id + " não encontrado."));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<?> getProdutoById(@PathVariable Long id) {
+    public ResponseEntity<?> getProdutoById(@PathVariable Long id, WebRequest request) {
+        if (request.checkNotModified(versaoColecoes.etagProduto(id))) {
+            return null;
+        }
         Optional<ProdutoResponse> produtoResponse = produtoService.getProdutoById(id);
         if (produtoResponse.isPresent()) {
-            return ResponseEntity.ok(produtoResponse.get());
+            return ResponseEntity.ok().cacheControl(REVALIDAR).body(produtoResponse.get());
         }
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new MessageDTO("Produto com ID " + id + " não encontrado."));
     }
 
     @PostMapping
-    public ResponseEntity<ProdutoResponse> createProduto(@Valid @RequestBody ProdutoRequest produtoRequest) {
-        ProdutoResponse novoProduto = produtoService.createProduto(produtoRequest);
-        return ResponseEntity.status(HttpStatus.CREATED).body(novoProduto);
+    public ResponseEntity<?> createProduto(@Valid @RequestBody ProdutoRequest produtoRequest) {
+        try {
+            ProdutoResponse novoProduto = produtoService.createProduto(produtoRequest);
+            return ResponseEntity.status(HttpStatus.CREATED).body(novoProduto);
+        } catch (ConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new MessageDTO(e.getMessage()));
+        }
+    }
+
+    // Upload de formulário: o Tomcat grava o arquivo em disco e a importação o lê de lá em fluxo
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> importarArquivo(@RequestParam("arquivo") MultipartFile arquivo) throws IOException, SQLException {
+        try (InputStream csv = arquivo.getInputStream()) {
+            return importar(csv);
+        }
+    }
+
+    // Corpo text/csv: lido direto da conexão, sem cópia intermediária
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<?> importarCorpo(InputStream csv) throws IOException, SQLException {
+        return importar(csv);
+    }
+
+    @GetMapping("/import/rejeitados/{id}")
+    public ResponseEntity<?> getRejeitadosDaImportacao(@PathVariable UUID id) {
+        Optional<Path> arquivo = importacaoProdutoService.getArquivoRejeitados(id);
+        if (arquivo.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new MessageDTO("Arquivo de rejeitados " + id + " não encontrado ou expirado."));
+        }
+        return ResponseEntity.ok()
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename("rejeitados-" + id + ".csv").build().toString())
+                .body(new FileSystemResource(arquivo.get()));
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<?> updateProduto(@PathVariable Long id, @Valid @RequestBody ProdutoRequest produtoRequest) {
-        Optional<ProdutoResponse> produtoAtualizado = produtoService.updateProduto(id, produtoRequest);
+        Optional<ProdutoResponse> produtoAtualizado;
+        try {
+            produtoAtualizado = produtoService.updateProduto(id, produtoRequest);
+        } catch (ConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new MessageDTO(e.getMessage()));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new MessageDTO("O produto com ID " + id + " foi alterado por outra operação. Recarregue e tente novamente."));
+        }
         if (produtoAtualizado.isPresent()) {
             return ResponseEntity.ok(produtoAtualizado.get());
         }
@@ -61,4 +178,12 @@ public class ProdutoController {
         }
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new MessageDTO("Produto com ID " + id + " não encontrado para exclusão."));
     }
+
+    private ResponseEntity<?> importar(InputStream csv) throws IOException, SQLException {
+        try {
+            return ResponseEntity.ok(importacaoProdutoService.importar(csv));
+        } catch (BusinessException e) {
+            return ResponseEntity.badRequest().body(new MessageDTO(e.getMessage()));
+        }
+    }
 }
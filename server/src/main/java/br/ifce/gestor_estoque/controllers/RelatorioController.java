@@ -0,0 +1,47 @@
+package br.ifce.gestor_estoque.controllers;
+
+import br.ifce.gestor_estoque.dto.MessageDTO;
+import br.ifce.gestor_estoque.dto.estoque.AgrupamentoRelatorio;
+import br.ifce.gestor_estoque.exceptions.BusinessException;
+import br.ifce.gestor_estoque.services.ResumoMovimentacaoService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+
+// Relatórios de movimentação por intervalo de datas, calculados a partir dos totais diários e mensais
+@RestController
+@RequestMapping("/api/relatorios")
+public class RelatorioController {
+
+    @Autowired
+    private ResumoMovimentacaoService resumoMovimentacaoService;
+
+    @GetMapping("/movimentacoes")
+    public ResponseEntity<?> totalizarPorPeriodo(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate inicio,
+                                                 @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fim,
+                                                 @RequestParam(required = false) String agrupamento,
+                                                 @RequestParam(required = false) Long produtoId) {
+        try {
+            return ResponseEntity.ok(resumoMovimentacaoService.totalizarPorPeriodo(
+                    inicio, fim, AgrupamentoRelatorio.fromParametro(agrupamento), produtoId));
+        } catch (BusinessException e) {
+            return ResponseEntity.badRequest().body(new MessageDTO(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/movimentacoes/produtos")
+    public ResponseEntity<?> totalizarPorProduto(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate inicio,
+                                                 @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fim) {
+        try {
+            return ResponseEntity.ok(resumoMovimentacaoService.totalizarPorProduto(inicio, fim));
+        } catch (BusinessException e) {
+            return ResponseEntity.badRequest().body(new MessageDTO(e.getMessage()));
+        }
+    }
+}
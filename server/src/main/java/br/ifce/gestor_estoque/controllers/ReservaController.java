@@ -0,0 +1,59 @@
+package br.ifce.gestor_estoque.controllers;
+
+import br.ifce.gestor_estoque.dto.MessageDTO;
+import br.ifce.gestor_estoque.dto.estoque.ConfirmacaoReservaRequest;
+import br.ifce.gestor_estoque.dto.estoque.ReservaRequest;
+import br.ifce.gestor_estoque.dto.estoque.ReservaResponse;
+import br.ifce.gestor_estoque.dto.estoque.SaidaProdutoResponse;
+import br.ifce.gestor_estoque.exceptions.BusinessException;
+import br.ifce.gestor_estoque.exceptions.NotFoundException;
+import br.ifce.gestor_estoque.services.ReservaEstoqueService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/reservas")
+public class ReservaController {
+
+    @Autowired
+    private ReservaEstoqueService reservaEstoqueService;
+
+    @PostMapping
+    public ResponseEntity<?> reservar(@Valid @RequestBody ReservaRequest request) {
+        try {
+            ReservaResponse reserva = reservaEstoqueService.reservar(request.produtoId, request.quantidade);
+            return ResponseEntity.status(HttpStatus.CREATED).body(reserva);
+        } catch (NotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new MessageDTO(e.getMessage()));
+        } catch (BusinessException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new MessageDTO(e.getMessage()));
+        }
+    }
+
+    @PostMapping("/{id}/confirmar")
+    public ResponseEntity<?> confirmar(@PathVariable UUID id, @Valid @RequestBody(required = false) ConfirmacaoReservaRequest request) {
+        try {
+            SaidaProdutoResponse saida = reservaEstoqueService.confirmar(id, request != null ? request : new ConfirmacaoReservaRequest());
+            return ResponseEntity.status(HttpStatus.CREATED).body(saida);
+        } catch (NotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new MessageDTO(e.getMessage()));
+        } catch (BusinessException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new MessageDTO(e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> liberar(@PathVariable UUID id) {
+        try {
+            reservaEstoqueService.liberar(id);
+            return ResponseEntity.noContent().build();
+        } catch (NotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new MessageDTO(e.getMessage()));
+        }
+    }
+}
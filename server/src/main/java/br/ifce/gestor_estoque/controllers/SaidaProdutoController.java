@@ -1,17 +1,27 @@
 package br.ifce.gestor_estoque.controllers;
 
 import br.ifce.gestor_estoque.dto.MessageDTO;
+import br.ifce.gestor_estoque.dto.estoque.FormatoExportacao;
+import br.ifce.gestor_estoque.dto.estoque.LoteMovimentacaoResponse;
 import br.ifce.gestor_estoque.dto.estoque.SaidaProdutoRequest;
 import br.ifce.gestor_estoque.dto.estoque.SaidaProdutoResponse;
 import br.ifce.gestor_estoque.exceptions.BusinessException;
 import br.ifce.gestor_estoque.exceptions.NotFoundException;
+import br.ifce.gestor_estoque.services.ExportacaoMovimentacaoService;
 import br.ifce.gestor_estoque.services.SaidaProdutoService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,6 +32,9 @@ public class SaidaProdutoController {
     @Autowired
     private SaidaProdutoService saidaProdutoService;
 
+    @Autowired
+    private ExportacaoMovimentacaoService exportacaoMovimentacaoService;
+
     @GetMapping
     public ResponseEntity<List<SaidaProdutoResponse>> listarTodas() {
         List<SaidaProdutoResponse> saidas = saidaProdutoService.listarTodas();
@@ -31,6 +44,27 @@ public class SaidaProdutoController {
         return ResponseEntity.ok(saidas);
     }
 
+    // Escreve direto na resposta, em fluxo; para o histórico completo, no lugar da listagem
+    @GetMapping("/export")
+    public ResponseEntity<?> exportar(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate inicio,
+                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fim,
+                                      @RequestParam(required = false) Long produtoId,
+                                      @RequestParam(required = false) String formato,
+                                      HttpServletResponse response) throws IOException, SQLException {
+        try {
+            FormatoExportacao formatoExportacao = FormatoExportacao.fromParametro(formato);
+            exportacaoMovimentacaoService.exportarSaidas(inicio, fim, produtoId, formatoExportacao, () -> {
+                response.setContentType(formatoExportacao.getContentType());
+                response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("saidas" + formatoExportacao.getExtensao()).build().toString());
+                return response.getOutputStream();
+            });
+            return null; // Resposta já escrita
+        } catch (BusinessException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new MessageDTO(e.getMessage()));
+        }
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<?> getSaidaById(@PathVariable Long id) {
         Optional<SaidaProdutoResponse> saidaResponse = saidaProdutoService.getSaidaById(id);
@@ -50,6 +84,16 @@ public class SaidaProdutoController {
         }
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<?> createSaidasEmLote(@RequestBody List<SaidaProdutoRequest> requests) {
+        try {
+            LoteMovimentacaoResponse resultado = saidaProdutoService.createSaidasEmLote(requests);
+            return ResponseEntity.ok(resultado);
+        } catch (BusinessException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new MessageDTO(e.getMessage()));
+        }
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<?> updateSaida(@PathVariable Long id, @Valid @RequestBody SaidaProdutoRequest request) {
         try {
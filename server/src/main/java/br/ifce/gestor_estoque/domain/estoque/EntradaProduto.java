@@ -5,6 +5,10 @@ import jakarta.validation.constraints.NotNull;
 import java.math.BigDecimal;
 
 @Entity
+@Table(indexes = {
+        // Varreduras por produto e intervalo de datas (estoque em uma data, relatórios)
+        @Index(name = "idx_entrada_produto_data", columnList = "produto_id, dataMovimentacao")
+})
 public class EntradaProduto extends MovimentacaoEstoque {
 
 
@@ -0,0 +1,65 @@
+package br.ifce.gestor_estoque.domain.estoque;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Variação de estoque já confirmada junto com a movimentação, mas ainda não aplicada ao produto
+ * (modo de projeção assíncrona). A linha é gravada na mesma transação da movimentação e removida
+ * na mesma transação que aplica a variação, então uma queda do processo não perde nem duplica o ajuste.
+ */
+@Entity
+@Table(name = "estoque_delta_pendente",
+        indexes = {
+                @Index(name = "idx_estoque_delta_pendente_registro", columnList = "registradoEm"),
+                @Index(name = "idx_estoque_delta_pendente_produto", columnList = "produto_id")
+        })
+public class EstoqueDeltaPendente {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "produto_id", nullable = false)
+    private Long produtoId;
+
+    @Column(nullable = false)
+    private Integer delta;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private TipoMovimentacao tipo;
+
+    @Column(nullable = false)
+    private Instant registradoEm;
+
+    protected EstoqueDeltaPendente() {
+    }
+
+    public EstoqueDeltaPendente(Long produtoId, Integer delta, TipoMovimentacao tipo) {
+        this.produtoId = produtoId;
+        this.delta = delta;
+        this.tipo = tipo;
+        this.registradoEm = Instant.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getProdutoId() {
+        return produtoId;
+    }
+
+    public Integer getDelta() {
+        return delta;
+    }
+
+    public TipoMovimentacao getTipo() {
+        return tipo;
+    }
+
+    public Instant getRegistradoEm() {
+        return registradoEm;
+    }
+}
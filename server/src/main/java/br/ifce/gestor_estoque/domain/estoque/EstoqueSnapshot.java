@@ -0,0 +1,45 @@
+package br.ifce.gestor_estoque.domain.estoque;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * Quantidade em estoque de um produto ao final de um dia, usada como ponto de partida
+ * para consultas de estoque em datas passadas (snapshot + movimentações do intervalo).
+ * Movimentações retroativas corrigem os snapshots de datas iguais ou posteriores à delas.
+ */
+@Entity
+@Table(name = "estoque_snapshot",
+        uniqueConstraints = @UniqueConstraint(name = "uk_estoque_snapshot_produto_data", columnNames = {"produto_id", "data"}))
+public class EstoqueSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Sem chave estrangeira: os snapshots são removidos junto com o produto pelo listener
+    @Column(name = "produto_id", nullable = false)
+    private Long produtoId;
+
+    @Column(nullable = false)
+    private LocalDate data;
+
+    @Column(nullable = false)
+    private Integer quantidade;
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getProdutoId() {
+        return produtoId;
+    }
+
+    public LocalDate getData() {
+        return data;
+    }
+
+    public Integer getQuantidade() {
+        return quantidade;
+    }
+}
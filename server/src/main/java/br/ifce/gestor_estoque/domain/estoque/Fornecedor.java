@@ -1,14 +1,26 @@
 package br.ifce.gestor_estoque.domain.estoque;
 
+import br.ifce.gestor_estoque.infra.cache.CacheSegundoNivelConfig;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Table(indexes = {
+        // Suporta a paginação keyset por nome
+        @Index(name = "idx_fornecedor_nome_id", columnList = "nome, id")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheSegundoNivelConfig.REGIAO_FORNECEDOR)
 public class Fornecedor {
 
     @Id
@@ -0,0 +1,19 @@
+package br.ifce.gestor_estoque.domain.estoque;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+// Totais de movimentação de um produto em um dia
+@Entity
+@Table(name = "movimentacao_diaria",
+        uniqueConstraints = @UniqueConstraint(name = "uk_movimentacao_diaria_produto_data", columnNames = {"produto_id", "data"}),
+        indexes = @Index(name = "idx_movimentacao_diaria_data", columnList = "data"))
+public class MovimentacaoDiaria extends ResumoMovimentacao {
+
+    @Column(nullable = false)
+    private LocalDate data;
+
+    public LocalDate getData() {
+        return data;
+    }
+}
@@ -8,8 +8,9 @@ import java.time.LocalDate;
 @MappedSuperclass
 public abstract class MovimentacaoEstoque {
 
+    // Sequência (uma por tabela, com blocos de 50) em vez de IDENTITY, que impede o Hibernate de agrupar INSERTs em lote
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,19 @@
+package br.ifce.gestor_estoque.domain.estoque;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+// Totais de movimentação de um produto em um mês; o mês é representado pelo seu primeiro dia
+@Entity
+@Table(name = "movimentacao_mensal",
+        uniqueConstraints = @UniqueConstraint(name = "uk_movimentacao_mensal_produto_mes", columnNames = {"produto_id", "mes"}),
+        indexes = @Index(name = "idx_movimentacao_mensal_mes", columnList = "mes"))
+public class MovimentacaoMensal extends ResumoMovimentacao {
+
+    @Column(nullable = false)
+    private LocalDate mes;
+
+    public LocalDate getMes() {
+        return mes;
+    }
+}
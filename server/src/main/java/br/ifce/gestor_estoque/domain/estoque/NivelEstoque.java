@@ -0,0 +1,24 @@
+package br.ifce.gestor_estoque.domain.estoque;
+
+// Situação do estoque de um produto em relação aos seus limites
+public enum NivelEstoque {
+    NORMAL,
+    REPOSICAO, // No ponto de reposição ou abaixo dele, mas acima do mínimo
+    ESTOQUE_BAIXO; // No estoque mínimo ou abaixo dele
+
+    /**
+     * Classifica uma quantidade pelos limites do produto.
+     * @param quantidade a quantidade em estoque.
+     * @param estoqueMinimo o estoque mínimo efetivo (já com o padrão aplicado).
+     * @param pontoReposicao o ponto de reposição, ou null se não definido.
+     */
+    public static NivelEstoque de(int quantidade, int estoqueMinimo, Integer pontoReposicao) {
+        if (quantidade <= estoqueMinimo) {
+            return ESTOQUE_BAIXO;
+        }
+        if (pontoReposicao != null && quantidade <= pontoReposicao) {
+            return REPOSICAO;
+        }
+        return NORMAL;
+    }
+}
@@ -0,0 +1,118 @@
+package br.ifce.gestor_estoque.domain.estoque;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Previsão de demanda e sugestão de compra de um produto, calculadas pela rotina noturna.
+ * Guarda também o estado da suavização exponencial (nível, tendência e um índice por dia da semana) até
+ * {@code ultimaData}, para que a próxima execução processe apenas os dias novos. A linha é gravada em lote pela
+ * rotina e não tem chave estrangeira: previsões de produtos excluídos são descartadas na execução seguinte.
+ */
+@Entity
+@Table(name = "previsao_demanda",
+        indexes = @Index(name = "idx_previsao_demanda_fornecedor", columnList = "fornecedor_id, produto_id"))
+public class PrevisaoDemanda {
+
+    @Id
+    @Column(name = "produto_id")
+    private Long produtoId;
+
+    @Column(nullable = false)
+    private double nivel;
+
+    @Column(nullable = false)
+    private double tendencia;
+
+    // Índices sazonais de segunda (0) a domingo (6)
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(nullable = false)
+    private double[] sazonalidade;
+
+    // Média móvel exponencial do quadrado do erro de previsão de um dia
+    @Column(nullable = false)
+    private double erroQuadratico;
+
+    @Column(nullable = false)
+    private LocalDate ultimaData;
+
+    @Column(nullable = false)
+    private double demandaDiaria;
+
+    @Column(nullable = false)
+    private double desvioDiario;
+
+    @Column(name = "fornecedor_id")
+    private Long fornecedorId;
+
+    @Column(nullable = false)
+    private double prazoEntregaDias;
+
+    @Column(nullable = false)
+    private int pontoReposicao;
+
+    @Column(nullable = false)
+    private int quantidadeSugerida;
+
+    @Column(nullable = false)
+    private Instant calculadoEm;
+
+    protected PrevisaoDemanda() {
+    }
+
+    public Long getProdutoId() {
+        return produtoId;
+    }
+
+    public double getNivel() {
+        return nivel;
+    }
+
+    public double getTendencia() {
+        return tendencia;
+    }
+
+    public double[] getSazonalidade() {
+        return sazonalidade;
+    }
+
+    public double getErroQuadratico() {
+        return erroQuadratico;
+    }
+
+    public LocalDate getUltimaData() {
+        return ultimaData;
+    }
+
+    public double getDemandaDiaria() {
+        return demandaDiaria;
+    }
+
+    public double getDesvioDiario() {
+        return desvioDiario;
+    }
+
+    public Long getFornecedorId() {
+        return fornecedorId;
+    }
+
+    public double getPrazoEntregaDias() {
+        return prazoEntregaDias;
+    }
+
+    public int getPontoReposicao() {
+        return pontoReposicao;
+    }
+
+    public int getQuantidadeSugerida() {
+        return quantidadeSugerida;
+    }
+
+    public Instant getCalculadoEm() {
+        return calculadoEm;
+    }
+}
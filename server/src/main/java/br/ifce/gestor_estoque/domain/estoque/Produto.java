@@ -1,16 +1,37 @@
 package br.ifce.gestor_estoque.domain.estoque;
 
+import br.ifce.gestor_estoque.infra.cache.CacheSegundoNivelConfig;
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PositiveOrZero;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import java.math.BigDecimal;
 
 @Entity
+@Table(indexes = {
+        // Suportam a paginação keyset por nome e por nível de estoque
+        @Index(name = "idx_produto_nome_id", columnList = "nome, id"),
+        @Index(name = "idx_produto_estoque_id", columnList = "quantidadeEstoque, id")
+}, uniqueConstraints = {
+        // O nome é a chave natural da importação de catálogo por CSV
+        @UniqueConstraint(name = "uk_produto_nome", columnNames = "nome")
+})
+// Ajustes de estoque por SQL invalidam a entrada via CacheProduto
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheSegundoNivelConfig.REGIAO_PRODUTO)
 public class Produto {
 
     @Id
@@ -36,6 +57,20 @@ public class Produto {
     @Size(max = 50, message = "A unidade de medida deve ter no máximo 50 caracteres")
     private String unidadeMedida;
 
+    // Nível de alerta do produto; nulo usa o mínimo padrão da aplicação (estoque.alerta.minimo-padrao)
+    @PositiveOrZero(message = "O estoque mínimo deve ser zero ou positivo")
+    private Integer estoqueMinimo;
+
+    // Opcional: abaixo dele o produto entra em alerta de reposição, antes de chegar ao mínimo
+    @PositiveOrZero(message = "O ponto de reposição deve ser zero ou positivo")
+    private Integer pontoReposicao;
+
+    // Controle de concorrência otimista para edições da entidade inteira
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long versao;
+
     // Getters e Setters
     /**
      * Retorna o ID do produto.
@@ -171,6 +206,54 @@ public class Produto {
         this.unidadeMedida = unidadeMedida;
     }
 
+    /**
+     * Retorna o estoque mínimo do produto.
+     * @return o estoque mínimo, ou null se o produto usa o mínimo padrão.
+     */
+    public Integer getEstoqueMinimo() {
+        return estoqueMinimo;
+    }
+
+    /**
+     * Define o estoque mínimo do produto. Nulo faz o produto usar o mínimo padrão.
+     * @param estoqueMinimo o novo estoque mínimo.
+     * @throws IllegalArgumentException se o estoque mínimo for negativo.
+     */
+    public void setEstoqueMinimo(Integer estoqueMinimo) {
+        if (estoqueMinimo != null && estoqueMinimo < 0) {
+            throw new IllegalArgumentException("O estoque mínimo deve ser zero ou positivo.");
+        }
+        this.estoqueMinimo = estoqueMinimo;
+    }
+
+    /**
+     * Retorna o ponto de reposição do produto.
+     * @return o ponto de reposição, ou null se não definido.
+     */
+    public Integer getPontoReposicao() {
+        return pontoReposicao;
+    }
+
+    /**
+     * Define o ponto de reposição do produto. Nulo desativa o alerta de reposição.
+     * @param pontoReposicao o novo ponto de reposição.
+     * @throws IllegalArgumentException se o ponto de reposição for negativo.
+     */
+    public void setPontoReposicao(Integer pontoReposicao) {
+        if (pontoReposicao != null && pontoReposicao < 0) {
+            throw new IllegalArgumentException("O ponto de reposição deve ser zero ou positivo.");
+        }
+        this.pontoReposicao = pontoReposicao;
+    }
+
+    /**
+     * Retorna a versão atual do produto, usada no controle de concorrência otimista.
+     * @return a versão do produto.
+     */
+    public Long getVersao() {
+        return versao;
+    }
+
     // Comportamentos de Domínio
 
     /**
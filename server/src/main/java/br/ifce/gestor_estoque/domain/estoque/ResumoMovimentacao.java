@@ -0,0 +1,56 @@
+package br.ifce.gestor_estoque.domain.estoque;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+
+/**
+ * Totais de movimentação de um produto em um período, mantidos incrementalmente
+ * pelos eventos de entrada e saída para que os relatórios não leiam as tabelas de movimentação.
+ */
+@MappedSuperclass
+public abstract class ResumoMovimentacao {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "produto_id", nullable = false)
+    private Long produtoId;
+
+    @Column(nullable = false)
+    private Long quantidadeEntrada;
+
+    @Column(nullable = false)
+    private Long quantidadeSaida;
+
+    // Valor de custo das entradas (quantidade * preço de custo)
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal valorEntrada;
+
+    @Column(nullable = false)
+    private Long quantidadeMovimentacoes;
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getProdutoId() {
+        return produtoId;
+    }
+
+    public Long getQuantidadeEntrada() {
+        return quantidadeEntrada;
+    }
+
+    public Long getQuantidadeSaida() {
+        return quantidadeSaida;
+    }
+
+    public BigDecimal getValorEntrada() {
+        return valorEntrada;
+    }
+
+    public Long getQuantidadeMovimentacoes() {
+        return quantidadeMovimentacoes;
+    }
+}
@@ -3,7 +3,15 @@ package br.ifce.gestor_estoque.domain.estoque;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Size;
 
+import java.time.Instant;
+
 @Entity
+@Table(indexes = {
+        // Varreduras por produto e intervalo de datas (estoque em uma data, relatórios)
+        @Index(name = "idx_saida_produto_data", columnList = "produto_id, dataMovimentacao"),
+        // Reconstrução do ranking de mais vendidos (saídas dos últimos dias)
+        @Index(name = "idx_saida_produto_registro", columnList = "registradoEm")
+})
 public class SaidaProduto extends MovimentacaoEstoque { // Extends MovimentacaoEstoque
 
     // Id, produto, quantidade, observacao are inherited
@@ -15,6 +23,10 @@ public class SaidaProduto extends MovimentacaoEstoque { // Extends MovimentacaoE
     @Size(max = 255, message = "O cliente deve ter no máximo 255 caracteres")
     private String cliente; // Opcional, para quem foi a saída
 
+    // Momento do registro (a data de saída é só o dia informado); nulo nas saídas anteriores a esta coluna
+    @Column(updatable = false)
+    private Instant registradoEm;
+
     // Getters e Setters for inherited fields are in MovimentacaoEstoque
 
     /**
@@ -72,6 +84,21 @@ public class SaidaProduto extends MovimentacaoEstoque { // Extends MovimentacaoE
         this.cliente = cliente;
     }
 
+    /**
+     * Retorna o momento em que a saída foi registrada no sistema.
+     * @return o instante do registro, ou null para saídas antigas.
+     */
+    public Instant getRegistradoEm() {
+        return registradoEm;
+    }
+
+    @PrePersist
+    void registrar() {
+        if (registradoEm == null) {
+            registradoEm = Instant.now();
+        }
+    }
+
     // hashCode, equals, and toString methods should be reviewed if they exist
     // For example, if they use inherited fields, they might need adjustments or can be inherited/generated.
 }
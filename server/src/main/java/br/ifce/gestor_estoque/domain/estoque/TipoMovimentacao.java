@@ -0,0 +1,10 @@
+package br.ifce.gestor_estoque.domain.estoque;
+
+// Origem de uma alteração no estoque de um produto
+public enum TipoMovimentacao {
+    ENTRADA,
+    SAIDA,
+    ESTORNO_ENTRADA, // Reversão de uma entrada (exclusão ou edição)
+    ESTORNO_SAIDA, // Reversão de uma saída (exclusão ou edição)
+    CONSOLIDADO // Várias variações de origens diferentes aplicadas juntas pela projeção assíncrona
+}
@@ -1,5 +1,6 @@
 package br.ifce.gestor_estoque.domain.user;
 
+import br.ifce.gestor_estoque.listeners.UserCacheInvalidationListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -8,6 +9,7 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 @Entity
 @Table(name = "users")
+@EntityListeners(UserCacheInvalidationListener.class)
 public class User {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -0,0 +1,18 @@
+package br.ifce.gestor_estoque.dto;
+
+import java.util.List;
+
+/**
+ * Página de resultados obtida por paginação baseada em cursor (keyset).
+ * O {@code proximoCursor} é opaco para o cliente e deve ser reenviado como está
+ * para obter a próxima página; é nulo quando não há mais resultados.
+ */
+public record PaginaResponse<T>(
+        List<T> itens,
+        int tamanho,
+        String proximoCursor
+) {
+    public boolean temProxima() {
+        return proximoCursor != null;
+    }
+}
@@ -0,0 +1,12 @@
+package br.ifce.gestor_estoque.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+public record TopSellersResponse(
+        String window,
+        Instant updatedAt,
+        List<TopSeller> topSellers
+) {
+    public record TopSeller(Long productId, String name, long quantity) {}
+}
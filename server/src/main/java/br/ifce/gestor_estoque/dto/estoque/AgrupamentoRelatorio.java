@@ -0,0 +1,37 @@
+package br.ifce.gestor_estoque.dto.estoque;
+
+import br.ifce.gestor_estoque.exceptions.BusinessException;
+
+import java.util.Arrays;
+
+// Períodos em que o relatório de movimentações pode ser agrupado
+public enum AgrupamentoRelatorio {
+    DIA("dia"),
+    MES("mes");
+
+    private final String parametro;
+
+    AgrupamentoRelatorio(String parametro) {
+        this.parametro = parametro;
+    }
+
+    public String getParametro() {
+        return parametro;
+    }
+
+    /**
+     * Converte o parâmetro de requisição no agrupamento correspondente.
+     * @param parametro o valor recebido (ex.: "mes"); nulo resulta em {@link #DIA}.
+     * @return o agrupamento correspondente.
+     * @throws BusinessException se o valor não corresponder a nenhum agrupamento.
+     */
+    public static AgrupamentoRelatorio fromParametro(String parametro) {
+        if (parametro == null || parametro.isBlank()) {
+            return DIA;
+        }
+        return Arrays.stream(values())
+                .filter(a -> a.parametro.equalsIgnoreCase(parametro))
+                .findFirst()
+                .orElseThrow(() -> new BusinessException("Agrupamento inválido: " + parametro + ". Use dia ou mes."));
+    }
+}
@@ -0,0 +1,14 @@
+package br.ifce.gestor_estoque.dto.estoque;
+
+import br.ifce.gestor_estoque.domain.estoque.NivelEstoque;
+
+// Produto em alerta de estoque; o estoque mínimo já vem com o padrão aplicado quando o produto não define um
+public record AlertaEstoqueResponse(
+        Long produtoId,
+        String nome,
+        int quantidadeEstoque,
+        int estoqueMinimo,
+        Integer pontoReposicao,
+        NivelEstoque nivel
+) {
+}
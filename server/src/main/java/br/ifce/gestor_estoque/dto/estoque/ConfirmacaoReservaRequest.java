@@ -0,0 +1,20 @@
+package br.ifce.gestor_estoque.dto.estoque;
+
+import jakarta.validation.constraints.PastOrPresent;
+import jakarta.validation.constraints.Size;
+import java.time.LocalDate;
+
+// Dados da saída gerada ao confirmar uma reserva; produto e quantidade vêm da própria reserva
+public class ConfirmacaoReservaRequest {
+
+    @PastOrPresent(message = "A data de saída não pode ser futura")
+    public LocalDate dataSaida; // Opcional, padrão: hoje
+
+    @Size(max = 255, message = "O motivo deve ter no máximo 255 caracteres")
+    public String motivo;
+
+    @Size(max = 255, message = "O cliente deve ter no máximo 255 caracteres")
+    public String cliente;
+
+    public String observacao;
+}
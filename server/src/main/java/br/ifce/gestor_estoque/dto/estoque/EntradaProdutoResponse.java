@@ -28,4 +28,20 @@ public class EntradaProdutoResponse {
         this.observacao = entradaProduto.getObservacao();
         this.valorTotalEntrada = entradaProduto.calcularValorTotalEntrada(); // Usando o método de domínio
     }
+
+    // Usado pelas consultas de projeção (SELECT new ...); o valor total já vem calculado pelo banco
+    public EntradaProdutoResponse(Long id, Long produtoId, String produtoNome, Long fornecedorId, String fornecedorNome,
+                                  Integer quantidade, LocalDate dataEntrada, BigDecimal precoCusto, String observacao,
+                                  BigDecimal valorTotalEntrada) {
+        this.id = id;
+        this.produtoId = produtoId;
+        this.produtoNome = produtoNome;
+        this.fornecedorId = fornecedorId;
+        this.fornecedorNome = fornecedorNome;
+        this.quantidade = quantidade;
+        this.dataEntrada = dataEntrada;
+        this.precoCusto = precoCusto;
+        this.observacao = observacao;
+        this.valorTotalEntrada = valorTotalEntrada;
+    }
 }
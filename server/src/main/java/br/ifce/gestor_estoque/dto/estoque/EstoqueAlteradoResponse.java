@@ -0,0 +1,15 @@
+package br.ifce.gestor_estoque.dto.estoque;
+
+import br.ifce.gestor_estoque.domain.estoque.TipoMovimentacao;
+
+import java.time.Instant;
+
+// Evento enviado pelo stream de estoque (GET /api/estoque/stream)
+public record EstoqueAlteradoResponse(
+        Long produtoId,
+        int quantidadeAtual,
+        int delta,
+        TipoMovimentacao tipo,
+        Instant ocorridoEm
+) {
+}
@@ -0,0 +1,17 @@
+package br.ifce.gestor_estoque.dto.estoque;
+
+import br.ifce.gestor_estoque.repositores.EstoqueSnapshotRepository;
+
+import java.time.LocalDate;
+
+// Quantidade em estoque de um produto ao final da data informada
+public record EstoqueNaDataResponse(
+        Long produtoId,
+        String produtoNome,
+        LocalDate data,
+        Integer quantidade
+) {
+    public static EstoqueNaDataResponse de(EstoqueSnapshotRepository.EstoqueNaData linha, LocalDate data) {
+        return new EstoqueNaDataResponse(linha.getProdutoId(), linha.getProdutoNome(), data, linha.getQuantidade());
+    }
+}
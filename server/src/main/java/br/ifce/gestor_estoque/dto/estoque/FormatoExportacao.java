@@ -0,0 +1,51 @@
+package br.ifce.gestor_estoque.dto.estoque;
+
+import br.ifce.gestor_estoque.exceptions.BusinessException;
+
+import java.util.Arrays;
+
+// Formatos da exportação de movimentações; NDJSON (um objeto JSON por linha) sai compactado com gzip
+public enum FormatoExportacao {
+    CSV("csv", "text/csv;charset=UTF-8", ".csv", false),
+    NDJSON("ndjson", "application/gzip", ".ndjson.gz", true);
+
+    private final String parametro;
+    private final String contentType;
+    private final String extensao;
+    private final boolean gzip;
+
+    FormatoExportacao(String parametro, String contentType, String extensao, boolean gzip) {
+        this.parametro = parametro;
+        this.contentType = contentType;
+        this.extensao = extensao;
+        this.gzip = gzip;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtensao() {
+        return extensao;
+    }
+
+    public boolean isGzip() {
+        return gzip;
+    }
+
+    /**
+     * Converte o parâmetro de requisição no formato correspondente.
+     * @param parametro o valor recebido (ex.: "ndjson"); nulo resulta em {@link #CSV}.
+     * @return o formato correspondente.
+     * @throws BusinessException se o valor não corresponder a nenhum formato.
+     */
+    public static FormatoExportacao fromParametro(String parametro) {
+        if (parametro == null || parametro.isBlank()) {
+            return CSV;
+        }
+        return Arrays.stream(values())
+                .filter(f -> f.parametro.equalsIgnoreCase(parametro))
+                .findFirst()
+                .orElseThrow(() -> new BusinessException("Formato inválido: " + parametro + ". Use csv ou ndjson."));
+    }
+}
@@ -0,0 +1,20 @@
+package br.ifce.gestor_estoque.dto.estoque;
+
+/**
+ * Resumo de uma importação de produtos por CSV.
+ * @param registros registros de dados lidos (sem o cabeçalho).
+ * @param aceitos registros válidos, carregados no banco.
+ * @param rejeitados registros inválidos, listados com o motivo no arquivo de rejeitados.
+ * @param inseridos produtos novos.
+ * @param atualizados produtos existentes (mesmo nome) cujos dados cadastrais mudaram.
+ * @param arquivoRejeitados caminho para baixar o CSV de rejeitados, ou null se não houve rejeição.
+ */
+public record ImportacaoProdutosResponse(
+        long registros,
+        long aceitos,
+        long rejeitados,
+        int inseridos,
+        int atualizados,
+        String arquivoRejeitados
+) {
+}
@@ -0,0 +1,55 @@
+package br.ifce.gestor_estoque.dto.estoque;
+
+import br.ifce.gestor_estoque.exceptions.BusinessException;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+// Janelas do ranking de mais vendidos: a duração é dividida em baldes de largura fixa, que expiram inteiros
+public enum JanelaVendas {
+    ULTIMA_HORA("1h", Duration.ofMinutes(1), 60),
+    ULTIMO_DIA("24h", Duration.ofMinutes(15), 96),
+    ULTIMOS_7_DIAS("7d", Duration.ofHours(1), 168);
+
+    private final String parametro;
+    private final Duration larguraBalde;
+    private final int quantidadeBaldes;
+
+    JanelaVendas(String parametro, Duration larguraBalde, int quantidadeBaldes) {
+        this.parametro = parametro;
+        this.larguraBalde = larguraBalde;
+        this.quantidadeBaldes = quantidadeBaldes;
+    }
+
+    public String getParametro() {
+        return parametro;
+    }
+
+    public Duration getLarguraBalde() {
+        return larguraBalde;
+    }
+
+    public int getQuantidadeBaldes() {
+        return quantidadeBaldes;
+    }
+
+    public Duration getDuracao() {
+        return larguraBalde.multipliedBy(quantidadeBaldes);
+    }
+
+    /**
+     * Converte o parâmetro de requisição na janela correspondente.
+     * @param parametro o valor recebido (ex.: "7d"); nulo resulta em {@link #ULTIMO_DIA}.
+     * @return a janela correspondente.
+     * @throws BusinessException se o valor não corresponder a nenhuma janela.
+     */
+    public static JanelaVendas fromParametro(String parametro) {
+        if (parametro == null || parametro.isBlank()) {
+            return ULTIMO_DIA;
+        }
+        return Arrays.stream(values())
+                .filter(j -> j.parametro.equalsIgnoreCase(parametro))
+                .findFirst()
+                .orElseThrow(() -> new BusinessException("Janela inválida: " + parametro + ". Use 1h, 24h ou 7d."));
+    }
+}
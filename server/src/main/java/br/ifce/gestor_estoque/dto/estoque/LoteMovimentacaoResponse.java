@@ -0,0 +1,27 @@
+package br.ifce.gestor_estoque.dto.estoque;
+
+import java.util.List;
+
+// Resultado de uma ingestão em lote de movimentações, com o desfecho de cada item na ordem do request
+public record LoteMovimentacaoResponse(
+        int total,
+        int sucessos,
+        int falhas,
+        List<ItemResultado> itens
+) {
+    public record ItemResultado(int indice, boolean sucesso, Long id, String erro) {
+
+        public static ItemResultado sucesso(int indice, Long id) {
+            return new ItemResultado(indice, true, id, null);
+        }
+
+        public static ItemResultado falha(int indice, String erro) {
+            return new ItemResultado(indice, false, null, erro);
+        }
+    }
+
+    public static LoteMovimentacaoResponse de(List<ItemResultado> itens) {
+        int sucessos = (int) itens.stream().filter(ItemResultado::sucesso).count();
+        return new LoteMovimentacaoResponse(itens.size(), sucessos, itens.size() - sucessos, itens);
+    }
+}
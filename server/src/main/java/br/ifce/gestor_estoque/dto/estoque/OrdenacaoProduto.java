@@ -0,0 +1,39 @@
+package br.ifce.gestor_estoque.dto.estoque;
+
+import br.ifce.gestor_estoque.exceptions.BusinessException;
+
+import java.util.Arrays;
+
+// Ordenações suportadas pela listagem paginada de produtos
+public enum OrdenacaoProduto {
+    ID("id"),
+    NOME("nome"),
+    ESTOQUE("estoque"),
+    ESTOQUE_DESC("estoque_desc");
+
+    private final String parametro;
+
+    OrdenacaoProduto(String parametro) {
+        this.parametro = parametro;
+    }
+
+    public String getParametro() {
+        return parametro;
+    }
+
+    /**
+     * Converte o parâmetro de requisição na ordenação correspondente.
+     * @param parametro o valor recebido (ex.: "nome"); nulo resulta em {@link #ID}.
+     * @return a ordenação correspondente.
+     * @throws BusinessException se o valor não corresponder a nenhuma ordenação.
+     */
+    public static OrdenacaoProduto fromParametro(String parametro) {
+        if (parametro == null || parametro.isBlank()) {
+            return ID;
+        }
+        return Arrays.stream(values())
+                .filter(o -> o.parametro.equalsIgnoreCase(parametro))
+                .findFirst()
+                .orElseThrow(() -> new BusinessException("Ordenação inválida: " + parametro + ". Use id, nome, estoque ou estoque_desc."));
+    }
+}
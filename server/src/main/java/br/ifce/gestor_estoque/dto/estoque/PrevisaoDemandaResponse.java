@@ -0,0 +1,19 @@
+package br.ifce.gestor_estoque.dto.estoque;
+
+import java.time.Instant;
+
+// Previsão pré-calculada de um produto; quantidadeSugerida é zero enquanto o estoque estiver acima do ponto de reposição
+public record PrevisaoDemandaResponse(
+        Long produtoId,
+        String produtoNome,
+        Integer quantidadeEstoque,
+        Double demandaDiaria,
+        Double desvioDiario,
+        Double prazoEntregaDias,
+        Long fornecedorId,
+        String fornecedorNome,
+        Integer pontoReposicao,
+        Integer quantidadeSugerida,
+        Instant calculadoEm
+) {
+}
@@ -0,0 +1,16 @@
+package br.ifce.gestor_estoque.dto.estoque;
+
+import br.ifce.gestor_estoque.repositores.ProdutoRepository;
+import java.math.BigDecimal;
+
+// DTO para resultados da busca textual de produtos, com a relevância usada na ordenação
+public class ProdutoBuscaResponse extends ProdutoResponse {
+    public BigDecimal relevancia;
+
+    public ProdutoBuscaResponse(ProdutoRepository.ResultadoBusca resultado) {
+        super(resultado.getId(), resultado.getNome(), resultado.getDescricao(), resultado.getPreco(),
+                resultado.getQuantidadeEstoque(), resultado.getUnidadeMedida(), resultado.getEstoqueMinimo(),
+                resultado.getPontoReposicao(), resultado.getVersao());
+        this.relevancia = resultado.getRelevancia();
+    }
+}
@@ -26,4 +26,14 @@ public class ProdutoRequest {
     @NotBlank(message = "A unidade de medida não pode estar em branco")
     @Size(max = 50, message = "A unidade de medida deve ter no máximo 50 caracteres")
     public String unidadeMedida;
+
+    // Opcionais: sem estoque mínimo vale o padrão da aplicação; sem ponto de reposição não há alerta de reposição
+    @PositiveOrZero(message = "O estoque mínimo deve ser zero ou positivo")
+    public Integer estoqueMinimo;
+
+    @PositiveOrZero(message = "O ponto de reposição deve ser zero ou positivo")
+    public Integer pontoReposicao;
+
+    // Versão lida pelo cliente; opcional. Quando informada, a atualização falha se o produto mudou desde então
+    public Long versao;
 }
@@ -11,6 +11,9 @@ public class ProdutoResponse {
     public BigDecimal preco;
     public Integer quantidadeEstoque;
     public String unidadeMedida;
+    public Integer estoqueMinimo;
+    public Integer pontoReposicao;
+    public Long versao;
 
     public ProdutoResponse(Produto produto) {
         this.id = produto.getId();
@@ -19,5 +22,23 @@ public class ProdutoResponse {
         this.preco = produto.getPreco();
         this.quantidadeEstoque = produto.getQuantidadeEstoque();
         this.unidadeMedida = produto.getUnidadeMedida();
+        this.estoqueMinimo = produto.getEstoqueMinimo();
+        this.pontoReposicao = produto.getPontoReposicao();
+        this.versao = produto.getVersao();
+    }
+
+    // Usado pelas consultas de projeção (SELECT new ...), sem carregar a entidade
+    public ProdutoResponse(Long id, String nome, String descricao, BigDecimal preco,
+                           Integer quantidadeEstoque, String unidadeMedida, Integer estoqueMinimo,
+                           Integer pontoReposicao, Long versao) {
+        this.id = id;
+        this.nome = nome;
+        this.descricao = descricao;
+        this.preco = preco;
+        this.quantidadeEstoque = quantidadeEstoque;
+        this.unidadeMedida = unidadeMedida;
+        this.estoqueMinimo = estoqueMinimo;
+        this.pontoReposicao = pontoReposicao;
+        this.versao = versao;
     }
 }
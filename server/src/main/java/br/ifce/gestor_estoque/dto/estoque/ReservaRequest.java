@@ -0,0 +1,14 @@
+package br.ifce.gestor_estoque.dto.estoque;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+public class ReservaRequest {
+
+    @NotNull(message = "O ID do produto não pode ser nulo")
+    public Long produtoId;
+
+    @NotNull(message = "A quantidade não pode ser nula")
+    @Positive(message = "A quantidade deve ser positiva")
+    public Integer quantidade;
+}
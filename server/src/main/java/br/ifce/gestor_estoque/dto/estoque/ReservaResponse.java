@@ -0,0 +1,12 @@
+package br.ifce.gestor_estoque.dto.estoque;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record ReservaResponse(
+        UUID id,
+        Long produtoId,
+        int quantidade,
+        Instant expiraEm
+) {
+}
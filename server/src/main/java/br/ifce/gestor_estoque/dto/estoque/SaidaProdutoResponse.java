@@ -23,4 +23,17 @@ public class SaidaProdutoResponse {
         this.cliente = saidaProduto.getCliente();
         this.observacao = saidaProduto.getObservacao();
     }
+
+    // Usado pelas consultas de projeção (SELECT new ...), sem carregar a entidade
+    public SaidaProdutoResponse(Long id, Long produtoId, String produtoNome, Integer quantidade, LocalDate dataSaida,
+                                String motivo, String cliente, String observacao) {
+        this.id = id;
+        this.produtoId = produtoId;
+        this.produtoNome = produtoNome;
+        this.quantidade = quantidade;
+        this.dataSaida = dataSaida;
+        this.motivo = motivo;
+        this.cliente = cliente;
+        this.observacao = observacao;
+    }
 }
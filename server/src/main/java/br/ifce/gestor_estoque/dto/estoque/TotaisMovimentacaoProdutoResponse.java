@@ -0,0 +1,21 @@
+package br.ifce.gestor_estoque.dto.estoque;
+
+import java.math.BigDecimal;
+
+// Totais de movimentação de um produto em um intervalo de datas
+public record TotaisMovimentacaoProdutoResponse(
+        Long produtoId,
+        String produtoNome,
+        Long quantidadeEntrada,
+        Long quantidadeSaida,
+        BigDecimal valorEntrada,
+        Long quantidadeMovimentacoes
+) {
+    public TotaisMovimentacaoProdutoResponse somar(TotaisMovimentacaoProdutoResponse outro) {
+        return new TotaisMovimentacaoProdutoResponse(produtoId, produtoNome,
+                quantidadeEntrada + outro.quantidadeEntrada,
+                quantidadeSaida + outro.quantidadeSaida,
+                valorEntrada.add(outro.valorEntrada),
+                quantidadeMovimentacoes + outro.quantidadeMovimentacoes);
+    }
+}
@@ -0,0 +1,21 @@
+package br.ifce.gestor_estoque.dto.estoque;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Totais de movimentação em um período (dia ou mês, identificado pelo seu primeiro dia)
+public record TotaisMovimentacaoResponse(
+        LocalDate periodo,
+        Long quantidadeEntrada,
+        Long quantidadeSaida,
+        BigDecimal valorEntrada,
+        Long quantidadeMovimentacoes
+) {
+    public TotaisMovimentacaoResponse somar(TotaisMovimentacaoResponse outro) {
+        return new TotaisMovimentacaoResponse(periodo,
+                quantidadeEntrada + outro.quantidadeEntrada,
+                quantidadeSaida + outro.quantidadeSaida,
+                valorEntrada.add(outro.valorEntrada),
+                quantidadeMovimentacoes + outro.quantidadeMovimentacoes);
+    }
+}
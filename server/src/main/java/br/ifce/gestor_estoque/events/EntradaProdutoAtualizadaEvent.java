@@ -4,12 +4,18 @@ import br.ifce.gestor_estoque.domain.estoque.EntradaProduto;
 
 public class EntradaProdutoAtualizadaEvent {
     private final EntradaProduto entradaProduto; // The state AFTER update
+    private final MovimentacaoAnterior anterior; // The state BEFORE update
 
-    public EntradaProdutoAtualizadaEvent(EntradaProduto entradaProduto) {
+    public EntradaProdutoAtualizadaEvent(EntradaProduto entradaProduto, MovimentacaoAnterior anterior) {
         this.entradaProduto = entradaProduto;
+        this.anterior = anterior;
     }
 
     public EntradaProduto getEntradaProduto() {
         return entradaProduto;
     }
+
+    public MovimentacaoAnterior getAnterior() {
+        return anterior;
+    }
 }
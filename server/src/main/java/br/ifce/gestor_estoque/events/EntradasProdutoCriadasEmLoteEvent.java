@@ -0,0 +1,18 @@
+package br.ifce.gestor_estoque.events;
+
+import br.ifce.gestor_estoque.domain.estoque.EntradaProduto;
+
+import java.util.List;
+
+// Publicado pela ingestão em lote; o estoque já foi ajustado de uma vez por produto
+public class EntradasProdutoCriadasEmLoteEvent {
+    private final List<EntradaProduto> entradas;
+
+    public EntradasProdutoCriadasEmLoteEvent(List<EntradaProduto> entradas) {
+        this.entradas = entradas;
+    }
+
+    public List<EntradaProduto> getEntradas() {
+        return entradas;
+    }
+}
@@ -0,0 +1,49 @@
+package br.ifce.gestor_estoque.events;
+
+import br.ifce.gestor_estoque.domain.estoque.TipoMovimentacao;
+
+import java.math.BigDecimal;
+
+/**
+ * Publicado sempre que uma movimentação altera o estoque de um produto.
+ * As quantidades são exatas: são lidas na mesma transação da atualização, com a linha ainda bloqueada por ela.
+ */
+public class EstoqueAlteradoEvent {
+    private final Long produtoId;
+    private final int quantidadeAnterior;
+    private final int quantidadeAtual;
+    private final BigDecimal preco;
+    private final TipoMovimentacao tipo;
+
+    public EstoqueAlteradoEvent(Long produtoId, int quantidadeAnterior, int quantidadeAtual, BigDecimal preco, TipoMovimentacao tipo) {
+        this.produtoId = produtoId;
+        this.quantidadeAnterior = quantidadeAnterior;
+        this.quantidadeAtual = quantidadeAtual;
+        this.preco = preco;
+        this.tipo = tipo;
+    }
+
+    public Long getProdutoId() {
+        return produtoId;
+    }
+
+    public int getQuantidadeAnterior() {
+        return quantidadeAnterior;
+    }
+
+    public int getQuantidadeAtual() {
+        return quantidadeAtual;
+    }
+
+    public BigDecimal getPreco() {
+        return preco;
+    }
+
+    public TipoMovimentacao getTipo() {
+        return tipo;
+    }
+
+    public int getDelta() {
+        return quantidadeAtual - quantidadeAnterior;
+    }
+}
@@ -0,0 +1,5 @@
+package br.ifce.gestor_estoque.events;
+
+// Publicado quando uma variação de estoque é gravada para aplicação assíncrona; só é enfileirada após o commit
+public record EstoqueDeltaRegistradoEvent(Long deltaId) {
+}
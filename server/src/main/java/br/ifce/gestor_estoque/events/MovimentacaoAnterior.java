@@ -0,0 +1,24 @@
+package br.ifce.gestor_estoque.events;
+
+import br.ifce.gestor_estoque.domain.estoque.EntradaProduto;
+import br.ifce.gestor_estoque.domain.estoque.MovimentacaoEstoque;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Valores de uma movimentação antes de ser editada, para que os listeners possam reverter seus efeitos
+public record MovimentacaoAnterior(Long produtoId, Integer quantidade, LocalDate dataMovimentacao, BigDecimal valorTotal) {
+
+    public static MovimentacaoAnterior de(MovimentacaoEstoque movimentacao) {
+        // Só entradas têm valor (custo); para saídas fica zero
+        BigDecimal valorTotal = movimentacao instanceof EntradaProduto entrada
+                ? entrada.calcularValorTotalEntrada()
+                : BigDecimal.ZERO;
+        return new MovimentacaoAnterior(
+                movimentacao.getProduto().getId(),
+                movimentacao.getQuantidade(),
+                movimentacao.getDataMovimentacao(),
+                valorTotal
+        );
+    }
+}
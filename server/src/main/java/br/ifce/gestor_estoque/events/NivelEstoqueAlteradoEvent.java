@@ -0,0 +1,34 @@
+package br.ifce.gestor_estoque.events;
+
+import br.ifce.gestor_estoque.domain.estoque.NivelEstoque;
+
+// Publicado pelo motor de alertas quando um produto cruza um limite (mínimo ou ponto de reposição), já após o commit
+public class NivelEstoqueAlteradoEvent {
+    private final Long produtoId;
+    private final NivelEstoque nivelAnterior;
+    private final NivelEstoque nivelAtual;
+    private final int quantidadeEstoque;
+
+    public NivelEstoqueAlteradoEvent(Long produtoId, NivelEstoque nivelAnterior, NivelEstoque nivelAtual, int quantidadeEstoque) {
+        this.produtoId = produtoId;
+        this.nivelAnterior = nivelAnterior;
+        this.nivelAtual = nivelAtual;
+        this.quantidadeEstoque = quantidadeEstoque;
+    }
+
+    public Long getProdutoId() {
+        return produtoId;
+    }
+
+    public NivelEstoque getNivelAnterior() {
+        return nivelAnterior;
+    }
+
+    public NivelEstoque getNivelAtual() {
+        return nivelAtual;
+    }
+
+    public int getQuantidadeEstoque() {
+        return quantidadeEstoque;
+    }
+}
@@ -0,0 +1,29 @@
+package br.ifce.gestor_estoque.events;
+
+import br.ifce.gestor_estoque.domain.estoque.Produto;
+
+import java.math.BigDecimal;
+
+public class ProdutoAtualizadoEvent {
+    private final Produto produto; // The state AFTER update
+    private final BigDecimal precoAnterior;
+    private final int quantidadeEstoqueAnterior;
+
+    public ProdutoAtualizadoEvent(Produto produto, BigDecimal precoAnterior, int quantidadeEstoqueAnterior) {
+        this.produto = produto;
+        this.precoAnterior = precoAnterior;
+        this.quantidadeEstoqueAnterior = quantidadeEstoqueAnterior;
+    }
+
+    public Produto getProduto() {
+        return produto;
+    }
+
+    public BigDecimal getPrecoAnterior() {
+        return precoAnterior;
+    }
+
+    public int getQuantidadeEstoqueAnterior() {
+        return quantidadeEstoqueAnterior;
+    }
+}
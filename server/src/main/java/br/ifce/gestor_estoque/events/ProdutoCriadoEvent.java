@@ -0,0 +1,15 @@
+package br.ifce.gestor_estoque.events;
+
+import br.ifce.gestor_estoque.domain.estoque.Produto;
+
+public class ProdutoCriadoEvent {
+    private final Produto produto;
+
+    public ProdutoCriadoEvent(Produto produto) {
+        this.produto = produto;
+    }
+
+    public Produto getProduto() {
+        return produto;
+    }
+}
@@ -0,0 +1,15 @@
+package br.ifce.gestor_estoque.events;
+
+import br.ifce.gestor_estoque.domain.estoque.Produto;
+
+public class ProdutoExcluidoEvent {
+    private final Produto produto; // The state BEFORE deletion
+
+    public ProdutoExcluidoEvent(Produto produto) {
+        this.produto = produto;
+    }
+
+    public Produto getProduto() {
+        return produto;
+    }
+}
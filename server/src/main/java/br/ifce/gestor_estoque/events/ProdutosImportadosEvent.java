@@ -0,0 +1,20 @@
+package br.ifce.gestor_estoque.events;
+
+// Publicado pela importação de produtos por CSV; os produtos foram gravados por SQL, sem eventos individuais
+public class ProdutosImportadosEvent {
+    private final int inseridos;
+    private final int atualizados;
+
+    public ProdutosImportadosEvent(int inseridos, int atualizados) {
+        this.inseridos = inseridos;
+        this.atualizados = atualizados;
+    }
+
+    public int getInseridos() {
+        return inseridos;
+    }
+
+    public int getAtualizados() {
+        return atualizados;
+    }
+}
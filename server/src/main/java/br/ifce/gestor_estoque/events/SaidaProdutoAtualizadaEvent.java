@@ -4,12 +4,18 @@ import br.ifce.gestor_estoque.domain.estoque.SaidaProduto;
 
 public class SaidaProdutoAtualizadaEvent {
     private final SaidaProduto saidaProduto; // The state AFTER update
+    private final MovimentacaoAnterior anterior; // The state BEFORE update
 
-    public SaidaProdutoAtualizadaEvent(SaidaProduto saidaProduto) {
+    public SaidaProdutoAtualizadaEvent(SaidaProduto saidaProduto, MovimentacaoAnterior anterior) {
         this.saidaProduto = saidaProduto;
+        this.anterior = anterior;
     }
 
     public SaidaProduto getSaidaProduto() {
         return saidaProduto;
     }
+
+    public MovimentacaoAnterior getAnterior() {
+        return anterior;
+    }
 }
@@ -0,0 +1,18 @@
+package br.ifce.gestor_estoque.events;
+
+import br.ifce.gestor_estoque.domain.estoque.SaidaProduto;
+
+import java.util.List;
+
+// Publicado pela ingestão em lote; o estoque já foi ajustado de uma vez por produto
+public class SaidasProdutoCriadasEmLoteEvent {
+    private final List<SaidaProduto> saidas;
+
+    public SaidasProdutoCriadasEmLoteEvent(List<SaidaProduto> saidas) {
+        this.saidas = saidas;
+    }
+
+    public List<SaidaProduto> getSaidas() {
+        return saidas;
+    }
+}
@@ -0,0 +1,8 @@
+package br.ifce.gestor_estoque.exceptions;
+
+// Recusa de uma movimentação por falta de estoque; separada das demais regras para ser contabilizada nas métricas
+public class EstoqueInsuficienteException extends BusinessException {
+    public EstoqueInsuficienteException(String message) {
+        super(message);
+    }
+}
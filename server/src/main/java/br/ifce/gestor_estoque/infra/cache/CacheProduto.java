@@ -0,0 +1,92 @@
+package br.ifce.gestor_estoque.infra.cache;
+
+import br.ifce.gestor_estoque.domain.estoque.Produto;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.spi.TimestampsCache;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+
+/**
+ * Mantém o cache de segundo nível de {@link Produto} correto diante dos ajustes de estoque feitos por SQL,
+ * fora do ciclo de vida da entidade (atualização condicional de {@code ProdutoRepository.ajustarEstoque}
+ * e atualização em lote da projeção assíncrona). Se o Hibernate visse essas instruções como alterações de
+ * "produto", esvaziaria a região inteira a cada movimentação; em vez disso, cada produto alterado recebe o
+ * mesmo tratamento de uma atualização de entidade: a entrada fica bloqueada (soft lock) até o fim da
+ * transação, para que uma leitura concorrente não recoloque o estoque anterior, e as consultas em cache
+ * sobre a tabela são invalidadas no commit.
+ */
+@Component
+public class CacheProduto {
+
+    private static final String[] ESPACOS = {"produto"};
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Invalida os produtos cujo estoque será alterado por SQL na transação atual. Deve ser chamado antes da alteração.
+     * @param produtoIds os IDs dos produtos alterados.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void invalidarEstoque(Collection<Long> produtoIds) {
+        SessionImplementor sessao = entityManager.unwrap(SessionImplementor.class);
+        EntityPersister persister = sessao.getFactory().getMappingMetamodel().getEntityDescriptor(Produto.class);
+        if (persister.canWriteToCache()) {
+            EntityDataAccess acesso = persister.getCacheAccessStrategy();
+            for (Long produtoId : produtoIds) {
+                Object chave = acesso.generateCacheKey(produtoId, persister, sessao.getFactory(), sessao.getTenantIdentifier());
+                SoftLock lock = acesso.lockItem(sessao, chave, null);
+                sessao.getActionQueue().registerProcess((sucesso, s) -> acesso.unlockItem(s, chave, lock));
+            }
+        }
+        invalidarConsultas(sessao);
+    }
+
+    /**
+     * Invalida todos os produtos em cache, para alterações em massa por SQL na transação atual (importação de
+     * catálogo). A região é esvaziada agora e de novo no fim da transação, descartando o que uma leitura
+     * concorrente tenha recolocado nesse intervalo. Deve ser chamado antes da alteração.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void invalidarTodos() {
+        SessionImplementor sessao = entityManager.unwrap(SessionImplementor.class);
+        Cache cache = sessao.getFactory().getCache();
+        cache.evictEntityData(Produto.class);
+        sessao.getActionQueue().registerProcess((sucesso, s) -> cache.evictEntityData(Produto.class));
+        invalidarConsultas(sessao);
+    }
+
+    /**
+     * Remove um produto e as consultas sobre produtos do cache, sem bloqueio. Apenas para alterações
+     * fora de transação e sem concorrência, como a carga inicial de dados.
+     * @param produtoId o ID do produto alterado.
+     */
+    public void remover(Long produtoId) {
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        cache.evictEntityData(Produto.class, produtoId);
+        cache.evictQueryRegion(CacheSegundoNivelConfig.REGIAO_CONSULTAS_PRODUTO);
+    }
+
+    private void invalidarConsultas(SessionImplementor sessao) {
+        if (sessao.getFactory().getSessionFactoryOptions().isQueryCacheEnabled()) {
+            TimestampsCache timestamps = sessao.getFactory().getCache().getTimestampsCache();
+            timestamps.preInvalidate(ESPACOS, sessao);
+            sessao.getActionQueue().registerProcess((sucesso, s) -> timestamps.invalidate(ESPACOS, s));
+        }
+    }
+}
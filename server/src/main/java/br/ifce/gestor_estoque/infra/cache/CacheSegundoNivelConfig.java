@@ -0,0 +1,116 @@
+package br.ifce.gestor_estoque.infra.cache;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Regiões do cache de segundo nível do Hibernate (Caffeine via JCache), com tamanho e expiração configuráveis.
+ * Cada contexto Spring recebe seu próprio CacheManager, fechado pelo Hibernate junto com a SessionFactory.
+ */
+@Configuration
+public class CacheSegundoNivelConfig {
+
+    public static final String REGIAO_PRODUTO = "produto";
+    public static final String REGIAO_FORNECEDOR = "fornecedor";
+    // Resultados das consultas sobre produtos marcadas como cacheáveis (ranking do dashboard)
+    public static final String REGIAO_CONSULTAS_PRODUTO = "produto-consultas";
+
+    private static final List<String> REGIOES = List.of(REGIAO_PRODUTO, REGIAO_FORNECEDOR, REGIAO_CONSULTAS_PRODUTO);
+
+    @Value("${cache.segundo-nivel.produto.max-size:10000}")
+    private long tamanhoProduto;
+
+    @Value("${cache.segundo-nivel.produto.ttl-seconds:300}")
+    private long ttlProduto;
+
+    @Value("${cache.segundo-nivel.fornecedor.max-size:1000}")
+    private long tamanhoFornecedor;
+
+    @Value("${cache.segundo-nivel.fornecedor.ttl-seconds:3600}")
+    private long ttlFornecedor;
+
+    @Value("${cache.segundo-nivel.consultas.max-size:100}")
+    private long tamanhoConsultas;
+
+    @Value("${cache.segundo-nivel.consultas.ttl-seconds:60}")
+    private long ttlConsultas;
+
+    @Bean
+    public HibernatePropertiesCustomizer cacheSegundoNivel() {
+        return propriedades -> propriedades.put(ConfigSettings.CACHE_MANAGER, criarCacheManager());
+    }
+
+    /**
+     * Taxa de acerto acumulada de cada região, em {@code hibernate.cache.taxa.acerto{regiao}}. As contagens brutas
+     * também são publicadas pelo hibernate-micrometer ({@code hibernate.second.level.cache.requests{region,result}});
+     * para a taxa recente: {@code rate(hibernate_second_level_cache_requests_total{result="hit"}[5m])
+     * / sum without (result) (rate(hibernate_second_level_cache_requests_total[5m]))}.
+     */
+    @Bean
+    public MeterBinder taxaAcertoCacheSegundoNivel(EntityManagerFactory entityManagerFactory) {
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        return meterRegistry -> REGIOES.forEach(regiao ->
+                Gauge.builder("hibernate.cache.taxa.acerto", estatisticas, e -> taxaAcerto(e, regiao))
+                        .description("Fração das leituras do cache de segundo nível atendidas pelo cache")
+                        .tag("regiao", regiao)
+                        .register(meterRegistry));
+    }
+
+    private CacheManager criarCacheManager() {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("gestor-estoque-" + UUID.randomUUID()), getClass().getClassLoader());
+        cacheManager.createCache(REGIAO_PRODUTO, configuracao(tamanhoProduto, ttlProduto));
+        cacheManager.createCache(REGIAO_FORNECEDOR, configuracao(tamanhoFornecedor, ttlFornecedor));
+        cacheManager.createCache(REGIAO_CONSULTAS_PRODUTO, configuracao(tamanhoConsultas, ttlConsultas));
+        cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, configuracao(tamanhoConsultas, ttlConsultas));
+        // Marca de tempo da última alteração de cada tabela: não pode expirar antes dos resultados que valida
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, configuracao(0, 0));
+        return cacheManager;
+    }
+
+    // Tamanho ou TTL zero significam sem limite
+    private static CaffeineConfiguration<Object, Object> configuracao(long tamanhoMaximo, long ttlSegundos) {
+        CaffeineConfiguration<Object, Object> configuracao = new CaffeineConfiguration<>();
+        // O Hibernate já guarda cópias desmontadas das entidades; copiar de novo a cada leitura seria desperdício
+        configuracao.setStoreByValue(false);
+        if (tamanhoMaximo > 0) {
+            configuracao.setMaximumSize(OptionalLong.of(tamanhoMaximo));
+        }
+        if (ttlSegundos > 0) {
+            configuracao.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(ttlSegundos)));
+        }
+        return configuracao;
+    }
+
+    private static double taxaAcerto(Statistics estatisticas, String regiao) {
+        CacheRegionStatistics regiaoEstatisticas = estatisticas.getCacheRegionStatistics(regiao);
+        if (regiaoEstatisticas == null) {
+            return 0;
+        }
+        long acertos = regiaoEstatisticas.getHitCount();
+        long total = acertos + regiaoEstatisticas.getMissCount();
+        return total == 0 ? 0 : (double) acertos / total;
+    }
+}
@@ -0,0 +1,215 @@
+package br.ifce.gestor_estoque.infra.cache;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versões das coleções de produtos e de fornecedores, usadas como ETag forte nas leituras: enquanto a versão
+ * não muda, um GET com If-None-Match é respondido com 304 sem consultar o banco.
+ * A versão só avança depois do commit e o controller a lê antes de consultar os dados, então uma resposta nunca
+ * leva a versão nova com dados antigos (no máximo a versão antiga com dados novos, e o cliente baixa de novo).
+ * O instante de inicialização entra na ETag para que versões de execuções diferentes do processo não coincidam.
+ * Com mais de uma instância, cada alteração também envia um NOTIFY no canal {@value #CANAL} dentro da sua
+ * transação (o PostgreSQL só o entrega no commit), e todas as instâncias, inclusive a que alterou, avançam a
+ * versão ao recebê-lo por uma conexão dedicada. Se essa conexão cair, as duas versões avançam ao reconectar,
+ * já que notificações do intervalo podem ter se perdido.
+ */
+@Component
+public class VersaoColecoes {
+
+    private static final Logger logger = LoggerFactory.getLogger(VersaoColecoes.class);
+
+    static final String CANAL = "versao_colecoes";
+    private static final String PRODUTOS = "produtos";
+    private static final String FORNECEDORES = "fornecedores";
+
+    private static final int ESPERA_NOTIFICACOES_MS = 1000;
+    private static final long ESPERA_RECONEXAO_MS = 5000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+
+    private final String inicializacao = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong produtos = new AtomicLong();
+    private final AtomicLong fornecedores = new AtomicLong();
+
+    private volatile boolean ativo = true;
+    private Thread ouvinte;
+
+    public VersaoColecoes(JdbcTemplate jdbcTemplate, DataSourceProperties dataSourceProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+    }
+
+    @PostConstruct
+    void iniciar() {
+        // O LISTEN é feito antes de a aplicação atender, para não perder alterações de outras instâncias na partida
+        Connection inicial = null;
+        try {
+            inicial = conectar();
+        } catch (SQLException e) {
+            logger.warn("Não foi possível ouvir as notificações de versão; nova tentativa em segundo plano", e);
+        }
+        Connection conexao = inicial;
+        ouvinte = new Thread(() -> ouvir(conexao), "versao-colecoes");
+        ouvinte.setDaemon(true);
+        ouvinte.start();
+    }
+
+    @PreDestroy
+    void encerrar() throws InterruptedException {
+        ativo = false;
+        ouvinte.interrupt();
+        ouvinte.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    public String etagProdutos() {
+        return etag(PRODUTOS, produtos, null);
+    }
+
+    public String etagProduto(Long id) {
+        return etag(PRODUTOS, produtos, id);
+    }
+
+    public String etagFornecedores() {
+        return etag(FORNECEDORES, fornecedores, null);
+    }
+
+    public String etagFornecedor(Long id) {
+        return etag(FORNECEDORES, fornecedores, id);
+    }
+
+    /**
+     * Registra uma alteração de produto, inclusive de estoque. Dentro de uma transação, a versão avança só após o commit.
+     */
+    public void registrarAlteracaoProdutos() {
+        registrarAlteracao(PRODUTOS, produtos);
+    }
+
+    /**
+     * Registra uma alteração de fornecedor. Dentro de uma transação, a versão avança só após o commit.
+     */
+    public void registrarAlteracaoFornecedores() {
+        registrarAlteracao(FORNECEDORES, fornecedores);
+    }
+
+    private void registrarAlteracao(String colecao, AtomicLong versao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            versao.incrementAndGet();
+            notificar(colecao);
+            return;
+        }
+        // Uma notificação por coleção e transação, mesmo com vários eventos (ex.: lotes de movimentações)
+        String chave = CANAL + "." + colecao;
+        if (TransactionSynchronizationManager.hasResource(chave)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(chave, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                // Sem esperar a própria notificação, para que a instância enxergue a alteração que acabou de fazer
+                versao.incrementAndGet();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(chave);
+            }
+        });
+        notificar(colecao);
+    }
+
+    private void notificar(String colecao) {
+        jdbcTemplate.queryForObject("SELECT CAST(pg_notify(?, ?) AS text)", String.class, CANAL, colecao);
+    }
+
+    private void ouvir(Connection inicial) {
+        Connection conexao = inicial;
+        while (ativo) {
+            try {
+                if (conexao == null) {
+                    conexao = conectar();
+                    // Alterações feitas enquanto não havia conexão não foram notificadas
+                    produtos.incrementAndGet();
+                    fornecedores.incrementAndGet();
+                }
+                receber(conexao.unwrap(PGConnection.class));
+            } catch (SQLException e) {
+                fechar(conexao);
+                conexao = null;
+                if (!ativo) {
+                    return;
+                }
+                logger.warn("Conexão de notificações de versão perdida; nova tentativa em {} ms", ESPERA_RECONEXAO_MS, e);
+                try {
+                    Thread.sleep(ESPERA_RECONEXAO_MS);
+                } catch (InterruptedException interrompido) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+        fechar(conexao);
+    }
+
+    private void receber(PGConnection conexao) throws SQLException {
+        while (ativo) {
+            PGNotification[] notificacoes = conexao.getNotifications(ESPERA_NOTIFICACOES_MS);
+            if (notificacoes == null) {
+                continue;
+            }
+            for (PGNotification notificacao : notificacoes) {
+                switch (notificacao.getParameter()) {
+                    case PRODUTOS -> produtos.incrementAndGet();
+                    case FORNECEDORES -> fornecedores.incrementAndGet();
+                    default -> logger.warn("Notificação de versão desconhecida: {}", notificacao.getParameter());
+                }
+            }
+        }
+    }
+
+    // Conexão própria, fora do pool, ocupada enquanto a aplicação estiver no ar
+    private Connection conectar() throws SQLException {
+        Connection conexao = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+        try (Statement statement = conexao.createStatement()) {
+            statement.execute("LISTEN " + CANAL);
+        } catch (SQLException e) {
+            fechar(conexao);
+            throw e;
+        }
+        return conexao;
+    }
+
+    private void fechar(Connection conexao) {
+        if (conexao == null) {
+            return;
+        }
+        try {
+            conexao.close();
+        } catch (SQLException ignorada) {
+            // A conexão já estava perdida
+        }
+    }
+
+    private String etag(String colecao, AtomicLong versao, Long id) {
+        return "\"" + colecao + "-" + inicializacao + "-" + versao.get() + (id != null ? "-" + id : "") + "\"";
+    }
+}
@@ -14,6 +14,7 @@ public class CorsConfig implements WebMvcConfigurer {
                 .allowedOrigins("http://localhost:3000") // Changed from 4200 to 3000
                 .allowedMethods("GET", "POST", "DELETE", "PUT", "OPTIONS") // Added OPTIONS
                 .allowedHeaders("*") // Allow all headers
+                .exposedHeaders("ETag") // Lido pelo cliente para enviar If-None-Match
                 .allowCredentials(true); // Allow credentials
     }
 }
\ No newline at end of file
@@ -0,0 +1,37 @@
+package br.ifce.gestor_estoque.infra.csv;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Escreve registros CSV (RFC 4180) no formato aceito pelo {@code COPY ... (FORMAT csv)} do PostgreSQL:
+ * campos com vírgula, aspas ou quebra de linha vão entre aspas, e um valor nulo é um campo vazio sem aspas
+ * (distinto de uma string vazia, escrita como {@code ""}).
+ */
+public class EscritorCsv {
+
+    private final Writer writer;
+
+    public EscritorCsv(Writer writer) {
+        this.writer = writer;
+    }
+
+    public void escrever(Object... campos) throws IOException {
+        for (int i = 0; i < campos.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (campos[i] != null) {
+                writer.write(escapar(campos[i].toString()));
+            }
+        }
+        writer.write('\n');
+    }
+
+    private static String escapar(String valor) {
+        if (!valor.isEmpty() && valor.chars().noneMatch(c -> c == ',' || c == '"' || c == '\n' || c == '\r')) {
+            return valor;
+        }
+        return '"' + valor.replace("\"", "\"\"") + '"';
+    }
+}
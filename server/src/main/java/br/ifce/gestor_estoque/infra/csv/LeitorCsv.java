@@ -0,0 +1,127 @@
+package br.ifce.gestor_estoque.infra.csv;
+
+import br.ifce.gestor_estoque.exceptions.BusinessException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lê um CSV (RFC 4180, separado por vírgula) um registro por vez, sem carregar o arquivo em memória.
+ * Campos entre aspas podem conter vírgulas, quebras de linha e aspas duplicadas. Um BOM UTF-8 no início é ignorado.
+ * O tamanho de cada registro é limitado, para que um arquivo malformado (uma aspa sem fechamento, por exemplo)
+ * não acumule o restante do arquivo em um único campo.
+ */
+public class LeitorCsv {
+
+    private static final char SEPARADOR = ',';
+    private static final char ASPAS = '"';
+    private static final int FIM = -1;
+    private static final int NENHUM = -2;
+
+    private final Reader reader;
+    private final int tamanhoMaximoRegistro;
+    private long linha;
+    private long linhaInicioRegistro;
+    private int proximo = NENHUM;
+
+    /**
+     * @param reader a origem, preferencialmente bufferizada.
+     * @param tamanhoMaximoRegistro o número máximo de caracteres de um registro.
+     */
+    public LeitorCsv(Reader reader, int tamanhoMaximoRegistro) {
+        this.reader = reader;
+        this.tamanhoMaximoRegistro = tamanhoMaximoRegistro;
+    }
+
+    /**
+     * Lê o próximo registro. Linhas em branco são ignoradas.
+     * @return os campos do registro, ou null no fim do arquivo.
+     * @throws BusinessException se o registro exceder o tamanho máximo ou tiver aspas sem fechamento.
+     */
+    public List<String> proximoRegistro() throws IOException {
+        int c = ler();
+        while (c == '\r' || c == '\n') {
+            c = ler();
+        }
+        if (c == FIM) {
+            return null;
+        }
+        linhaInicioRegistro = linha;
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        int tamanho = 0;
+        boolean entreAspas = false;
+        while (true) {
+            if (++tamanho > tamanhoMaximoRegistro) {
+                throw new BusinessException("O registro da linha " + linhaInicioRegistro + " excede o tamanho máximo de " + tamanhoMaximoRegistro + " caracteres.");
+            }
+            if (entreAspas) {
+                if (c == FIM) {
+                    throw new BusinessException("Aspas sem fechamento no registro da linha " + linhaInicioRegistro + ".");
+                }
+                if (c == ASPAS) {
+                    int seguinte = ler();
+                    if (seguinte == ASPAS) {
+                        campo.append(ASPAS);
+                    } else {
+                        entreAspas = false;
+                        c = seguinte;
+                        continue;
+                    }
+                } else {
+                    campo.append((char) c);
+                }
+            } else if (c == SEPARADOR) {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else if (c == '\n' || c == '\r' || c == FIM) {
+                if (c == '\r') {
+                    int seguinte = ler();
+                    if (seguinte != '\n') {
+                        devolver(seguinte);
+                    }
+                }
+                campos.add(campo.toString());
+                return campos;
+            } else if (c == ASPAS && campo.isEmpty()) {
+                entreAspas = true;
+            } else {
+                campo.append((char) c);
+            }
+            c = ler();
+        }
+    }
+
+    /**
+     * @return a linha do arquivo (a partir de 1) em que começa o último registro lido.
+     */
+    public long getLinha() {
+        return linhaInicioRegistro;
+    }
+
+    private int ler() throws IOException {
+        int c;
+        if (proximo != NENHUM) {
+            c = proximo;
+            proximo = NENHUM;
+            return c;
+        }
+        c = reader.read();
+        if (linha == 0) {
+            linha = 1;
+            if (c == '\uFEFF') {
+                c = reader.read();
+            }
+        }
+        if (c == '\n') {
+            linha++;
+        }
+        return c;
+    }
+
+    private void devolver(int c) {
+        proximo = c;
+    }
+}
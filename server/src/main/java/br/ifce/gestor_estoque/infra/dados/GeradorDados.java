@@ -0,0 +1,375 @@
+package br.ifce.gestor_estoque.infra.dados;
+
+import br.ifce.gestor_estoque.infra.cache.CacheProduto;
+import br.ifce.gestor_estoque.infra.csv.EscritorCsv;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Gera um conjunto de dados sintético em escala de produção: fornecedores, produtos e o histórico de entradas e
+ * saídas, gravados com {@code COPY} em uma única transação.
+ * A popularidade dos produtos (e o tamanho dos fornecedores) segue uma distribuição de Zipf, e o volume diário
+ * cresce ao longo do período, com menos movimento nos fins de semana. As movimentações são simuladas em ordem
+ * cronológica com o saldo de cada produto: uma saída maior que o saldo é precedida de uma entrada de reposição,
+ * então o estoque nunca fica negativo no histórico e o {@code quantidadeEstoque} final é exatamente o saldo do
+ * livro gerado.
+ * A simulação roda duas vezes com a mesma semente, uma gravando as entradas e outra as saídas, porque uma conexão
+ * só mantém um COPY aberto por vez; assim nada do histórico precisa ficar em memória.
+ * Os totais diários e mensais e os snapshots de estoque não são gerados aqui: são montados na inicialização
+ * quando ainda não existem.
+ */
+@Component
+public class GeradorDados {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeradorDados.class);
+
+    public static final String OBSERVACAO = "Dados sintéticos";
+
+    private static final int BUFFER_COPY = 1 << 16;
+    // Mesmo bloco do allocationSize das sequências das movimentações (ver SequenciaMovimentacaoInitializer)
+    private static final int TAMANHO_BLOCO = 50;
+    private static final int CLIENTES = 5_000;
+    // Uma entrada de reposição cobre cerca de 30 dias da demanda esperada do produto
+    private static final int DIAS_REPOSICAO = 30;
+    private static final int LOTE_MINIMO = 10;
+    private static final int LOTE_MAXIMO = 5_000;
+    private static final int INICIO_EXPEDIENTE = 8 * 3600;
+    private static final int DURACAO_EXPEDIENTE = 12 * 3600;
+
+    private static final String[] TIPOS = {"Parafuso", "Porca", "Arruela", "Cabo", "Tomada", "Disjuntor",
+            "Lâmpada", "Tubo", "Conexão", "Registro", "Torneira", "Fita"};
+    private static final String[] MATERIAIS = {"aço", "latão", "cobre", "PVC", "inox", "alumínio", "nylon", "zinco"};
+    private static final String[] UNIDADES = {"UN", "UN", "UN", "CX", "PC", "M", "KG"};
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CacheProduto cacheProduto;
+
+    public record Parametros(int produtos, int fornecedores, long movimentacoes, int dias, double expoenteZipf, long semente) {
+    }
+
+    public record Resultado(int produtos, int fornecedores, long entradas, long saidas, long duracaoMs) {
+    }
+
+    /**
+     * Gera os dados em uma transação; em caso de erro nada é gravado.
+     * Os registros são acrescentados aos existentes, mas os nomes só não se repetem entre execuções em um banco
+     * vazio, que é o uso previsto (ver {@code GeradorDadosInitializer}).
+     * @throws IllegalArgumentException se algum parâmetro for inválido.
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public Resultado gerar(Parametros parametros) throws IOException, SQLException {
+        validar(parametros);
+        long inicio = System.nanoTime();
+        Connection conexao = DataSourceUtils.getConnection(dataSource);
+        PGConnection pg = conexao.unwrap(PGConnection.class);
+        SplittableRandom aleatorio = new SplittableRandom(parametros.semente());
+
+        long[] fornecedores = gerarFornecedores(pg, parametros.fornecedores());
+        long[] produtos = gerarProdutos(pg, parametros.produtos(), aleatorio);
+        Catalogo catalogo = new Catalogo(parametros, produtos, fornecedores, aleatorio);
+        Instant agora = Instant.now();
+
+        long baseEntradas = proximoId("entrada_produto");
+        long baseSaidas = proximoId("saida_produto");
+        long entradas;
+        try (Writer copia = abrirCopia(pg, "COPY entrada_produto (id, produto_id, fornecedor_id, quantidade, data_movimentacao, preco_custo, observacao) FROM STDIN WITH (FORMAT csv)")) {
+            EscritorCsv escritor = new EscritorCsv(copia);
+            Simulacao simulacao = new Simulacao(catalogo, parametros, agora);
+            simulacao.executar(new Movimentos() {
+                @Override
+                public void entrada(int produto, int quantidade, int dia) throws IOException {
+                    escritor.escrever(baseEntradas + simulacao.entradas, produtos[produto], fornecedores[catalogo.fornecedorDe[produto]],
+                            quantidade, simulacao.datas[dia], catalogo.custos[produto], OBSERVACAO);
+                }
+            });
+            entradas = simulacao.entradas;
+        }
+        long saidas;
+        int[] saldos;
+        try (Writer copia = abrirCopia(pg, "COPY saida_produto (id, produto_id, quantidade, data_movimentacao, motivo, cliente, observacao, registrado_em) FROM STDIN WITH (FORMAT csv)")) {
+            EscritorCsv escritor = new EscritorCsv(copia);
+            Simulacao simulacao = new Simulacao(catalogo, parametros, agora);
+            simulacao.executar(new Movimentos() {
+                @Override
+                public void saida(int produto, int quantidade, int dia, long registradoEm, int cliente) throws IOException {
+                    escritor.escrever(baseSaidas + simulacao.saidas, produtos[produto], quantidade, simulacao.datas[dia],
+                            "Venda", "Cliente " + cliente, OBSERVACAO, Instant.ofEpochSecond(registradoEm));
+                }
+            });
+            saidas = simulacao.saidas;
+            saldos = simulacao.saldos;
+        }
+        avancarSequencia("entrada_produto", baseEntradas + entradas);
+        avancarSequencia("saida_produto", baseSaidas + saidas);
+
+        // O estoque de cada produto é o saldo final da simulação
+        jdbcTemplate.execute("CREATE TEMPORARY TABLE estoque_gerado (id bigint NOT NULL, quantidade integer NOT NULL) ON COMMIT DROP");
+        try (Writer copia = abrirCopia(pg, "COPY estoque_gerado (id, quantidade) FROM STDIN WITH (FORMAT csv)")) {
+            EscritorCsv escritor = new EscritorCsv(copia);
+            for (int i = 0; i < produtos.length; i++) {
+                escritor.escrever(produtos[i], saldos[i]);
+            }
+        }
+        jdbcTemplate.update("UPDATE produto p SET quantidade_estoque = g.quantidade FROM estoque_gerado g WHERE p.id = g.id AND g.quantidade <> 0");
+        cacheProduto.invalidarTodos();
+        jdbcTemplate.execute("ANALYZE fornecedor, produto, entrada_produto, saida_produto");
+
+        Resultado resultado = new Resultado(produtos.length, fornecedores.length, entradas, saidas,
+                (System.nanoTime() - inicio) / 1_000_000);
+        logger.info("Dados sintéticos gerados: {} produtos, {} fornecedores, {} entradas e {} saídas em {} ms",
+                resultado.produtos(), resultado.fornecedores(), entradas, saidas, resultado.duracaoMs());
+        return resultado;
+    }
+
+    private static void validar(Parametros parametros) {
+        if (parametros.produtos() < 1 || parametros.fornecedores() < 1 || parametros.dias() < 1) {
+            throw new IllegalArgumentException("Produtos, fornecedores e dias devem ser maiores que zero.");
+        }
+        if (parametros.movimentacoes() < 0) {
+            throw new IllegalArgumentException("O número de movimentações não pode ser negativo.");
+        }
+        if (parametros.expoenteZipf() <= 0) {
+            throw new IllegalArgumentException("O expoente da distribuição de Zipf deve ser positivo.");
+        }
+    }
+
+    private long[] gerarFornecedores(PGConnection pg, int quantidade) throws IOException, SQLException {
+        long ultimoId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM fornecedor", Long.class);
+        try (Writer copia = abrirCopia(pg, "COPY fornecedor (nome, contato_nome, contato_email, contato_telefone) FROM STDIN WITH (FORMAT csv)")) {
+            EscritorCsv escritor = new EscritorCsv(copia);
+            for (long i = ultimoId + 1; i <= ultimoId + quantidade; i++) {
+                escritor.escrever("Fornecedor " + i, "Contato " + i, "fornecedor" + i + "@exemplo.com.br",
+                        String.format("(85) 3%03d-%04d", i / 10_000 % 1_000, i % 10_000));
+            }
+        }
+        return idsDesde("fornecedor", ultimoId);
+    }
+
+    private long[] gerarProdutos(PGConnection pg, int quantidade, SplittableRandom aleatorio) throws IOException, SQLException {
+        long ultimoId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM produto", Long.class);
+        try (Writer copia = abrirCopia(pg, "COPY produto (nome, descricao, preco, quantidade_estoque, unidade_medida, versao) FROM STDIN WITH (FORMAT csv)")) {
+            EscritorCsv escritor = new EscritorCsv(copia);
+            for (long i = ultimoId + 1; i <= ultimoId + quantidade; i++) {
+                String tipo = TIPOS[(int) (i % TIPOS.length)];
+                String material = MATERIAIS[(int) (i / TIPOS.length % MATERIAIS.length)];
+                // Preços com distribuição log-normal: muitos itens baratos e poucos caros
+                double preco = Math.min(Math.exp(3 + 1.2 * aleatorio.nextGaussian()), 50_000);
+                escritor.escrever(tipo + " " + material + " " + i, tipo + " de " + material + " gerado para testes",
+                        BigDecimal.valueOf(Math.max(100, Math.round(preco * 100)), 2), 0,
+                        UNIDADES[aleatorio.nextInt(UNIDADES.length)], 0);
+            }
+        }
+        return idsDesde("produto", ultimoId);
+    }
+
+    // Os IDs IDENTITY são atribuídos na ordem do COPY
+    private long[] idsDesde(String tabela, long ultimoId) {
+        return jdbcTemplate.queryForList("SELECT id FROM " + tabela + " WHERE id > ? ORDER BY id", Long.class, ultimoId)
+                .stream().mapToLong(Long::longValue).toArray();
+    }
+
+    // IDs das movimentações: a partir do maior entre a sequência e o maior ID gravado, sem chamar nextval por linha
+    private long proximoId(String tabela) {
+        return jdbcTemplate.queryForObject("SELECT GREATEST((SELECT last_value FROM " + tabela + "_seq), "
+                + "(SELECT COALESCE(MAX(id), 0) FROM " + tabela + "))", Long.class);
+    }
+
+    private void avancarSequencia(String tabela, long ultimoId) {
+        String sequencia = tabela + "_seq";
+        jdbcTemplate.queryForObject("SELECT setval('" + sequencia + "', GREATEST((SELECT last_value FROM " + sequencia + "), ?))",
+                Long.class, ultimoId + TAMANHO_BLOCO);
+    }
+
+    private static Writer abrirCopia(PGConnection pg, String copia) throws SQLException {
+        return new BufferedWriter(new OutputStreamWriter(new PGCopyOutputStream(pg, copia, BUFFER_COPY), StandardCharsets.UTF_8));
+    }
+
+    // Distribuição acumulada de Zipf (peso 1/k^s para a posição k), amostrada por busca binária
+    private static double[] zipf(int tamanho, double expoente) {
+        double[] acumulada = new double[tamanho];
+        double soma = 0;
+        for (int k = 0; k < tamanho; k++) {
+            soma += 1 / Math.pow(k + 1, expoente);
+            acumulada[k] = soma;
+        }
+        for (int k = 0; k < tamanho; k++) {
+            acumulada[k] /= soma;
+        }
+        return acumulada;
+    }
+
+    private static int sortear(double[] acumulada, SplittableRandom aleatorio) {
+        int posicao = Arrays.binarySearch(acumulada, aleatorio.nextDouble());
+        return Math.min(posicao >= 0 ? posicao : -posicao - 1, acumulada.length - 1);
+    }
+
+    /**
+     * Características fixas de cada produto, sorteadas uma vez: posição na popularidade (uma permutação, para que os
+     * mais vendidos não sejam os de menor ID), fornecedor, custo e tamanho do lote de reposição.
+     */
+    private static final class Catalogo {
+        private final double[] popularidade;
+        private final int[] produtoNaPosicao;
+        private final int[] fornecedorDe;
+        private final String[] custos;
+        private final int[] lotes;
+
+        Catalogo(Parametros parametros, long[] produtos, long[] fornecedores, SplittableRandom aleatorio) {
+            int quantidade = produtos.length;
+            popularidade = zipf(quantidade, parametros.expoenteZipf());
+            produtoNaPosicao = new int[quantidade];
+            for (int i = 0; i < quantidade; i++) {
+                produtoNaPosicao[i] = i;
+            }
+            for (int i = quantidade - 1; i > 0; i--) {
+                int j = aleatorio.nextInt(i + 1);
+                int troca = produtoNaPosicao[i];
+                produtoNaPosicao[i] = produtoNaPosicao[j];
+                produtoNaPosicao[j] = troca;
+            }
+
+            double[] tamanhoFornecedores = zipf(fornecedores.length, parametros.expoenteZipf());
+            fornecedorDe = new int[quantidade];
+            custos = new String[quantidade];
+            lotes = new int[quantidade];
+            double unidadesPorDia = parametros.movimentacoes() * Simulacao.QUANTIDADE_MEDIA / (double) parametros.dias();
+            for (int posicao = 0; posicao < quantidade; posicao++) {
+                int produto = produtoNaPosicao[posicao];
+                fornecedorDe[produto] = sortear(tamanhoFornecedores, aleatorio);
+                custos[produto] = BigDecimal.valueOf(1 + aleatorio.nextInt(30_000), 2).toPlainString();
+                double probabilidade = popularidade[posicao] - (posicao == 0 ? 0 : popularidade[posicao - 1]);
+                long lote = Math.round(probabilidade * unidadesPorDia * DIAS_REPOSICAO);
+                lotes[produto] = (int) Math.min(Math.max(lote, LOTE_MINIMO), LOTE_MAXIMO);
+            }
+        }
+
+        int sortearProduto(SplittableRandom aleatorio) {
+            return produtoNaPosicao[sortear(popularidade, aleatorio)];
+        }
+    }
+
+    private interface Movimentos {
+        default void entrada(int produto, int quantidade, int dia) throws IOException {
+        }
+
+        default void saida(int produto, int quantidade, int dia, long registradoEm, int cliente) throws IOException {
+        }
+    }
+
+    /**
+     * Simulação cronológica do livro de movimentações. Com a mesma semente, duas execuções produzem exatamente a
+     * mesma sequência, independentemente de quais movimentos o destino grava.
+     */
+    private static final class Simulacao {
+        static final double QUANTIDADE_MEDIA = 2.5;
+
+        private final Catalogo catalogo;
+        private final long[] porDia;
+        private final long[] inicioDoDia;
+        private final String[] datas;
+        private final int[] saldos;
+        private final SplittableRandom aleatorio;
+        private final long agora;
+        private long entradas;
+        private long saidas;
+
+        // As duas execuções recebem o mesmo instante, para sortearem exatamente a mesma sequência
+        Simulacao(Catalogo catalogo, Parametros parametros, Instant agora) {
+            this.catalogo = catalogo;
+            this.agora = agora.getEpochSecond();
+            this.saldos = new int[catalogo.fornecedorDe.length];
+            this.aleatorio = new SplittableRandom(parametros.semente() + 1);
+            int dias = parametros.dias();
+            LocalDate primeiroDia = LocalDate.ofInstant(agora, ZoneId.systemDefault()).minusDays(dias - 1L);
+            datas = new String[dias];
+            inicioDoDia = new long[dias];
+            double[] pesos = new double[dias];
+            double soma = 0;
+            for (int dia = 0; dia < dias; dia++) {
+                LocalDate data = primeiroDia.plusDays(dia);
+                datas[dia] = data.toString();
+                inicioDoDia[dia] = data.atStartOfDay(ZoneId.systemDefault()).toEpochSecond();
+                // Crescimento de 50% ao longo do período e fins de semana com 60% do movimento
+                boolean fimDeSemana = data.getDayOfWeek() == DayOfWeek.SATURDAY || data.getDayOfWeek() == DayOfWeek.SUNDAY;
+                pesos[dia] = (1 + 0.5 * dia / dias) * (fimDeSemana ? 0.6 : 1.0);
+                soma += pesos[dia];
+            }
+            // Reparte o total entre os dias sem perder unidades no arredondamento
+            porDia = new long[dias];
+            double acumulado = 0;
+            long distribuido = 0;
+            for (int dia = 0; dia < dias; dia++) {
+                acumulado += pesos[dia];
+                long ate = Math.round(parametros.movimentacoes() * acumulado / soma);
+                porDia[dia] = ate - distribuido;
+                distribuido = ate;
+            }
+        }
+
+        // Um instante uniforme no expediente do dia; hoje, só até o momento da geração
+        private long sortearRegistro(int dia) {
+            long inicio = inicioDoDia[dia] + INICIO_EXPEDIENTE;
+            long fim = Math.min(inicio + DURACAO_EXPEDIENTE, agora);
+            if (fim <= inicio) {
+                // Geração antes do expediente: as vendas de hoje ficam entre a meia-noite e agora
+                inicio = inicioDoDia[dia];
+            }
+            return inicio + aleatorio.nextLong(Math.max(fim - inicio, 1));
+        }
+
+        void executar(Movimentos destino) throws IOException {
+            for (int dia = 0; dia < porDia.length; dia++) {
+                long restantes = porDia[dia];
+                while (restantes > 0) {
+                    int produto = catalogo.sortearProduto(aleatorio);
+                    // Quantidade com cauda exponencial: quase sempre poucas unidades (média em torno de 2,5)
+                    int quantidade = (int) Math.min(1 + Math.floor(-Math.log(1 - aleatorio.nextDouble()) * (QUANTIDADE_MEDIA - 0.5)), 50);
+                    long registradoEm = sortearRegistro(dia);
+                    int cliente = aleatorio.nextInt(CLIENTES);
+                    if (saldos[produto] < quantidade) {
+                        int reposicao = catalogo.lotes[produto] + quantidade;
+                        entradas++;
+                        destino.entrada(produto, reposicao, dia);
+                        saldos[produto] += reposicao;
+                        if (--restantes == 0) {
+                            break;
+                        }
+                    }
+                    saidas++;
+                    destino.saida(produto, quantidade, dia, registradoEm, cliente);
+                    saldos[produto] -= quantidade;
+                    restantes--;
+                }
+            }
+        }
+    }
+}
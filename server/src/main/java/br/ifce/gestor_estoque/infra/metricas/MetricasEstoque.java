@@ -0,0 +1,59 @@
+package br.ifce.gestor_estoque.infra.metricas;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Contadores de negócio do estoque, expostos em /actuator/prometheus.
+ * A vazão sai de {@code rate(estoque_movimentacoes_total[1m])} e a taxa de recusa das saídas de
+ * {@code rate(estoque_recusas_total{operacao="saida"}[5m]) / (rate(estoque_recusas_total{operacao="saida"}[5m])
+ * + rate(estoque_movimentacoes_total{tipo="saida"}[5m]))}.
+ */
+@Component
+public class MetricasEstoque {
+
+    private final Counter entradas;
+    private final Counter saidas;
+    private final Counter saidasRecusadas;
+    private final Counter reservasRecusadas;
+
+    public MetricasEstoque(MeterRegistry meterRegistry) {
+        this.entradas = movimentacoes(meterRegistry, "entrada");
+        this.saidas = movimentacoes(meterRegistry, "saida");
+        this.saidasRecusadas = recusas(meterRegistry, "saida");
+        this.reservasRecusadas = recusas(meterRegistry, "reserva");
+    }
+
+    // Chamados após o commit, com o número de movimentações gravadas
+    public void registrarEntradas(int quantidade) {
+        entradas.increment(quantidade);
+    }
+
+    public void registrarSaidas(int quantidade) {
+        saidas.increment(quantidade);
+    }
+
+    // Chamados a cada item recusado por estoque insuficiente, seja na checagem prévia ou na atualização condicional
+    public void registrarSaidasRecusadas(int quantidade) {
+        saidasRecusadas.increment(quantidade);
+    }
+
+    public void registrarReservaRecusada() {
+        reservasRecusadas.increment();
+    }
+
+    private static Counter movimentacoes(MeterRegistry meterRegistry, String tipo) {
+        return Counter.builder("estoque.movimentacoes")
+                .description("Movimentações de estoque gravadas")
+                .tag("tipo", tipo)
+                .register(meterRegistry);
+    }
+
+    private static Counter recusas(MeterRegistry meterRegistry, String operacao) {
+        return Counter.builder("estoque.recusas")
+                .description("Operações recusadas por estoque insuficiente")
+                .tag("operacao", operacao)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,77 @@
+package br.ifce.gestor_estoque.infra.pagination;
+
+import br.ifce.gestor_estoque.exceptions.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Codifica e decodifica os cursores opacos usados na paginação keyset.
+ * O cursor carrega a ordenação usada, o ID do último item retornado e,
+ * quando houver, o valor da coluna de ordenação desse item.
+ */
+public final class CursorCodec {
+
+    private static final String SEPARADOR = ":";
+
+    private CursorCodec() {
+    }
+
+    /**
+     * Gera o cursor para a posição imediatamente após o item informado.
+     * @param ordenacao o nome da ordenação em uso.
+     * @param ultimoId o ID do último item da página.
+     * @param ultimoValor o valor da coluna de ordenação do último item (pode ser nulo).
+     * @return o cursor codificado em Base64 URL-safe.
+     */
+    public static String encode(String ordenacao, Long ultimoId, Object ultimoValor) {
+        String bruto = ordenacao + SEPARADOR + ultimoId + SEPARADOR + (ultimoValor == null ? "" : ultimoValor);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bruto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica um cursor previamente gerado por {@link #encode}.
+     * @param cursor o cursor recebido do cliente.
+     * @param ordenacaoEsperada a ordenação da requisição atual.
+     * @return a posição representada pelo cursor.
+     * @throws BusinessException se o cursor for inválido ou tiver sido gerado para outra ordenação.
+     */
+    public static Posicao decode(String cursor, String ordenacaoEsperada) {
+        String bruto;
+        try {
+            bruto = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Cursor de paginação inválido.");
+        }
+        // O valor vem por último para poder conter o separador (ex.: nomes com ':')
+        String[] partes = bruto.split(SEPARADOR, 3);
+        if (partes.length != 3 || !partes[0].equals(ordenacaoEsperada)) {
+            throw new BusinessException("Cursor de paginação inválido para a ordenação '" + ordenacaoEsperada + "'.");
+        }
+        try {
+            return new Posicao(Long.parseLong(partes[1]), partes[2]);
+        } catch (NumberFormatException e) {
+            throw new BusinessException("Cursor de paginação inválido.");
+        }
+    }
+
+    /**
+     * Limita o tamanho de página solicitado ao intervalo permitido.
+     * @param solicitado o tamanho pedido pelo cliente (pode ser nulo).
+     * @param padrao o tamanho usado quando nenhum for informado.
+     * @param maximo o maior tamanho aceito.
+     * @return o tamanho efetivo da página.
+     */
+    public static int tamanhoEfetivo(Integer solicitado, int padrao, int maximo) {
+        if (solicitado == null) {
+            return padrao;
+        }
+        if (solicitado <= 0) {
+            throw new BusinessException("O tamanho da página deve ser positivo.");
+        }
+        return Math.min(solicitado, maximo);
+    }
+
+    public record Posicao(Long ultimoId, String ultimoValor) {
+    }
+}
@@ -0,0 +1,100 @@
+package br.ifce.gestor_estoque.infra.security;
+
+import br.ifce.gestor_estoque.domain.user.User;
+import br.ifce.gestor_estoque.repositores.UserRepository;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Cache limitado e com expiração de token já verificado para o {@link User} autenticado.
+ * Evita, a cada requisição autenticada, a verificação da assinatura do JWT e a consulta do usuário no banco.
+ * Uma entrada nunca sobrevive à expiração do próprio token e é removida quando o usuário é alterado ou excluído.
+ */
+@Component
+public class PrincipalCache {
+
+    private final TokenService tokenService;
+    private final UserRepository userRepository;
+    private final Cache<String, PrincipalCacheado> cache;
+    private final Duration ttl;
+
+    public PrincipalCache(TokenService tokenService,
+                          UserRepository userRepository,
+                          MeterRegistry meterRegistry,
+                          @Value("${security.principal-cache.max-size:10000}") long tamanhoMaximo,
+                          @Value("${security.principal-cache.ttl-seconds:300}") long ttlSegundos) {
+        this.tokenService = tokenService;
+        this.userRepository = userRepository;
+        this.ttl = Duration.ofSeconds(ttlSegundos);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        // Exposto como cache.gets{result=hit|miss}, cache.size, cache.evictions etc.
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "principal-cache");
+    }
+
+    /**
+     * Resolve o usuário autenticado pelo token, consultando o cache antes de verificar o token e o banco.
+     * @param token o token JWT recebido.
+     * @return o usuário, ou null se o token for inválido ou o usuário não existir.
+     */
+    public User resolver(String token) {
+        PrincipalCacheado cacheado = cache.getIfPresent(token);
+        if (cacheado != null) {
+            if (cacheado.expiraEm().isAfter(Instant.now())) {
+                return cacheado.user();
+            }
+            cache.invalidate(token);
+        }
+
+        DecodedJWT decoded = tokenService.verifyToken(token);
+        if (decoded == null) {
+            return null;
+        }
+        User user = userRepository.findByEmail(decoded.getSubject()).orElse(null);
+        if (user != null) {
+            Instant expiraEm = Instant.now().plus(ttl);
+            if (decoded.getExpiresAtAsInstant() != null && decoded.getExpiresAtAsInstant().isBefore(expiraEm)) {
+                expiraEm = decoded.getExpiresAtAsInstant();
+            }
+            cache.put(token, new PrincipalCacheado(user, expiraEm));
+        }
+        return user;
+    }
+
+    /**
+     * Remove todas as entradas do usuário. Se houver transação ativa, remove também após o commit,
+     * para que uma requisição concorrente não recoloque no cache o estado anterior.
+     * @param userId o ID do usuário alterado ou excluído.
+     */
+    public void invalidarUsuario(String userId) {
+        removerEntradas(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    removerEntradas(userId);
+                }
+            });
+        }
+    }
+
+    private void removerEntradas(String userId) {
+        cache.asMap().values().removeIf(entrada -> entrada.user().getId().equals(userId));
+    }
+
+    private record PrincipalCacheado(User user, Instant expiraEm) {
+    }
+}
@@ -1,7 +1,6 @@
 package br.ifce.gestor_estoque.infra.security;
 
 import br.ifce.gestor_estoque.domain.user.User;
-import br.ifce.gestor_estoque.repositores.UserRepository;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -21,9 +20,7 @@ import java.util.List; // Import List
 @Component
 public class SecurityFilter extends OncePerRequestFilter {
     @Autowired
-    TokenService tokenService;
-    @Autowired
-    UserRepository userRepository;
+    PrincipalCache principalCache;
 
     // Define public paths that should bypass token validation in this filter
     private static final List<String> PUBLIC_PATHS = List.of("/auth/login", "/auth/register");
@@ -40,22 +37,17 @@ public class SecurityFilter extends OncePerRequestFilter {
 
         var token = this.recoverToken(request);
         if (token != null) {
-            var login = tokenService.validateToken(token);
-            if (login != null) {
-                User user = userRepository.findByEmail(login).orElse(null); // Find user, return null if not found
-                
-                if (user != null) { // Only proceed if user is found
-                    var authorities = Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"));
-                    var authentication = new UsernamePasswordAuthenticationToken(user, null, authorities);
-                    SecurityContextHolder.getContext().setAuthentication(authentication);
-                } else {
-                    // Optionally, you could clear security context or log this scenario
-                    // For now, if user not found for a supposedly valid token, we just don't set authentication
-                    // This might happen if a token is valid but user was deleted, or in race conditions like registration
-                     SecurityContextHolder.clearContext(); 
-                }
+            // Cached by token: skips JWT verification and the user lookup on repeated requests
+            User user = principalCache.resolver(token);
+
+            if (user != null) { // Only proceed if token is valid and user is found
+                var authorities = Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"));
+                var authentication = new UsernamePasswordAuthenticationToken(user, null, authorities);
+                SecurityContextHolder.getContext().setAuthentication(authentication);
             } else {
-                 SecurityContextHolder.clearContext(); // Invalid token
+                // Invalid token, or a valid token whose user was deleted
+                // (or in race conditions like registration): we just don't set authentication
+                 SecurityContextHolder.clearContext(); 
             }
         } else {
              SecurityContextHolder.clearContext(); // No token
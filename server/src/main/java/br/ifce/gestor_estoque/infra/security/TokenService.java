@@ -1,10 +1,13 @@
 package br.ifce.gestor_estoque.infra.security;
 
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTCreationException;
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
 import br.ifce.gestor_estoque.domain.user.User;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -14,14 +17,27 @@ import java.time.ZoneOffset;
 
 @Service
 public class TokenService {
+    private static final String ISSUER = "login-auth-api";
+
     @Value("${jwt.secret}")
     private String secret;
+
+    // Algoritmo e verificador são imutáveis e thread-safe: criados uma única vez
+    private Algorithm algorithm;
+    private JWTVerifier verifier;
+
+    @PostConstruct
+    void init() {
+        this.algorithm = Algorithm.HMAC256(secret);
+        this.verifier = JWT.require(algorithm)
+                .withIssuer(ISSUER)
+                .build();
+    }
+
     public String generateToken(User user){
         try {
-            Algorithm algorithm = Algorithm.HMAC256(secret);
-
             String token = JWT.create()
-                    .withIssuer("login-auth-api")
+                    .withIssuer(ISSUER)
                     .withSubject(user.getEmail())
                     .withExpiresAt(this.generateExpirationDate())
                     .sign(algorithm);
@@ -32,13 +48,18 @@ public class TokenService {
     }
 
     public String validateToken(String token){
+        DecodedJWT decoded = verifyToken(token);
+        return decoded != null ? decoded.getSubject() : null;
+    }
+
+    /**
+     * Verifica assinatura, emissor e expiração do token.
+     * @param token o token JWT recebido.
+     * @return o token decodificado, ou null se for inválido.
+     */
+    public DecodedJWT verifyToken(String token){
         try {
-            Algorithm algorithm = Algorithm.HMAC256(secret);
-            return JWT.require(algorithm)
-                    .withIssuer("login-auth-api")
-                    .build()
-                    .verify(token)
-                    .getSubject();
+            return verifier.verify(token);
         } catch (JWTVerificationException exception) {
             return null;
         }
@@ -47,4 +68,4 @@ public class TokenService {
     private Instant generateExpirationDate(){
         return LocalDateTime.now().plusHours(2).toInstant(ZoneOffset.of("-03:00"));
     }
-}
\ No newline at end of file
+}
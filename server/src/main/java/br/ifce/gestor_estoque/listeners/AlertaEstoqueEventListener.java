@@ -0,0 +1,46 @@
+package br.ifce.gestor_estoque.listeners;
+
+import br.ifce.gestor_estoque.events.EstoqueAlteradoEvent;
+import br.ifce.gestor_estoque.events.ProdutoAtualizadoEvent;
+import br.ifce.gestor_estoque.events.ProdutoCriadoEvent;
+import br.ifce.gestor_estoque.events.ProdutoExcluidoEvent;
+import br.ifce.gestor_estoque.events.ProdutosImportadosEvent;
+import br.ifce.gestor_estoque.services.AlertaEstoqueService;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+// Reavalia os alertas de estoque do produto afetado somente após o commit, para não alertar sobre operações desfeitas
+@Timed(value = "listener.execucao", histogram = true)
+@Component
+public class AlertaEstoqueEventListener {
+
+    @Autowired
+    private AlertaEstoqueService alertaEstoqueService;
+
+    @TransactionalEventListener
+    public void handleProdutoCriado(ProdutoCriadoEvent event) {
+        alertaEstoqueService.registrarProduto(event.getProduto());
+    }
+
+    @TransactionalEventListener
+    public void handleProdutoAtualizado(ProdutoAtualizadoEvent event) {
+        alertaEstoqueService.registrarAlteracaoProduto(event.getProduto(), event.getQuantidadeEstoqueAnterior());
+    }
+
+    @TransactionalEventListener
+    public void handleProdutoExcluido(ProdutoExcluidoEvent event) {
+        alertaEstoqueService.removerProduto(event.getProduto().getId());
+    }
+
+    @TransactionalEventListener
+    public void handleEstoqueAlterado(EstoqueAlteradoEvent event) {
+        alertaEstoqueService.registrarAlteracaoEstoque(event.getProdutoId(), event.getDelta());
+    }
+
+    @TransactionalEventListener
+    public void handleProdutosImportados(ProdutosImportadosEvent event) {
+        alertaEstoqueService.reconciliar(true);
+    }
+}
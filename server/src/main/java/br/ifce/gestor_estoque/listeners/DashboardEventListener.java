@@ -0,0 +1,103 @@
+package br.ifce.gestor_estoque.listeners;
+
+import br.ifce.gestor_estoque.domain.estoque.Produto;
+import br.ifce.gestor_estoque.events.EntradaProdutoAtualizadaEvent;
+import br.ifce.gestor_estoque.events.EntradaProdutoCriadaEvent;
+import br.ifce.gestor_estoque.events.EntradaProdutoExcluidaEvent;
+import br.ifce.gestor_estoque.events.EntradasProdutoCriadasEmLoteEvent;
+import br.ifce.gestor_estoque.events.EstoqueAlteradoEvent;
+import br.ifce.gestor_estoque.events.ProdutoAtualizadoEvent;
+import br.ifce.gestor_estoque.events.ProdutoCriadoEvent;
+import br.ifce.gestor_estoque.events.ProdutoExcluidoEvent;
+import br.ifce.gestor_estoque.events.ProdutosImportadosEvent;
+import br.ifce.gestor_estoque.events.SaidaProdutoAtualizadaEvent;
+import br.ifce.gestor_estoque.events.SaidaProdutoCriadaEvent;
+import br.ifce.gestor_estoque.events.SaidaProdutoExcluidaEvent;
+import br.ifce.gestor_estoque.events.SaidasProdutoCriadasEmLoteEvent;
+import br.ifce.gestor_estoque.services.DashboardAgregadoService;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+// Alimenta os indicadores do dashboard somente após o commit, para não contar operações desfeitas
+@Timed(value = "listener.execucao", histogram = true)
+@Component
+public class DashboardEventListener {
+
+    @Autowired
+    private DashboardAgregadoService dashboardAgregadoService;
+
+    @TransactionalEventListener
+    public void handleProdutoCriado(ProdutoCriadoEvent event) {
+        Produto produto = event.getProduto();
+        dashboardAgregadoService.registrarProduto(produto.getPreco(), produto.getQuantidadeEstoque(), 1);
+    }
+
+    @TransactionalEventListener
+    public void handleProdutoAtualizado(ProdutoAtualizadoEvent event) {
+        Produto produto = event.getProduto();
+        dashboardAgregadoService.registrarAlteracaoProduto(
+                event.getPrecoAnterior(), event.getQuantidadeEstoqueAnterior(),
+                produto.getPreco(), produto.getQuantidadeEstoque());
+    }
+
+    @TransactionalEventListener
+    public void handleProdutoExcluido(ProdutoExcluidoEvent event) {
+        Produto produto = event.getProduto();
+        dashboardAgregadoService.registrarProduto(produto.getPreco(), produto.getQuantidadeEstoque(), -1);
+    }
+
+    // A importação grava milhares de produtos de uma vez; recalcular do banco sai mais barato que um evento por produto
+    @TransactionalEventListener
+    public void handleProdutosImportados(ProdutosImportadosEvent event) {
+        dashboardAgregadoService.reconciliar();
+    }
+
+    @TransactionalEventListener
+    public void handleEstoqueAlterado(EstoqueAlteradoEvent event) {
+        dashboardAgregadoService.registrarAlteracaoEstoque(event.getPreco(), event.getQuantidadeAnterior(), event.getQuantidadeAtual());
+    }
+
+    @TransactionalEventListener
+    public void handleEntradaProdutoCriada(EntradaProdutoCriadaEvent event) {
+        dashboardAgregadoService.registrarEntrada(event.getEntradaProduto().getDataMovimentacao(), 1);
+    }
+
+    @TransactionalEventListener
+    public void handleEntradasProdutoCriadasEmLote(EntradasProdutoCriadasEmLoteEvent event) {
+        event.getEntradas().forEach(entrada -> dashboardAgregadoService.registrarEntrada(entrada.getDataMovimentacao(), 1));
+    }
+
+    @TransactionalEventListener
+    public void handleEntradaProdutoAtualizada(EntradaProdutoAtualizadaEvent event) {
+        dashboardAgregadoService.registrarEntrada(event.getAnterior().dataMovimentacao(), -1);
+        dashboardAgregadoService.registrarEntrada(event.getEntradaProduto().getDataMovimentacao(), 1);
+    }
+
+    @TransactionalEventListener
+    public void handleEntradaProdutoExcluida(EntradaProdutoExcluidaEvent event) {
+        dashboardAgregadoService.registrarEntrada(event.getEntradaProduto().getDataMovimentacao(), -1);
+    }
+
+    @TransactionalEventListener
+    public void handleSaidaProdutoCriada(SaidaProdutoCriadaEvent event) {
+        dashboardAgregadoService.registrarSaida(event.getSaidaProduto().getDataMovimentacao(), 1);
+    }
+
+    @TransactionalEventListener
+    public void handleSaidasProdutoCriadasEmLote(SaidasProdutoCriadasEmLoteEvent event) {
+        event.getSaidas().forEach(saida -> dashboardAgregadoService.registrarSaida(saida.getDataMovimentacao(), 1));
+    }
+
+    @TransactionalEventListener
+    public void handleSaidaProdutoAtualizada(SaidaProdutoAtualizadaEvent event) {
+        dashboardAgregadoService.registrarSaida(event.getAnterior().dataMovimentacao(), -1);
+        dashboardAgregadoService.registrarSaida(event.getSaidaProduto().getDataMovimentacao(), 1);
+    }
+
+    @TransactionalEventListener
+    public void handleSaidaProdutoExcluida(SaidaProdutoExcluidaEvent event) {
+        dashboardAgregadoService.registrarSaida(event.getSaidaProduto().getDataMovimentacao(), -1);
+    }
+}
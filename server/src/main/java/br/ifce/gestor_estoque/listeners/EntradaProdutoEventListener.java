@@ -1,45 +1,59 @@
 package br.ifce.gestor_estoque.listeners;
 
+import br.ifce.gestor_estoque.domain.estoque.EntradaProduto;
 import br.ifce.gestor_estoque.domain.estoque.Produto;
+import br.ifce.gestor_estoque.domain.estoque.TipoMovimentacao;
 import br.ifce.gestor_estoque.events.EntradaProdutoCriadaEvent;
 import br.ifce.gestor_estoque.events.EntradaProdutoExcluidaEvent;
 import br.ifce.gestor_estoque.events.EntradaProdutoAtualizadaEvent;
-import br.ifce.gestor_estoque.repositores.ProdutoRepository;
+import br.ifce.gestor_estoque.exceptions.BusinessException;
+import br.ifce.gestor_estoque.services.EstoqueService;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+@Timed(value = "listener.execucao", histogram = true)
 @Component
 public class EntradaProdutoEventListener {
 
     @Autowired
-    private ProdutoRepository produtoRepository;
+    private EstoqueService estoqueService;
 
     @EventListener
     @Transactional
     public void handleEntradaProdutoCriada(EntradaProdutoCriadaEvent event) {
-        Produto produto = event.getEntradaProduto().getProduto();
-        int quantidade = event.getEntradaProduto().getQuantidade();
-        produto.entradaEstoque(quantidade);
-        produtoRepository.save(produto);
+        EntradaProduto entrada = event.getEntradaProduto();
+        aumentarEstoque(entrada.getProduto(), entrada.getQuantidade());
     }
 
     @EventListener
     @Transactional
     public void handleEntradaProdutoAtualizada(EntradaProdutoAtualizadaEvent event) {
-        Produto produtoNovo = event.getEntradaProduto().getProduto();
-        int quantidadeNova = event.getEntradaProduto().getQuantidade();
-        produtoNovo.entradaEstoque(quantidadeNova);
-        produtoRepository.save(produtoNovo);
+        // O EntradaProdutoService já reverteu a quantidade antiga; aqui aplica-se a nova.
+        EntradaProduto entrada = event.getEntradaProduto();
+        aumentarEstoque(entrada.getProduto(), entrada.getQuantidade());
     }
 
     @EventListener
     @Transactional
     public void handleEntradaProdutoExcluida(EntradaProdutoExcluidaEvent event) {
-        Produto produto = event.getEntradaProduto().getProduto();
-        int quantidade = event.getEntradaProduto().getQuantidade();
-        produto.saidaEstoque(quantidade);
-        produtoRepository.save(produto);
+        EntradaProduto entrada = event.getEntradaProduto();
+        ajustarEstoque(entrada.getProduto(), -entrada.getQuantidade(), TipoMovimentacao.ESTORNO_ENTRADA);
+    }
+
+    // Aumentos podem ser adiados pela projeção assíncrona, se habilitada
+    private void aumentarEstoque(Produto produto, int quantidade) {
+        if (!estoqueService.aumentarEstoque(produto, quantidade, TipoMovimentacao.ENTRADA)) {
+            throw new BusinessException("Não foi possível ajustar o estoque do produto ID " + produto.getId() + ".");
+        }
+    }
+
+    // Atualização condicional no banco: evita o read-modify-write e a perda de atualizações concorrentes
+    private void ajustarEstoque(Produto produto, int delta, TipoMovimentacao tipo) {
+        if (!estoqueService.ajustarEstoque(produto, delta, tipo)) {
+            throw new BusinessException("Não foi possível ajustar o estoque do produto ID " + produto.getId() + ": estoque insuficiente.");
+        }
     }
 }
@@ -0,0 +1,106 @@
+package br.ifce.gestor_estoque.listeners;
+
+import br.ifce.gestor_estoque.domain.estoque.EntradaProduto;
+import br.ifce.gestor_estoque.domain.estoque.SaidaProduto;
+import br.ifce.gestor_estoque.events.EntradaProdutoAtualizadaEvent;
+import br.ifce.gestor_estoque.events.EntradaProdutoCriadaEvent;
+import br.ifce.gestor_estoque.events.EntradaProdutoExcluidaEvent;
+import br.ifce.gestor_estoque.events.EntradasProdutoCriadasEmLoteEvent;
+import br.ifce.gestor_estoque.events.MovimentacaoAnterior;
+import br.ifce.gestor_estoque.events.ProdutoExcluidoEvent;
+import br.ifce.gestor_estoque.events.SaidaProdutoAtualizadaEvent;
+import br.ifce.gestor_estoque.events.SaidaProdutoCriadaEvent;
+import br.ifce.gestor_estoque.events.SaidaProdutoExcluidaEvent;
+import br.ifce.gestor_estoque.events.SaidasProdutoCriadasEmLoteEvent;
+import br.ifce.gestor_estoque.services.EstoqueHistoricoService;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.stream.Collectors;
+
+// Mantém os snapshots de estoque coerentes com movimentações retroativas, dentro da mesma transação
+@Timed(value = "listener.execucao", histogram = true)
+@Component
+public class EstoqueSnapshotEventListener {
+
+    @Autowired
+    private EstoqueHistoricoService estoqueHistoricoService;
+
+    @EventListener
+    @Transactional
+    public void handleEntradaProdutoCriada(EntradaProdutoCriadaEvent event) {
+        EntradaProduto entrada = event.getEntradaProduto();
+        estoqueHistoricoService.registrarMovimentacao(entrada.getProduto().getId(), entrada.getDataMovimentacao(), entrada.getQuantidade());
+    }
+
+    @EventListener
+    @Transactional
+    public void handleEntradasProdutoCriadasEmLote(EntradasProdutoCriadasEmLoteEvent event) {
+        // Um ajuste por produto e data, em vez de um por item do lote
+        event.getEntradas().stream()
+                .collect(Collectors.groupingBy(entrada -> new ProdutoNaData(entrada.getProduto().getId(), entrada.getDataMovimentacao()),
+                        Collectors.summingInt(EntradaProduto::getQuantidade)))
+                .forEach((chave, total) -> estoqueHistoricoService.registrarMovimentacao(chave.produtoId(), chave.data(), total));
+    }
+
+    @EventListener
+    @Transactional
+    public void handleEntradaProdutoAtualizada(EntradaProdutoAtualizadaEvent event) {
+        MovimentacaoAnterior anterior = event.getAnterior();
+        EntradaProduto entrada = event.getEntradaProduto();
+        estoqueHistoricoService.registrarMovimentacao(anterior.produtoId(), anterior.dataMovimentacao(), -anterior.quantidade());
+        estoqueHistoricoService.registrarMovimentacao(entrada.getProduto().getId(), entrada.getDataMovimentacao(), entrada.getQuantidade());
+    }
+
+    @EventListener
+    @Transactional
+    public void handleEntradaProdutoExcluida(EntradaProdutoExcluidaEvent event) {
+        EntradaProduto entrada = event.getEntradaProduto();
+        estoqueHistoricoService.registrarMovimentacao(entrada.getProduto().getId(), entrada.getDataMovimentacao(), -entrada.getQuantidade());
+    }
+
+    @EventListener
+    @Transactional
+    public void handleSaidaProdutoCriada(SaidaProdutoCriadaEvent event) {
+        SaidaProduto saida = event.getSaidaProduto();
+        estoqueHistoricoService.registrarMovimentacao(saida.getProduto().getId(), saida.getDataMovimentacao(), -saida.getQuantidade());
+    }
+
+    @EventListener
+    @Transactional
+    public void handleSaidasProdutoCriadasEmLote(SaidasProdutoCriadasEmLoteEvent event) {
+        event.getSaidas().stream()
+                .collect(Collectors.groupingBy(saida -> new ProdutoNaData(saida.getProduto().getId(), saida.getDataMovimentacao()),
+                        Collectors.summingInt(SaidaProduto::getQuantidade)))
+                .forEach((chave, total) -> estoqueHistoricoService.registrarMovimentacao(chave.produtoId(), chave.data(), -total));
+    }
+
+    @EventListener
+    @Transactional
+    public void handleSaidaProdutoAtualizada(SaidaProdutoAtualizadaEvent event) {
+        MovimentacaoAnterior anterior = event.getAnterior();
+        SaidaProduto saida = event.getSaidaProduto();
+        estoqueHistoricoService.registrarMovimentacao(anterior.produtoId(), anterior.dataMovimentacao(), anterior.quantidade());
+        estoqueHistoricoService.registrarMovimentacao(saida.getProduto().getId(), saida.getDataMovimentacao(), -saida.getQuantidade());
+    }
+
+    @EventListener
+    @Transactional
+    public void handleSaidaProdutoExcluida(SaidaProdutoExcluidaEvent event) {
+        SaidaProduto saida = event.getSaidaProduto();
+        estoqueHistoricoService.registrarMovimentacao(saida.getProduto().getId(), saida.getDataMovimentacao(), saida.getQuantidade());
+    }
+
+    @EventListener
+    @Transactional
+    public void handleProdutoExcluido(ProdutoExcluidoEvent event) {
+        estoqueHistoricoService.removerSnapshotsDoProduto(event.getProduto().getId());
+    }
+
+    private record ProdutoNaData(Long produtoId, LocalDate data) {
+    }
+}
@@ -0,0 +1,22 @@
+package br.ifce.gestor_estoque.listeners;
+
+import br.ifce.gestor_estoque.events.EstoqueAlteradoEvent;
+import br.ifce.gestor_estoque.services.EstoqueStreamService;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+// Repassa ao stream SSE as alterações de estoque somente após o commit, para não anunciar operações desfeitas
+@Timed(value = "listener.execucao", histogram = true)
+@Component
+public class EstoqueStreamEventListener {
+
+    @Autowired
+    private EstoqueStreamService estoqueStreamService;
+
+    @TransactionalEventListener
+    public void handleEstoqueAlterado(EstoqueAlteradoEvent event) {
+        estoqueStreamService.publicar(event);
+    }
+}
@@ -0,0 +1,40 @@
+package br.ifce.gestor_estoque.listeners;
+
+import br.ifce.gestor_estoque.events.EntradaProdutoCriadaEvent;
+import br.ifce.gestor_estoque.events.EntradasProdutoCriadasEmLoteEvent;
+import br.ifce.gestor_estoque.events.SaidaProdutoCriadaEvent;
+import br.ifce.gestor_estoque.events.SaidasProdutoCriadasEmLoteEvent;
+import br.ifce.gestor_estoque.infra.metricas.MetricasEstoque;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+// Conta as movimentações somente após o commit, para não contar operações desfeitas
+@Timed(value = "listener.execucao", histogram = true)
+@Component
+public class MetricasEstoqueEventListener {
+
+    @Autowired
+    private MetricasEstoque metricasEstoque;
+
+    @TransactionalEventListener
+    public void handleEntradaProdutoCriada(EntradaProdutoCriadaEvent event) {
+        metricasEstoque.registrarEntradas(1);
+    }
+
+    @TransactionalEventListener
+    public void handleEntradasProdutoCriadasEmLote(EntradasProdutoCriadasEmLoteEvent event) {
+        metricasEstoque.registrarEntradas(event.getEntradas().size());
+    }
+
+    @TransactionalEventListener
+    public void handleSaidaProdutoCriada(SaidaProdutoCriadaEvent event) {
+        metricasEstoque.registrarSaidas(1);
+    }
+
+    @TransactionalEventListener
+    public void handleSaidasProdutoCriadasEmLote(SaidasProdutoCriadasEmLoteEvent event) {
+        metricasEstoque.registrarSaidas(event.getSaidas().size());
+    }
+}
@@ -0,0 +1,23 @@
+package br.ifce.gestor_estoque.listeners;
+
+import br.ifce.gestor_estoque.events.EstoqueDeltaRegistradoEvent;
+import br.ifce.gestor_estoque.services.ProjecaoEstoqueService;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+// Só entrega a variação ao worker depois do commit; se a transação for desfeita, a linha pendente some com ela
+@Timed(value = "listener.execucao", histogram = true)
+@Component
+public class ProjecaoEstoqueEventListener {
+
+    @Autowired
+    private ProjecaoEstoqueService projecaoEstoqueService;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void handleEstoqueDeltaRegistrado(EstoqueDeltaRegistradoEvent event) {
+        projecaoEstoqueService.enfileirar(event.deltaId());
+    }
+}
@@ -0,0 +1,46 @@
+package br.ifce.gestor_estoque.listeners;
+
+import br.ifce.gestor_estoque.events.ProdutoAtualizadoEvent;
+import br.ifce.gestor_estoque.events.SaidaProdutoAtualizadaEvent;
+import br.ifce.gestor_estoque.events.SaidaProdutoCriadaEvent;
+import br.ifce.gestor_estoque.events.SaidaProdutoExcluidaEvent;
+import br.ifce.gestor_estoque.events.SaidasProdutoCriadasEmLoteEvent;
+import br.ifce.gestor_estoque.services.RankingVendasService;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+// Atualiza o ranking de mais vendidos somente após o commit, para não contar vendas desfeitas
+@Timed(value = "listener.execucao", histogram = true)
+@Component
+public class RankingVendasEventListener {
+
+    @Autowired
+    private RankingVendasService rankingVendasService;
+
+    @TransactionalEventListener
+    public void handleSaidaProdutoCriada(SaidaProdutoCriadaEvent event) {
+        rankingVendasService.registrarSaida(event.getSaidaProduto());
+    }
+
+    @TransactionalEventListener
+    public void handleSaidasProdutoCriadasEmLote(SaidasProdutoCriadasEmLoteEvent event) {
+        rankingVendasService.registrarSaidas(event.getSaidas());
+    }
+
+    @TransactionalEventListener
+    public void handleSaidaProdutoAtualizada(SaidaProdutoAtualizadaEvent event) {
+        rankingVendasService.registrarAlteracaoSaida(event.getSaidaProduto(), event.getAnterior());
+    }
+
+    @TransactionalEventListener
+    public void handleSaidaProdutoExcluida(SaidaProdutoExcluidaEvent event) {
+        rankingVendasService.removerSaida(event.getSaidaProduto());
+    }
+
+    @TransactionalEventListener
+    public void handleProdutoAtualizado(ProdutoAtualizadoEvent event) {
+        rankingVendasService.registrarAlteracaoProduto(event.getProduto());
+    }
+}
@@ -0,0 +1,42 @@
+package br.ifce.gestor_estoque.listeners;
+
+import br.ifce.gestor_estoque.events.EstoqueAlteradoEvent;
+import br.ifce.gestor_estoque.events.ProdutoAtualizadoEvent;
+import br.ifce.gestor_estoque.events.ProdutoExcluidoEvent;
+import br.ifce.gestor_estoque.services.ReservaEstoqueService;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+// Mantém o estoque confirmado das reservas em memória; só após o commit, para não contar operações desfeitas
+@Timed(value = "listener.execucao", histogram = true)
+@Component
+public class ReservaEstoqueEventListener {
+
+    @Autowired
+    private ReservaEstoqueService reservaEstoqueService;
+
+    // Antes das demais sincronizações do fim da transação, inclusive a que devolve a retenção de uma saída sem
+    // reserva (ReservaEstoqueService.reterAteOFimDaTransacao): o estoque confirmado cai antes de a retenção sair
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener
+    public void handleEstoqueAlterado(EstoqueAlteradoEvent event) {
+        reservaEstoqueService.registrarAlteracaoEstoque(event.getProdutoId(), event.getDelta());
+    }
+
+    @TransactionalEventListener
+    public void handleProdutoAtualizado(ProdutoAtualizadoEvent event) {
+        int delta = event.getProduto().getQuantidadeEstoque() - event.getQuantidadeEstoqueAnterior();
+        if (delta != 0) {
+            reservaEstoqueService.registrarAlteracaoEstoque(event.getProduto().getId(), delta);
+        }
+    }
+
+    @TransactionalEventListener
+    public void handleProdutoExcluido(ProdutoExcluidoEvent event) {
+        reservaEstoqueService.removerProduto(event.getProduto().getId());
+    }
+}
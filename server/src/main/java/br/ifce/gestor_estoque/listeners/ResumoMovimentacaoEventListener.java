@@ -0,0 +1,109 @@
+package br.ifce.gestor_estoque.listeners;
+
+import br.ifce.gestor_estoque.domain.estoque.EntradaProduto;
+import br.ifce.gestor_estoque.domain.estoque.SaidaProduto;
+import br.ifce.gestor_estoque.events.EntradaProdutoAtualizadaEvent;
+import br.ifce.gestor_estoque.events.EntradaProdutoCriadaEvent;
+import br.ifce.gestor_estoque.events.EntradaProdutoExcluidaEvent;
+import br.ifce.gestor_estoque.events.EntradasProdutoCriadasEmLoteEvent;
+import br.ifce.gestor_estoque.events.MovimentacaoAnterior;
+import br.ifce.gestor_estoque.events.SaidaProdutoAtualizadaEvent;
+import br.ifce.gestor_estoque.events.SaidaProdutoCriadaEvent;
+import br.ifce.gestor_estoque.events.SaidaProdutoExcluidaEvent;
+import br.ifce.gestor_estoque.events.SaidasProdutoCriadasEmLoteEvent;
+import br.ifce.gestor_estoque.services.ResumoMovimentacaoService;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.stream.Collectors;
+
+// Mantém os totais diários e mensais de movimentação na mesma transação da movimentação
+@Timed(value = "listener.execucao", histogram = true)
+@Component
+public class ResumoMovimentacaoEventListener {
+
+    @Autowired
+    private ResumoMovimentacaoService resumoMovimentacaoService;
+
+    @EventListener
+    @Transactional
+    public void handleEntradaProdutoCriada(EntradaProdutoCriadaEvent event) {
+        registrarEntrada(event.getEntradaProduto(), 1);
+    }
+
+    @EventListener
+    @Transactional
+    public void handleEntradasProdutoCriadasEmLote(EntradasProdutoCriadasEmLoteEvent event) {
+        // Um ajuste por produto e data, em vez de um por item do lote
+        event.getEntradas().stream()
+                .collect(Collectors.groupingBy(entrada -> new ProdutoNaData(entrada.getProduto().getId(), entrada.getDataMovimentacao())))
+                .forEach((chave, entradas) -> resumoMovimentacaoService.registrar(chave.produtoId(), chave.data(),
+                        entradas.stream().mapToLong(EntradaProduto::getQuantidade).sum(), 0,
+                        entradas.stream().map(EntradaProduto::calcularValorTotalEntrada).reduce(BigDecimal.ZERO, BigDecimal::add),
+                        entradas.size()));
+    }
+
+    @EventListener
+    @Transactional
+    public void handleEntradaProdutoAtualizada(EntradaProdutoAtualizadaEvent event) {
+        MovimentacaoAnterior anterior = event.getAnterior();
+        resumoMovimentacaoService.registrar(anterior.produtoId(), anterior.dataMovimentacao(),
+                -anterior.quantidade(), 0, anterior.valorTotal().negate(), -1);
+        registrarEntrada(event.getEntradaProduto(), 1);
+    }
+
+    @EventListener
+    @Transactional
+    public void handleEntradaProdutoExcluida(EntradaProdutoExcluidaEvent event) {
+        registrarEntrada(event.getEntradaProduto(), -1);
+    }
+
+    @EventListener
+    @Transactional
+    public void handleSaidaProdutoCriada(SaidaProdutoCriadaEvent event) {
+        registrarSaida(event.getSaidaProduto(), 1);
+    }
+
+    @EventListener
+    @Transactional
+    public void handleSaidasProdutoCriadasEmLote(SaidasProdutoCriadasEmLoteEvent event) {
+        event.getSaidas().stream()
+                .collect(Collectors.groupingBy(saida -> new ProdutoNaData(saida.getProduto().getId(), saida.getDataMovimentacao())))
+                .forEach((chave, saidas) -> resumoMovimentacaoService.registrar(chave.produtoId(), chave.data(),
+                        0, saidas.stream().mapToLong(SaidaProduto::getQuantidade).sum(), BigDecimal.ZERO, saidas.size()));
+    }
+
+    @EventListener
+    @Transactional
+    public void handleSaidaProdutoAtualizada(SaidaProdutoAtualizadaEvent event) {
+        MovimentacaoAnterior anterior = event.getAnterior();
+        resumoMovimentacaoService.registrar(anterior.produtoId(), anterior.dataMovimentacao(),
+                0, -anterior.quantidade(), BigDecimal.ZERO, -1);
+        registrarSaida(event.getSaidaProduto(), 1);
+    }
+
+    @EventListener
+    @Transactional
+    public void handleSaidaProdutoExcluida(SaidaProdutoExcluidaEvent event) {
+        registrarSaida(event.getSaidaProduto(), -1);
+    }
+
+    private void registrarEntrada(EntradaProduto entrada, int sinal) {
+        BigDecimal valor = entrada.calcularValorTotalEntrada();
+        resumoMovimentacaoService.registrar(entrada.getProduto().getId(), entrada.getDataMovimentacao(),
+                (long) sinal * entrada.getQuantidade(), 0, sinal < 0 ? valor.negate() : valor, sinal);
+    }
+
+    private void registrarSaida(SaidaProduto saida, int sinal) {
+        resumoMovimentacaoService.registrar(saida.getProduto().getId(), saida.getDataMovimentacao(),
+                0, (long) sinal * saida.getQuantidade(), BigDecimal.ZERO, sinal);
+    }
+
+    private record ProdutoNaData(Long produtoId, LocalDate data) {
+    }
+}
@@ -1,29 +1,36 @@
 package br.ifce.gestor_estoque.listeners;
 
 import br.ifce.gestor_estoque.domain.estoque.Produto;
+import br.ifce.gestor_estoque.domain.estoque.SaidaProduto;
+import br.ifce.gestor_estoque.domain.estoque.TipoMovimentacao;
 import br.ifce.gestor_estoque.events.SaidaProdutoCriadaEvent;
 import br.ifce.gestor_estoque.events.SaidaProdutoExcluidaEvent;
 import br.ifce.gestor_estoque.events.SaidaProdutoAtualizadaEvent;
-import br.ifce.gestor_estoque.repositores.ProdutoRepository;
+import br.ifce.gestor_estoque.exceptions.BusinessException;
+import br.ifce.gestor_estoque.exceptions.EstoqueInsuficienteException;
+import br.ifce.gestor_estoque.infra.metricas.MetricasEstoque;
+import br.ifce.gestor_estoque.services.EstoqueService;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+@Timed(value = "listener.execucao", histogram = true)
 @Component
 public class SaidaProdutoEventListener {
 
     @Autowired
-    private ProdutoRepository produtoRepository;
+    private EstoqueService estoqueService;
+
+    @Autowired
+    private MetricasEstoque metricasEstoque;
 
     @EventListener
     @Transactional
     public void handleSaidaProdutoCriada(SaidaProdutoCriadaEvent event) {
-        Produto produto = event.getSaidaProduto().getProduto();
-        int quantidade = event.getSaidaProduto().getQuantidade();
-        // Usando o método de domínio para saída de estoque
-        produto.saidaEstoque(quantidade);
-        produtoRepository.save(produto);
+        SaidaProduto saida = event.getSaidaProduto();
+        ajustarEstoque(saida.getProduto(), -saida.getQuantidade(), TipoMovimentacao.SAIDA);
     }
 
     @EventListener
@@ -31,20 +38,27 @@ public class SaidaProdutoEventListener {
     public void handleSaidaProdutoAtualizada(SaidaProdutoAtualizadaEvent event) {
         // O SaidaProdutoService já reverteu o estoque do produto antigo.
         // Este listener aplica a saída ao novo produto (ou ao mesmo produto, se não mudou).
-        Produto produtoNovo = event.getSaidaProduto().getProduto();
-        int quantidadeNova = event.getSaidaProduto().getQuantidade();
-        // Usando o método de domínio para saída de estoque
-        produtoNovo.saidaEstoque(quantidadeNova);
-        produtoRepository.save(produtoNovo);
+        SaidaProduto saida = event.getSaidaProduto();
+        ajustarEstoque(saida.getProduto(), -saida.getQuantidade(), TipoMovimentacao.SAIDA);
     }
 
     @EventListener
     @Transactional
     public void handleSaidaProdutoExcluida(SaidaProdutoExcluidaEvent event) {
-        Produto produto = event.getSaidaProduto().getProduto();
-        int quantidade = event.getSaidaProduto().getQuantidade();
-        // Usando o método de domínio para entrada de estoque (reversão da saída)
-        produto.entradaEstoque(quantidade);
-        produtoRepository.save(produto);
+        // Reversão da saída: devolve a quantidade ao estoque (pode ser adiada pela projeção assíncrona)
+        SaidaProduto saida = event.getSaidaProduto();
+        if (!estoqueService.aumentarEstoque(saida.getProduto(), saida.getQuantidade(), TipoMovimentacao.ESTORNO_SAIDA)) {
+            throw new BusinessException("Não foi possível devolver ao estoque a saída do produto ID " + saida.getProduto().getId() + ".");
+        }
+    }
+
+    // Atualização condicional no banco: a saída só é aplicada se o estoque não ficar negativo,
+    // o que impede vendas acima do disponível mesmo com saídas concorrentes do mesmo produto.
+    // A exceção desfaz a transação do chamador, incluindo o registro da saída.
+    private void ajustarEstoque(Produto produto, int delta, TipoMovimentacao tipo) {
+        if (!estoqueService.ajustarEstoque(produto, delta, tipo)) {
+            metricasEstoque.registrarSaidasRecusadas(1);
+            throw new EstoqueInsuficienteException("Quantidade em estoque insuficiente para a saída do produto ID " + produto.getId() + ".");
+        }
     }
 }
@@ -0,0 +1,24 @@
+package br.ifce.gestor_estoque.listeners;
+
+import br.ifce.gestor_estoque.domain.user.User;
+import br.ifce.gestor_estoque.infra.security.PrincipalCache;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+// Listener JPA de User, instanciado pelo Spring (SpringBeanContainer do Hibernate)
+@Component
+public class UserCacheInvalidationListener {
+
+    @Autowired
+    @Lazy
+    private PrincipalCache principalCache;
+
+    @PostUpdate
+    @PostRemove
+    public void invalidar(User user) {
+        principalCache.invalidarUsuario(user.getId());
+    }
+}
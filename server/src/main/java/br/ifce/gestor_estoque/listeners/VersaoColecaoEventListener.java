@@ -0,0 +1,47 @@
+package br.ifce.gestor_estoque.listeners;
+
+import br.ifce.gestor_estoque.events.EstoqueAlteradoEvent;
+import br.ifce.gestor_estoque.events.ProdutoAtualizadoEvent;
+import br.ifce.gestor_estoque.events.ProdutoCriadoEvent;
+import br.ifce.gestor_estoque.events.ProdutoExcluidoEvent;
+import br.ifce.gestor_estoque.events.ProdutosImportadosEvent;
+import br.ifce.gestor_estoque.infra.cache.VersaoColecoes;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+// Registra a alteração da coleção de produtos na transação: a notificação às demais instâncias sai no commit,
+// e a versão (ETag) só avança depois dele, para que nenhuma resposta leve a versão nova com dados antigos
+@Timed(value = "listener.execucao", histogram = true)
+@Component
+public class VersaoColecaoEventListener {
+
+    @Autowired
+    private VersaoColecoes versaoColecoes;
+
+    @EventListener
+    public void handleProdutoCriado(ProdutoCriadoEvent event) {
+        versaoColecoes.registrarAlteracaoProdutos();
+    }
+
+    @EventListener
+    public void handleProdutoAtualizado(ProdutoAtualizadoEvent event) {
+        versaoColecoes.registrarAlteracaoProdutos();
+    }
+
+    @EventListener
+    public void handleProdutoExcluido(ProdutoExcluidoEvent event) {
+        versaoColecoes.registrarAlteracaoProdutos();
+    }
+
+    @EventListener
+    public void handleProdutosImportados(ProdutosImportadosEvent event) {
+        versaoColecoes.registrarAlteracaoProdutos();
+    }
+
+    @EventListener
+    public void handleEstoqueAlterado(EstoqueAlteradoEvent event) {
+        versaoColecoes.registrarAlteracaoProdutos();
+    }
+}
@@ -1,16 +1,38 @@
 package br.ifce.gestor_estoque.repositores;
 
 import br.ifce.gestor_estoque.domain.estoque.EntradaProduto;
+import br.ifce.gestor_estoque.dto.estoque.EntradaProdutoResponse;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface EntradaProdutoRepository extends JpaRepository<EntradaProduto, Long> {
     // Método para dashboard - contar entradas a partir de uma data
     @Query("SELECT COUNT(e) FROM EntradaProduto e WHERE e.dataMovimentacao >= :data")
     long countByDataMovimentacaoGreaterThanEqual(@Param("data") LocalDate data);
+
+    // Carrega produto e fornecedor no mesmo SELECT para as operações de escrita que precisam da entidade
+    @EntityGraph(attributePaths = {"produto", "fornecedor"})
+    @Query("SELECT e FROM EntradaProduto e WHERE e.id = :id")
+    Optional<EntradaProduto> findComProdutoEFornecedorById(@Param("id") Long id);
+
+    // Projeções para leitura: selecionam só as colunas da resposta, sem entidades gerenciadas.
+    // O valor total é calculado pelo banco, com a mesma regra de EntradaProduto.calcularValorTotalEntrada()
+    String PROJECAO_RESPOSTA = "SELECT new br.ifce.gestor_estoque.dto.estoque.EntradaProdutoResponse("
+            + "e.id, p.id, p.nome, f.id, f.nome, e.quantidade, e.dataMovimentacao, e.precoCusto, e.observacao, "
+            + "CAST(COALESCE(e.precoCusto * e.quantidade, 0) AS BigDecimal)) "
+            + "FROM EntradaProduto e JOIN e.produto p JOIN e.fornecedor f";
+
+    @Query(PROJECAO_RESPOSTA + " ORDER BY e.id")
+    List<EntradaProdutoResponse> findAllResposta();
+
+    @Query(PROJECAO_RESPOSTA + " WHERE e.id = :id")
+    Optional<EntradaProdutoResponse> findRespostaById(@Param("id") Long id);
 }
@@ -0,0 +1,19 @@
+package br.ifce.gestor_estoque.repositores;
+
+import br.ifce.gestor_estoque.domain.estoque.EstoqueDeltaPendente;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface EstoqueDeltaPendenteRepository extends JpaRepository<EstoqueDeltaPendente, Long> {
+
+    // Variações que ficaram para trás (queda do processo ou falha ao aplicar), para reenfileirar
+    @Query("SELECT d.id FROM EstoqueDeltaPendente d WHERE d.registradoEm < :antesDe ORDER BY d.id")
+    List<Long> findIdsRegistradosAntesDe(@Param("antesDe") Instant antesDe, Pageable pageable);
+}
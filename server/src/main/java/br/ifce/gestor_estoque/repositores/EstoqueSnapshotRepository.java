@@ -0,0 +1,144 @@
+package br.ifce.gestor_estoque.repositores;
+
+import br.ifce.gestor_estoque.domain.estoque.EstoqueSnapshot;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface EstoqueSnapshotRepository extends JpaRepository<EstoqueSnapshot, Long> {
+
+    /*
+     * Estoque de cada produto ao final de :data. Parte do snapshot mais próximo - o último até a data ou,
+     * se não houver, o primeiro depois dela; sem nenhum, o estoque atual mais as variações ainda pendentes
+     * da projeção assíncrona - e soma (ou desconta) apenas as
+     * movimentações entre a data do snapshot e a data pedida, usando os índices (produto_id, data).
+     */
+    String ESTOQUE_NA_DATA = """
+            SELECT p.id AS "produtoId", p.nome AS "produtoNome", CAST(ref.quantidade + CASE WHEN ref.data <= :data
+                     THEN COALESCE((SELECT SUM(e.quantidade) FROM entrada_produto e WHERE e.produto_id = p.id
+                                    AND e.data_movimentacao > ref.data AND e.data_movimentacao <= :data), 0)
+                        - COALESCE((SELECT SUM(s.quantidade) FROM saida_produto s WHERE s.produto_id = p.id
+                                    AND s.data_movimentacao > ref.data AND s.data_movimentacao <= :data), 0)
+                     ELSE COALESCE((SELECT SUM(s.quantidade) FROM saida_produto s WHERE s.produto_id = p.id
+                                    AND s.data_movimentacao > :data AND s.data_movimentacao <= ref.data), 0)
+                        - COALESCE((SELECT SUM(e.quantidade) FROM entrada_produto e WHERE e.produto_id = p.id
+                                    AND e.data_movimentacao > :data AND e.data_movimentacao <= ref.data), 0)
+                   END AS integer) AS "quantidade"
+            FROM produto p
+            CROSS JOIN LATERAL (
+                SELECT r.data, r.quantidade FROM (
+                    (SELECT sn.data, sn.quantidade, 0 AS prioridade FROM estoque_snapshot sn
+                     WHERE sn.produto_id = p.id AND sn.data <= :data ORDER BY sn.data DESC LIMIT 1)
+                    UNION ALL
+                    (SELECT sn.data, sn.quantidade, 1 AS prioridade FROM estoque_snapshot sn
+                     WHERE sn.produto_id = p.id AND sn.data > :data ORDER BY sn.data LIMIT 1)
+                    UNION ALL
+                    SELECT DATE '9999-12-31', p.quantidade_estoque + COALESCE((SELECT SUM(dp.delta) FROM estoque_delta_pendente dp
+                                                                              WHERE dp.produto_id = p.id), 0), 2
+                ) r
+                ORDER BY r.prioridade
+                LIMIT 1
+            ) ref
+            """;
+
+    @Query(value = ESTOQUE_NA_DATA + " WHERE p.id = :produtoId", nativeQuery = true)
+    Optional<EstoqueNaData> calcularEstoqueNaData(@Param("produtoId") Long produtoId, @Param("data") LocalDate data);
+
+    @Query(value = ESTOQUE_NA_DATA + " ORDER BY p.id", nativeQuery = true)
+    List<EstoqueNaData> calcularEstoqueDeTodosNaData(@Param("data") LocalDate data);
+
+    /*
+     * Trava de ajuste por produto (advisory lock de transação): cada movimentação segura a trava compartilhada
+     * do produto até o commit, e a criação do snapshot tenta a exclusiva sem esperar. Assim o snapshot nunca é
+     * calculado enquanto uma movimentação do produto que ainda vai (ou já foi) corrigir snapshots está aberta,
+     * sem bloquear a tabela nem as movimentações dos outros produtos.
+     */
+    int CLASSE_TRAVA_AJUSTE = 742_055_009;
+
+    /**
+     * Segura a trava compartilhada de ajuste do produto até o fim da transação, esperando a criação de um snapshot
+     * do produto em andamento terminar. Deve rodar antes de {@link #ajustarAPartirDe}, em instrução separada, para
+     * que o ajuste enxergue o snapshot recém-criado.
+     */
+    @Query(value = "SELECT CAST(pg_advisory_xact_lock_shared(" + CLASSE_TRAVA_AJUSTE
+            + ", CAST(MOD(:produtoId, 2147483647) AS integer)) AS text)", nativeQuery = true)
+    String travarProdutoParaAjuste(@Param("produtoId") Long produtoId);
+
+    /**
+     * Corrige os snapshots afetados por uma movimentação datada em {@code data}: todos os de mesma data ou posteriores.
+     * @return a quantidade de snapshots ajustados.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "estoque_snapshot"))
+    @Query(value = "UPDATE estoque_snapshot SET quantidade = quantidade + :delta WHERE produto_id = :produtoId AND data >= :data",
+            nativeQuery = true)
+    int ajustarAPartirDe(@Param("produtoId") Long produtoId, @Param("data") LocalDate data, @Param("delta") int delta);
+
+    @Query(value = "SELECT COALESCE(MAX(id), 0) FROM produto", nativeQuery = true)
+    long findMaiorIdProduto();
+
+    /**
+     * Seleciona, na faixa de IDs, os produtos com snapshot devido em {@code data} e tenta a trava exclusiva de ajuste
+     * de cada um, sem esperar. Um produto vence no dia da sua fase ({@code id % intervaloDias}), o que espalha o
+     * catálogo pelos dias do intervalo; um produto que já tem snapshot, mas nenhum dentro do intervalo (por exemplo,
+     * ignorado por estar travado ou com a aplicação parada), vence em qualquer dia.
+     * @return os IDs travados, cujo snapshot pode ser criado nesta transação.
+     */
+    @Query(value = """
+            WITH devidos AS MATERIALIZED (
+                SELECT p.id FROM produto p
+                WHERE p.id BETWEEN :primeiroId AND :ultimoId
+                  AND NOT EXISTS (SELECT 1 FROM estoque_snapshot sn
+                                  WHERE sn.produto_id = p.id AND sn.data > CAST(:data AS date) - :intervaloDias)
+                  AND (MOD(p.id, :intervaloDias) = :fase
+                       OR EXISTS (SELECT 1 FROM estoque_snapshot sn WHERE sn.produto_id = p.id))
+            )
+            SELECT d.id FROM devidos d
+            """ + "WHERE pg_try_advisory_xact_lock(" + CLASSE_TRAVA_AJUSTE + ", CAST(MOD(d.id, 2147483647) AS integer)) ORDER BY d.id",
+            nativeQuery = true)
+    List<Long> travarDevidosEntre(@Param("primeiroId") long primeiroId, @Param("ultimoId") long ultimoId,
+                                  @Param("data") LocalDate data, @Param("intervaloDias") int intervaloDias,
+                                  @Param("fase") int fase);
+
+    /**
+     * Cria o snapshot de {@code data} para os produtos informados, já travados por {@link #travarDevidosEntre}.
+     * O valor é o estoque atual (com as variações ainda pendentes da projeção assíncrona)
+     * menos o saldo das movimentações datadas depois de {@code data}.
+     * @return a quantidade de snapshots criados.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "estoque_snapshot"))
+    @Query(value = """
+            INSERT INTO estoque_snapshot (produto_id, data, quantidade)
+            SELECT p.id, :data, p.quantidade_estoque
+                   + COALESCE((SELECT SUM(dp.delta) FROM estoque_delta_pendente dp WHERE dp.produto_id = p.id), 0)
+                   - COALESCE((SELECT SUM(e.quantidade) FROM entrada_produto e WHERE e.produto_id = p.id AND e.data_movimentacao > :data), 0)
+                   + COALESCE((SELECT SUM(s.quantidade) FROM saida_produto s WHERE s.produto_id = p.id AND s.data_movimentacao > :data), 0)
+            FROM produto p
+            WHERE p.id IN (:produtoIds)
+            ON CONFLICT (produto_id, data) DO NOTHING
+            """, nativeQuery = true)
+    int criarSnapshots(@Param("data") LocalDate data, @Param("produtoIds") Collection<Long> produtoIds);
+
+    @Modifying
+    @Query("DELETE FROM EstoqueSnapshot s WHERE s.produtoId = :produtoId")
+    int deleteByProdutoId(@Param("produtoId") Long produtoId);
+
+    // Linha da consulta de estoque em uma data, mapeada pelos aliases da consulta nativa
+    interface EstoqueNaData {
+        Long getProdutoId();
+        String getProdutoNome();
+        Integer getQuantidade();
+    }
+}
@@ -1,12 +1,23 @@
 package br.ifce.gestor_estoque.repositores;
 
 import br.ifce.gestor_estoque.domain.estoque.Fornecedor;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface FornecedorRepository extends JpaRepository<Fornecedor, Long> {
     // Spring Data JPA will automatically provide methods like findAll(), findById(), save(), deleteById(), etc.
-    // You can add custom query methods here if needed, for example:
-    // Fornecedor findByNome(String nome);
+
+    // Paginação keyset - cada consulta retoma logo após o último item (valor, id) da página anterior.
+    // A comparação de linha permite ao PostgreSQL usar o índice (nome, id) como faixa a partir do cursor
+    @Query("SELECT f FROM Fornecedor f WHERE f.id > :ultimoId ORDER BY f.id")
+    List<Fornecedor> findPaginaPorId(@Param("ultimoId") long ultimoId, Pageable pageable);
+
+    @Query("SELECT f FROM Fornecedor f WHERE (f.nome, f.id) > (:ultimoNome, :ultimoId) ORDER BY f.nome, f.id")
+    List<Fornecedor> findPaginaPorNome(@Param("ultimoNome") String ultimoNome, @Param("ultimoId") long ultimoId, Pageable pageable);
 }
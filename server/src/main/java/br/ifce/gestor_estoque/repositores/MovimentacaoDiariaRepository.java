@@ -0,0 +1,83 @@
+package br.ifce.gestor_estoque.repositores;
+
+import br.ifce.gestor_estoque.domain.estoque.MovimentacaoDiaria;
+import br.ifce.gestor_estoque.dto.estoque.TotaisMovimentacaoProdutoResponse;
+import br.ifce.gestor_estoque.dto.estoque.TotaisMovimentacaoResponse;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface MovimentacaoDiariaRepository extends JpaRepository<MovimentacaoDiaria, Long> {
+
+    // Soma (ou, com valores negativos, desconta) os totais do produto no dia, criando a linha se preciso.
+    // As consultas nativas declaram a tabela que alteram; sem isso o Hibernate esvaziaria todo o cache de segundo nível
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "movimentacao_diaria"))
+    @Query(value = """
+            INSERT INTO movimentacao_diaria (produto_id, data, quantidade_entrada, quantidade_saida, valor_entrada, quantidade_movimentacoes)
+            VALUES (:produtoId, :data, :quantidadeEntrada, :quantidadeSaida, :valorEntrada, :quantidadeMovimentacoes)
+            ON CONFLICT (produto_id, data) DO UPDATE SET
+                quantidade_entrada = movimentacao_diaria.quantidade_entrada + EXCLUDED.quantidade_entrada,
+                quantidade_saida = movimentacao_diaria.quantidade_saida + EXCLUDED.quantidade_saida,
+                valor_entrada = movimentacao_diaria.valor_entrada + EXCLUDED.valor_entrada,
+                quantidade_movimentacoes = movimentacao_diaria.quantidade_movimentacoes + EXCLUDED.quantidade_movimentacoes
+            """, nativeQuery = true)
+    int acumular(@Param("produtoId") Long produtoId, @Param("data") LocalDate data,
+                 @Param("quantidadeEntrada") long quantidadeEntrada, @Param("quantidadeSaida") long quantidadeSaida,
+                 @Param("valorEntrada") BigDecimal valorEntrada, @Param("quantidadeMovimentacoes") long quantidadeMovimentacoes);
+
+    // Remove a linha que ficou sem movimentações depois de uma exclusão ou edição
+    @Modifying
+    @Query("DELETE FROM MovimentacaoDiaria d WHERE d.produtoId = :produtoId AND d.data = :data AND d.quantidadeMovimentacoes = 0")
+    int removerSeVazio(@Param("produtoId") Long produtoId, @Param("data") LocalDate data);
+
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM movimentacao_diaria)", nativeQuery = true)
+    boolean existeAlgum();
+
+    // Recalcula todos os totais diários a partir das tabelas de movimentação
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "movimentacao_diaria"))
+    @Query(value = """
+            INSERT INTO movimentacao_diaria (produto_id, data, quantidade_entrada, quantidade_saida, valor_entrada, quantidade_movimentacoes)
+            SELECT m.produto_id, m.data, SUM(m.quantidade_entrada), SUM(m.quantidade_saida), SUM(m.valor_entrada), COUNT(*)
+            FROM (
+                SELECT produto_id, data_movimentacao AS data, quantidade AS quantidade_entrada, 0 AS quantidade_saida,
+                       COALESCE(preco_custo * quantidade, 0) AS valor_entrada
+                FROM entrada_produto
+                UNION ALL
+                SELECT produto_id, data_movimentacao, 0, quantidade, 0
+                FROM saida_produto
+            ) m
+            GROUP BY m.produto_id, m.data
+            """, nativeQuery = true)
+    int reconstruir();
+
+    // Bloqueia as duas tabelas de resumo contra os ajustes incrementais durante a reconstrução
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "movimentacao_diaria"))
+    @Query(value = "LOCK TABLE movimentacao_diaria, movimentacao_mensal IN SHARE ROW EXCLUSIVE MODE", nativeQuery = true)
+    void bloquearParaReconstrucao();
+
+    @Query("SELECT new br.ifce.gestor_estoque.dto.estoque.TotaisMovimentacaoResponse("
+            + "d.data, SUM(d.quantidadeEntrada), SUM(d.quantidadeSaida), SUM(d.valorEntrada), SUM(d.quantidadeMovimentacoes)) "
+            + "FROM MovimentacaoDiaria d WHERE d.data BETWEEN :inicio AND :fim "
+            + "AND (:produtoId IS NULL OR d.produtoId = :produtoId) GROUP BY d.data ORDER BY d.data")
+    List<TotaisMovimentacaoResponse> totalizarPorDia(@Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim,
+                                                     @Param("produtoId") Long produtoId);
+
+    @Query("SELECT new br.ifce.gestor_estoque.dto.estoque.TotaisMovimentacaoProdutoResponse("
+            + "p.id, p.nome, SUM(d.quantidadeEntrada), SUM(d.quantidadeSaida), SUM(d.valorEntrada), SUM(d.quantidadeMovimentacoes)) "
+            + "FROM MovimentacaoDiaria d JOIN Produto p ON p.id = d.produtoId WHERE d.data BETWEEN :inicio AND :fim "
+            + "GROUP BY p.id, p.nome")
+    List<TotaisMovimentacaoProdutoResponse> totalizarPorProduto(@Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim);
+}
@@ -0,0 +1,67 @@
+package br.ifce.gestor_estoque.repositores;
+
+import br.ifce.gestor_estoque.domain.estoque.MovimentacaoMensal;
+import br.ifce.gestor_estoque.dto.estoque.TotaisMovimentacaoProdutoResponse;
+import br.ifce.gestor_estoque.dto.estoque.TotaisMovimentacaoResponse;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface MovimentacaoMensalRepository extends JpaRepository<MovimentacaoMensal, Long> {
+
+    // Soma (ou, com valores negativos, desconta) os totais do produto no mês, criando a linha se preciso
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "movimentacao_mensal"))
+    @Query(value = """
+            INSERT INTO movimentacao_mensal (produto_id, mes, quantidade_entrada, quantidade_saida, valor_entrada, quantidade_movimentacoes)
+            VALUES (:produtoId, :mes, :quantidadeEntrada, :quantidadeSaida, :valorEntrada, :quantidadeMovimentacoes)
+            ON CONFLICT (produto_id, mes) DO UPDATE SET
+                quantidade_entrada = movimentacao_mensal.quantidade_entrada + EXCLUDED.quantidade_entrada,
+                quantidade_saida = movimentacao_mensal.quantidade_saida + EXCLUDED.quantidade_saida,
+                valor_entrada = movimentacao_mensal.valor_entrada + EXCLUDED.valor_entrada,
+                quantidade_movimentacoes = movimentacao_mensal.quantidade_movimentacoes + EXCLUDED.quantidade_movimentacoes
+            """, nativeQuery = true)
+    int acumular(@Param("produtoId") Long produtoId, @Param("mes") LocalDate mes,
+                 @Param("quantidadeEntrada") long quantidadeEntrada, @Param("quantidadeSaida") long quantidadeSaida,
+                 @Param("valorEntrada") BigDecimal valorEntrada, @Param("quantidadeMovimentacoes") long quantidadeMovimentacoes);
+
+    @Modifying
+    @Query("DELETE FROM MovimentacaoMensal m WHERE m.produtoId = :produtoId AND m.mes = :mes AND m.quantidadeMovimentacoes = 0")
+    int removerSeVazio(@Param("produtoId") Long produtoId, @Param("mes") LocalDate mes);
+
+    // Recalcula os totais mensais a partir dos diários (que devem ter sido reconstruídos antes)
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "movimentacao_mensal"))
+    @Query(value = """
+            INSERT INTO movimentacao_mensal (produto_id, mes, quantidade_entrada, quantidade_saida, valor_entrada, quantidade_movimentacoes)
+            SELECT d.produto_id, CAST(date_trunc('month', d.data) AS date), SUM(d.quantidade_entrada), SUM(d.quantidade_saida),
+                   SUM(d.valor_entrada), SUM(d.quantidade_movimentacoes)
+            FROM movimentacao_diaria d
+            GROUP BY d.produto_id, CAST(date_trunc('month', d.data) AS date)
+            """, nativeQuery = true)
+    int reconstruir();
+
+    // Apenas meses inteiros: as pontas parciais do intervalo são lidas dos totais diários
+    @Query("SELECT new br.ifce.gestor_estoque.dto.estoque.TotaisMovimentacaoResponse("
+            + "m.mes, SUM(m.quantidadeEntrada), SUM(m.quantidadeSaida), SUM(m.valorEntrada), SUM(m.quantidadeMovimentacoes)) "
+            + "FROM MovimentacaoMensal m WHERE m.mes >= :primeiroMes AND m.mes <= :ultimoMes "
+            + "AND (:produtoId IS NULL OR m.produtoId = :produtoId) GROUP BY m.mes ORDER BY m.mes")
+    List<TotaisMovimentacaoResponse> totalizarPorMes(@Param("primeiroMes") LocalDate primeiroMes, @Param("ultimoMes") LocalDate ultimoMes,
+                                                     @Param("produtoId") Long produtoId);
+
+    @Query("SELECT new br.ifce.gestor_estoque.dto.estoque.TotaisMovimentacaoProdutoResponse("
+            + "p.id, p.nome, SUM(m.quantidadeEntrada), SUM(m.quantidadeSaida), SUM(m.valorEntrada), SUM(m.quantidadeMovimentacoes)) "
+            + "FROM MovimentacaoMensal m JOIN Produto p ON p.id = m.produtoId WHERE m.mes >= :primeiroMes AND m.mes <= :ultimoMes "
+            + "GROUP BY p.id, p.nome")
+    List<TotaisMovimentacaoProdutoResponse> totalizarPorProduto(@Param("primeiroMes") LocalDate primeiroMes, @Param("ultimoMes") LocalDate ultimoMes);
+}
@@ -0,0 +1,98 @@
+package br.ifce.gestor_estoque.repositores;
+
+import br.ifce.gestor_estoque.domain.estoque.PrevisaoDemanda;
+import br.ifce.gestor_estoque.dto.estoque.PrevisaoDemandaResponse;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PrevisaoDemandaRepository extends JpaRepository<PrevisaoDemanda, Long> {
+
+    // Leitura das previsões pré-calculadas; produtos excluídos desde a última execução ficam de fora pelo JOIN
+    String PROJECAO_RESPOSTA = "SELECT new br.ifce.gestor_estoque.dto.estoque.PrevisaoDemandaResponse("
+            + "p.id, p.nome, p.quantidadeEstoque, d.demandaDiaria, d.desvioDiario, d.prazoEntregaDias, f.id, f.nome, "
+            + "d.pontoReposicao, d.quantidadeSugerida, d.calculadoEm) "
+            + "FROM PrevisaoDemanda d JOIN Produto p ON p.id = d.produtoId LEFT JOIN Fornecedor f ON f.id = d.fornecedorId";
+
+    @Query(PROJECAO_RESPOSTA + " WHERE d.produtoId > :ultimoId"
+            + " AND (:fornecedorId IS NULL OR d.fornecedorId = :fornecedorId)"
+            + " AND (:apenasRepor = false OR d.quantidadeSugerida > 0) ORDER BY d.produtoId")
+    List<PrevisaoDemandaResponse> findPagina(@Param("ultimoId") long ultimoId, @Param("fornecedorId") Long fornecedorId,
+                                             @Param("apenasRepor") boolean apenasRepor, Pageable pageable);
+
+    @Query(PROJECAO_RESPOSTA + " WHERE d.produtoId = :produtoId")
+    Optional<PrevisaoDemandaResponse> findRespostaByProdutoId(@Param("produtoId") Long produtoId);
+
+    // Rotina noturna: os produtos são divididos em lotes por faixa de ID
+    @Query("SELECT p.id FROM Produto p ORDER BY p.id")
+    List<Long> findIdsProdutos();
+
+    List<PrevisaoDemanda> findByProdutoIdBetween(Long primeiro, Long ultimo);
+
+    @Query("SELECT p.id AS id, p.quantidadeEstoque AS quantidadeEstoque FROM Produto p WHERE p.id BETWEEN :primeiro AND :ultimo")
+    List<ProdutoRepository.EstoqueAtual> findEstoquesEntre(@Param("primeiro") Long primeiro, @Param("ultimo") Long ultimo);
+
+    // Só os dias com saída; os demais contam como demanda zero
+    @Query("SELECT d.produtoId AS produtoId, d.data AS data, d.quantidadeSaida AS quantidade FROM MovimentacaoDiaria d"
+            + " WHERE d.produtoId BETWEEN :primeiro AND :ultimo AND d.data > :desde AND d.data <= :ate AND d.quantidadeSaida > 0"
+            + " ORDER BY d.produtoId, d.data")
+    List<DemandaDiaria> findDemandaEntre(@Param("primeiro") Long primeiro, @Param("ultimo") Long ultimo,
+                                         @Param("desde") LocalDate desde, @Param("ate") LocalDate ate);
+
+    // Sem pedidos de compra registrados, o prazo de reposição é o intervalo médio entre entregas do mesmo produto
+    // pelo mesmo fornecedor; o fornecedor considerado é o da entrega mais recente
+    @Query(value = """
+            SELECT DISTINCT ON (f.produto_id) f.produto_id AS "produtoId", f.fornecedor_id AS "fornecedorId", f.prazo AS "prazoDias"
+            FROM (
+                SELECT e.produto_id, e.fornecedor_id, MAX(e.data_movimentacao) AS ultima,
+                       CAST(AVG(e.intervalo) FILTER (WHERE e.intervalo > 0) AS double precision) AS prazo
+                FROM (
+                    SELECT produto_id, fornecedor_id, data_movimentacao,
+                           data_movimentacao - LAG(data_movimentacao) OVER (PARTITION BY produto_id, fornecedor_id ORDER BY data_movimentacao) AS intervalo
+                    FROM entrada_produto
+                    WHERE produto_id BETWEEN :primeiro AND :ultimo AND data_movimentacao >= :desde
+                ) e
+                GROUP BY e.produto_id, e.fornecedor_id
+            ) f
+            ORDER BY f.produto_id, f.ultima DESC, f.fornecedor_id
+            """, nativeQuery = true)
+    List<PrazoReposicao> findPrazosEntre(@Param("primeiro") Long primeiro, @Param("ultimo") Long ultimo, @Param("desde") LocalDate desde);
+
+    // Prazo médio de cada fornecedor, para produtos com uma única entrega no período
+    @Query(value = """
+            SELECT e.fornecedor_id AS "fornecedorId", CAST(AVG(e.intervalo) AS double precision) AS "prazoDias"
+            FROM (
+                SELECT fornecedor_id,
+                       data_movimentacao - LAG(data_movimentacao) OVER (PARTITION BY produto_id, fornecedor_id ORDER BY data_movimentacao) AS intervalo
+                FROM entrada_produto
+                WHERE data_movimentacao >= :desde
+            ) e
+            WHERE e.intervalo > 0
+            GROUP BY e.fornecedor_id
+            """, nativeQuery = true)
+    List<PrazoFornecedor> findPrazosPorFornecedor(@Param("desde") LocalDate desde);
+
+    interface DemandaDiaria {
+        Long getProdutoId();
+        LocalDate getData();
+        Long getQuantidade();
+    }
+
+    interface PrazoReposicao {
+        Long getProdutoId();
+        Long getFornecedorId();
+        Double getPrazoDias();
+    }
+
+    interface PrazoFornecedor {
+        Long getFornecedorId();
+        Double getPrazoDias();
+    }
+}
@@ -1,14 +1,164 @@
 package br.ifce.gestor_estoque.repositores;
 
 import br.ifce.gestor_estoque.domain.estoque.Produto;
+import br.ifce.gestor_estoque.dto.estoque.ProdutoResponse;
+import br.ifce.gestor_estoque.infra.cache.CacheSegundoNivelConfig;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ProdutoRepository extends JpaRepository<Produto, Long> {
     // Métodos para dashboard
-    long countByQuantidadeEstoqueLessThanEqual(int quantidade);
+    // Em cache até a próxima alteração de produto (inclusive ajustes de estoque, via CacheProduto)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheSegundoNivelConfig.REGIAO_CONSULTAS_PRODUTO)
+    })
     List<Produto> findTop5ByOrderByQuantidadeEstoqueDesc();
+
+    // Nomes são únicos (uk_produto_nome); o ID exclui o próprio produto na atualização
+    boolean existsByNomeAndIdNot(String nome, Long id);
+
+    boolean existsByNome(String nome);
+
+    @Query("SELECT COALESCE(SUM(p.preco * p.quantidadeEstoque), 0) FROM Produto p")
+    BigDecimal somarValorTotalEstoque();
+
+    // Estoque de todos os produtos, sem carregar as entidades (carga e reconciliação das reservas)
+    @Query("SELECT p.id AS id, p.quantidadeEstoque AS quantidadeEstoque FROM Produto p")
+    List<EstoqueAtual> findEstoquesAtuais();
+
+    // Estoque e limites de todos os produtos (carga e reconciliação do motor de alertas)
+    @Query("SELECT p.id AS id, p.quantidadeEstoque AS quantidadeEstoque, p.estoqueMinimo AS estoqueMinimo, "
+            + "p.pontoReposicao AS pontoReposicao FROM Produto p")
+    List<LimitesEstoque> findLimitesEstoque();
+
+    @Query("SELECT p.id AS id, p.nome AS nome FROM Produto p WHERE p.id IN :ids")
+    List<NomeProduto> findNomesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Lê direto do banco, ignorando instâncias de Produto já carregadas na sessão
+    @Query("SELECT p.quantidadeEstoque FROM Produto p WHERE p.id = :produtoId")
+    Integer findQuantidadeEstoqueById(@Param("produtoId") Long produtoId);
+
+    /**
+     * Aplica atomicamente uma variação ao estoque do produto, somente se o resultado não ficar negativo.
+     * A condição é avaliada pelo próprio banco na mesma instrução, sem leitura prévia nem lock pessimista,
+     * e a versão do produto é incrementada para invalidar edições concorrentes da entidade inteira.
+     * Instâncias de Produto já carregadas na transação não são atualizadas e não devem ser usadas para ler o novo estoque.
+     * O espaço declarado não é "produto" para que o Hibernate não esvazie a região inteira de Produto no cache de
+     * segundo nível; quem chama deve invalidar o produto com {@code CacheProduto.invalidarEstoque} na mesma transação.
+     * @param produtoId o ID do produto.
+     * @param delta a variação a aplicar (positiva para entradas, negativa para saídas).
+     * @return 1 se o estoque foi ajustado; 0 se o estoque seria insuficiente ou o produto não existe.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "produto_estoque"))
+    @Query(value = """
+            UPDATE produto SET quantidade_estoque = quantidade_estoque + :delta, versao = versao + 1
+            WHERE id = :produtoId AND quantidade_estoque + :delta >= 0
+            """, nativeQuery = true)
+    int ajustarEstoque(@Param("produtoId") Long produtoId, @Param("delta") int delta);
+
+    // Projeções para leitura: selecionam só as colunas da resposta, sem entidades gerenciadas
+    String PROJECAO_RESPOSTA = "SELECT new br.ifce.gestor_estoque.dto.estoque.ProdutoResponse("
+            + "p.id, p.nome, p.descricao, p.preco, p.quantidadeEstoque, p.unidadeMedida, p.estoqueMinimo, p.pontoReposicao, p.versao) "
+            + "FROM Produto p";
+
+    @Query(PROJECAO_RESPOSTA + " ORDER BY p.id")
+    List<ProdutoResponse> findAllResposta();
+
+    @Query(PROJECAO_RESPOSTA + " WHERE p.id = :id")
+    Optional<ProdutoResponse> findRespostaById(@Param("id") Long id);
+
+    // Paginação keyset - cada consulta retoma logo após o último item (valor, id) da página anterior.
+    // A comparação de linha (valor, id) > (:valor, :id) vira uma condição de faixa no índice (valor, id), então a
+    // página N começa direto na posição do cursor em vez de percorrer e descartar as N anteriores
+    @Query(PROJECAO_RESPOSTA + " WHERE p.id > :ultimoId ORDER BY p.id")
+    List<ProdutoResponse> findPaginaPorId(@Param("ultimoId") long ultimoId, Pageable pageable);
+
+    @Query(PROJECAO_RESPOSTA + " WHERE (p.nome, p.id) > (:ultimoNome, :ultimoId) ORDER BY p.nome, p.id")
+    List<ProdutoResponse> findPaginaPorNome(@Param("ultimoNome") String ultimoNome, @Param("ultimoId") long ultimoId, Pageable pageable);
+
+    @Query(PROJECAO_RESPOSTA + " WHERE (p.quantidadeEstoque, p.id) > (:ultimaQuantidade, :ultimoId) ORDER BY p.quantidadeEstoque, p.id")
+    List<ProdutoResponse> findPaginaPorEstoque(@Param("ultimaQuantidade") int ultimaQuantidade, @Param("ultimoId") long ultimoId, Pageable pageable);
+
+    // Ambas as colunas em ordem decrescente, para que a varredura reversa do mesmo índice (quantidadeEstoque, id) atenda a ordenação
+    @Query(PROJECAO_RESPOSTA + " WHERE (p.quantidadeEstoque, p.id) < (:ultimaQuantidade, :ultimoId) ORDER BY p.quantidadeEstoque DESC, p.id DESC")
+    List<ProdutoResponse> findPaginaPorEstoqueDesc(@Param("ultimaQuantidade") int ultimaQuantidade, @Param("ultimoId") long ultimoId, Pageable pageable);
+
+    /**
+     * Busca produtos por trecho do nome ou da descrição, ordenados por relevância (maior primeiro) e ID.
+     * Usa os índices trigram criados por {@code BuscaProdutoInitializer}: o ILIKE cobre trechos curtos e exatos,
+     * e o operador {@code <%} de similaridade por palavra tolera erros de digitação.
+     * A relevância é arredondada para que o cursor keyset (relevância, id) seja reproduzido exatamente.
+     * Consulta a tabela diretamente, então reflete inclusões e alterações já confirmadas.
+     * @param termo o texto buscado.
+     * @param padraoLike o termo já escapado e envolvido em '%' para o ILIKE.
+     * @param ultimaRelevancia a relevância do último item da página anterior (acima de 2 na primeira página).
+     * @param ultimoId o ID do último item da página anterior (0 na primeira página).
+     * @param limite a quantidade máxima de linhas.
+     */
+    @Query(value = """
+            SELECT r.* FROM (
+                SELECT p.id AS "id", p.nome AS "nome", p.descricao AS "descricao", p.preco AS "preco",
+                       p.quantidade_estoque AS "quantidadeEstoque", p.unidade_medida AS "unidadeMedida",
+                       p.estoque_minimo AS "estoqueMinimo", p.ponto_reposicao AS "pontoReposicao", p.versao AS "versao",
+                       ROUND(CAST(GREATEST(similarity(p.nome, :termo), word_similarity(:termo, p.nome))
+                             + 0.5 * word_similarity(:termo, COALESCE(p.descricao, '')) AS numeric), 6) AS "relevancia"
+                FROM produto p
+                WHERE p.nome ILIKE :padraoLike OR p.descricao ILIKE :padraoLike
+                   OR :termo <% p.nome OR :termo <% p.descricao
+            ) r
+            WHERE r."relevancia" < :ultimaRelevancia OR (r."relevancia" = :ultimaRelevancia AND r."id" > :ultimoId)
+            ORDER BY r."relevancia" DESC, r."id"
+            LIMIT :limite
+            """, nativeQuery = true)
+    List<ResultadoBusca> buscarPorTexto(@Param("termo") String termo,
+                                        @Param("padraoLike") String padraoLike,
+                                        @Param("ultimaRelevancia") BigDecimal ultimaRelevancia,
+                                        @Param("ultimoId") long ultimoId,
+                                        @Param("limite") int limite);
+
+    // Linha da busca textual, mapeada pelos aliases da consulta nativa
+    interface ResultadoBusca {
+        Long getId();
+        String getNome();
+        String getDescricao();
+        BigDecimal getPreco();
+        Integer getQuantidadeEstoque();
+        String getUnidadeMedida();
+        Integer getEstoqueMinimo();
+        Integer getPontoReposicao();
+        Long getVersao();
+        BigDecimal getRelevancia();
+    }
+
+    interface EstoqueAtual {
+        Long getId();
+        Integer getQuantidadeEstoque();
+    }
+
+    interface LimitesEstoque extends EstoqueAtual {
+        Integer getEstoqueMinimo();
+        Integer getPontoReposicao();
+    }
+
+    interface NomeProduto {
+        Long getId();
+        String getNome();
+    }
 }
@@ -1,16 +1,58 @@
 package br.ifce.gestor_estoque.repositores;
 
 import br.ifce.gestor_estoque.domain.estoque.SaidaProduto;
+import br.ifce.gestor_estoque.dto.estoque.SaidaProdutoResponse;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface SaidaProdutoRepository extends JpaRepository<SaidaProduto, Long> {
     // Método para dashboard - contar saídas a partir de uma data
     @Query("SELECT COUNT(s) FROM SaidaProduto s WHERE s.dataMovimentacao >= :data")
     long countByDataMovimentacaoGreaterThanEqual(@Param("data") LocalDate data);
+
+    // Carrega o produto no mesmo SELECT para as operações de escrita que precisam da entidade
+    @EntityGraph(attributePaths = {"produto"})
+    @Query("SELECT s FROM SaidaProduto s WHERE s.id = :id")
+    Optional<SaidaProduto> findComProdutoById(@Param("id") Long id);
+
+    // Projeções para leitura: selecionam só as colunas da resposta, sem entidades gerenciadas
+    String PROJECAO_RESPOSTA = "SELECT new br.ifce.gestor_estoque.dto.estoque.SaidaProdutoResponse("
+            + "s.id, p.id, p.nome, s.quantidade, s.dataMovimentacao, s.motivo, s.cliente, s.observacao) "
+            + "FROM SaidaProduto s JOIN s.produto p";
+
+    @Query(PROJECAO_RESPOSTA + " ORDER BY s.id")
+    List<SaidaProdutoResponse> findAllResposta();
+
+    @Query(PROJECAO_RESPOSTA + " WHERE s.id = :id")
+    Optional<SaidaProdutoResponse> findRespostaById(@Param("id") Long id);
+
+    // Vendas por produto e minuto desde o instante informado, para reconstruir o ranking de mais vendidos.
+    // Saídas sem horário de registro (anteriores à coluna) contam no início do dia da saída.
+    @Query(value = """
+            SELECT s.produto_id AS "produtoId", p.nome AS "nome",
+                   CAST(EXTRACT(EPOCH FROM date_trunc('minute', COALESCE(s.registrado_em, CAST(s.data_movimentacao AS timestamptz)))) * 1000 AS bigint) AS "instanteMs",
+                   SUM(s.quantidade) AS "quantidade"
+            FROM saida_produto s
+            JOIN produto p ON p.id = s.produto_id
+            WHERE s.registrado_em >= :desde
+               OR (s.registrado_em IS NULL AND s.data_movimentacao >= CAST(CAST(:desde AS timestamptz) AS date))
+            GROUP BY 1, 2, 3
+            """, nativeQuery = true)
+    List<VendaAgregada> findVendasDesde(@Param("desde") Instant desde);
+
+    interface VendaAgregada {
+        Long getProdutoId();
+        String getNome();
+        Long getInstanteMs();
+        Long getQuantidade();
+    }
 }
@@ -0,0 +1,272 @@
+package br.ifce.gestor_estoque.services;
+
+import br.ifce.gestor_estoque.domain.estoque.NivelEstoque;
+import br.ifce.gestor_estoque.domain.estoque.Produto;
+import br.ifce.gestor_estoque.dto.PaginaResponse;
+import br.ifce.gestor_estoque.dto.estoque.AlertaEstoqueResponse;
+import br.ifce.gestor_estoque.events.NivelEstoqueAlteradoEvent;
+import br.ifce.gestor_estoque.exceptions.BusinessException;
+import br.ifce.gestor_estoque.infra.pagination.CursorCodec;
+import br.ifce.gestor_estoque.repositores.ProdutoRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+/**
+ * Motor de alertas de estoque: mantém em memória o estoque e os limites de cada produto (estoque mínimo e ponto
+ * de reposição) e, a cada evento confirmado, reavalia só o produto afetado. Os produtos em alerta ficam em um
+ * conjunto ordenado por ID, que atende a listagem paginada sem consultar o banco, e a contagem de estoque baixo
+ * do dashboard é mantida junto. Um {@link NivelEstoqueAlteradoEvent} é publicado apenas quando o produto muda de
+ * nível, não a cada movimentação.
+ * O estoque é acumulado pelas variações (como nas reservas), então eventos de threads diferentes podem chegar em
+ * qualquer ordem; a reconciliação periódica corrige divergências com o banco.
+ */
+@Timed(value = "servico.execucao", histogram = true)
+@Service
+public class AlertaEstoqueService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AlertaEstoqueService.class);
+
+    private static final String ORDENACAO = "alerta";
+
+    private final ProdutoRepository produtoRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${estoque.alerta.minimo-padrao:10}")
+    private int estoqueMinimoPadrao;
+
+    @Value("${paginacao.tamanho-padrao:50}")
+    private int tamanhoPaginaPadrao;
+
+    @Value("${paginacao.tamanho-maximo:500}")
+    private int tamanhoPaginaMaximo;
+
+    private final Map<Long, Estado> estados = new ConcurrentHashMap<>();
+    private final NavigableSet<Long> emAlerta = new ConcurrentSkipListSet<>();
+    private final AtomicInteger estoqueBaixo = new AtomicInteger();
+    private final Map<NivelEstoque, Counter> transicoes = new EnumMap<>(NivelEstoque.class);
+
+    public AlertaEstoqueService(ProdutoRepository produtoRepository, ApplicationEventPublisher eventPublisher,
+                                MeterRegistry meterRegistry) {
+        this.produtoRepository = produtoRepository;
+        this.eventPublisher = eventPublisher;
+        Gauge.builder("estoque.alertas.ativos", emAlerta, Set::size)
+                .description("Produtos no ponto de reposição ou abaixo do estoque mínimo")
+                .register(meterRegistry);
+        for (NivelEstoque nivel : NivelEstoque.values()) {
+            transicoes.put(nivel, Counter.builder("estoque.alertas.transicoes")
+                    .description("Mudanças de nível de estoque, pelo nível de destino")
+                    .tag("nivel", nivel.name())
+                    .register(meterRegistry));
+        }
+    }
+
+    // Estado imutável: substituído por inteiro dentro do compute, então leituras concorrentes nunca o veem pela metade
+    private record Estado(int quantidade, Integer estoqueMinimo, Integer pontoReposicao, long alteracoes) {
+
+        Estado comQuantidade(int novaQuantidade) {
+            return new Estado(novaQuantidade, estoqueMinimo, pontoReposicao, alteracoes + 1);
+        }
+    }
+
+    // Atualizações vindas dos eventos de estoque e de produto (após o commit)
+
+    public void registrarProduto(Produto produto) {
+        atualizar(produto.getId(), atual -> new Estado(produto.getQuantidadeEstoque(), produto.getEstoqueMinimo(),
+                produto.getPontoReposicao(), atual == null ? 0 : atual.alteracoes() + 1), true);
+    }
+
+    public void registrarAlteracaoProduto(Produto produto, int quantidadeAnterior) {
+        int delta = produto.getQuantidadeEstoque() - quantidadeAnterior;
+        atualizar(produto.getId(), atual -> new Estado(atual == null ? produto.getQuantidadeEstoque() : atual.quantidade() + delta,
+                produto.getEstoqueMinimo(), produto.getPontoReposicao(), atual == null ? 0 : atual.alteracoes() + 1), true);
+    }
+
+    public void registrarAlteracaoEstoque(Long produtoId, int delta) {
+        // Produto ainda não conhecido: entra pelo evento de criação ou pela reconciliação
+        atualizar(produtoId, atual -> atual == null ? null : atual.comQuantidade(atual.quantidade() + delta), true);
+    }
+
+    public void removerProduto(Long produtoId) {
+        atualizar(produtoId, atual -> null, false);
+    }
+
+    // Leituras
+
+    public int getItensEstoqueBaixo() {
+        return estoqueBaixo.get();
+    }
+
+    /**
+     * Lista os produtos em alerta (no ponto de reposição ou abaixo do mínimo), em ordem de ID.
+     * @param filtroNivel filtra por nível (reposicao ou estoque_baixo); nulo para ambos.
+     * @throws BusinessException se o cursor ou o nível forem inválidos.
+     */
+    public PaginaResponse<AlertaEstoqueResponse> listar(String cursor, Integer tamanho, String filtroNivel) {
+        NivelEstoque nivel = nivelDoFiltro(filtroNivel);
+        int tamanhoEfetivo = CursorCodec.tamanhoEfetivo(tamanho, tamanhoPaginaPadrao, tamanhoPaginaMaximo);
+        long ultimoId = cursor == null || cursor.isBlank() ? 0L : CursorCodec.decode(cursor, ORDENACAO).ultimoId();
+
+        Map<Long, Estado> pagina = new LinkedHashMap<>();
+        for (Long produtoId : emAlerta.tailSet(ultimoId, false)) {
+            Estado estado = estados.get(produtoId);
+            if (estado != null && (nivel == null ? nivelDe(estado) != NivelEstoque.NORMAL : nivelDe(estado) == nivel)) {
+                pagina.put(produtoId, estado);
+                if (pagina.size() > tamanhoEfetivo) {
+                    break;
+                }
+            }
+        }
+
+        String proximoCursor = null;
+        List<Long> ids = new ArrayList<>(pagina.keySet());
+        if (ids.size() > tamanhoEfetivo) {
+            ids = ids.subList(0, tamanhoEfetivo);
+            proximoCursor = CursorCodec.encode(ORDENACAO, ids.get(tamanhoEfetivo - 1), null);
+        }
+        Map<Long, String> nomes = new HashMap<>();
+        if (!ids.isEmpty()) {
+            produtoRepository.findNomesByIdIn(ids).forEach(produto -> nomes.put(produto.getId(), produto.getNome()));
+        }
+        List<AlertaEstoqueResponse> itens = new ArrayList<>();
+        for (Long produtoId : ids) {
+            String nome = nomes.get(produtoId);
+            if (nome != null) { // Excluído depois de entrar na página
+                Estado estado = pagina.get(produtoId);
+                itens.add(new AlertaEstoqueResponse(produtoId, nome, estado.quantidade(), minimoDe(estado),
+                        estado.pontoReposicao(), nivelDe(estado)));
+            }
+        }
+        return new PaginaResponse<>(itens, itens.size(), proximoCursor);
+    }
+
+    private static NivelEstoque nivelDoFiltro(String filtroNivel) {
+        if (filtroNivel == null || filtroNivel.isBlank()) {
+            return null;
+        }
+        String nome = filtroNivel.strip().toUpperCase(Locale.ROOT);
+        if (nome.equals(NivelEstoque.REPOSICAO.name()) || nome.equals(NivelEstoque.ESTOQUE_BAIXO.name())) {
+            return NivelEstoque.valueOf(nome);
+        }
+        throw new BusinessException("Nível inválido: " + filtroNivel + ". Use reposicao ou estoque_baixo.");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void aquecer() {
+        reconciliar(false);
+        logger.info("Alertas de estoque: {} produtos em alerta, {} com estoque baixo", emAlerta.size(), estoqueBaixo.get());
+    }
+
+    @Scheduled(initialDelayString = "${estoque.alerta.reconciliacao-ms:300000}",
+            fixedDelayString = "${estoque.alerta.reconciliacao-ms:300000}")
+    public void reconciliarPeriodicamente() {
+        reconciliar(true);
+    }
+
+    /**
+     * Corrige estoque e limites de cada produto com os valores do banco. Produtos que receberam eventos
+     * durante a leitura são deixados para a próxima rodada, já que o valor lido pode não incluí-los.
+     * @param publicar se as mudanças de nível encontradas geram eventos (não na carga inicial).
+     */
+    public void reconciliar(boolean publicar) {
+        Map<Long, Long> alteracoesAntes = new HashMap<>();
+        estados.forEach((produtoId, estado) -> alteracoesAntes.put(produtoId, estado.alteracoes()));
+
+        Set<Long> existentes = new HashSet<>();
+        AtomicInteger corrigidos = new AtomicInteger();
+        for (ProdutoRepository.LimitesEstoque limites : produtoRepository.findLimitesEstoque()) {
+            Long produtoId = limites.getId();
+            existentes.add(produtoId);
+            Long antes = alteracoesAntes.get(produtoId);
+            atualizar(produtoId, atual -> {
+                Estado lido = new Estado(limites.getQuantidadeEstoque(), limites.getEstoqueMinimo(), limites.getPontoReposicao(),
+                        atual == null ? 0 : atual.alteracoes());
+                if (atual == null) {
+                    return antes == null ? lido : null; // Removido durante a leitura
+                }
+                if (antes != null && antes == atual.alteracoes() && !lido.equals(atual)) {
+                    corrigidos.incrementAndGet();
+                    return lido;
+                }
+                return atual;
+            }, publicar);
+        }
+        alteracoesAntes.forEach((produtoId, antes) -> {
+            if (!existentes.contains(produtoId)) {
+                atualizar(produtoId, atual -> atual != null && atual.alteracoes() == antes ? null : atual, publicar);
+            }
+        });
+        if (publicar && corrigidos.get() > 0) {
+            logger.warn("Alertas de estoque: {} produtos divergiam do banco e foram corrigidos", corrigidos.get());
+        }
+    }
+
+    /**
+     * Aplica a alteração ao estado do produto de forma atômica e, se o nível mudou, atualiza o índice
+     * de alertas e a contagem de estoque baixo. O evento é publicado fora do compute.
+     */
+    private void atualizar(Long produtoId, UnaryOperator<Estado> alteracao, boolean publicar) {
+        NivelEstoque[] transicao = new NivelEstoque[2];
+        Estado resultado = estados.compute(produtoId, (id, atual) -> {
+            Estado novo = alteracao.apply(atual);
+            NivelEstoque antes = atual == null ? NivelEstoque.NORMAL : nivelDe(atual);
+            NivelEstoque depois = novo == null ? NivelEstoque.NORMAL : nivelDe(novo);
+            if (antes != depois) {
+                indexar(id, antes, depois);
+                transicao[0] = antes;
+                transicao[1] = depois;
+            }
+            return novo;
+        });
+        if (transicao[0] != null && publicar && resultado != null) {
+            transicoes.get(transicao[1]).increment();
+            eventPublisher.publishEvent(new NivelEstoqueAlteradoEvent(produtoId, transicao[0], transicao[1], resultado.quantidade()));
+        }
+    }
+
+    private void indexar(Long produtoId, NivelEstoque antes, NivelEstoque depois) {
+        if (depois == NivelEstoque.NORMAL) {
+            emAlerta.remove(produtoId);
+        } else {
+            emAlerta.add(produtoId);
+        }
+        if (antes == NivelEstoque.ESTOQUE_BAIXO) {
+            estoqueBaixo.decrementAndGet();
+        }
+        if (depois == NivelEstoque.ESTOQUE_BAIXO) {
+            estoqueBaixo.incrementAndGet();
+        }
+    }
+
+    private NivelEstoque nivelDe(Estado estado) {
+        return NivelEstoque.de(estado.quantidade(), minimoDe(estado), estado.pontoReposicao());
+    }
+
+    private int minimoDe(Estado estado) {
+        return estado.estoqueMinimo() != null ? estado.estoqueMinimo() : estoqueMinimoPadrao;
+    }
+}
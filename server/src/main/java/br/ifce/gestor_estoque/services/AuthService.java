@@ -9,12 +9,14 @@ import br.ifce.gestor_estoque.exceptions.UserAlreadyExistsException;
 import br.ifce.gestor_estoque.infra.security.TokenService;
 import br.ifce.gestor_estoque.repositores.UserRepository;
 import br.ifce.gestor_estoque.services.interfaces.IAuthService;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
+@Timed(value = "servico.execucao", histogram = true)
 @Service
 @RequiredArgsConstructor // Lombok annotation for constructor injection
 public class AuthService implements IAuthService {
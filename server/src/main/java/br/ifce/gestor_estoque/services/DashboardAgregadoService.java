@@ -0,0 +1,144 @@
+package br.ifce.gestor_estoque.services;
+
+import br.ifce.gestor_estoque.repositores.EntradaProdutoRepository;
+import br.ifce.gestor_estoque.repositores.ProdutoRepository;
+import br.ifce.gestor_estoque.repositores.SaidaProdutoRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Mantém em memória os indicadores do dashboard, atualizados incrementalmente pelos eventos de
+ * produto e de movimentação, de forma que a leitura não precise varrer as tabelas.
+ * Uma reconciliação completa é feita na inicialização, na virada do mês e periodicamente,
+ * corrigindo qualquer divergência (ex.: alterações feitas direto no banco).
+ */
+@Timed(value = "servico.execucao", histogram = true)
+@Service
+@RequiredArgsConstructor
+public class DashboardAgregadoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardAgregadoService.class);
+
+    private final ProdutoRepository produtoRepository;
+    private final EntradaProdutoRepository entradaProdutoRepository;
+    private final SaidaProdutoRepository saidaProdutoRepository;
+
+    private final AtomicLong totalProdutos = new AtomicLong();
+    private final AtomicReference<BigDecimal> valorTotalEstoque = new AtomicReference<>(BigDecimal.ZERO);
+    private final AtomicLong entradasNoMes = new AtomicLong();
+    private final AtomicLong saidasNoMes = new AtomicLong();
+    private volatile YearMonth mesReferencia = YearMonth.now();
+    private final ReentrantLock reconciliacao = new ReentrantLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconciliarNaInicializacao() {
+        reconciliar();
+    }
+
+    @Scheduled(initialDelayString = "${dashboard.reconciliacao.intervalo-ms:300000}",
+            fixedDelayString = "${dashboard.reconciliacao.intervalo-ms:300000}")
+    public void reconciliarPeriodicamente() {
+        reconciliar();
+    }
+
+    /**
+     * Recalcula todos os indicadores a partir do banco.
+     * Eventos confirmados durante o recálculo podem ser contados duas vezes ou nenhuma;
+     * a diferença é corrigida na próxima reconciliação.
+     */
+    public void reconciliar() {
+        reconciliacao.lock();
+        try {
+            YearMonth mes = YearMonth.now();
+            LocalDate inicioDoMes = mes.atDay(1);
+
+            totalProdutos.set(produtoRepository.count());
+            valorTotalEstoque.set(produtoRepository.somarValorTotalEstoque());
+            entradasNoMes.set(entradaProdutoRepository.countByDataMovimentacaoGreaterThanEqual(inicioDoMes));
+            saidasNoMes.set(saidaProdutoRepository.countByDataMovimentacaoGreaterThanEqual(inicioDoMes));
+            mesReferencia = mes;
+        } finally {
+            reconciliacao.unlock();
+        }
+
+        logger.debug("Indicadores do dashboard reconciliados: {} produtos, valor total {}", totalProdutos.get(), valorTotalEstoque.get());
+    }
+
+    // Atualizações incrementais
+
+    public void registrarProduto(BigDecimal preco, int quantidadeEstoque, int sinal) {
+        totalProdutos.addAndGet(sinal);
+        somarValor(preco.multiply(BigDecimal.valueOf((long) quantidadeEstoque * sinal)));
+    }
+
+    public void registrarAlteracaoProduto(BigDecimal precoAnterior, int quantidadeAnterior, BigDecimal precoAtual, int quantidadeAtual) {
+        BigDecimal valorAnterior = precoAnterior.multiply(BigDecimal.valueOf(quantidadeAnterior));
+        BigDecimal valorAtual = precoAtual.multiply(BigDecimal.valueOf(quantidadeAtual));
+        somarValor(valorAtual.subtract(valorAnterior));
+    }
+
+    public void registrarAlteracaoEstoque(BigDecimal preco, int quantidadeAnterior, int quantidadeAtual) {
+        somarValor(preco.multiply(BigDecimal.valueOf(quantidadeAtual - quantidadeAnterior)));
+    }
+
+    public void registrarEntrada(LocalDate data, int sinal) {
+        if (isNoMesReferencia(data)) {
+            entradasNoMes.addAndGet(sinal);
+        }
+    }
+
+    public void registrarSaida(LocalDate data, int sinal) {
+        if (isNoMesReferencia(data)) {
+            saidasNoMes.addAndGet(sinal);
+        }
+    }
+
+    // Leituras O(1)
+
+    public int getTotalProdutos() {
+        verificarViradaDoMes();
+        return (int) totalProdutos.get();
+    }
+
+    public BigDecimal getValorTotalEstoque() {
+        verificarViradaDoMes();
+        return valorTotalEstoque.get();
+    }
+
+    public int getEntradasNoMes() {
+        verificarViradaDoMes();
+        return (int) entradasNoMes.get();
+    }
+
+    public int getSaidasNoMes() {
+        verificarViradaDoMes();
+        return (int) saidasNoMes.get();
+    }
+
+    private void verificarViradaDoMes() {
+        if (!YearMonth.now().equals(mesReferencia)) {
+            reconciliar();
+        }
+    }
+
+    private boolean isNoMesReferencia(LocalDate data) {
+        return data != null && !data.isBefore(mesReferencia.atDay(1));
+    }
+
+    private void somarValor(BigDecimal delta) {
+        valorTotalEstoque.accumulateAndGet(delta, BigDecimal::add);
+    }
+}
@@ -1,39 +1,24 @@
 package br.ifce.gestor_estoque.services;
 
 import br.ifce.gestor_estoque.dto.DashboardOverviewResponse;
-import br.ifce.gestor_estoque.repositores.EntradaProdutoRepository;
 import br.ifce.gestor_estoque.repositores.ProdutoRepository;
-import br.ifce.gestor_estoque.repositores.SaidaProdutoRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
-import java.time.LocalDate;
 import java.util.List;
 
+@Timed(value = "servico.execucao", histogram = true)
 @Service
 @RequiredArgsConstructor
 public class DashboardService {
 
     private final ProdutoRepository produtoRepository;
-    private final EntradaProdutoRepository entradaProdutoRepository;
-    private final SaidaProdutoRepository saidaProdutoRepository;
+    private final DashboardAgregadoService dashboardAgregadoService;
+    private final AlertaEstoqueService alertaEstoqueService;
 
     public DashboardOverviewResponse getDashboardOverview() {
-        int totalProducts = (int) produtoRepository.count();
-
-        BigDecimal totalStockValue = produtoRepository.findAll().stream()
-                .map(produto -> produto.getPreco().multiply(BigDecimal.valueOf(produto.getQuantidadeEstoque())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        int lowStockItems = (int) produtoRepository.countByQuantidadeEstoqueLessThanEqual(10);
-
-        LocalDate startOfMonth = LocalDate.now().withDayOfMonth(1);
-
-        int monthlyEntries = (int) entradaProdutoRepository.countByDataMovimentacaoGreaterThanEqual(startOfMonth);
-
-        int monthlyExits = (int) saidaProdutoRepository.countByDataMovimentacaoGreaterThanEqual(startOfMonth);
-
+        // Os totais vêm dos agregados mantidos incrementalmente; apenas o top 5 consulta o banco (via índice)
         List<DashboardOverviewResponse.TopStockedProduct> topStockedProducts = 
                 produtoRepository.findTop5ByOrderByQuantidadeEstoqueDesc()
                         .stream()
@@ -44,11 +29,12 @@ public class DashboardService {
                         .toList();
 
         return new DashboardOverviewResponse(
-                totalProducts,
-                totalStockValue,
-                lowStockItems,
-                monthlyEntries,
-                monthlyExits,
+                dashboardAgregadoService.getTotalProdutos(),
+                dashboardAgregadoService.getValorTotalEstoque(),
+                // Pelo estoque mínimo de cada produto, mantido pelo motor de alertas
+                alertaEstoqueService.getItensEstoqueBaixo(),
+                dashboardAgregadoService.getEntradasNoMes(),
+                dashboardAgregadoService.getSaidasNoMes(),
                 topStockedProducts
         );
     }
@@ -3,11 +3,16 @@ package br.ifce.gestor_estoque.services;
 import br.ifce.gestor_estoque.domain.estoque.EntradaProduto;
 import br.ifce.gestor_estoque.domain.estoque.Fornecedor;
 import br.ifce.gestor_estoque.domain.estoque.Produto;
+import br.ifce.gestor_estoque.domain.estoque.TipoMovimentacao;
 import br.ifce.gestor_estoque.dto.estoque.EntradaProdutoRequest;
 import br.ifce.gestor_estoque.dto.estoque.EntradaProdutoResponse;
+import br.ifce.gestor_estoque.dto.estoque.LoteMovimentacaoResponse;
+import br.ifce.gestor_estoque.dto.estoque.LoteMovimentacaoResponse.ItemResultado;
 import br.ifce.gestor_estoque.events.EntradaProdutoAtualizadaEvent;
 import br.ifce.gestor_estoque.events.EntradaProdutoCriadaEvent;
 import br.ifce.gestor_estoque.events.EntradaProdutoExcluidaEvent;
+import br.ifce.gestor_estoque.events.EntradasProdutoCriadasEmLoteEvent;
+import br.ifce.gestor_estoque.events.MovimentacaoAnterior;
 import br.ifce.gestor_estoque.exceptions.BusinessException;
 import br.ifce.gestor_estoque.exceptions.NotFoundException;
 import br.ifce.gestor_estoque.repositores.EntradaProdutoRepository;
@@ -16,15 +21,27 @@ import br.ifce.gestor_estoque.repositores.ProdutoRepository;
 import br.ifce.gestor_estoque.services.interfaces.IEntradaProdutoService;
 import br.ifce.gestor_estoque.strategy.ValidacaoEntradaStrategy;
 import br.ifce.gestor_estoque.strategy.ValidacaoStrategy;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+@Timed(value = "servico.execucao", histogram = true)
 @Service
 public class EntradaProdutoService implements IEntradaProdutoService {
 
@@ -37,9 +54,18 @@ public class EntradaProdutoService implements IEntradaProdutoService {
     @Autowired
     private FornecedorRepository fornecedorRepository;
 
+    @Autowired
+    private EstoqueService estoqueService;
+
     @Autowired
     private ApplicationEventPublisher eventPublisher;
 
+    @Autowired
+    private Validator validator;
+
+    @Value("${movimentacao.lote.tamanho-maximo:1000}")
+    private int tamanhoMaximoLote;
+
     private final ValidacaoStrategy<EntradaProduto> validacaoEntradaStrategy;
 
     @Autowired
@@ -49,16 +75,15 @@ public class EntradaProdutoService implements IEntradaProdutoService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<EntradaProdutoResponse> listarTodas() {
-        return entradaProdutoRepository.findAll().stream()
-                .map(EntradaProdutoResponse::new)
-                .collect(Collectors.toList());
+        return entradaProdutoRepository.findAllResposta();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<EntradaProdutoResponse> getEntradaById(Long id) {
-        return entradaProdutoRepository.findById(id)
-                .map(EntradaProdutoResponse::new);
+        return entradaProdutoRepository.findRespostaById(id);
     }
 
     @Override
@@ -92,10 +117,107 @@ public class EntradaProdutoService implements IEntradaProdutoService {
         return new EntradaProdutoResponse(novaEntrada);
     }
 
+    @Override
+    @Transactional
+    public LoteMovimentacaoResponse createEntradasEmLote(List<EntradaProdutoRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new BusinessException("O lote de entradas não pode estar vazio.");
+        }
+        if (requests.size() > tamanhoMaximoLote) {
+            throw new BusinessException("O lote de entradas deve ter no máximo " + tamanhoMaximoLote + " itens.");
+        }
+        ItemResultado[] resultados = new ItemResultado[requests.size()];
+
+        for (int i = 0; i < requests.size(); i++) {
+            EntradaProdutoRequest request = requests.get(i);
+            if (request == null) {
+                resultados[i] = ItemResultado.falha(i, "Item nulo.");
+                continue;
+            }
+            Set<ConstraintViolation<EntradaProdutoRequest>> violacoes = validator.validate(request);
+            if (!violacoes.isEmpty()) {
+                resultados[i] = ItemResultado.falha(i, violacoes.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+            }
+        }
+
+        // Resolve todos os produtos e fornecedores referenciados com uma consulta para cada
+        Set<Long> produtoIds = new HashSet<>();
+        Set<Long> fornecedorIds = new HashSet<>();
+        for (int i = 0; i < requests.size(); i++) {
+            if (resultados[i] == null) {
+                produtoIds.add(requests.get(i).produtoId);
+                fornecedorIds.add(requests.get(i).fornecedorId);
+            }
+        }
+        Map<Long, Produto> produtos = produtoRepository.findAllById(produtoIds).stream()
+                .collect(Collectors.toMap(Produto::getId, Function.identity()));
+        Map<Long, Fornecedor> fornecedores = fornecedorRepository.findAllById(fornecedorIds).stream()
+                .collect(Collectors.toMap(Fornecedor::getId, Function.identity()));
+
+        Map<Integer, EntradaProduto> candidatas = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            if (resultados[i] != null) {
+                continue;
+            }
+            EntradaProdutoRequest request = requests.get(i);
+            Produto produto = produtos.get(request.produtoId);
+            if (produto == null) {
+                resultados[i] = ItemResultado.falha(i, "Produto com ID " + request.produtoId + " não encontrado.");
+                continue;
+            }
+            Fornecedor fornecedor = fornecedores.get(request.fornecedorId);
+            if (fornecedor == null) {
+                resultados[i] = ItemResultado.falha(i, "Fornecedor com ID " + request.fornecedorId + " não encontrado.");
+                continue;
+            }
+            try {
+                EntradaProduto entradaProduto = new EntradaProduto();
+                entradaProduto.setProduto(produto);
+                entradaProduto.setFornecedor(fornecedor);
+                entradaProduto.setQuantidade(request.quantidade);
+                entradaProduto.setDataEntrada(request.dataEntrada);
+                entradaProduto.setPrecoCusto(request.precoCusto);
+                entradaProduto.setObservacao(request.observacao);
+                validacaoEntradaStrategy.validar(entradaProduto);
+                candidatas.put(i, entradaProduto);
+            } catch (Exception e) {
+                resultados[i] = ItemResultado.falha(i, e.getMessage());
+            }
+        }
+
+        // Uma única atualização de estoque por produto, em ordem de ID para evitar deadlocks entre lotes concorrentes
+        Map<Long, Integer> deltaPorProduto = candidatas.values().stream()
+                .collect(Collectors.groupingBy(e -> e.getProduto().getId(), TreeMap::new,
+                        Collectors.summingInt(EntradaProduto::getQuantidade)));
+        deltaPorProduto.forEach((produtoId, delta) -> {
+            if (!estoqueService.ajustarEstoque(produtos.get(produtoId), delta, TipoMovimentacao.ENTRADA)) {
+                candidatas.entrySet().removeIf(item -> {
+                    if (item.getValue().getProduto().getId().equals(produtoId)) {
+                        resultados[item.getKey()] = ItemResultado.falha(item.getKey(), "Não foi possível ajustar o estoque do produto ID " + produtoId + ".");
+                        return true;
+                    }
+                    return false;
+                });
+            }
+        });
+
+        // IDs por sequência permitem que o Hibernate agrupe os INSERTs em lotes JDBC
+        List<EntradaProduto> salvas = entradaProdutoRepository.saveAll(candidatas.values());
+        candidatas.forEach((indice, entrada) -> resultados[indice] = ItemResultado.sucesso(indice, entrada.getId()));
+        if (!salvas.isEmpty()) {
+            eventPublisher.publishEvent(new EntradasProdutoCriadasEmLoteEvent(salvas));
+        }
+
+        return LoteMovimentacaoResponse.de(Arrays.asList(resultados));
+    }
+
     @Override
     @Transactional
     public EntradaProdutoResponse updateEntrada(Long id, EntradaProdutoRequest request) {
-        EntradaProduto entradaProduto = entradaProdutoRepository.findById(id)
+        EntradaProduto entradaProduto = entradaProdutoRepository.findComProdutoEFornecedorById(id)
                 .orElseThrow(() -> new NotFoundException("Entrada de produto com ID " + id + " não encontrada para atualização."));
 
         Produto produtoNovo = produtoRepository.findById(request.produtoId)
@@ -105,8 +227,8 @@ public class EntradaProdutoService implements IEntradaProdutoService {
                 .orElseThrow(() -> new NotFoundException("Fornecedor com ID " + request.fornecedorId + " não encontrado."));
 
         // ... Store old values before making changes for event or other logic ...
+        MovimentacaoAnterior anterior = MovimentacaoAnterior.de(entradaProduto);
         Produto produtoAntigoNaEntrada = entradaProduto.getProduto();
-        int quantidadeAntigaNaEntrada = entradaProduto.getQuantidade();
 
         // Update entradaProduto fields
         entradaProduto.setProduto(produtoNovo);
@@ -122,21 +244,21 @@ public class EntradaProdutoService implements IEntradaProdutoService {
             throw new BusinessException(e.getMessage());
         }
         
-        // Logic to revert old stock and apply new stock (potentially moved to listeners or kept here if simple)
-        // For simplicity, assuming direct manipulation here, but listeners are better for decoupling
-        produtoAntigoNaEntrada.saidaEstoque(quantidadeAntigaNaEntrada);
-        produtoRepository.save(produtoAntigoNaEntrada); 
-        // Note: If produtoNovo is the same as produtoAntigoNaEntrada, this save might be redundant or need careful handling
+        // Reverte atomicamente a quantidade antiga; a nova é aplicada pelo listener.
+        // Se parte da entrada antiga já saiu do estoque, a reversão deixaria o estoque negativo.
+        if (!estoqueService.ajustarEstoque(produtoAntigoNaEntrada, -anterior.quantidade(), TipoMovimentacao.ESTORNO_ENTRADA)) {
+            throw new BusinessException("Estoque insuficiente para reverter a entrada antiga do produto ID " + anterior.produtoId() + ".");
+        }
 
         EntradaProduto entradaAtualizada = entradaProdutoRepository.save(entradaProduto);
-        eventPublisher.publishEvent(new EntradaProdutoAtualizadaEvent(entradaAtualizada)); // Pass the updated entity
+        eventPublisher.publishEvent(new EntradaProdutoAtualizadaEvent(entradaAtualizada, anterior)); // Pass the updated entity
         return new EntradaProdutoResponse(entradaAtualizada);
     }
 
     @Override
     @Transactional
     public void deleteEntrada(Long id) {
-        EntradaProduto entradaProduto = entradaProdutoRepository.findById(id)
+        EntradaProduto entradaProduto = entradaProdutoRepository.findComProdutoEFornecedorById(id)
                 .orElseThrow(() -> new NotFoundException("Entrada de produto com ID " + id + " não encontrada para exclusão."));
 
         // A lógica de atualização de estoque (reversão) será tratada pelo listener
@@ -0,0 +1,121 @@
+package br.ifce.gestor_estoque.services;
+
+import br.ifce.gestor_estoque.dto.estoque.EstoqueNaDataResponse;
+import br.ifce.gestor_estoque.exceptions.BusinessException;
+import br.ifce.gestor_estoque.repositores.EstoqueSnapshotRepository;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Responde qual era o estoque de um produto ao final de uma data a partir de snapshots periódicos
+ * e das movimentações registradas depois deles, sem reprocessar todo o histórico.
+ * Ajustes manuais de estoque (edição do produto) não têm data no histórico e passam a valer
+ * a partir do primeiro snapshot criado depois deles.
+ * Os snapshots vencem em dias diferentes conforme o ID do produto e são criados em lotes por faixa de ID, cada um
+ * em uma transação curta que só trava os produtos do lote, então a criação não enfileira as movimentações do catálogo.
+ */
+@Timed(value = "servico.execucao", histogram = true)
+@Service
+public class EstoqueHistoricoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EstoqueHistoricoService.class);
+
+    @Autowired
+    private EstoqueSnapshotRepository estoqueSnapshotRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Distância máxima, em dias, entre dois snapshots do mesmo produto (e, portanto, do intervalo varrido)
+    @Value("${estoque.snapshot.intervalo-dias:7}")
+    private int intervaloDias;
+
+    // Faixa de IDs de produto por transação na criação dos snapshots
+    @Value("${estoque.snapshot.tamanho-lote:500}")
+    private int tamanhoLote;
+
+    @Transactional(readOnly = true)
+    public Optional<EstoqueNaDataResponse> getEstoqueNaData(Long produtoId, LocalDate data) {
+        validarData(data);
+        return estoqueSnapshotRepository.calcularEstoqueNaData(produtoId, data)
+                .map(linha -> EstoqueNaDataResponse.de(linha, data));
+    }
+
+    @Transactional(readOnly = true)
+    public List<EstoqueNaDataResponse> getEstoqueDeTodosNaData(LocalDate data) {
+        validarData(data);
+        return estoqueSnapshotRepository.calcularEstoqueDeTodosNaData(data).stream()
+                .map(linha -> EstoqueNaDataResponse.de(linha, data))
+                .toList();
+    }
+
+    /**
+     * Corrige os snapshots de mesma data ou posteriores a uma movimentação incluída, alterada ou excluída.
+     * Deve rodar na mesma transação da movimentação.
+     * @param produtoId o produto movimentado.
+     * @param dataMovimentacao a data da movimentação.
+     * @param delta o efeito no estoque (positivo para entradas, negativo para saídas; invertido ao desfazer).
+     */
+    @Transactional
+    public void registrarMovimentacao(Long produtoId, LocalDate dataMovimentacao, int delta) {
+        if (delta != 0) {
+            estoqueSnapshotRepository.travarProdutoParaAjuste(produtoId);
+            estoqueSnapshotRepository.ajustarAPartirDe(produtoId, dataMovimentacao, delta);
+        }
+    }
+
+    @Transactional
+    public void removerSnapshotsDoProduto(Long produtoId) {
+        estoqueSnapshotRepository.deleteByProdutoId(produtoId);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void criarSnapshotsNaInicializacao() {
+        criarSnapshots();
+    }
+
+    // Diariamente, logo após a meia-noite, registra o fechamento do dia anterior
+    @Scheduled(cron = "${estoque.snapshot.cron:0 15 0 * * *}")
+    public void criarSnapshotsPeriodicamente() {
+        criarSnapshots();
+    }
+
+    private void criarSnapshots() {
+        LocalDate data = LocalDate.now().minusDays(1);
+        int fase = (int) Math.floorMod(data.toEpochDay(), (long) intervaloDias);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        long maiorId = estoqueSnapshotRepository.findMaiorIdProduto();
+        int criados = 0;
+        for (long inicio = 1; inicio <= maiorId; inicio += tamanhoLote) {
+            long primeiro = inicio;
+            long ultimo = inicio + tamanhoLote - 1;
+            // Produtos com movimentação aberta ficam de fora do lote e entram em uma das próximas execuções
+            Integer criadosNoLote = transactionTemplate.execute(status -> {
+                List<Long> travados = estoqueSnapshotRepository.travarDevidosEntre(primeiro, ultimo, data, intervaloDias, fase);
+                return travados.isEmpty() ? 0 : estoqueSnapshotRepository.criarSnapshots(data, travados);
+            });
+            criados += criadosNoLote == null ? 0 : criadosNoLote;
+        }
+        logger.debug("{} snapshots de estoque criados para {}", criados, data);
+    }
+
+    private void validarData(LocalDate data) {
+        if (data == null) {
+            throw new BusinessException("A data da consulta é obrigatória.");
+        }
+    }
+}
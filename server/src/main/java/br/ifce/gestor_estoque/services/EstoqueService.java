@@ -0,0 +1,69 @@
+package br.ifce.gestor_estoque.services;
+
+import br.ifce.gestor_estoque.domain.estoque.Produto;
+import br.ifce.gestor_estoque.domain.estoque.TipoMovimentacao;
+import br.ifce.gestor_estoque.events.EstoqueAlteradoEvent;
+import br.ifce.gestor_estoque.infra.cache.CacheProduto;
+import br.ifce.gestor_estoque.repositores.ProdutoRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Timed(value = "servico.execucao", histogram = true)
+@Service
+public class EstoqueService {
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ProjecaoEstoqueService projecaoEstoqueService;
+
+    @Autowired
+    private CacheProduto cacheProduto;
+
+    /**
+     * Aplica atomicamente uma variação ao estoque do produto e publica um {@link EstoqueAlteradoEvent}.
+     * @param produto o produto a ajustar (apenas o ID e o preço são lidos).
+     * @param delta a variação a aplicar (positiva para entradas, negativa para saídas).
+     * @param tipo a origem da alteração.
+     * @return true se o estoque foi ajustado; false se o resultado ficaria negativo.
+     */
+    @Transactional
+    public boolean ajustarEstoque(Produto produto, int delta, TipoMovimentacao tipo) {
+        Long produtoId = produto.getId();
+        cacheProduto.invalidarEstoque(List.of(produtoId));
+        if (produtoRepository.ajustarEstoque(produtoId, delta) == 0) {
+            return false;
+        }
+        // A linha continua bloqueada pela atualização até o commit, então o valor lido é exatamente o resultado dela
+        int quantidadeAtual = produtoRepository.findQuantidadeEstoqueById(produtoId);
+        eventPublisher.publishEvent(new EstoqueAlteradoEvent(produtoId, quantidadeAtual - delta, quantidadeAtual, produto.getPreco(), tipo));
+        return true;
+    }
+
+    /**
+     * Aumenta o estoque do produto. Com a projeção assíncrona habilitada, a variação é gravada na
+     * transação atual e aplicada ao produto logo após o commit, junto com as demais do mesmo produto;
+     * caso contrário, é aplicada imediatamente como em {@link #ajustarEstoque}.
+     * @param produto o produto a ajustar (apenas o ID e o preço são lidos).
+     * @param quantidade a quantidade a adicionar.
+     * @param tipo a origem da alteração.
+     * @return true se o estoque foi (ou será) ajustado; false se o produto não existe.
+     */
+    @Transactional
+    public boolean aumentarEstoque(Produto produto, int quantidade, TipoMovimentacao tipo) {
+        if (projecaoEstoqueService.isHabilitada()) {
+            projecaoEstoqueService.registrar(produto.getId(), quantidade, tipo);
+            return true;
+        }
+        return ajustarEstoque(produto, quantidade, tipo);
+    }
+}
@@ -0,0 +1,296 @@
+package br.ifce.gestor_estoque.services;
+
+import br.ifce.gestor_estoque.dto.estoque.EstoqueAlteradoResponse;
+import br.ifce.gestor_estoque.events.EstoqueAlteradoEvent;
+import br.ifce.gestor_estoque.exceptions.BusinessException;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stream (Server-Sent Events) das alterações de estoque já confirmadas.
+ * Cada assinante é uma requisição assíncrona do servlet: enquanto não há o que enviar, não ocupa nenhuma thread.
+ * A publicação só enfileira o evento no buffer limitado de cada assinante interessado (descartando o mais antigo
+ * quando cheio) e agenda o envio em um pool pequeno e fixo. Cada tarefa de envio escreve no máximo
+ * {@code estoque.stream.frames-por-vez} frames e volta para o fim da fila, e um assinante cuja escrita passa do
+ * prazo é desligado do stream e a sua thread, presa até o timeout de escrita do container, é compensada com uma
+ * thread a mais no pool; assim um cliente lento não atrasa os demais nem quem publica.
+ * Heartbeats periódicos mantêm a conexão aberta através de proxies e detectam clientes desconectados; são só um
+ * sinal por assinante, enviado quando o buffer está vazio, e nunca tomam o lugar de um evento.
+ */
+@Timed(value = "servico.execucao", histogram = true)
+@Service
+public class EstoqueStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EstoqueStreamService.class);
+
+    private final int capacidadeBuffer;
+    private final long timeoutMs;
+    private final int assinantesMaximo;
+    private final int threadsEnvio;
+    private final long prazoEscritaNanos;
+    private final int framesPorVez;
+
+    private final Set<Assinante> assinantes = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sequencia = new AtomicLong();
+    private final ThreadPoolExecutor envio;
+    private final Counter descartados;
+    private final Counter lentosEncerrados;
+    private int threadsPresas;
+
+    public EstoqueStreamService(MeterRegistry meterRegistry,
+                                @Value("${estoque.stream.buffer:256}") int capacidadeBuffer,
+                                @Value("${estoque.stream.timeout-ms:1800000}") long timeoutMs,
+                                @Value("${estoque.stream.assinantes-max:10000}") int assinantesMaximo,
+                                @Value("${estoque.stream.threads-envio:4}") int threadsEnvio,
+                                @Value("${estoque.stream.prazo-escrita-ms:5000}") long prazoEscritaMs,
+                                @Value("${estoque.stream.frames-por-vez:32}") int framesPorVez) {
+        this.capacidadeBuffer = capacidadeBuffer;
+        this.timeoutMs = timeoutMs;
+        this.assinantesMaximo = assinantesMaximo;
+        this.threadsEnvio = threadsEnvio;
+        this.prazoEscritaNanos = TimeUnit.MILLISECONDS.toNanos(prazoEscritaMs);
+        this.framesPorVez = framesPorVez;
+        AtomicInteger numero = new AtomicInteger();
+        this.envio = new ThreadPoolExecutor(threadsEnvio, threadsEnvio, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), tarefa -> {
+            Thread thread = new Thread(tarefa, "estoque-stream-" + numero.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("estoque.stream.assinantes", assinantes, Set::size)
+                .description("Conexões abertas no stream de estoque")
+                .register(meterRegistry);
+        this.descartados = Counter.builder("estoque.stream.descartados")
+                .description("Eventos descartados por buffer cheio de um assinante lento")
+                .register(meterRegistry);
+        this.lentosEncerrados = Counter.builder("estoque.stream.lentos-encerrados")
+                .description("Assinantes desligados por uma escrita que passou do prazo")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Abre uma assinatura do stream.
+     * @param produtoIds os produtos de interesse; vazio para todos.
+     * @throws BusinessException se o limite de conexões simultâneas foi atingido.
+     */
+    public SseEmitter assinar(Set<Long> produtoIds) {
+        if (assinantes.size() >= assinantesMaximo) {
+            throw new BusinessException("Limite de conexões ao stream de estoque atingido. Tente novamente mais tarde.");
+        }
+        SseEmitter emitter = criarEmitter();
+        // Primeiro frame: envia os cabeçalhos de imediato e define o intervalo de reconexão do EventSource.
+        // O emitter ainda não foi entregue ao Spring MVC, então o envio só fica guardado nele, fora do buffer
+        try {
+            emitter.send(SseEmitter.event().comment("conectado").reconnectTime(3000));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Assinante assinante = new Assinante(emitter, Set.copyOf(produtoIds));
+        emitter.onCompletion(() -> assinantes.remove(assinante));
+        emitter.onTimeout(() -> encerrar(assinante));
+        emitter.onError(erro -> encerrar(assinante));
+        assinantes.add(assinante);
+        return emitter;
+    }
+
+    // Chamado após o commit de cada alteração de estoque
+    public void publicar(EstoqueAlteradoEvent event) {
+        if (assinantes.isEmpty()) {
+            return;
+        }
+        EstoqueAlteradoResponse evento = new EstoqueAlteradoResponse(event.getProdutoId(), event.getQuantidadeAtual(),
+                event.getDelta(), event.getTipo(), Instant.now());
+        long id = sequencia.incrementAndGet();
+        for (Assinante assinante : assinantes) {
+            if (assinante.produtoIds.isEmpty() || assinante.produtoIds.contains(event.getProdutoId())) {
+                assinante.oferecer(new Enviado(id, evento));
+            }
+        }
+    }
+
+    @Scheduled(initialDelayString = "${estoque.stream.heartbeat-ms:15000}", fixedDelayString = "${estoque.stream.heartbeat-ms:15000}")
+    public void enviarHeartbeats() {
+        assinantes.forEach(Assinante::sinalizarHeartbeat);
+    }
+
+    // Desliga os assinantes com uma escrita em andamento há mais que o prazo (detectados em até duas vezes o prazo)
+    @Scheduled(fixedDelayString = "${estoque.stream.prazo-escrita-ms:5000}")
+    public void encerrarEscritasTravadas() {
+        long agora = System.nanoTime();
+        for (Assinante assinante : assinantes) {
+            if (assinante.abandonarSeTravado(agora)) {
+                assinantes.remove(assinante);
+                lentosEncerrados.increment();
+                ajustarThreadsPresas(1);
+                logger.warn("Assinante do stream de estoque desligado: escrita em andamento há mais de {} ms",
+                        TimeUnit.NANOSECONDS.toMillis(prazoEscritaNanos));
+            }
+        }
+    }
+
+    @PreDestroy
+    void encerrarTodos() {
+        assinantes.forEach(this::encerrar);
+        envio.shutdownNow();
+    }
+
+    // Ponto de extensão dos testes
+    SseEmitter criarEmitter() {
+        return new SseEmitter(timeoutMs);
+    }
+
+    private void encerrar(Assinante assinante) {
+        assinantes.remove(assinante);
+        assinante.emitter.complete();
+    }
+
+    // Cada thread presa em uma escrita abandonada ganha uma substituta, até dobrar o pool
+    private synchronized void ajustarThreadsPresas(int variacao) {
+        threadsPresas += variacao;
+        int tamanho = threadsEnvio + Math.max(0, Math.min(threadsPresas, threadsEnvio));
+        if (tamanho > envio.getMaximumPoolSize()) {
+            envio.setMaximumPoolSize(tamanho);
+            envio.setCorePoolSize(tamanho);
+        } else if (tamanho < envio.getMaximumPoolSize()) {
+            envio.setCorePoolSize(tamanho);
+            envio.setMaximumPoolSize(tamanho);
+        }
+    }
+
+    private record Enviado(long id, EstoqueAlteradoResponse evento) {
+    }
+
+    private class Assinante {
+        private final SseEmitter emitter;
+        private final Set<Long> produtoIds;
+        private final ArrayDeque<Enviado> buffer = new ArrayDeque<>();
+        private boolean heartbeatPendente;
+        private boolean agendado;
+        private boolean abandonado;
+        // System.nanoTime() do início da escrita em andamento; 0 se nenhuma
+        private long escrevendoDesde;
+
+        Assinante(SseEmitter emitter, Set<Long> produtoIds) {
+            this.emitter = emitter;
+            this.produtoIds = produtoIds;
+        }
+
+        // Só a fila fica sob o monitor; a escrita na conexão acontece fora dele, na thread de envio
+        void oferecer(Enviado enviado) {
+            synchronized (this) {
+                if (abandonado) {
+                    return;
+                }
+                if (buffer.size() >= capacidadeBuffer) {
+                    buffer.pollFirst();
+                    descartados.increment();
+                }
+                buffer.addLast(enviado);
+                if (agendado) {
+                    return;
+                }
+                agendado = true;
+            }
+            envio.execute(this::drenar);
+        }
+
+        // Com envio em andamento a conexão já está ativa e o heartbeat é dispensado
+        void sinalizarHeartbeat() {
+            synchronized (this) {
+                if (abandonado || agendado) {
+                    return;
+                }
+                heartbeatPendente = true;
+                agendado = true;
+            }
+            envio.execute(this::drenar);
+        }
+
+        synchronized boolean abandonarSeTravado(long agora) {
+            if (abandonado || escrevendoDesde == 0 || agora - escrevendoDesde < prazoEscritaNanos) {
+                return false;
+            }
+            abandonado = true;
+            buffer.clear();
+            return true;
+        }
+
+        private void drenar() {
+            for (int frames = 0; frames < framesPorVez; frames++) {
+                SseEmitter.SseEventBuilder frame;
+                synchronized (this) {
+                    Enviado enviado = buffer.pollFirst();
+                    if (enviado != null) {
+                        frame = frame(enviado);
+                    } else if (heartbeatPendente) {
+                        heartbeatPendente = false;
+                        frame = SseEmitter.event().comment("heartbeat");
+                    } else {
+                        agendado = false;
+                        return;
+                    }
+                    escrevendoDesde = System.nanoTime();
+                }
+                if (!escrever(frame)) {
+                    return;
+                }
+            }
+            // Limite da tarefa atingido: volta para o fim da fila e dá a vez aos outros assinantes
+            envio.execute(this::drenar);
+        }
+
+        private boolean escrever(SseEmitter.SseEventBuilder frame) {
+            boolean enviado;
+            try {
+                emitter.send(frame);
+                enviado = true;
+            } catch (IOException | IllegalStateException e) {
+                // Cliente desconectado ou emitter já encerrado
+                enviado = false;
+            }
+            boolean foiAbandonado;
+            synchronized (this) {
+                escrevendoDesde = 0;
+                foiAbandonado = abandonado;
+            }
+            if (foiAbandonado) {
+                // A escrita travada enfim terminou: a thread volta ao pool e a substituta sai
+                ajustarThreadsPresas(-1);
+                encerrar(this);
+                return false;
+            }
+            if (!enviado) {
+                encerrar(this);
+            }
+            return enviado;
+        }
+
+        private SseEmitter.SseEventBuilder frame(Enviado enviado) {
+            return SseEmitter.event()
+                    .id(Long.toString(enviado.id()))
+                    .name("estoque")
+                    .data(enviado.evento(), MediaType.APPLICATION_JSON);
+        }
+    }
+}
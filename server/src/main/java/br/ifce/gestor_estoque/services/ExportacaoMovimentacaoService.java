@@ -0,0 +1,123 @@
+package br.ifce.gestor_estoque.services;
+
+import br.ifce.gestor_estoque.dto.estoque.FormatoExportacao;
+import br.ifce.gestor_estoque.exceptions.BusinessException;
+import io.micrometer.core.annotation.Timed;
+import org.postgresql.PGConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exportação do histórico de entradas e saídas direto do PostgreSQL, com {@code COPY ... TO STDOUT}: o banco
+ * formata as linhas (CSV com cabeçalho, ou um objeto JSON por linha) e o driver repassa cada bloco recebido à
+ * saída, sem montar entidades, DTOs nem a resposta inteira em memória. O uso de heap não depende do número de
+ * linhas. Cada exportação ocupa uma conexão do pool enquanto durar.
+ * Os campos têm os mesmos nomes das respostas JSON da listagem.
+ */
+@Timed(value = "servico.execucao", histogram = true)
+@Service
+public class ExportacaoMovimentacaoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportacaoMovimentacaoService.class);
+
+    private static final int BUFFER_GZIP = 1 << 16;
+
+    private static final String SELECAO_ENTRADAS = """
+            SELECT m.id, p.id AS "produtoId", p.nome AS "produtoNome", f.id AS "fornecedorId", f.nome AS "fornecedorNome",
+                   m.quantidade, m.data_movimentacao AS "dataEntrada", m.preco_custo AS "precoCusto", m.observacao,
+                   COALESCE(m.preco_custo * m.quantidade, 0) AS "valorTotalEntrada"
+            FROM entrada_produto m
+            JOIN produto p ON p.id = m.produto_id
+            JOIN fornecedor f ON f.id = m.fornecedor_id
+            """;
+
+    private static final String SELECAO_SAIDAS = """
+            SELECT m.id, p.id AS "produtoId", p.nome AS "produtoNome", m.quantidade, m.data_movimentacao AS "dataSaida",
+                   m.motivo, m.cliente, m.observacao
+            FROM saida_produto m
+            JOIN produto p ON p.id = m.produto_id
+            """;
+
+    // Delimitador e aspas que nunca aparecem no JSON (o row_to_json escapa caracteres de controle): cada linha sai intacta
+    private static final String COPIA_NDJSON = "COPY (SELECT row_to_json(m) FROM (%s) m) TO STDOUT WITH (FORMAT csv, DELIMITER E'\\x02', QUOTE E'\\x01')";
+    private static final String COPIA_CSV = "COPY (%s) TO STDOUT WITH (FORMAT csv, HEADER)";
+
+    @Autowired
+    private DataSource dataSource;
+
+    // Abre a saída só depois de validado o filtro, para que um erro ainda possa ser respondido normalmente
+    @FunctionalInterface
+    public interface Saida {
+        OutputStream abrir() throws IOException;
+    }
+
+    /**
+     * Exporta as entradas, ordenadas por ID.
+     * @param inicio data inicial (inclusiva), ou null para sem limite.
+     * @param fim data final (inclusiva), ou null para sem limite.
+     * @param produtoId o produto, ou null para todos.
+     * @return o número de linhas exportadas.
+     * @throws BusinessException se o intervalo de datas for inválido.
+     */
+    public long exportarEntradas(LocalDate inicio, LocalDate fim, Long produtoId, FormatoExportacao formato, Saida saida) throws IOException, SQLException {
+        return exportar("entradas", SELECAO_ENTRADAS, inicio, fim, produtoId, formato, saida);
+    }
+
+    /**
+     * Exporta as saídas, ordenadas por ID.
+     * @param inicio data inicial (inclusiva), ou null para sem limite.
+     * @param fim data final (inclusiva), ou null para sem limite.
+     * @param produtoId o produto, ou null para todos.
+     * @return o número de linhas exportadas.
+     * @throws BusinessException se o intervalo de datas for inválido.
+     */
+    public long exportarSaidas(LocalDate inicio, LocalDate fim, Long produtoId, FormatoExportacao formato, Saida saida) throws IOException, SQLException {
+        return exportar("saídas", SELECAO_SAIDAS, inicio, fim, produtoId, formato, saida);
+    }
+
+    private long exportar(String descricao, String selecao, LocalDate inicio, LocalDate fim, Long produtoId,
+                          FormatoExportacao formato, Saida saida) throws IOException, SQLException {
+        if (inicio != null && fim != null && inicio.isAfter(fim)) {
+            throw new BusinessException("A data inicial deve ser anterior ou igual à data final.");
+        }
+        String consulta = selecao + filtro(inicio, fim, produtoId) + " ORDER BY m.id";
+        String copia = String.format(formato == FormatoExportacao.NDJSON ? COPIA_NDJSON : COPIA_CSV, consulta);
+
+        Connection conexao = DataSourceUtils.getConnection(dataSource);
+        try (OutputStream destino = formato.isGzip() ? new GZIPOutputStream(saida.abrir(), BUFFER_GZIP) : saida.abrir()) {
+            long linhas = conexao.unwrap(PGConnection.class).getCopyAPI().copyOut(copia, destino);
+            logger.info("Exportação de {}: {} linhas em {}", descricao, linhas, formato);
+            return linhas;
+        } finally {
+            DataSourceUtils.releaseConnection(conexao, dataSource);
+        }
+    }
+
+    // O COPY não aceita parâmetros; os valores entram no SQL já tipados (data ISO e número), sem texto do cliente
+    private static String filtro(LocalDate inicio, LocalDate fim, Long produtoId) {
+        List<String> condicoes = new ArrayList<>();
+        if (inicio != null) {
+            condicoes.add("m.data_movimentacao >= DATE '" + inicio + "'");
+        }
+        if (fim != null) {
+            condicoes.add("m.data_movimentacao <= DATE '" + fim + "'");
+        }
+        if (produtoId != null) {
+            condicoes.add("m.produto_id = " + produtoId);
+        }
+        return condicoes.isEmpty() ? "" : "WHERE " + String.join(" AND ", condicoes);
+    }
+}
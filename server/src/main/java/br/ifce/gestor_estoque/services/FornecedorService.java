@@ -1,27 +1,77 @@
 package br.ifce.gestor_estoque.services;
 
 import br.ifce.gestor_estoque.domain.estoque.Fornecedor;
+import br.ifce.gestor_estoque.dto.PaginaResponse;
+import br.ifce.gestor_estoque.dto.estoque.OrdenacaoFornecedor;
 import br.ifce.gestor_estoque.exceptions.NotFoundException;
+import br.ifce.gestor_estoque.infra.cache.VersaoColecoes;
+import br.ifce.gestor_estoque.infra.pagination.CursorCodec;
 import br.ifce.gestor_estoque.repositores.FornecedorRepository;
 import br.ifce.gestor_estoque.services.interfaces.IFornecedorService;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
 
+@Timed(value = "servico.execucao", histogram = true)
 @Service
 public class FornecedorService implements IFornecedorService {
 
     @Autowired
     private FornecedorRepository fornecedorRepository;
 
+    @Autowired
+    private VersaoColecoes versaoColecoes;
+
+    @Value("${paginacao.tamanho-padrao:50}")
+    private int tamanhoPaginaPadrao;
+
+    @Value("${paginacao.tamanho-maximo:500}")
+    private int tamanhoPaginaMaximo;
+
     @Override
     public List<Fornecedor> listarTodos() {
         return fornecedorRepository.findAll();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaResponse<Fornecedor> listarPagina(String cursor, Integer tamanho, OrdenacaoFornecedor ordenacao) {
+        int tamanhoEfetivo = CursorCodec.tamanhoEfetivo(tamanho, tamanhoPaginaPadrao, tamanhoPaginaMaximo);
+        // Busca um item a mais para saber se existe próxima página sem uma consulta de contagem
+        Pageable limite = PageRequest.ofSize(tamanhoEfetivo + 1);
+
+        List<Fornecedor> fornecedores;
+        if (cursor == null || cursor.isBlank()) {
+            fornecedores = switch (ordenacao) {
+                case ID -> fornecedorRepository.findPaginaPorId(0L, limite);
+                case NOME -> fornecedorRepository.findPaginaPorNome("", 0L, limite);
+            };
+        } else {
+            CursorCodec.Posicao posicao = CursorCodec.decode(cursor, ordenacao.getParametro());
+            fornecedores = switch (ordenacao) {
+                case ID -> fornecedorRepository.findPaginaPorId(posicao.ultimoId(), limite);
+                case NOME -> fornecedorRepository.findPaginaPorNome(posicao.ultimoValor(), posicao.ultimoId(), limite);
+            };
+        }
+
+        String proximoCursor = null;
+        if (fornecedores.size() > tamanhoEfetivo) {
+            fornecedores = fornecedores.subList(0, tamanhoEfetivo);
+            Fornecedor ultimo = fornecedores.get(tamanhoEfetivo - 1);
+            String ultimoValor = ordenacao == OrdenacaoFornecedor.NOME ? ultimo.getNome() : null;
+            proximoCursor = CursorCodec.encode(ordenacao.getParametro(), ultimo.getId(), ultimoValor);
+        }
+
+        return new PaginaResponse<>(List.copyOf(fornecedores), fornecedores.size(), proximoCursor);
+    }
+
     @Override
     public Optional<Fornecedor> obterPorId(Long id) {
         return fornecedorRepository.findById(id);
@@ -30,6 +80,7 @@ public class FornecedorService implements IFornecedorService {
     @Override
     @Transactional
     public Fornecedor criar(Fornecedor fornecedor) {
+        versaoColecoes.registrarAlteracaoFornecedores();
         return fornecedorRepository.save(fornecedor);
     }
 
@@ -44,6 +95,7 @@ public class FornecedorService implements IFornecedorService {
         fornecedorExistente.setContatoEmail(fornecedorAtualizado.getContatoEmail());
         fornecedorExistente.setContatoTelefone(fornecedorAtualizado.getContatoTelefone());
 
+        versaoColecoes.registrarAlteracaoFornecedores();
         return fornecedorRepository.save(fornecedorExistente);
     }
 
@@ -54,6 +106,7 @@ public class FornecedorService implements IFornecedorService {
                 .orElseThrow(() -> new NotFoundException("Fornecedor com ID " + id + " não encontrado para exclusão."));
 
         fornecedorRepository.delete(fornecedor);
+        versaoColecoes.registrarAlteracaoFornecedores();
         return true;
     }
 }
@@ -0,0 +1,287 @@
+package br.ifce.gestor_estoque.services;
+
+import br.ifce.gestor_estoque.domain.estoque.Produto;
+import br.ifce.gestor_estoque.dto.estoque.ImportacaoProdutosResponse;
+import br.ifce.gestor_estoque.events.ProdutosImportadosEvent;
+import br.ifce.gestor_estoque.exceptions.BusinessException;
+import br.ifce.gestor_estoque.infra.cache.CacheProduto;
+import br.ifce.gestor_estoque.infra.csv.EscritorCsv;
+import br.ifce.gestor_estoque.infra.csv.LeitorCsv;
+import io.micrometer.core.annotation.Timed;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Importação do catálogo de produtos a partir de um CSV, em uma única transação.
+ * O arquivo é lido registro a registro; cada registro é validado pelas mesmas regras dos setters de {@link Produto}
+ * e, se válido, escrito direto no {@code COPY} de uma tabela temporária, sem passar pelo JPA. Os inválidos vão
+ * para um CSV de rejeitados em disco, com a linha e o motivo. Por fim, uma única instrução mescla a tabela
+ * temporária no catálogo usando o nome como chave (único, pela restrição {@code uk_produto_nome}): atualiza
+ * descrição, preço e unidade dos produtos existentes e insere os novos. A quantidade em estoque do arquivo vale só para produtos novos; a de um produto existente só
+ * muda por movimentações, para não perder o histórico.
+ */
+@Timed(value = "servico.execucao", histogram = true)
+@Service
+public class ImportacaoProdutoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportacaoProdutoService.class);
+
+    static final String CAMINHO_REJEITADOS = "/api/produtos/import/rejeitados/";
+
+    private static final String NOME = "nome";
+    private static final String DESCRICAO = "descricao";
+    private static final String PRECO = "preco";
+    private static final String QUANTIDADE_ESTOQUE = "quantidadeEstoque";
+    private static final String UNIDADE_MEDIDA = "unidadeMedida";
+    private static final List<String> COLUNAS = List.of(NOME, DESCRICAO, PRECO, QUANTIDADE_ESTOQUE, UNIDADE_MEDIDA);
+
+    // Chave do advisory lock que impede duas importações simultâneas de inserirem o mesmo nome duas vezes
+    private static final long TRAVA_IMPORTACAO = 7_420_551_003L;
+    private static final int BUFFER_COPY = 1 << 16;
+
+    private static final String CRIAR_TABELA_IMPORTACAO = """
+            CREATE TEMPORARY TABLE produto_importacao (
+                linha bigint NOT NULL,
+                nome varchar(255) NOT NULL,
+                descricao varchar(500),
+                preco numeric(38, 2) NOT NULL,
+                quantidade_estoque integer NOT NULL,
+                unidade_medida varchar(50) NOT NULL
+            ) ON COMMIT DROP
+            """;
+
+    private static final String COPIAR_IMPORTACAO = """
+            COPY produto_importacao (linha, nome, descricao, preco, quantidade_estoque, unidade_medida)
+            FROM STDIN WITH (FORMAT csv)
+            """;
+
+    // Um nome repetido no arquivo vale pela última ocorrência; produtos sem mudança não ganham nova versão
+    private static final String MESCLAR_IMPORTACAO = """
+            WITH importados AS (
+                SELECT DISTINCT ON (nome) nome, descricao, preco, quantidade_estoque, unidade_medida
+                FROM produto_importacao
+                ORDER BY nome, linha DESC
+            ), atualizados AS (
+                UPDATE produto p
+                SET descricao = i.descricao, preco = i.preco, unidade_medida = i.unidade_medida, versao = p.versao + 1
+                FROM importados i
+                WHERE p.nome = i.nome
+                  AND (p.descricao, p.preco, p.unidade_medida) IS DISTINCT FROM (i.descricao, i.preco, i.unidade_medida)
+                RETURNING p.id
+            ), inseridos AS (
+                INSERT INTO produto (nome, descricao, preco, quantidade_estoque, unidade_medida, versao)
+                SELECT i.nome, i.descricao, i.preco, i.quantidade_estoque, i.unidade_medida, 0
+                FROM importados i
+                WHERE NOT EXISTS (SELECT 1 FROM produto p WHERE p.nome = i.nome)
+                RETURNING id
+            )
+            SELECT (SELECT count(*) FROM inseridos) AS inseridos, (SELECT count(*) FROM atualizados) AS atualizados
+            """;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private CacheProduto cacheProduto;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${importacao.produtos.tamanho-maximo-registro:8192}")
+    private int tamanhoMaximoRegistro;
+
+    @Value("${importacao.produtos.diretorio-rejeitados:${java.io.tmpdir}/gestor-estoque-importacoes}")
+    private Path diretorioRejeitados;
+
+    @Value("${importacao.produtos.retencao-rejeitados-ms:86400000}")
+    private long retencaoRejeitadosMs;
+
+    /**
+     * Importa o CSV informado. A primeira linha é o cabeçalho, com as colunas nome, descricao, preco,
+     * quantidadeEstoque e unidadeMedida em qualquer ordem; colunas desconhecidas são ignoradas.
+     * @param csv o conteúdo do arquivo, em UTF-8.
+     * @return o resumo da importação.
+     * @throws BusinessException se o cabeçalho for inválido ou o arquivo estiver malformado; nada é importado.
+     */
+    // Desfaz também em IOException/SQLException, que são verificadas: uma leitura interrompida não importa nada
+    @Transactional(rollbackFor = Exception.class)
+    public ImportacaoProdutosResponse importar(InputStream csv) throws IOException, SQLException {
+        LeitorCsv leitor = new LeitorCsv(new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8)), tamanhoMaximoRegistro);
+        Map<String, Integer> indices = lerCabecalho(leitor);
+
+        // A conexão da transação JPA: a tabela temporária, o COPY e a mesclagem precisam estar nela
+        Connection conexao = DataSourceUtils.getConnection(dataSource);
+        try (Statement statement = conexao.createStatement()) {
+            statement.execute("SELECT pg_advisory_xact_lock(" + TRAVA_IMPORTACAO + ")");
+            statement.execute(CRIAR_TABELA_IMPORTACAO);
+        }
+
+        Files.createDirectories(diretorioRejeitados);
+        UUID idRejeitados = UUID.randomUUID();
+        Path arquivoRejeitados = diretorioRejeitados.resolve(idRejeitados + ".csv");
+        long registros = 0;
+        long rejeitados = 0;
+        try (Writer copia = new BufferedWriter(new OutputStreamWriter(
+                     new PGCopyOutputStream(conexao.unwrap(PGConnection.class), COPIAR_IMPORTACAO, BUFFER_COPY), StandardCharsets.UTF_8));
+             Writer rejeicoes = Files.newBufferedWriter(arquivoRejeitados, StandardCharsets.UTF_8)) {
+            EscritorCsv escritorCopia = new EscritorCsv(copia);
+            EscritorCsv escritorRejeitados = new EscritorCsv(rejeicoes);
+            escritorRejeitados.escrever("linha", "motivo", NOME, DESCRICAO, PRECO, QUANTIDADE_ESTOQUE, UNIDADE_MEDIDA);
+
+            Produto produto = new Produto();
+            List<String> campos;
+            while ((campos = leitor.proximoRegistro()) != null) {
+                registros++;
+                String motivo = validar(campos, indices, produto);
+                if (motivo == null) {
+                    escritorCopia.escrever(leitor.getLinha(), produto.getNome(), produto.getDescricao(),
+                            produto.getPreco().toPlainString(), produto.getQuantidadeEstoque(), produto.getUnidadeMedida());
+                } else {
+                    rejeitados++;
+                    List<Object> linha = new ArrayList<>(List.of(leitor.getLinha(), motivo));
+                    for (String coluna : COLUNAS) {
+                        linha.add(campo(campos, indices, coluna));
+                    }
+                    escritorRejeitados.escrever(linha.toArray());
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(arquivoRejeitados);
+            throw e;
+        }
+        if (rejeitados == 0) {
+            Files.deleteIfExists(arquivoRejeitados);
+        }
+
+        int inseridos = 0;
+        int atualizados = 0;
+        if (registros > rejeitados) {
+            cacheProduto.invalidarTodos();
+            try (Statement statement = conexao.createStatement()) {
+                statement.execute("ANALYZE produto_importacao");
+                try (ResultSet resultado = statement.executeQuery(MESCLAR_IMPORTACAO)) {
+                    resultado.next();
+                    inseridos = resultado.getInt("inseridos");
+                    atualizados = resultado.getInt("atualizados");
+                }
+            }
+            eventPublisher.publishEvent(new ProdutosImportadosEvent(inseridos, atualizados));
+        }
+
+        logger.info("Importação de produtos: {} registros, {} rejeitados, {} inseridos, {} atualizados",
+                registros, rejeitados, inseridos, atualizados);
+        return new ImportacaoProdutosResponse(registros, registros - rejeitados, rejeitados, inseridos, atualizados,
+                rejeitados > 0 ? CAMINHO_REJEITADOS + idRejeitados : null);
+    }
+
+    /**
+     * Localiza o CSV de rejeitados de uma importação, enquanto estiver retido.
+     * @param id o identificador retornado no resumo da importação.
+     */
+    public Optional<Path> getArquivoRejeitados(UUID id) {
+        Path arquivo = diretorioRejeitados.resolve(id + ".csv");
+        return Files.isRegularFile(arquivo) ? Optional.of(arquivo) : Optional.empty();
+    }
+
+    @Scheduled(initialDelayString = "${importacao.produtos.limpeza-ms:3600000}", fixedDelayString = "${importacao.produtos.limpeza-ms:3600000}")
+    public void removerRejeitadosExpirados() throws IOException {
+        if (!Files.isDirectory(diretorioRejeitados)) {
+            return;
+        }
+        Instant limite = Instant.now().minusMillis(retencaoRejeitadosMs);
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(diretorioRejeitados, "*.csv")) {
+            for (Path arquivo : arquivos) {
+                if (Files.getLastModifiedTime(arquivo).toInstant().isBefore(limite)) {
+                    Files.deleteIfExists(arquivo);
+                }
+            }
+        }
+    }
+
+    private Map<String, Integer> lerCabecalho(LeitorCsv leitor) throws IOException {
+        List<String> cabecalho = leitor.proximoRegistro();
+        if (cabecalho == null) {
+            throw new BusinessException("O arquivo CSV está vazio.");
+        }
+        Map<String, Integer> indices = new HashMap<>();
+        for (int i = 0; i < cabecalho.size(); i++) {
+            for (String coluna : COLUNAS) {
+                if (coluna.equalsIgnoreCase(cabecalho.get(i).strip())) {
+                    indices.putIfAbsent(coluna, i);
+                }
+            }
+        }
+        List<String> ausentes = COLUNAS.stream()
+                .filter(coluna -> !coluna.equals(DESCRICAO) && !indices.containsKey(coluna))
+                .toList();
+        if (!ausentes.isEmpty()) {
+            throw new BusinessException("O cabeçalho do CSV não tem as colunas obrigatórias: " + String.join(", ", ausentes) + ".");
+        }
+        return indices;
+    }
+
+    // Retorna o motivo da rejeição, ou null se o registro é válido (e nesse caso preenche o produto)
+    private String validar(List<String> campos, Map<String, Integer> indices, Produto produto) {
+        String preco = campo(campos, indices, PRECO);
+        String quantidade = campo(campos, indices, QUANTIDADE_ESTOQUE);
+        try {
+            produto.setNome(campo(campos, indices, NOME));
+            String descricao = campo(campos, indices, DESCRICAO);
+            produto.setDescricao(descricao == null || descricao.isEmpty() ? null : descricao);
+            produto.setPreco(preco == null || preco.isEmpty() ? null : numero(preco, "O preço", BigDecimal::new));
+            produto.setQuantidadeEstoque(quantidade == null || quantidade.isEmpty() ? null : numero(quantidade, "A quantidade em estoque", Integer::valueOf));
+            produto.setUnidadeMedida(campo(campos, indices, UNIDADE_MEDIDA));
+            return null;
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+    }
+
+    private static <T> T numero(String valor, String descricao, Function<String, T> conversao) {
+        try {
+            return conversao.apply(valor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(descricao + " não é um número válido: " + valor);
+        }
+    }
+
+    private static String campo(List<String> campos, Map<String, Integer> indices, String coluna) {
+        Integer indice = indices.get(coluna);
+        return indice != null && indice < campos.size() ? campos.get(indice).strip() : null;
+    }
+}
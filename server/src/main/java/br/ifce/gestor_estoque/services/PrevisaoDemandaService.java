@@ -0,0 +1,442 @@
+package br.ifce.gestor_estoque.services;
+
+import br.ifce.gestor_estoque.domain.estoque.PrevisaoDemanda;
+import br.ifce.gestor_estoque.dto.PaginaResponse;
+import br.ifce.gestor_estoque.dto.estoque.PrevisaoDemandaResponse;
+import br.ifce.gestor_estoque.exceptions.BusinessException;
+import br.ifce.gestor_estoque.infra.csv.EscritorCsv;
+import br.ifce.gestor_estoque.infra.pagination.CursorCodec;
+import br.ifce.gestor_estoque.repositores.PrevisaoDemandaRepository;
+import br.ifce.gestor_estoque.repositores.PrevisaoDemandaRepository.DemandaDiaria;
+import br.ifce.gestor_estoque.repositores.PrevisaoDemandaRepository.PrazoFornecedor;
+import br.ifce.gestor_estoque.repositores.PrevisaoDemandaRepository.PrazoReposicao;
+import br.ifce.gestor_estoque.repositores.ProdutoRepository.EstoqueAtual;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Previsão de consumo e sugestão de compra por produto. A demanda diária vem dos totais de saída por dia
+ * ({@code movimentacao_diaria}) e é suavizada pelo método de Holt-Winters aditivo (nível, tendência e um índice
+ * por dia da semana). O prazo de reposição vem do histórico de entradas do fornecedor mais recente do produto.
+ * Com eles a rotina calcula o ponto de reposição (demanda prevista no prazo mais um estoque de segurança) e, para os
+ * produtos que já chegaram nele, a quantidade a comprar para cobrir o prazo e mais {@code previsao.cobertura-dias}.
+ * A rotina noturna divide o catálogo em lotes por faixa de ID, processados em paralelo, cada um em sua própria
+ * transação: lê o estado salvo, aplica só os dias desde a última execução e grava o lote com COPY. As consultas
+ * leem a tabela pré-calculada.
+ * O estado não é refeito quando uma movimentação de um dia já processado é editada; a execução completa
+ * ({@code previsao.cron-completo}) recalcula tudo a partir de {@code previsao.historico-dias}.
+ */
+@Timed(value = "servico.execucao", histogram = true)
+@Service
+public class PrevisaoDemandaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PrevisaoDemandaService.class);
+
+    private static final String ORDENACAO = "previsao";
+
+    // Chave do advisory lock que impede duas execuções simultâneas (em qualquer instância)
+    private static final long TRAVA_PREVISAO = 7_420_551_004L;
+    private static final int BUFFER_COPY = 1 << 16;
+    private static final int DIAS_SEMANA = 7;
+
+    private static final String COLUNAS = "produto_id, nivel, tendencia, sazonalidade, erro_quadratico, ultima_data, "
+            + "demanda_diaria, desvio_diario, fornecedor_id, prazo_entrega_dias, ponto_reposicao, quantidade_sugerida, calculado_em";
+
+    private static final String CRIAR_TABELA_LOTE = "CREATE TEMPORARY TABLE previsao_lote (LIKE previsao_demanda) ON COMMIT DROP";
+
+    private static final String COPIAR_LOTE = "COPY previsao_lote (" + COLUNAS + ") FROM STDIN WITH (FORMAT csv)";
+
+    private static final String MESCLAR_LOTE = "INSERT INTO previsao_demanda (" + COLUNAS + ") SELECT " + COLUNAS + """
+             FROM previsao_lote
+            ON CONFLICT (produto_id) DO UPDATE SET
+                nivel = EXCLUDED.nivel, tendencia = EXCLUDED.tendencia, sazonalidade = EXCLUDED.sazonalidade,
+                erro_quadratico = EXCLUDED.erro_quadratico, ultima_data = EXCLUDED.ultima_data,
+                demanda_diaria = EXCLUDED.demanda_diaria, desvio_diario = EXCLUDED.desvio_diario,
+                fornecedor_id = EXCLUDED.fornecedor_id, prazo_entrega_dias = EXCLUDED.prazo_entrega_dias,
+                ponto_reposicao = EXCLUDED.ponto_reposicao, quantidade_sugerida = EXCLUDED.quantidade_sugerida,
+                calculado_em = EXCLUDED.calculado_em
+            """;
+
+    private static final String REMOVER_EXCLUIDOS = """
+            DELETE FROM previsao_demanda d
+            WHERE NOT EXISTS (SELECT 1 FROM produto p WHERE p.id = d.produto_id)
+            """;
+
+    private final PrevisaoDemandaRepository previsaoDemandaRepository;
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executor;
+
+    @Value("${previsao.tamanho-lote:5000}")
+    private int tamanhoLote;
+
+    // Dias de saídas usados para iniciar o modelo de um produto sem previsão (e na execução completa)
+    @Value("${previsao.historico-dias:112}")
+    private int historicoDias;
+
+    @Value("${previsao.prazo.historico-dias:365}")
+    private int historicoPrazoDias;
+
+    @Value("${previsao.prazo.padrao-dias:7}")
+    private double prazoPadraoDias;
+
+    @Value("${previsao.prazo.maximo-dias:90}")
+    private int prazoMaximoDias;
+
+    @Value("${previsao.cobertura-dias:14}")
+    private int coberturaDias;
+
+    // Múltiplo do desvio da demanda no prazo mantido como estoque de segurança (1,65 ≈ 95% de nível de serviço)
+    @Value("${previsao.fator-seguranca:1.65}")
+    private double fatorSeguranca;
+
+    @Value("${previsao.suavizacao.nivel:0.2}")
+    private double alfa;
+
+    @Value("${previsao.suavizacao.tendencia:0.05}")
+    private double beta;
+
+    @Value("${previsao.suavizacao.sazonalidade:0.15}")
+    private double gama;
+
+    @Value("${paginacao.tamanho-padrao:50}")
+    private int tamanhoPaginaPadrao;
+
+    @Value("${paginacao.tamanho-maximo:500}")
+    private int tamanhoPaginaMaximo;
+
+    public PrevisaoDemandaService(PrevisaoDemandaRepository previsaoDemandaRepository,
+                                  DataSource dataSource,
+                                  JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${previsao.paralelismo:4}") int paralelismo) {
+        this.previsaoDemandaRepository = previsaoDemandaRepository;
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Cada thread ocupa uma conexão do pool durante o lote, além da conexão que segura a trava da execução
+        AtomicInteger numero = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(paralelismo, tarefa -> {
+            Thread thread = new Thread(tarefa, "previsao-demanda-" + numero.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void encerrar() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Lista as previsões em ordem de ID do produto.
+     * @param fornecedorId filtra pelo fornecedor considerado no prazo; nulo para todos.
+     * @param apenasRepor se true, só os produtos com quantidade sugerida de compra.
+     * @throws BusinessException se o cursor for inválido.
+     */
+    @Transactional(readOnly = true)
+    public PaginaResponse<PrevisaoDemandaResponse> listar(String cursor, Integer tamanho, Long fornecedorId, boolean apenasRepor) {
+        int tamanhoEfetivo = CursorCodec.tamanhoEfetivo(tamanho, tamanhoPaginaPadrao, tamanhoPaginaMaximo);
+        long ultimoId = cursor == null || cursor.isBlank() ? 0L : CursorCodec.decode(cursor, ORDENACAO).ultimoId();
+
+        // Busca um item a mais para saber se existe próxima página sem uma consulta de contagem
+        List<PrevisaoDemandaResponse> previsoes = previsaoDemandaRepository.findPagina(ultimoId, fornecedorId, apenasRepor,
+                PageRequest.ofSize(tamanhoEfetivo + 1));
+        String proximoCursor = null;
+        if (previsoes.size() > tamanhoEfetivo) {
+            previsoes = previsoes.subList(0, tamanhoEfetivo);
+            proximoCursor = CursorCodec.encode(ORDENACAO, previsoes.get(tamanhoEfetivo - 1).produtoId(), null);
+        }
+        return new PaginaResponse<>(previsoes, previsoes.size(), proximoCursor);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<PrevisaoDemandaResponse> getPrevisao(Long produtoId) {
+        return previsaoDemandaRepository.findRespostaByProdutoId(produtoId);
+    }
+
+    // Depois do fechamento do dia anterior (snapshots às 00:15)
+    @Scheduled(cron = "${previsao.cron:0 30 1 * * *}")
+    public void executarPeriodicamente() {
+        executar(false);
+    }
+
+    @Scheduled(cron = "${previsao.cron-completo:0 30 3 * * SUN}")
+    public void executarCompletaPeriodicamente() {
+        executar(true);
+    }
+
+    /**
+     * Recalcula as previsões de todo o catálogo até o dia anterior.
+     * @param completo se true, refaz o modelo de cada produto a partir do histórico em vez de continuar do estado salvo.
+     * @return o número de produtos calculados, ou zero se outra execução estiver em andamento.
+     */
+    public int executar(boolean completo) {
+        Integer calculados = transactionTemplate.execute(status -> {
+            if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, TRAVA_PREVISAO))) {
+                logger.info("Previsão de demanda já em execução; ignorada");
+                return 0;
+            }
+            long inicio = System.nanoTime();
+            LocalDate ate = LocalDate.now().minusDays(1);
+            Instant calculadoEm = Instant.now();
+            Map<Long, Double> prazosFornecedor = previsaoDemandaRepository.findPrazosPorFornecedor(ate.minusDays(historicoPrazoDias)).stream()
+                    .collect(Collectors.toMap(PrazoFornecedor::getFornecedorId, PrazoFornecedor::getPrazoDias));
+
+            List<Long> ids = previsaoDemandaRepository.findIdsProdutos();
+            List<Future<Integer>> lotes = new ArrayList<>();
+            for (int i = 0; i < ids.size(); i += tamanhoLote) {
+                List<Long> lote = ids.subList(i, Math.min(i + tamanhoLote, ids.size()));
+                lotes.add(executor.submit(() -> calcularLote(lote.get(0), lote.get(lote.size() - 1), ate, completo, prazosFornecedor, calculadoEm)));
+            }
+            int total = 0;
+            int falhas = 0;
+            for (Future<Integer> lote : lotes) {
+                try {
+                    total += lote.get();
+                } catch (ExecutionException e) {
+                    // Um lote com erro mantém a previsão anterior dos seus produtos; os demais seguem
+                    falhas++;
+                    logger.error("Falha ao calcular um lote da previsão de demanda", e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    lotes.forEach(restante -> restante.cancel(true));
+                    throw new IllegalStateException("Previsão de demanda interrompida", e);
+                }
+            }
+            int removidas = jdbcTemplate.update(REMOVER_EXCLUIDOS);
+            logger.info("Previsão de demanda{} até {}: {} produtos em {} lotes ({} com falha), {} previsões removidas, {} ms",
+                    completo ? " completa" : "", ate, total, lotes.size(), falhas, removidas,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio));
+            return total;
+        });
+        return calculados == null ? 0 : calculados;
+    }
+
+    private int calcularLote(Long primeiro, Long ultimo, LocalDate ate, boolean completo,
+                             Map<Long, Double> prazosFornecedor, Instant calculadoEm) {
+        Integer calculados = transactionTemplate.execute(status -> {
+            Map<Long, PrevisaoDemanda> estados = completo ? Map.of() : previsaoDemandaRepository.findByProdutoIdBetween(primeiro, ultimo).stream()
+                    .collect(Collectors.toMap(PrevisaoDemanda::getProdutoId, Function.identity()));
+            List<EstoqueAtual> produtos = previsaoDemandaRepository.findEstoquesEntre(primeiro, ultimo);
+
+            // Lê as saídas desde o dia mais antigo ainda não processado no lote
+            LocalDate desde = ate;
+            for (EstoqueAtual produto : produtos) {
+                PrevisaoDemanda estado = estados.get(produto.getId());
+                LocalDate inicio = estado == null ? ate.minusDays(historicoDias) : estado.getUltimaData();
+                if (inicio.isBefore(desde)) {
+                    desde = inicio;
+                }
+            }
+            Map<Long, Map<LocalDate, Long>> demanda = new HashMap<>();
+            for (DemandaDiaria dia : previsaoDemandaRepository.findDemandaEntre(primeiro, ultimo, desde, ate)) {
+                demanda.computeIfAbsent(dia.getProdutoId(), id -> new HashMap<>()).put(dia.getData(), dia.getQuantidade());
+            }
+            Map<Long, PrazoReposicao> prazos = previsaoDemandaRepository.findPrazosEntre(primeiro, ultimo, ate.minusDays(historicoPrazoDias)).stream()
+                    .collect(Collectors.toMap(PrazoReposicao::getProdutoId, Function.identity()));
+
+            Connection conexao = DataSourceUtils.getConnection(dataSource);
+            try {
+                jdbcTemplate.execute(CRIAR_TABELA_LOTE);
+                try (Writer copia = new BufferedWriter(new OutputStreamWriter(
+                        new PGCopyOutputStream(conexao.unwrap(PGConnection.class), COPIAR_LOTE, BUFFER_COPY), StandardCharsets.UTF_8))) {
+                    EscritorCsv escritor = new EscritorCsv(copia);
+                    for (EstoqueAtual produto : produtos) {
+                        Map<LocalDate, Long> vendas = demanda.getOrDefault(produto.getId(), Map.of());
+                        PrevisaoDemanda estado = estados.get(produto.getId());
+                        Modelo modelo = estado == null ? iniciar(vendas, ate) : continuar(estado, vendas, ate);
+                        escrever(escritor, produto, modelo, prazos.get(produto.getId()), prazosFornecedor, calculadoEm);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            } finally {
+                DataSourceUtils.releaseConnection(conexao, dataSource);
+            }
+            jdbcTemplate.update(MESCLAR_LOTE);
+            return produtos.size();
+        });
+        return calculados == null ? 0 : calculados;
+    }
+
+    private void escrever(EscritorCsv escritor, EstoqueAtual produto, Modelo modelo, PrazoReposicao prazoProduto,
+                          Map<Long, Double> prazosFornecedor, Instant calculadoEm) throws IOException {
+        Long fornecedorId = prazoProduto == null ? null : prazoProduto.getFornecedorId();
+        Double prazo = prazoProduto == null ? null : prazoProduto.getPrazoDias();
+        if (prazo == null && fornecedorId != null) {
+            prazo = prazosFornecedor.get(fornecedorId);
+        }
+        double prazoDias = Math.min(Math.max(prazo == null ? prazoPadraoDias : prazo, 1), prazoMaximoDias);
+        int diasPrazo = (int) Math.ceil(prazoDias);
+
+        double demandaPrazo = 0;
+        for (int dia = 1; dia <= diasPrazo; dia++) {
+            demandaPrazo += modelo.prever(dia);
+        }
+        double demandaSemana = 0;
+        for (int dia = 1; dia <= DIAS_SEMANA; dia++) {
+            demandaSemana += modelo.prever(dia);
+        }
+        double demandaDiaria = demandaSemana / DIAS_SEMANA;
+        double desvioDiario = Math.sqrt(modelo.erroQuadratico);
+
+        int pontoReposicao = (int) Math.ceil(demandaPrazo + fatorSeguranca * desvioDiario * Math.sqrt(diasPrazo));
+        int estoque = produto.getQuantidadeEstoque();
+        // Pedido até o ponto de reposição mais a cobertura, só para quem já chegou no ponto
+        int quantidadeSugerida = estoque <= pontoReposicao
+                ? Math.max(0, (int) Math.ceil(pontoReposicao + demandaDiaria * coberturaDias - estoque))
+                : 0;
+
+        escritor.escrever(produto.getId(), modelo.nivel, modelo.tendencia, modelo.sazonalidadeComoArray(), modelo.erroQuadratico,
+                modelo.ultimaData, demandaDiaria, desvioDiario, fornecedorId, prazoDias, pontoReposicao, quantidadeSugerida, calculadoEm);
+    }
+
+    // Produto sem estado salvo: a série começa na primeira saída dentro do histórico, não no início da janela
+    private Modelo iniciar(Map<LocalDate, Long> vendas, LocalDate ate) {
+        Modelo modelo = new Modelo();
+        LocalDate inicio = vendas.keySet().stream().min(LocalDate::compareTo).orElse(null);
+        if (inicio == null) {
+            modelo.ultimaData = ate;
+            return modelo;
+        }
+        int dias = (int) ChronoUnit.DAYS.between(inicio, ate) + 1;
+        double[] serie = new double[dias];
+        for (int i = 0; i < dias; i++) {
+            serie[i] = vendas.getOrDefault(inicio.plusDays(i), 0L);
+        }
+
+        if (dias < 2 * DIAS_SEMANA) {
+            // Histórico curto: só a média, sem tendência nem sazonalidade
+            modelo.nivel = media(serie, 0, dias);
+            modelo.erroQuadratico = variancia(serie, 0, dias);
+            modelo.ultimaData = ate;
+            return modelo;
+        }
+        double primeiraSemana = media(serie, 0, DIAS_SEMANA);
+        modelo.nivel = primeiraSemana;
+        modelo.tendencia = (media(serie, DIAS_SEMANA, 2 * DIAS_SEMANA) - primeiraSemana) / DIAS_SEMANA;
+        for (int i = 0; i < DIAS_SEMANA; i++) {
+            modelo.sazonalidade[indice(inicio.plusDays(i))] = serie[i] - primeiraSemana;
+        }
+        modelo.erroQuadratico = variancia(serie, 0, 2 * DIAS_SEMANA);
+        modelo.ultimaData = inicio.plusDays(DIAS_SEMANA - 1);
+        for (int i = DIAS_SEMANA; i < dias; i++) {
+            modelo.atualizar(serie[i]);
+        }
+        return modelo;
+    }
+
+    // Execução incremental: aplica apenas os dias posteriores ao último processado, inclusive os sem saída
+    private Modelo continuar(PrevisaoDemanda estado, Map<LocalDate, Long> vendas, LocalDate ate) {
+        Modelo modelo = new Modelo();
+        modelo.nivel = estado.getNivel();
+        modelo.tendencia = estado.getTendencia();
+        System.arraycopy(estado.getSazonalidade(), 0, modelo.sazonalidade, 0, DIAS_SEMANA);
+        modelo.erroQuadratico = estado.getErroQuadratico();
+        modelo.ultimaData = estado.getUltimaData();
+        while (modelo.ultimaData.isBefore(ate)) {
+            modelo.atualizar(vendas.getOrDefault(modelo.ultimaData.plusDays(1), 0L));
+        }
+        return modelo;
+    }
+
+    private static int indice(LocalDate dia) {
+        return dia.getDayOfWeek().getValue() - 1;
+    }
+
+    private static double media(double[] serie, int de, int ate) {
+        double soma = 0;
+        for (int i = de; i < ate; i++) {
+            soma += serie[i];
+        }
+        return soma / (ate - de);
+    }
+
+    private static double variancia(double[] serie, int de, int ate) {
+        double media = media(serie, de, ate);
+        double soma = 0;
+        for (int i = de; i < ate; i++) {
+            soma += (serie[i] - media) * (serie[i] - media);
+        }
+        return soma / (ate - de);
+    }
+
+    /**
+     * Estado do Holt-Winters aditivo de um produto, com a sazonalidade indexada pelo dia da semana.
+     * {@link #atualizar} incorpora o dia seguinte a {@code ultimaData}.
+     */
+    private final class Modelo {
+        private double nivel;
+        private double tendencia;
+        private final double[] sazonalidade = new double[DIAS_SEMANA];
+        private double erroQuadratico;
+        private LocalDate ultimaData;
+
+        void atualizar(double demanda) {
+            LocalDate dia = ultimaData.plusDays(1);
+            int indice = indice(dia);
+            double sazonal = sazonalidade[indice];
+            double erro = demanda - (nivel + tendencia + sazonal);
+            double nivelAnterior = nivel;
+            nivel = alfa * (demanda - sazonal) + (1 - alfa) * (nivel + tendencia);
+            tendencia = beta * (nivel - nivelAnterior) + (1 - beta) * tendencia;
+            sazonalidade[indice] = gama * (demanda - nivel) + (1 - gama) * sazonal;
+            erroQuadratico = alfa * erro * erro + (1 - alfa) * erroQuadratico;
+            ultimaData = dia;
+        }
+
+        // Demanda prevista para daqui a {@code dias} dias; nunca negativa
+        double prever(int dias) {
+            return Math.max(0, nivel + tendencia * dias + sazonalidade[indice(ultimaData.plusDays(dias))]);
+        }
+
+        // Formato de array do PostgreSQL aceito pelo COPY
+        String sazonalidadeComoArray() {
+            return Arrays.stream(sazonalidade).mapToObj(Double::toString).collect(Collectors.joining(",", "{", "}"));
+        }
+    }
+}
@@ -1,48 +1,171 @@
 package br.ifce.gestor_estoque.services;
 
 import br.ifce.gestor_estoque.domain.estoque.Produto;
+import br.ifce.gestor_estoque.dto.PaginaResponse;
+import br.ifce.gestor_estoque.dto.estoque.OrdenacaoProduto;
+import br.ifce.gestor_estoque.dto.estoque.ProdutoBuscaResponse;
 import br.ifce.gestor_estoque.dto.estoque.ProdutoRequest;
 import br.ifce.gestor_estoque.dto.estoque.ProdutoResponse;
+import br.ifce.gestor_estoque.events.ProdutoAtualizadoEvent;
+import br.ifce.gestor_estoque.events.ProdutoCriadoEvent;
+import br.ifce.gestor_estoque.events.ProdutoExcluidoEvent;
+import br.ifce.gestor_estoque.exceptions.BusinessException;
+import br.ifce.gestor_estoque.exceptions.ConflictException;
+import br.ifce.gestor_estoque.infra.pagination.CursorCodec;
 import br.ifce.gestor_estoque.repositores.ProdutoRepository;
 import br.ifce.gestor_estoque.services.interfaces.IProdutoService; // Updated import
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
+@Timed(value = "servico.execucao", histogram = true)
 @Service
 public class ProdutoService implements IProdutoService { // Implement the interface
 
     @Autowired
     private ProdutoRepository produtoRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private static final String ORDENACAO_BUSCA = "relevancia";
+    private static final BigDecimal RELEVANCIA_INICIAL = BigDecimal.TEN;
+    private static final int TAMANHO_MAXIMO_TERMO_BUSCA = 200;
+
+    @Value("${paginacao.tamanho-padrao:50}")
+    private int tamanhoPaginaPadrao;
+
+    @Value("${paginacao.tamanho-maximo:500}")
+    private int tamanhoPaginaMaximo;
+
     @Override // Add Override annotation
+    @Transactional(readOnly = true)
     public List<ProdutoResponse> listarTodos() {
-        return produtoRepository.findAll().stream()
-                .map(ProdutoResponse::new)
-                .collect(Collectors.toList());
+        return produtoRepository.findAllResposta();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaResponse<ProdutoResponse> listarPagina(String cursor, Integer tamanho, OrdenacaoProduto ordenacao) {
+        int tamanhoEfetivo = CursorCodec.tamanhoEfetivo(tamanho, tamanhoPaginaPadrao, tamanhoPaginaMaximo);
+        // Busca um item a mais para saber se existe próxima página sem uma consulta de contagem
+        Pageable limite = PageRequest.ofSize(tamanhoEfetivo + 1);
+
+        List<ProdutoResponse> produtos;
+        if (cursor == null || cursor.isBlank()) {
+            produtos = switch (ordenacao) {
+                case ID -> produtoRepository.findPaginaPorId(0L, limite);
+                case NOME -> produtoRepository.findPaginaPorNome("", 0L, limite);
+                case ESTOQUE -> produtoRepository.findPaginaPorEstoque(-1, 0L, limite);
+                case ESTOQUE_DESC -> produtoRepository.findPaginaPorEstoqueDesc(Integer.MAX_VALUE, Long.MAX_VALUE, limite);
+            };
+        } else {
+            CursorCodec.Posicao posicao = CursorCodec.decode(cursor, ordenacao.getParametro());
+            produtos = switch (ordenacao) {
+                case ID -> produtoRepository.findPaginaPorId(posicao.ultimoId(), limite);
+                case NOME -> produtoRepository.findPaginaPorNome(posicao.ultimoValor(), posicao.ultimoId(), limite);
+                case ESTOQUE -> produtoRepository.findPaginaPorEstoque(parseQuantidade(posicao), posicao.ultimoId(), limite);
+                case ESTOQUE_DESC -> produtoRepository.findPaginaPorEstoqueDesc(parseQuantidade(posicao), posicao.ultimoId(), limite);
+            };
+        }
+
+        String proximoCursor = null;
+        if (produtos.size() > tamanhoEfetivo) {
+            produtos = produtos.subList(0, tamanhoEfetivo);
+            ProdutoResponse ultimo = produtos.get(tamanhoEfetivo - 1);
+            Object ultimoValor = switch (ordenacao) {
+                case ID -> null;
+                case NOME -> ultimo.nome;
+                case ESTOQUE, ESTOQUE_DESC -> ultimo.quantidadeEstoque;
+            };
+            proximoCursor = CursorCodec.encode(ordenacao.getParametro(), ultimo.id, ultimoValor);
+        }
+
+        return new PaginaResponse<>(produtos, produtos.size(), proximoCursor);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaResponse<ProdutoBuscaResponse> buscar(String termo, String cursor, Integer tamanho) {
+        String termoNormalizado = termo == null ? "" : termo.strip();
+        if (termoNormalizado.isEmpty()) {
+            throw new BusinessException("O termo de busca não pode estar em branco.");
+        }
+        if (termoNormalizado.length() > TAMANHO_MAXIMO_TERMO_BUSCA) {
+            throw new BusinessException("O termo de busca deve ter no máximo " + TAMANHO_MAXIMO_TERMO_BUSCA + " caracteres.");
+        }
+        int tamanhoEfetivo = CursorCodec.tamanhoEfetivo(tamanho, tamanhoPaginaPadrao, tamanhoPaginaMaximo);
+
+        // A relevância fica entre 0 e 1,5; acima disso a primeira página começa do topo
+        BigDecimal ultimaRelevancia = RELEVANCIA_INICIAL;
+        long ultimoId = 0L;
+        if (cursor != null && !cursor.isBlank()) {
+            CursorCodec.Posicao posicao = CursorCodec.decode(cursor, ORDENACAO_BUSCA);
+            try {
+                ultimaRelevancia = new BigDecimal(posicao.ultimoValor());
+            } catch (NumberFormatException e) {
+                throw new BusinessException("Cursor de paginação inválido.");
+            }
+            ultimoId = posicao.ultimoId();
+        }
+
+        String padraoLike = "%" + termoNormalizado.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        List<ProdutoRepository.ResultadoBusca> resultados = produtoRepository.buscarPorTexto(
+                termoNormalizado, padraoLike, ultimaRelevancia, ultimoId, tamanhoEfetivo + 1);
+
+        String proximoCursor = null;
+        if (resultados.size() > tamanhoEfetivo) {
+            resultados = resultados.subList(0, tamanhoEfetivo);
+            ProdutoRepository.ResultadoBusca ultimo = resultados.get(tamanhoEfetivo - 1);
+            proximoCursor = CursorCodec.encode(ORDENACAO_BUSCA, ultimo.getId(), ultimo.getRelevancia().toPlainString());
+        }
+
+        List<ProdutoBuscaResponse> itens = resultados.stream()
+                .map(ProdutoBuscaResponse::new)
+                .toList();
+        return new PaginaResponse<>(itens, itens.size(), proximoCursor);
+    }
+
+    private int parseQuantidade(CursorCodec.Posicao posicao) {
+        try {
+            return Integer.parseInt(posicao.ultimoValor());
+        } catch (NumberFormatException e) {
+            throw new BusinessException("Cursor de paginação inválido.");
+        }
     }
 
     @Override // Add Override annotation
+    @Transactional(readOnly = true)
     public Optional<ProdutoResponse> getProdutoById(Long id) {
-        return produtoRepository.findById(id)
-                .map(ProdutoResponse::new);
+        return produtoRepository.findRespostaById(id);
     }
 
     @Override // Add Override annotation
     @Transactional
     public ProdutoResponse createProduto(ProdutoRequest produtoRequest) {
+        if (produtoRepository.existsByNome(produtoRequest.nome)) {
+            throw new ConflictException("Já existe um produto com o nome " + produtoRequest.nome + ".");
+        }
         Produto produto = new Produto();
         produto.setNome(produtoRequest.nome);
         produto.setDescricao(produtoRequest.descricao);
         produto.setPreco(produtoRequest.preco);
         produto.setQuantidadeEstoque(produtoRequest.quantidadeEstoque);
         produto.setUnidadeMedida(produtoRequest.unidadeMedida);
+        produto.setEstoqueMinimo(produtoRequest.estoqueMinimo);
+        produto.setPontoReposicao(produtoRequest.pontoReposicao);
         
         Produto novoProduto = produtoRepository.save(produto);
+        eventPublisher.publishEvent(new ProdutoCriadoEvent(novoProduto));
         return new ProdutoResponse(novoProduto);
     }
 
@@ -55,13 +178,24 @@ public class ProdutoService implements IProdutoService { // Implement the interf
         }
 
         Produto produto = produtoOptional.get();
+        if (produtoRequest.versao != null && !produtoRequest.versao.equals(produto.getVersao())) {
+            throw new ConflictException("O produto com ID " + id + " foi alterado por outra operação. Recarregue e tente novamente.");
+        }
+        if (produtoRepository.existsByNomeAndIdNot(produtoRequest.nome, id)) {
+            throw new ConflictException("Já existe um produto com o nome " + produtoRequest.nome + ".");
+        }
+        BigDecimal precoAnterior = produto.getPreco();
+        int quantidadeEstoqueAnterior = produto.getQuantidadeEstoque();
         produto.setNome(produtoRequest.nome);
         produto.setDescricao(produtoRequest.descricao);
         produto.setPreco(produtoRequest.preco);
         produto.setQuantidadeEstoque(produtoRequest.quantidadeEstoque);
         produto.setUnidadeMedida(produtoRequest.unidadeMedida);
+        produto.setEstoqueMinimo(produtoRequest.estoqueMinimo);
+        produto.setPontoReposicao(produtoRequest.pontoReposicao);
 
         Produto produtoAtualizado = produtoRepository.save(produto);
+        eventPublisher.publishEvent(new ProdutoAtualizadoEvent(produtoAtualizado, precoAnterior, quantidadeEstoqueAnterior));
         return Optional.of(new ProdutoResponse(produtoAtualizado));
     }
 
@@ -70,6 +204,7 @@ public class ProdutoService implements IProdutoService { // Implement the interf
     public boolean deleteProduto(Long id) {
         Optional<Produto> produtoOptional = produtoRepository.findById(id);
         if (produtoOptional.isPresent()) {
+            eventPublisher.publishEvent(new ProdutoExcluidoEvent(produtoOptional.get()));
             produtoRepository.delete(produtoOptional.get());
             return true;
         }
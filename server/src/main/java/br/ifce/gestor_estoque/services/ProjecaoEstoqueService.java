@@ -0,0 +1,246 @@
+package br.ifce.gestor_estoque.services;
+
+import br.ifce.gestor_estoque.domain.estoque.EstoqueDeltaPendente;
+import br.ifce.gestor_estoque.domain.estoque.TipoMovimentacao;
+import br.ifce.gestor_estoque.events.EstoqueAlteradoEvent;
+import br.ifce.gestor_estoque.events.EstoqueDeltaRegistradoEvent;
+import br.ifce.gestor_estoque.infra.cache.CacheProduto;
+import br.ifce.gestor_estoque.repositores.EstoqueDeltaPendenteRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Projeção assíncrona do estoque (opcional, {@code estoque.projecao.assincrona}).
+ * Variações que só aumentam o estoque são gravadas em {@code estoque_delta_pendente} na transação da
+ * movimentação e, após o commit, enfileiradas para um worker que junta as variações de cada produto
+ * durante uma janela curta e as aplica com um único UPDATE. Variações que diminuem o estoque continuam
+ * síncronas, porque precisam da verificação atômica de saldo; adiar apenas aumentos nunca permite vender
+ * acima do disponível, só atrasa a exibição do estoque maior (e, durante a janela, uma saída ou estorno
+ * que dependa de um aumento ainda pendente é recusada por estoque insuficiente).
+ * A linha pendente é removida na mesma transação que aplica a variação, e as que sobrarem (queda do
+ * processo, falha do banco) são reenfileiradas na inicialização e periodicamente.
+ */
+@Timed(value = "servico.execucao", histogram = true)
+@Service
+public class ProjecaoEstoqueService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjecaoEstoqueService.class);
+
+    private final EstoqueDeltaPendenteRepository estoqueDeltaPendenteRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+    private final CacheProduto cacheProduto;
+
+    @Value("${estoque.projecao.assincrona:false}")
+    private boolean habilitada;
+
+    @Value("${estoque.projecao.janela-ms:50}")
+    private long janelaMs;
+
+    @Value("${estoque.projecao.lote-maximo:1000}")
+    private int loteMaximo;
+
+    // Idade mínima de uma variação pendente para ser considerada perdida e reenfileirada
+    @Value("${estoque.projecao.recuperacao-apos-ms:10000}")
+    private long recuperacaoAposMs;
+
+    private final BlockingQueue<Enfileirado> fila = new LinkedBlockingQueue<>();
+    private Timer atraso;
+    private Thread worker;
+
+    public ProjecaoEstoqueService(EstoqueDeltaPendenteRepository estoqueDeltaPendenteRepository,
+                                  JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  ApplicationEventPublisher eventPublisher,
+                                  MeterRegistry meterRegistry,
+                                  CacheProduto cacheProduto) {
+        this.estoqueDeltaPendenteRepository = estoqueDeltaPendenteRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
+        this.cacheProduto = cacheProduto;
+    }
+
+    @PostConstruct
+    void iniciar() {
+        Gauge.builder("estoque.projecao.fila", fila, BlockingQueue::size)
+                .description("Variações de estoque enfileiradas aguardando aplicação")
+                .register(meterRegistry);
+        Gauge.builder("estoque.projecao.atraso.atual", fila, ProjecaoEstoqueService::idadeDoMaisAntigo)
+                .description("Tempo na fila da variação mais antiga ainda não aplicada")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        atraso = Timer.builder("estoque.projecao.atraso")
+                .description("Tempo entre o registro de uma variação e sua aplicação ao produto")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+
+        // O worker roda mesmo com o modo desligado, para aplicar pendências de execuções anteriores
+        worker = new Thread(this::executar, "projecao-estoque");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    void encerrar() throws InterruptedException {
+        // O que estiver na fila continua gravado como pendente e é recuperado na próxima inicialização
+        worker.interrupt();
+        worker.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    public boolean isHabilitada() {
+        return habilitada;
+    }
+
+    /**
+     * Grava uma variação para aplicação após o commit. Deve rodar na transação da movimentação.
+     * @param produtoId o produto a ajustar.
+     * @param delta a variação, que precisa ser positiva.
+     * @param tipo a origem da alteração.
+     */
+    @Transactional
+    public void registrar(Long produtoId, int delta, TipoMovimentacao tipo) {
+        if (delta <= 0) {
+            throw new IllegalArgumentException("A projeção assíncrona só aceita variações positivas de estoque.");
+        }
+        EstoqueDeltaPendente pendente = estoqueDeltaPendenteRepository.save(new EstoqueDeltaPendente(produtoId, delta, tipo));
+        eventPublisher.publishEvent(new EstoqueDeltaRegistradoEvent(pendente.getId()));
+    }
+
+    public void enfileirar(Long deltaId) {
+        fila.offer(new Enfileirado(deltaId, System.nanoTime()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${estoque.projecao.recuperacao-intervalo-ms:30000}",
+            fixedDelayString = "${estoque.projecao.recuperacao-intervalo-ms:30000}")
+    public void recuperarPendentes() {
+        // Reenfileirar algo que já está na fila é inofensivo: só quem remove a linha pendente a aplica
+        Instant limite = Instant.now().minusMillis(recuperacaoAposMs);
+        List<Long> ids = estoqueDeltaPendenteRepository.findIdsRegistradosAntesDe(limite, PageRequest.ofSize(loteMaximo * 10));
+        if (!ids.isEmpty()) {
+            logger.warn("Reenfileirando {} variações de estoque pendentes", ids.size());
+            ids.forEach(this::enfileirar);
+        }
+    }
+
+    private void executar() {
+        List<Enfileirado> lote = new ArrayList<>();
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                lote.add(fila.take());
+                // Espera a janela para juntar mais variações, em especial as do mesmo produto
+                Thread.sleep(janelaMs);
+                fila.drainTo(lote, loteMaximo - 1);
+                aplicar(lote);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                // As linhas continuam pendentes e voltam para a fila na próxima recuperação
+                logger.error("Falha ao aplicar {} variações de estoque; nova tentativa na recuperação", lote.size(), e);
+            } finally {
+                lote.clear();
+            }
+        }
+    }
+
+    private void aplicar(List<Enfileirado> lote) {
+        Long[] ids = lote.stream().map(Enfileirado::deltaId).distinct().toArray(Long[]::new);
+        transactionTemplate.executeWithoutResult(status -> {
+            // Remover é o que reivindica a variação: uma linha já aplicada (ou enfileirada duas vezes) não volta
+            List<Reivindicado> reivindicados = jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(
+                        "DELETE FROM estoque_delta_pendente WHERE id = ANY(?) RETURNING produto_id, delta, tipo, registrado_em");
+                ps.setArray(1, con.createArrayOf("bigint", ids));
+                return ps;
+            }, (rs, i) -> new Reivindicado(rs.getLong("produto_id"), rs.getInt("delta"),
+                    TipoMovimentacao.valueOf(rs.getString("tipo")), rs.getTimestamp("registrado_em").toInstant()));
+            if (reivindicados.isEmpty()) {
+                return;
+            }
+
+            // Ordenado por ID, como nas demais atualizações em lote, para não gerar deadlock
+            Map<Long, Consolidado> porProduto = new TreeMap<>();
+            for (Reivindicado r : reivindicados) {
+                porProduto.merge(r.produtoId(), new Consolidado(r.delta(), r.tipo()), Consolidado::somar);
+            }
+            Long[] produtoIds = porProduto.keySet().toArray(Long[]::new);
+            Integer[] deltas = porProduto.values().stream().map(Consolidado::delta).toArray(Integer[]::new);
+
+            // O UPDATE abaixo não passa pelo Hibernate
+            cacheProduto.invalidarEstoque(porProduto.keySet());
+
+            List<Aplicado> aplicados = jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement("""
+                        UPDATE produto p SET quantidade_estoque = p.quantidade_estoque + d.delta, versao = p.versao + 1
+                        FROM unnest(CAST(? AS bigint[]), CAST(? AS integer[])) AS d(produto_id, delta)
+                        WHERE p.id = d.produto_id
+                        RETURNING p.id, p.quantidade_estoque, p.preco
+                        """);
+                ps.setArray(1, con.createArrayOf("bigint", produtoIds));
+                ps.setArray(2, con.createArrayOf("integer", deltas));
+                return ps;
+            }, (rs, i) -> new Aplicado(rs.getLong("id"), rs.getInt("quantidade_estoque"), rs.getBigDecimal("preco")));
+
+            for (Aplicado aplicado : aplicados) {
+                Consolidado consolidado = porProduto.get(aplicado.produtoId());
+                eventPublisher.publishEvent(new EstoqueAlteradoEvent(aplicado.produtoId(),
+                        aplicado.quantidadeAtual() - consolidado.delta(), aplicado.quantidadeAtual(), aplicado.preco(), consolidado.tipo()));
+            }
+            Instant agora = Instant.now();
+            reivindicados.forEach(r -> atraso.record(Duration.between(r.registradoEm(), agora)));
+        });
+    }
+
+    private static double idadeDoMaisAntigo(BlockingQueue<Enfileirado> fila) {
+        Enfileirado maisAntigo = fila.peek();
+        return maisAntigo == null ? 0 : (System.nanoTime() - maisAntigo.enfileiradoEm()) / 1_000_000_000.0;
+    }
+
+    private record Enfileirado(Long deltaId, long enfileiradoEm) {
+    }
+
+    private record Reivindicado(Long produtoId, int delta, TipoMovimentacao tipo, Instant registradoEm) {
+    }
+
+    private record Consolidado(int delta, TipoMovimentacao tipo) {
+        Consolidado somar(Consolidado outro) {
+            return new Consolidado(delta + outro.delta, tipo == outro.tipo ? tipo : TipoMovimentacao.CONSOLIDADO);
+        }
+    }
+
+    private record Aplicado(Long produtoId, int quantidadeAtual, BigDecimal preco) {
+    }
+}
@@ -0,0 +1,373 @@
+package br.ifce.gestor_estoque.services;
+
+import br.ifce.gestor_estoque.domain.estoque.Produto;
+import br.ifce.gestor_estoque.domain.estoque.SaidaProduto;
+import br.ifce.gestor_estoque.dto.TopSellersResponse;
+import br.ifce.gestor_estoque.dto.TopSellersResponse.TopSeller;
+import br.ifce.gestor_estoque.dto.estoque.JanelaVendas;
+import br.ifce.gestor_estoque.events.MovimentacaoAnterior;
+import br.ifce.gestor_estoque.exceptions.BusinessException;
+import br.ifce.gestor_estoque.repositores.ProdutoRepository;
+import br.ifce.gestor_estoque.repositores.SaidaProdutoRepository;
+import br.ifce.gestor_estoque.repositores.SaidaProdutoRepository.VendaAgregada;
+import io.micrometer.core.annotation.Timed;
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Ranking dos produtos mais vendidos na última hora, nas últimas 24 horas e nos últimos 7 dias, mantido em memória
+ * a partir das saídas confirmadas. Cada janela é um anel de baldes de largura fixa com as quantidades por produto,
+ * os totais da janela e um conjunto ordenado por total: registrar uma venda ou expirar um balde custa
+ * O(log n) por produto afetado, sem varrer o histórico.
+ * A leitura devolve um retrato imutável do topo, refeito só quando a janela muda, então a resposta do dashboard
+ * não consulta o banco nem espera pelas escritas. Na inicialização as janelas são reconstruídas das saídas dos
+ * últimos 7 dias.
+ */
+@Timed(value = "servico.execucao", histogram = true)
+@Service
+public class RankingVendasService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RankingVendasService.class);
+
+    private final SaidaProdutoRepository saidaProdutoRepository;
+    private final ProdutoRepository produtoRepository;
+
+    @Value("${dashboard.mais-vendidos.tamanho-padrao:10}")
+    private int tamanhoPadrao;
+
+    @Value("${dashboard.mais-vendidos.tamanho-maximo:50}")
+    private int tamanhoMaximo;
+
+    // Escritas e a montagem dos retratos
+    private final ReentrantLock trava = new ReentrantLock();
+    private final Map<JanelaVendas, JanelaDeslizante> janelas = new EnumMap<>(JanelaVendas.class);
+    private final Map<JanelaVendas, Retrato> retratos = new ConcurrentHashMap<>();
+    // Nomes dos produtos presentes em alguma janela (a de 7 dias contém as demais)
+    private final Map<Long, String> nomes = new ConcurrentHashMap<>();
+
+    public RankingVendasService(SaidaProdutoRepository saidaProdutoRepository, ProdutoRepository produtoRepository) {
+        this.saidaProdutoRepository = saidaProdutoRepository;
+        this.produtoRepository = produtoRepository;
+        long agora = System.currentTimeMillis();
+        for (JanelaVendas janela : JanelaVendas.values()) {
+            janelas.put(janela, new JanelaDeslizante(janela, agora));
+        }
+    }
+
+    /**
+     * Retorna os produtos mais vendidos na janela, do maior para o menor total de unidades.
+     * @param janela a janela ("1h", "24h" ou "7d"); nula usa 24 horas.
+     * @param tamanho o número de produtos; nulo usa o padrão, limitado ao máximo configurado.
+     * @return o ranking da janela.
+     * @throws BusinessException se a janela ou o tamanho forem inválidos.
+     */
+    public TopSellersResponse getMaisVendidos(String janela, Integer tamanho) {
+        JanelaVendas selecionada = JanelaVendas.fromParametro(janela);
+        if (tamanho != null && tamanho < 1) {
+            throw new BusinessException("O tamanho deve ser maior que zero.");
+        }
+        int limite = Math.min(tamanho == null ? tamanhoPadrao : tamanho, tamanhoMaximo);
+
+        Retrato retrato = retrato(selecionada);
+        List<TopSeller> itens = retrato.itens().size() > limite ? retrato.itens().subList(0, limite) : retrato.itens();
+        return new TopSellersResponse(selecionada.getParametro(), retrato.atualizadoEm(), itens);
+    }
+
+    // Caminho rápido sem trava: o retrato vale enquanto a janela não mudar nem avançar de balde
+    private Retrato retrato(JanelaVendas janela) {
+        long agora = System.currentTimeMillis();
+        JanelaDeslizante deslizante = janelas.get(janela);
+        Retrato atual = retratos.get(janela);
+        if (atual != null && atual.versao() == deslizante.versao && atual.epoca() == deslizante.epoca(agora)) {
+            return atual;
+        }
+        List<Posicao> topo;
+        long versao;
+        trava.lock();
+        try {
+            deslizante.avancar(agora);
+            topo = deslizante.topo(tamanhoMaximo);
+            versao = deslizante.versao;
+        } finally {
+            trava.unlock();
+        }
+        Retrato novo = new Retrato(versao, deslizante.epoca(agora), Instant.ofEpochMilli(agora), comNomes(topo));
+        retratos.put(janela, novo);
+        return novo;
+    }
+
+    private List<TopSeller> comNomes(List<Posicao> topo) {
+        // Produtos vindos de eventos sem o nome carregado são resolvidos de uma vez no banco
+        Map<Long, String> nomesTopo = new HashMap<>();
+        List<Long> semNome = new ArrayList<>();
+        for (Posicao posicao : topo) {
+            String nome = nomes.get(posicao.produtoId());
+            if (nome != null) {
+                nomesTopo.put(posicao.produtoId(), nome);
+            } else {
+                semNome.add(posicao.produtoId());
+            }
+        }
+        if (!semNome.isEmpty()) {
+            produtoRepository.findNomesByIdIn(semNome).forEach(produto -> {
+                nomes.put(produto.getId(), produto.getNome());
+                nomesTopo.put(produto.getId(), produto.getNome());
+            });
+        }
+        List<TopSeller> itens = new ArrayList<>(topo.size());
+        for (Posicao posicao : topo) {
+            itens.add(new TopSeller(posicao.produtoId(), nomesTopo.get(posicao.produtoId()), posicao.total()));
+        }
+        return List.copyOf(itens);
+    }
+
+    public void registrarSaida(SaidaProduto saida) {
+        registrarSaidas(List.of(saida));
+    }
+
+    public void registrarSaidas(List<SaidaProduto> saidas) {
+        long agora = System.currentTimeMillis();
+        trava.lock();
+        try {
+            for (SaidaProduto saida : saidas) {
+                lembrarNome(saida.getProduto());
+                somar(saida.getProduto().getId(), saida.getQuantidade(), instante(saida, agora), agora);
+            }
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    public void removerSaida(SaidaProduto saida) {
+        long agora = System.currentTimeMillis();
+        trava.lock();
+        try {
+            somar(saida.getProduto().getId(), -saida.getQuantidade(), instante(saida, agora), agora);
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    // O horário de registro não muda na atualização: a venda anterior sai do mesmo balde em que entrou
+    public void registrarAlteracaoSaida(SaidaProduto saida, MovimentacaoAnterior anterior) {
+        long agora = System.currentTimeMillis();
+        long instante = instante(saida, agora);
+        trava.lock();
+        try {
+            somar(anterior.produtoId(), -anterior.quantidade(), instante, agora);
+            lembrarNome(saida.getProduto());
+            somar(saida.getProduto().getId(), saida.getQuantidade(), instante, agora);
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    public void registrarAlteracaoProduto(Produto produto) {
+        if (nomes.replace(produto.getId(), produto.getNome()) != null) {
+            retratos.clear();
+        }
+    }
+
+    /**
+     * Reconstrói as janelas a partir das saídas dos últimos 7 dias.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruir() {
+        long agora = System.currentTimeMillis();
+        Instant desde = Instant.ofEpochMilli(agora).minus(JanelaVendas.ULTIMOS_7_DIAS.getDuracao());
+        List<VendaAgregada> vendas = saidaProdutoRepository.findVendasDesde(desde);
+        trava.lock();
+        try {
+            nomes.clear();
+            janelas.values().forEach(janela -> janela.limpar(agora));
+            for (VendaAgregada venda : vendas) {
+                nomes.put(venda.getProdutoId(), venda.getNome());
+                somar(venda.getProdutoId(), venda.getQuantidade(), venda.getInstanteMs(), agora);
+            }
+            retratos.clear();
+        } finally {
+            trava.unlock();
+        }
+        logger.info("Ranking de mais vendidos reconstruído: {} produtos nos últimos 7 dias",
+                janelas.get(JanelaVendas.ULTIMOS_7_DIAS).totais.size());
+    }
+
+    // Expira os baldes antigos mesmo sem vendas nem leituras, e esquece os nomes de quem saiu das janelas
+    @Scheduled(fixedDelayString = "${dashboard.mais-vendidos.expiracao-ms:60000}")
+    public void expirar() {
+        long agora = System.currentTimeMillis();
+        trava.lock();
+        try {
+            janelas.values().forEach(janela -> janela.avancar(agora));
+            JanelaDeslizante semana = janelas.get(JanelaVendas.ULTIMOS_7_DIAS);
+            nomes.keySet().removeIf(id -> !semana.totais.containsKey(id));
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    private void somar(long produtoId, long quantidade, long instanteMs, long agora) {
+        for (JanelaDeslizante janela : janelas.values()) {
+            janela.registrar(produtoId, quantidade, instanteMs, agora);
+        }
+    }
+
+    // O produto de um evento pode ser um proxy não carregado; nesse caso o nome é buscado ao montar o retrato
+    private void lembrarNome(Produto produto) {
+        if (Hibernate.isInitialized(produto)) {
+            nomes.put(produto.getId(), produto.getNome());
+        }
+    }
+
+    private static long instante(SaidaProduto saida, long agora) {
+        return saida.getRegistradoEm() != null ? saida.getRegistradoEm().toEpochMilli() : agora;
+    }
+
+    private record Retrato(long versao, long epoca, Instant atualizadoEm, List<TopSeller> itens) {}
+
+    private record Posicao(long total, long produtoId) implements Comparable<Posicao> {
+        @Override
+        public int compareTo(Posicao outra) {
+            int comparacao = Long.compare(outra.total, total);
+            return comparacao != 0 ? comparacao : Long.compare(produtoId, outra.produtoId);
+        }
+    }
+
+    /**
+     * Janela deslizante em baldes: o balde de uma venda é {@code instante / largura}, guardado na posição
+     * {@code balde % quantidade} do anel. Quando o tempo avança, os baldes que saíram da janela são descontados dos
+     * totais, e o conjunto ordenado é ajustado só para os produtos desses baldes. Acesso sob a trava do serviço.
+     */
+    private static final class JanelaDeslizante {
+
+        private static final long VAZIO = -1;
+
+        private final long larguraMs;
+        private final int quantidade;
+        private final long[] epocas;
+        private final List<Map<Long, Long>> baldes;
+        private final Map<Long, Long> totais = new HashMap<>();
+        private final TreeSet<Posicao> ranking = new TreeSet<>();
+        private long epocaAtual;
+        // Lida sem a trava pelo caminho rápido da leitura
+        private volatile long versao;
+
+        JanelaDeslizante(JanelaVendas janela, long agora) {
+            this.larguraMs = janela.getLarguraBalde().toMillis();
+            this.quantidade = janela.getQuantidadeBaldes();
+            this.epocas = new long[quantidade];
+            Arrays.fill(epocas, VAZIO);
+            this.baldes = new ArrayList<>(quantidade);
+            for (int i = 0; i < quantidade; i++) {
+                baldes.add(new HashMap<>());
+            }
+            this.epocaAtual = agora / larguraMs;
+        }
+
+        void limpar(long agora) {
+            Arrays.fill(epocas, VAZIO);
+            baldes.forEach(Map::clear);
+            totais.clear();
+            ranking.clear();
+            epocaAtual = epoca(agora);
+            versao++;
+        }
+
+        long epoca(long agora) {
+            return agora / larguraMs;
+        }
+
+        void avancar(long agora) {
+            long epoca = epoca(agora);
+            if (epoca <= epocaAtual) {
+                return;
+            }
+            epocaAtual = epoca;
+            for (int slot = 0; slot < quantidade; slot++) {
+                if (epocas[slot] != VAZIO && epocas[slot] <= epocaAtual - quantidade) {
+                    esvaziar(slot);
+                }
+            }
+        }
+
+        void registrar(long produtoId, long delta, long instanteMs, long agora) {
+            avancar(agora);
+            // Relógios ligeiramente adiantados contam no balde atual
+            long epoca = Math.min(epoca(instanteMs), epocaAtual);
+            if (epoca <= epocaAtual - quantidade) {
+                return;
+            }
+            int slot = (int) Math.floorMod(epoca, (long) quantidade);
+            if (epocas[slot] != epoca) {
+                if (delta < 0) {
+                    return; // o balde da venda original não está mais na janela
+                }
+                if (epocas[slot] != VAZIO) {
+                    esvaziar(slot);
+                }
+                epocas[slot] = epoca;
+            }
+            Map<Long, Long> balde = baldes.get(slot);
+            long atual = balde.getOrDefault(produtoId, 0L);
+            // Um estorno nunca desconta mais do que o balde registrou
+            long aplicado = Math.max(delta, -atual);
+            if (atual + aplicado > 0) {
+                balde.put(produtoId, atual + aplicado);
+            } else {
+                balde.remove(produtoId);
+            }
+            ajustarTotal(produtoId, aplicado);
+        }
+
+        List<Posicao> topo(int tamanho) {
+            List<Posicao> topo = new ArrayList<>(Math.min(tamanho, ranking.size()));
+            Iterator<Posicao> iterador = ranking.iterator();
+            while (topo.size() < tamanho && iterador.hasNext()) {
+                topo.add(iterador.next());
+            }
+            return topo;
+        }
+
+        private void esvaziar(int slot) {
+            baldes.get(slot).forEach((produtoId, quantidadeBalde) -> ajustarTotal(produtoId, -quantidadeBalde));
+            baldes.get(slot).clear();
+            epocas[slot] = VAZIO;
+        }
+
+        private void ajustarTotal(long produtoId, long delta) {
+            if (delta == 0) {
+                return;
+            }
+            Long anterior = totais.get(produtoId);
+            if (anterior != null) {
+                ranking.remove(new Posicao(anterior, produtoId));
+            }
+            long novo = (anterior == null ? 0 : anterior) + delta;
+            if (novo > 0) {
+                totais.put(produtoId, novo);
+                ranking.add(new Posicao(novo, produtoId));
+            } else {
+                totais.remove(produtoId);
+            }
+            versao++;
+        }
+    }
+}
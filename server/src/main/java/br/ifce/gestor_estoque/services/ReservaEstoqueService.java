@@ -0,0 +1,343 @@
+package br.ifce.gestor_estoque.services;
+
+import br.ifce.gestor_estoque.dto.estoque.ConfirmacaoReservaRequest;
+import br.ifce.gestor_estoque.dto.estoque.ReservaResponse;
+import br.ifce.gestor_estoque.dto.estoque.SaidaProdutoRequest;
+import br.ifce.gestor_estoque.dto.estoque.SaidaProdutoResponse;
+import br.ifce.gestor_estoque.exceptions.BusinessException;
+import br.ifce.gestor_estoque.exceptions.EstoqueInsuficienteException;
+import br.ifce.gestor_estoque.exceptions.NotFoundException;
+import br.ifce.gestor_estoque.infra.metricas.MetricasEstoque;
+import br.ifce.gestor_estoque.repositores.ProdutoRepository;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Reserva de estoque em memória para produtos muito disputados (ex.: promoções).
+ * Mantém, por produto, o estoque confirmado no banco e o total reservado; reservar é uma checagem
+ * e um incremento sob a trava da faixa (stripe) do produto, sem acessar o banco.
+ * A confirmação gera a {@link br.ifce.gestor_estoque.domain.estoque.SaidaProduto} pelo fluxo normal,
+ * cuja atualização condicional no banco continua sendo a garantia final. Saídas feitas sem reserva retêm aqui
+ * a sua quantidade até o fim da transação e só usam o que não está reservado; alterações externas (edição do
+ * produto ou de uma saída, SQL direto) ainda podem consumir o estoque reservado, e nesse caso a confirmação é recusada.
+ * O estoque confirmado acompanha os eventos de estoque após o commit e é reconciliado periodicamente com o banco.
+ */
+@Timed(value = "servico.execucao", histogram = true)
+@Service
+public class ReservaEstoqueService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReservaEstoqueService.class);
+
+    private final ProdutoRepository produtoRepository;
+    private final SaidaProdutoService saidaProdutoService;
+    private final MetricasEstoque metricasEstoque;
+    private final Duration ttl;
+    private final ReentrantLock[] travas;
+
+    private final Map<Long, Saldo> saldos = new ConcurrentHashMap<>();
+    private final Map<UUID, Reserva> reservas = new ConcurrentHashMap<>();
+
+    public ReservaEstoqueService(ProdutoRepository produtoRepository,
+                                 SaidaProdutoService saidaProdutoService,
+                                 MetricasEstoque metricasEstoque,
+                                 @Value("${estoque.reserva.ttl-segundos:300}") long ttlSegundos,
+                                 @Value("${estoque.reserva.faixas:64}") int faixas) {
+        this.produtoRepository = produtoRepository;
+        this.saidaProdutoService = saidaProdutoService;
+        this.metricasEstoque = metricasEstoque;
+        this.ttl = Duration.ofSeconds(ttlSegundos);
+        // Potência de dois, para escolher a faixa com uma máscara
+        int quantidadeFaixas = Integer.highestOneBit(Math.max(1, faixas - 1)) << 1;
+        this.travas = new ReentrantLock[quantidadeFaixas];
+        for (int i = 0; i < quantidadeFaixas; i++) {
+            travas[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Reserva uma quantidade do produto pelo tempo configurado.
+     * @throws NotFoundException se o produto não existir.
+     * @throws EstoqueInsuficienteException se a quantidade disponível (estoque menos reservas ativas) for insuficiente.
+     */
+    public ReservaResponse reservar(Long produtoId, int quantidade) {
+        if (quantidade <= 0) {
+            throw new BusinessException("A quantidade reservada deve ser positiva.");
+        }
+        Saldo saldo = saldoDe(produtoId);
+        ReentrantLock trava = travaDe(produtoId);
+        trava.lock();
+        try {
+            if (saldo.disponivel() < quantidade) {
+                metricasEstoque.registrarReservaRecusada();
+                throw new EstoqueInsuficienteException("Quantidade disponível insuficiente para reservar o produto ID " + produtoId + ".");
+            }
+            saldo.reservado += quantidade;
+        } finally {
+            trava.unlock();
+        }
+        Reserva reserva = new Reserva(UUID.randomUUID(), produtoId, quantidade, Instant.now().plus(ttl));
+        reservas.put(reserva.id(), reserva);
+        return reserva.paraResposta();
+    }
+
+    /**
+     * Converte a reserva em uma saída de produto. A reserva é consumida mesmo se a saída for recusada.
+     * Não deve ser chamado dentro de uma transação: a saída precisa ser confirmada no banco antes de a reserva ser liberada.
+     * @throws NotFoundException se a reserva não existir ou já tiver expirado.
+     * @throws BusinessException se a saída for recusada (ex.: o estoque foi consumido fora das reservas).
+     */
+    public SaidaProdutoResponse confirmar(UUID reservaId, ConfirmacaoReservaRequest dados) {
+        Reserva reserva = reservas.remove(reservaId);
+        if (reserva == null || reserva.expirada(Instant.now())) {
+            if (reserva != null) {
+                devolver(reserva);
+            }
+            throw new NotFoundException("Reserva " + reservaId + " não encontrada ou expirada.");
+        }
+
+        SaidaProdutoRequest request = new SaidaProdutoRequest();
+        request.produtoId = reserva.produtoId();
+        request.quantidade = reserva.quantidade();
+        request.dataSaida = dados.dataSaida != null ? dados.dataSaida : LocalDate.now();
+        request.motivo = dados.motivo;
+        request.cliente = dados.cliente;
+        request.observacao = dados.observacao;
+        try {
+            return saidaProdutoService.createSaidaReservada(request);
+        } finally {
+            // Se a saída foi gravada, o evento de estoque (após o commit) já descontou a quantidade do
+            // estoque confirmado; liberar a reserva só depois evita que ela fique disponível duas vezes
+            devolver(reserva);
+        }
+    }
+
+    /**
+     * Libera a reserva antes do prazo.
+     * @throws NotFoundException se a reserva não existir ou já tiver expirado.
+     */
+    public void liberar(UUID reservaId) {
+        Reserva reserva = reservas.remove(reservaId);
+        if (reserva == null) {
+            throw new NotFoundException("Reserva " + reservaId + " não encontrada ou expirada.");
+        }
+        devolver(reserva);
+    }
+
+    /**
+     * Quantidade do produto que uma saída sem reserva pode usar: o estoque confirmado menos as reservas ativas.
+     * @throws NotFoundException se o produto não existir.
+     */
+    public int disponivel(Long produtoId) {
+        Saldo saldo = saldoDe(produtoId);
+        ReentrantLock trava = travaDe(produtoId);
+        trava.lock();
+        try {
+            return saldo.disponivel();
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    /**
+     * Retém a quantidade de uma saída feita sem reserva até o fim da transação atual, se houver disponível
+     * (estoque menos reservas ativas). A retenção é devolvida depois do commit ou do rollback; no commit, o evento
+     * de estoque, ordenado antes desta sincronização, já descontou a saída do estoque confirmado, como na
+     * confirmação de uma reserva, então o disponível nunca passa do estoque real.
+     * @return false se a quantidade disponível for insuficiente.
+     * @throws NotFoundException se o produto não existir.
+     */
+    public boolean reterAteOFimDaTransacao(Long produtoId, int quantidade) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("A retenção de estoque precisa de uma transação ativa.");
+        }
+        Saldo saldo = saldoDe(produtoId);
+        ReentrantLock trava = travaDe(produtoId);
+        trava.lock();
+        try {
+            if (saldo.disponivel() < quantidade) {
+                return false;
+            }
+            saldo.reservado += quantidade;
+        } finally {
+            trava.unlock();
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            // Depois do ReservaEstoqueEventListener, que roda com a maior precedência
+            @Override
+            public int getOrder() {
+                return Ordered.LOWEST_PRECEDENCE;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                devolver(produtoId, quantidade);
+            }
+        });
+        return true;
+    }
+
+    // Atualizações vindas dos eventos de estoque e de produto (após o commit)
+
+    public void registrarAlteracaoEstoque(Long produtoId, int delta) {
+        Saldo saldo = saldos.get(produtoId);
+        if (saldo == null) {
+            return; // Será lido do banco na primeira reserva
+        }
+        ReentrantLock trava = travaDe(produtoId);
+        trava.lock();
+        try {
+            saldo.estoqueConfirmado += delta;
+            saldo.alteracoes++;
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    public void removerProduto(Long produtoId) {
+        saldos.remove(produtoId);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void aquecer() {
+        produtoRepository.findEstoquesAtuais()
+                .forEach(estoque -> saldos.putIfAbsent(estoque.getId(), new Saldo(estoque.getQuantidadeEstoque())));
+        logger.info("Reservas de estoque: {} produtos carregados", saldos.size());
+    }
+
+    /**
+     * Corrige o estoque confirmado de cada produto com o valor do banco. Produtos que receberam eventos
+     * durante a leitura são deixados para a próxima rodada, já que o valor lido pode não incluí-los.
+     */
+    @Scheduled(initialDelayString = "${estoque.reserva.reconciliacao-ms:60000}",
+            fixedDelayString = "${estoque.reserva.reconciliacao-ms:60000}")
+    public void reconciliar() {
+        Map<Long, Long> alteracoesAntes = new HashMap<>();
+        saldos.forEach((produtoId, saldo) -> alteracoesAntes.put(produtoId, lerAlteracoes(produtoId, saldo)));
+
+        Set<Long> existentes = new HashSet<>();
+        int corrigidos = 0;
+        for (ProdutoRepository.EstoqueAtual estoque : produtoRepository.findEstoquesAtuais()) {
+            Long produtoId = estoque.getId();
+            existentes.add(produtoId);
+            Saldo saldo = saldos.get(produtoId);
+            if (saldo == null) {
+                saldos.putIfAbsent(produtoId, new Saldo(estoque.getQuantidadeEstoque()));
+                continue;
+            }
+            ReentrantLock trava = travaDe(produtoId);
+            trava.lock();
+            try {
+                Long antes = alteracoesAntes.get(produtoId);
+                if (antes != null && antes == saldo.alteracoes && saldo.estoqueConfirmado != estoque.getQuantidadeEstoque()) {
+                    saldo.estoqueConfirmado = estoque.getQuantidadeEstoque();
+                    corrigidos++;
+                }
+            } finally {
+                trava.unlock();
+            }
+        }
+        saldos.keySet().removeIf(produtoId -> !existentes.contains(produtoId) && alteracoesAntes.containsKey(produtoId));
+        if (corrigidos > 0) {
+            logger.warn("Reservas de estoque: {} produtos divergiam do banco e foram corrigidos", corrigidos);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${estoque.reserva.varredura-ms:1000}")
+    public void expirarReservas() {
+        Instant agora = Instant.now();
+        reservas.values().forEach(reserva -> {
+            if (reserva.expirada(agora) && reservas.remove(reserva.id(), reserva)) {
+                devolver(reserva);
+            }
+        });
+    }
+
+    private Saldo saldoDe(Long produtoId) {
+        Saldo saldo = saldos.get(produtoId);
+        if (saldo != null) {
+            return saldo;
+        }
+        Integer quantidade = produtoRepository.findQuantidadeEstoqueById(produtoId);
+        if (quantidade == null) {
+            throw new NotFoundException("Produto com ID " + produtoId + " não encontrado.");
+        }
+        return saldos.computeIfAbsent(produtoId, id -> new Saldo(quantidade));
+    }
+
+    private void devolver(Reserva reserva) {
+        devolver(reserva.produtoId(), reserva.quantidade());
+    }
+
+    private void devolver(Long produtoId, int quantidade) {
+        Saldo saldo = saldos.get(produtoId);
+        if (saldo == null) {
+            return;
+        }
+        ReentrantLock trava = travaDe(produtoId);
+        trava.lock();
+        try {
+            saldo.reservado -= quantidade;
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    private long lerAlteracoes(Long produtoId, Saldo saldo) {
+        ReentrantLock trava = travaDe(produtoId);
+        trava.lock();
+        try {
+            return saldo.alteracoes;
+        } finally {
+            trava.unlock();
+        }
+    }
+
+    private ReentrantLock travaDe(Long produtoId) {
+        return travas[Long.hashCode(produtoId * 0x9E3779B97F4A7C15L) & (travas.length - 1)];
+    }
+
+    // Estado de um produto; os campos só são lidos e escritos com a trava da faixa do produto
+    private static final class Saldo {
+        private int estoqueConfirmado;
+        private int reservado;
+        private long alteracoes;
+
+        private Saldo(int estoqueConfirmado) {
+            this.estoqueConfirmado = estoqueConfirmado;
+        }
+
+        private int disponivel() {
+            return estoqueConfirmado - reservado;
+        }
+    }
+
+    private record Reserva(UUID id, Long produtoId, int quantidade, Instant expiraEm) {
+        boolean expirada(Instant agora) {
+            return agora.isAfter(expiraEm);
+        }
+
+        ReservaResponse paraResposta() {
+            return new ReservaResponse(id, produtoId, quantidade, expiraEm);
+        }
+    }
+}
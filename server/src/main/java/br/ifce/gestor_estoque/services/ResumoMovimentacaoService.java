@@ -0,0 +1,160 @@
+package br.ifce.gestor_estoque.services;
+
+import br.ifce.gestor_estoque.dto.estoque.AgrupamentoRelatorio;
+import br.ifce.gestor_estoque.dto.estoque.TotaisMovimentacaoProdutoResponse;
+import br.ifce.gestor_estoque.dto.estoque.TotaisMovimentacaoResponse;
+import br.ifce.gestor_estoque.exceptions.BusinessException;
+import br.ifce.gestor_estoque.repositores.MovimentacaoDiariaRepository;
+import br.ifce.gestor_estoque.repositores.MovimentacaoMensalRepository;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Mantém os totais diários e mensais de movimentação por produto e responde os relatórios
+ * por intervalo de datas lendo apenas esses totais. Os meses inteiros do intervalo vêm da tabela
+ * mensal e só as pontas parciais vêm da diária, então o custo não cresce com a extensão do histórico.
+ */
+@Timed(value = "servico.execucao", histogram = true)
+@Service
+public class ResumoMovimentacaoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResumoMovimentacaoService.class);
+
+    @Autowired
+    private MovimentacaoDiariaRepository movimentacaoDiariaRepository;
+
+    @Autowired
+    private MovimentacaoMensalRepository movimentacaoMensalRepository;
+
+    /**
+     * Acumula o efeito de uma movimentação nos totais do dia e do mês. Para desfazer uma movimentação
+     * (edição ou exclusão), informe os mesmos valores com sinal negativo.
+     * Deve rodar na mesma transação da movimentação.
+     */
+    @Transactional
+    public void registrar(Long produtoId, LocalDate data, long quantidadeEntrada, long quantidadeSaida,
+                         BigDecimal valorEntrada, int quantidadeMovimentacoes) {
+        LocalDate mes = data.withDayOfMonth(1);
+        movimentacaoDiariaRepository.acumular(produtoId, data, quantidadeEntrada, quantidadeSaida, valorEntrada, quantidadeMovimentacoes);
+        movimentacaoMensalRepository.acumular(produtoId, mes, quantidadeEntrada, quantidadeSaida, valorEntrada, quantidadeMovimentacoes);
+        if (quantidadeMovimentacoes < 0) {
+            movimentacaoDiariaRepository.removerSeVazio(produtoId, data);
+            movimentacaoMensalRepository.removerSeVazio(produtoId, mes);
+        }
+    }
+
+    // Bancos que já tinham movimentações antes dos totais existirem são preenchidos uma única vez
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void reconstruirSeVazio() {
+        movimentacaoDiariaRepository.bloquearParaReconstrucao();
+        if (movimentacaoDiariaRepository.existeAlgum()) {
+            return;
+        }
+        int dias = movimentacaoDiariaRepository.reconstruir();
+        int meses = movimentacaoMensalRepository.reconstruir();
+        logger.info("Totais de movimentação reconstruídos: {} linhas diárias, {} mensais", dias, meses);
+    }
+
+    @Transactional(readOnly = true)
+    public List<TotaisMovimentacaoResponse> totalizarPorPeriodo(LocalDate inicio, LocalDate fim,
+                                                                AgrupamentoRelatorio agrupamento, Long produtoId) {
+        validarIntervalo(inicio, fim);
+        if (agrupamento == AgrupamentoRelatorio.DIA) {
+            return movimentacaoDiariaRepository.totalizarPorDia(inicio, fim, produtoId);
+        }
+
+        Map<LocalDate, TotaisMovimentacaoResponse> porMes = new TreeMap<>();
+        Intervalo intervalo = Intervalo.dividir(inicio, fim);
+        if (intervalo.temMesesInteiros()) {
+            movimentacaoMensalRepository.totalizarPorMes(intervalo.primeiroMes(), intervalo.ultimoMes(), produtoId)
+                    .forEach(totais -> porMes.merge(totais.periodo(), totais, TotaisMovimentacaoResponse::somar));
+        }
+        for (Trecho ponta : intervalo.pontasDiarias()) {
+            movimentacaoDiariaRepository.totalizarPorDia(ponta.inicio(), ponta.fim(), produtoId).forEach(totais -> {
+                LocalDate mes = totais.periodo().withDayOfMonth(1);
+                TotaisMovimentacaoResponse doMes = new TotaisMovimentacaoResponse(mes, totais.quantidadeEntrada(),
+                        totais.quantidadeSaida(), totais.valorEntrada(), totais.quantidadeMovimentacoes());
+                porMes.merge(mes, doMes, TotaisMovimentacaoResponse::somar);
+            });
+        }
+        return new ArrayList<>(porMes.values());
+    }
+
+    @Transactional(readOnly = true)
+    public List<TotaisMovimentacaoProdutoResponse> totalizarPorProduto(LocalDate inicio, LocalDate fim) {
+        validarIntervalo(inicio, fim);
+        Map<Long, TotaisMovimentacaoProdutoResponse> porProduto = new LinkedHashMap<>();
+        Intervalo intervalo = Intervalo.dividir(inicio, fim);
+        if (intervalo.temMesesInteiros()) {
+            movimentacaoMensalRepository.totalizarPorProduto(intervalo.primeiroMes(), intervalo.ultimoMes())
+                    .forEach(totais -> porProduto.merge(totais.produtoId(), totais, TotaisMovimentacaoProdutoResponse::somar));
+        }
+        for (Trecho ponta : intervalo.pontasDiarias()) {
+            movimentacaoDiariaRepository.totalizarPorProduto(ponta.inicio(), ponta.fim())
+                    .forEach(totais -> porProduto.merge(totais.produtoId(), totais, TotaisMovimentacaoProdutoResponse::somar));
+        }
+        List<TotaisMovimentacaoProdutoResponse> resultado = new ArrayList<>(porProduto.values());
+        resultado.sort(Comparator.comparing(TotaisMovimentacaoProdutoResponse::produtoId));
+        return resultado;
+    }
+
+    private void validarIntervalo(LocalDate inicio, LocalDate fim) {
+        if (inicio == null || fim == null) {
+            throw new BusinessException("As datas de início e fim são obrigatórias.");
+        }
+        if (fim.isBefore(inicio)) {
+            throw new BusinessException("A data de fim não pode ser anterior à data de início.");
+        }
+    }
+
+    /**
+     * Divide [inicio, fim] em meses inteiros (primeiroMes..ultimoMes, pelo primeiro dia de cada um)
+     * e nas pontas parciais antes e depois deles, que são lidas dos totais diários.
+     */
+    private record Intervalo(LocalDate inicio, LocalDate fim, LocalDate primeiroMes, LocalDate ultimoMes) {
+
+        static Intervalo dividir(LocalDate inicio, LocalDate fim) {
+            LocalDate primeiroMes = inicio.getDayOfMonth() == 1 ? inicio : inicio.withDayOfMonth(1).plusMonths(1);
+            LocalDate ultimoMes = fim.plusDays(1).getDayOfMonth() == 1 ? fim.withDayOfMonth(1) : fim.withDayOfMonth(1).minusMonths(1);
+            return new Intervalo(inicio, fim, primeiroMes, ultimoMes);
+        }
+
+        boolean temMesesInteiros() {
+            return !primeiroMes.isAfter(ultimoMes);
+        }
+
+        List<Trecho> pontasDiarias() {
+            if (!temMesesInteiros()) {
+                return List.of(new Trecho(inicio, fim));
+            }
+            List<Trecho> pontas = new ArrayList<>(2);
+            if (inicio.isBefore(primeiroMes)) {
+                pontas.add(new Trecho(inicio, primeiroMes.minusDays(1)));
+            }
+            LocalDate depoisDoUltimoMes = ultimoMes.plusMonths(1);
+            if (!depoisDoUltimoMes.isAfter(fim)) {
+                pontas.add(new Trecho(depoisDoUltimoMes, fim));
+            }
+            return pontas;
+        }
+    }
+
+    private record Trecho(LocalDate inicio, LocalDate fim) {
+    }
+}
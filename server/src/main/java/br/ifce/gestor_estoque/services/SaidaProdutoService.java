@@ -2,27 +2,48 @@ package br.ifce.gestor_estoque.services;
 
 import br.ifce.gestor_estoque.domain.estoque.Produto;
 import br.ifce.gestor_estoque.domain.estoque.SaidaProduto;
+import br.ifce.gestor_estoque.domain.estoque.TipoMovimentacao;
+import br.ifce.gestor_estoque.dto.estoque.LoteMovimentacaoResponse;
+import br.ifce.gestor_estoque.dto.estoque.LoteMovimentacaoResponse.ItemResultado;
 import br.ifce.gestor_estoque.dto.estoque.SaidaProdutoRequest;
 import br.ifce.gestor_estoque.dto.estoque.SaidaProdutoResponse;
+import br.ifce.gestor_estoque.events.MovimentacaoAnterior;
 import br.ifce.gestor_estoque.events.SaidaProdutoAtualizadaEvent;
 import br.ifce.gestor_estoque.events.SaidaProdutoCriadaEvent;
 import br.ifce.gestor_estoque.events.SaidaProdutoExcluidaEvent;
+import br.ifce.gestor_estoque.events.SaidasProdutoCriadasEmLoteEvent;
 import br.ifce.gestor_estoque.exceptions.BusinessException;
+import br.ifce.gestor_estoque.exceptions.EstoqueInsuficienteException;
 import br.ifce.gestor_estoque.exceptions.NotFoundException;
+import br.ifce.gestor_estoque.infra.metricas.MetricasEstoque;
 import br.ifce.gestor_estoque.repositores.ProdutoRepository;
 import br.ifce.gestor_estoque.repositores.SaidaProdutoRepository;
 import br.ifce.gestor_estoque.services.interfaces.ISaidaProdutoService;
 import br.ifce.gestor_estoque.strategy.ValidacaoSaidaStrategy;
 import br.ifce.gestor_estoque.strategy.ValidacaoStrategy;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+@Timed(value = "servico.execucao", histogram = true)
 @Service
 public class SaidaProdutoService implements ISaidaProdutoService {
 
@@ -32,9 +53,26 @@ public class SaidaProdutoService implements ISaidaProdutoService {
     @Autowired
     private ProdutoRepository produtoRepository;
 
+    @Autowired
+    private EstoqueService estoqueService;
+
     @Autowired
     private ApplicationEventPublisher eventPublisher;
 
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private MetricasEstoque metricasEstoque;
+
+    // Lazy: o ReservaEstoqueService também depende deste serviço, para confirmar reservas
+    @Autowired
+    @Lazy
+    private ReservaEstoqueService reservaEstoqueService;
+
+    @Value("${movimentacao.lote.tamanho-maximo:1000}")
+    private int tamanhoMaximoLote;
+
     private final ValidacaoStrategy<SaidaProduto> validacaoSaidaStrategy;
 
     @Autowired
@@ -44,21 +82,33 @@ public class SaidaProdutoService implements ISaidaProdutoService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<SaidaProdutoResponse> listarTodas() {
-        return saidaProdutoRepository.findAll().stream()
-                .map(SaidaProdutoResponse::new)
-                .collect(Collectors.toList());
+        return saidaProdutoRepository.findAllResposta();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<SaidaProdutoResponse> getSaidaById(Long id) {
-        return saidaProdutoRepository.findById(id)
-                .map(SaidaProdutoResponse::new);
+        return saidaProdutoRepository.findRespostaById(id);
     }
 
     @Override
     @Transactional
     public SaidaProdutoResponse createSaida(SaidaProdutoRequest request) {
+        return registrarSaida(request, true);
+    }
+
+    /**
+     * Registra a saída de uma reserva confirmada. A quantidade já está retida pela própria reserva,
+     * então não é descontada de novo do disponível no motor de reservas.
+     */
+    @Transactional
+    public SaidaProdutoResponse createSaidaReservada(SaidaProdutoRequest request) {
+        return registrarSaida(request, false);
+    }
+
+    private SaidaProdutoResponse registrarSaida(SaidaProdutoRequest request, boolean reter) {
         Produto produto = produtoRepository.findById(request.produtoId)
                 .orElseThrow(() -> new NotFoundException("Produto com ID " + request.produtoId + " não encontrado."));
 
@@ -72,30 +122,148 @@ public class SaidaProdutoService implements ISaidaProdutoService {
 
         try {
             validacaoSaidaStrategy.validar(saidaProduto);
+        } catch (EstoqueInsuficienteException e) {
+            metricasEstoque.registrarSaidasRecusadas(1);
+            throw e;
         } catch (Exception e) {
             throw new BusinessException(e.getMessage());
         }
 
-        // A lógica de atualização de estoque foi movida para o SaidaProdutoEventListener
-        // e agora utiliza o método de domínio do Produto.
+        // Sem reserva, a saída só pode usar o estoque que não está reservado
+        if (reter && !reservaEstoqueService.reterAteOFimDaTransacao(produto.getId(), request.quantidade)) {
+            metricasEstoque.registrarSaidasRecusadas(1);
+            throw new EstoqueInsuficienteException("Quantidade disponível insuficiente para a saída: parte do estoque do produto ID "
+                    + produto.getId() + " está reservada.");
+        }
+
+        // A validação acima é apenas uma checagem prévia: o estoque lido pode já estar desatualizado.
+        // O SaidaProdutoEventListener aplica a baixa com uma atualização condicional no banco e
+        // desfaz esta transação caso o estoque não seja suficiente no momento da escrita.
 
         SaidaProduto novaSaida = saidaProdutoRepository.save(saidaProduto);
         eventPublisher.publishEvent(new SaidaProdutoCriadaEvent(novaSaida));
         return new SaidaProdutoResponse(novaSaida);
     }
 
+    @Override
+    @Transactional
+    public LoteMovimentacaoResponse createSaidasEmLote(List<SaidaProdutoRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new BusinessException("O lote de saídas não pode estar vazio.");
+        }
+        if (requests.size() > tamanhoMaximoLote) {
+            throw new BusinessException("O lote de saídas deve ter no máximo " + tamanhoMaximoLote + " itens.");
+        }
+        ItemResultado[] resultados = new ItemResultado[requests.size()];
+
+        for (int i = 0; i < requests.size(); i++) {
+            SaidaProdutoRequest request = requests.get(i);
+            if (request == null) {
+                resultados[i] = ItemResultado.falha(i, "Item nulo.");
+                continue;
+            }
+            Set<ConstraintViolation<SaidaProdutoRequest>> violacoes = validator.validate(request);
+            if (!violacoes.isEmpty()) {
+                resultados[i] = ItemResultado.falha(i, violacoes.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+            }
+        }
+
+        // Resolve todos os produtos referenciados com uma única consulta
+        Set<Long> produtoIds = new HashSet<>();
+        for (int i = 0; i < requests.size(); i++) {
+            if (resultados[i] == null) {
+                produtoIds.add(requests.get(i).produtoId);
+            }
+        }
+        Map<Long, Produto> produtos = produtoRepository.findAllById(produtoIds).stream()
+                .collect(Collectors.toMap(Produto::getId, Function.identity()));
+
+        // Agrupa por produto, em ordem de ID para evitar deadlocks entre lotes concorrentes
+        Map<Long, List<Integer>> indicesPorProduto = new TreeMap<>();
+        Map<Integer, SaidaProduto> candidatas = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            if (resultados[i] != null) {
+                continue;
+            }
+            SaidaProdutoRequest request = requests.get(i);
+            Produto produto = produtos.get(request.produtoId);
+            if (produto == null) {
+                resultados[i] = ItemResultado.falha(i, "Produto com ID " + request.produtoId + " não encontrado.");
+                continue;
+            }
+            try {
+                SaidaProduto saidaProduto = new SaidaProduto();
+                saidaProduto.setProduto(produto);
+                saidaProduto.setQuantidade(request.quantidade);
+                saidaProduto.setDataSaida(request.dataSaida);
+                saidaProduto.setMotivo(request.motivo);
+                saidaProduto.setCliente(request.cliente);
+                saidaProduto.setObservacao(request.observacao);
+                validacaoSaidaStrategy.validar(saidaProduto);
+                candidatas.put(i, saidaProduto);
+                indicesPorProduto.computeIfAbsent(produto.getId(), id -> new ArrayList<>()).add(i);
+            } catch (EstoqueInsuficienteException e) {
+                metricasEstoque.registrarSaidasRecusadas(1);
+                resultados[i] = ItemResultado.falha(i, e.getMessage());
+            } catch (Exception e) {
+                resultados[i] = ItemResultado.falha(i, e.getMessage());
+            }
+        }
+
+        // Aceita os itens de cada produto na ordem do lote enquanto houver estoque não reservado,
+        // e aplica o total aceito com uma única atualização condicional por produto
+        indicesPorProduto.forEach((produtoId, indices) -> {
+            Produto produto = produtos.get(produtoId);
+            int disponivel = Math.min(produto.getQuantidadeEstoque(), reservaEstoqueService.disponivel(produtoId));
+            int totalAceito = 0;
+            List<Integer> aceitos = new ArrayList<>();
+            for (Integer indice : indices) {
+                int quantidade = candidatas.get(indice).getQuantidade();
+                if (totalAceito + quantidade <= disponivel) {
+                    totalAceito += quantidade;
+                    aceitos.add(indice);
+                } else {
+                    candidatas.remove(indice);
+                    metricasEstoque.registrarSaidasRecusadas(1);
+                    resultados[indice] = ItemResultado.falha(indice, "Quantidade em estoque insuficiente para a saída.");
+                }
+            }
+            if (totalAceito > 0 && (!reservaEstoqueService.reterAteOFimDaTransacao(produtoId, totalAceito)
+                    || !estoqueService.ajustarEstoque(produto, -totalAceito, TipoMovimentacao.SAIDA))) {
+                // O estoque ou as reservas mudaram desde a leitura (saída ou reserva concorrente): nenhum item deste produto é aplicado
+                metricasEstoque.registrarSaidasRecusadas(aceitos.size());
+                for (Integer indice : aceitos) {
+                    candidatas.remove(indice);
+                    resultados[indice] = ItemResultado.falha(indice, "Quantidade em estoque insuficiente para a saída do produto ID " + produtoId + ".");
+                }
+            }
+        });
+
+        // IDs por sequência permitem que o Hibernate agrupe os INSERTs em lotes JDBC
+        List<SaidaProduto> salvas = saidaProdutoRepository.saveAll(candidatas.values());
+        candidatas.forEach((indice, saida) -> resultados[indice] = ItemResultado.sucesso(indice, saida.getId()));
+        if (!salvas.isEmpty()) {
+            eventPublisher.publishEvent(new SaidasProdutoCriadasEmLoteEvent(salvas));
+        }
+
+        return LoteMovimentacaoResponse.de(Arrays.asList(resultados));
+    }
+
     @Override
     @Transactional
     public SaidaProdutoResponse updateSaida(Long id, SaidaProdutoRequest request) {
-        SaidaProduto saidaProduto = saidaProdutoRepository.findById(id)
+        SaidaProduto saidaProduto = saidaProdutoRepository.findComProdutoById(id)
                 .orElseThrow(() -> new NotFoundException("Saída de produto com ID " + id + " não encontrada para atualização."));
 
         Produto produtoNovo = produtoRepository.findById(request.produtoId)
                 .orElseThrow(() -> new NotFoundException("Produto com ID " + request.produtoId + " não encontrado."));
 
         // ... Store old values ...
+        MovimentacaoAnterior anterior = MovimentacaoAnterior.de(saidaProduto);
         Produto produtoAntigo = saidaProduto.getProduto();
-        int quantidadeAntigaNaSaida = saidaProduto.getQuantidade();
 
         // Update saidaProduto fields
         saidaProduto.setProduto(produtoNovo);
@@ -112,37 +280,19 @@ public class SaidaProdutoService implements ISaidaProdutoService {
             throw new BusinessException(e.getMessage());
         }
 
-        // Logic to revert old stock and apply new stock (potentially moved to listeners or kept here if simple)
-        produtoAntigo.entradaEstoque(quantidadeAntigaNaSaida);
-        if (!produtoAntigo.getId().equals(produtoNovo.getId())) {
-            produtoRepository.save(produtoAntigo); 
-        } else {
-             // If it's the same product, the earlier entradaEstoque call modified it, so save it.
-            produtoRepository.save(produtoAntigo); 
-        }
-        
-        // Re-fetch productParaNovaSaida to ensure we have the latest state after potential save of produtoAntigo
-        Produto produtoParaNovaSaida = produtoRepository.findById(produtoNovo.getId())
-           .orElseThrow(() -> new NotFoundException("Produto (para nova saída) com ID " + produtoNovo.getId() + " não encontrado após tentativa de atualização."));
-
-        // This check was part of the original ValidacaoSaidaStrategy, 
-        // but since stock levels change, it's re-evaluated here after reverting old stock.
-        if (!produtoParaNovaSaida.temEstoqueSuficiente(request.quantidade)) {
-            throw new BusinessException("Quantidade em estoque insuficiente para o produto ID " + request.produtoId + ". Estoque disponível: " + produtoParaNovaSaida.getQuantidadeEstoque());
-        }
-
-        // A lógica de atualização de estoque para o produtoNovo será tratada pelo listener
-        // que chamará produtoNovo.saidaEstoque(request.quantidade)
+        // Devolve atomicamente a quantidade antiga ao estoque; a nova saída é aplicada pelo listener
+        // com uma atualização condicional, que desfaz toda a transação se o estoque for insuficiente.
+        estoqueService.ajustarEstoque(produtoAntigo, anterior.quantidade(), TipoMovimentacao.ESTORNO_SAIDA);
 
         SaidaProduto saidaAtualizada = saidaProdutoRepository.save(saidaProduto);
-        eventPublisher.publishEvent(new SaidaProdutoAtualizadaEvent(saidaAtualizada));
+        eventPublisher.publishEvent(new SaidaProdutoAtualizadaEvent(saidaAtualizada, anterior));
         return new SaidaProdutoResponse(saidaAtualizada);
     }
 
     @Override
     @Transactional
     public void deleteSaida(Long id) {
-        SaidaProduto saidaProduto = saidaProdutoRepository.findById(id)
+        SaidaProduto saidaProduto = saidaProdutoRepository.findComProdutoById(id)
                 .orElseThrow(() -> new NotFoundException("Saída de produto com ID " + id + " não encontrada para exclusão."));
 
         // A lógica de atualização de estoque (reversão) será tratada pelo listener
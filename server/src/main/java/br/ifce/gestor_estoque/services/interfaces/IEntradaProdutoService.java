@@ -2,6 +2,7 @@ package br.ifce.gestor_estoque.services.interfaces;
 
 import br.ifce.gestor_estoque.dto.estoque.EntradaProdutoRequest;
 import br.ifce.gestor_estoque.dto.estoque.EntradaProdutoResponse;
+import br.ifce.gestor_estoque.dto.estoque.LoteMovimentacaoResponse;
 
 import java.util.List;
 import java.util.Optional;
@@ -10,6 +11,7 @@ public interface IEntradaProdutoService {
     List<EntradaProdutoResponse> listarTodas();
     Optional<EntradaProdutoResponse> getEntradaById(Long id);
     EntradaProdutoResponse createEntrada(EntradaProdutoRequest request);
+    LoteMovimentacaoResponse createEntradasEmLote(List<EntradaProdutoRequest> requests);
     EntradaProdutoResponse updateEntrada(Long id, EntradaProdutoRequest request);
     void deleteEntrada(Long id);
 }
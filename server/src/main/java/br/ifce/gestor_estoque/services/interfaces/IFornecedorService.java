@@ -1,11 +1,14 @@
 package br.ifce.gestor_estoque.services.interfaces;
 
 import br.ifce.gestor_estoque.domain.estoque.Fornecedor;
+import br.ifce.gestor_estoque.dto.PaginaResponse;
+import br.ifce.gestor_estoque.dto.estoque.OrdenacaoFornecedor;
 import java.util.List;
 import java.util.Optional;
 
 public interface IFornecedorService {
     List<Fornecedor> listarTodos();
+    PaginaResponse<Fornecedor> listarPagina(String cursor, Integer tamanho, OrdenacaoFornecedor ordenacao);
     Optional<Fornecedor> obterPorId(Long id);
     Fornecedor criar(Fornecedor fornecedor);
     Fornecedor atualizar(Long id, Fornecedor fornecedorAtualizado);
@@ -1,5 +1,8 @@
 package br.ifce.gestor_estoque.services.interfaces;
 
+import br.ifce.gestor_estoque.dto.PaginaResponse;
+import br.ifce.gestor_estoque.dto.estoque.OrdenacaoProduto;
+import br.ifce.gestor_estoque.dto.estoque.ProdutoBuscaResponse;
 import br.ifce.gestor_estoque.dto.estoque.ProdutoRequest;
 import br.ifce.gestor_estoque.dto.estoque.ProdutoResponse;
 
@@ -8,6 +11,8 @@ import java.util.Optional;
 
 public interface IProdutoService {
     List<ProdutoResponse> listarTodos();
+    PaginaResponse<ProdutoResponse> listarPagina(String cursor, Integer tamanho, OrdenacaoProduto ordenacao);
+    PaginaResponse<ProdutoBuscaResponse> buscar(String termo, String cursor, Integer tamanho);
     Optional<ProdutoResponse> getProdutoById(Long id);
     ProdutoResponse createProduto(ProdutoRequest produtoRequest);
     Optional<ProdutoResponse> updateProduto(Long id, ProdutoRequest produtoRequest);
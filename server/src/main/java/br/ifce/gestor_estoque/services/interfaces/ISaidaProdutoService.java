@@ -1,5 +1,6 @@
 package br.ifce.gestor_estoque.services.interfaces;
 
+import br.ifce.gestor_estoque.dto.estoque.LoteMovimentacaoResponse;
 import br.ifce.gestor_estoque.dto.estoque.SaidaProdutoRequest;
 import br.ifce.gestor_estoque.dto.estoque.SaidaProdutoResponse;
 
@@ -10,6 +11,7 @@ public interface ISaidaProdutoService {
     List<SaidaProdutoResponse> listarTodas();
     Optional<SaidaProdutoResponse> getSaidaById(Long id);
     SaidaProdutoResponse createSaida(SaidaProdutoRequest request);
+    LoteMovimentacaoResponse createSaidasEmLote(List<SaidaProdutoRequest> requests);
     SaidaProdutoResponse updateSaida(Long id, SaidaProdutoRequest request);
     void deleteSaida(Long id);
 }
@@ -2,6 +2,7 @@ package br.ifce.gestor_estoque.strategy;
 
 import br.ifce.gestor_estoque.domain.estoque.SaidaProduto;
 import br.ifce.gestor_estoque.exceptions.BusinessException;
+import br.ifce.gestor_estoque.exceptions.EstoqueInsuficienteException;
 
 public class ValidacaoSaidaStrategy implements ValidacaoStrategy<SaidaProduto> {
     @Override
@@ -16,7 +17,7 @@ public class ValidacaoSaidaStrategy implements ValidacaoStrategy<SaidaProduto> {
             throw new BusinessException("Data da saída não pode ser nula.");
         }
         if (saida.getProduto().getQuantidadeEstoque() < saida.getQuantidade()) {
-            throw new BusinessException("Quantidade em estoque insuficiente para a saída.");
+            throw new EstoqueInsuficienteException("Quantidade em estoque insuficiente para a saída.");
         }
     }
 }
@@ -0,0 +1,178 @@
+package br.ifce.gestor_estoque.carga;
+
+import br.ifce.gestor_estoque.dto.RegisterRequestDTO;
+import br.ifce.gestor_estoque.services.EstoqueHistoricoService;
+import br.ifce.gestor_estoque.services.ResumoMovimentacaoService;
+import br.ifce.gestor_estoque.support.EmbeddedPostgresSupport;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.File;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Teste de carga de ponta a ponta: sobe a aplicação numa porta local contra o PostgreSQL embarcado,
+ * gera um catálogo sintético e dispara a mistura de {@link Operacao} na taxa configurada, relatando
+ * vazão e latências p50/p99/p999 por operação. Fica fora do {@code mvn test}; para rodar:
+ * {@code mvn -Pcarga test -Dcarga.taxa=300 -Dcarga.duracao-segundos=120}.
+ */
+@Tag("carga")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class CargaTests extends EmbeddedPostgresSupport {
+
+    private static final Logger logger = LoggerFactory.getLogger(CargaTests.class);
+
+    @LocalServerPort
+    private int porta;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ResumoMovimentacaoService resumoMovimentacaoService;
+
+    @Autowired
+    private EstoqueHistoricoService estoqueHistoricoService;
+
+    @Value("${carga.produtos:5000}")
+    private int produtos;
+
+    @Value("${carga.fornecedores:100}")
+    private int fornecedores;
+
+    @Value("${carga.movimentacoes:100000}")
+    private int movimentacoes;
+
+    @Value("${carga.usuarios:50}")
+    private int usuarios;
+
+    // Requisições por segundo, somando todas as operações
+    @Value("${carga.taxa:200}")
+    private int taxa;
+
+    @Value("${carga.aquecimento-segundos:15}")
+    private int aquecimentoSegundos;
+
+    @Value("${carga.duracao-segundos:60}")
+    private int duracaoSegundos;
+
+    // Requisições simultâneas no máximo; acima disso elas esperam (e a espera entra na latência)
+    @Value("${carga.concorrencia:64}")
+    private int concorrencia;
+
+    @Value("${carga.resultado:target/carga-resultado.json}")
+    private String arquivoResultado;
+
+    // Percentual máximo de requisições com falha para a execução ser considerada válida
+    @Value("${carga.falhas-toleradas-percentual:1}")
+    private double falhasToleradasPercentual;
+
+    @Test
+    void executarCarga() throws Exception {
+        long inicioDados = System.nanoTime();
+        DadosCarga dados = new DadosCarga(jdbcTemplate);
+        dados.gerar(produtos, fornecedores, movimentacoes);
+        // Os dados foram gravados por SQL, por fora do cache de segundo nível
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        resumoMovimentacaoService.reconstruirSeVazio();
+        estoqueHistoricoService.criarSnapshotsPeriodicamente();
+        logger.info("Dados sintéticos gerados em {} ms: {} produtos, {} fornecedores, {} movimentações",
+                (System.nanoTime() - inicioDados) / 1_000_000, produtos, fornecedores, movimentacoes);
+
+        String baseUrl = "http://localhost:" + porta;
+        List<String> emails = new ArrayList<>();
+        List<String> tokens = new ArrayList<>();
+        registrarUsuarios(baseUrl, emails, tokens);
+        ContextoCarga contexto = new ContextoCarga(baseUrl, objectMapper, emails, tokens,
+                dados.idsDeProdutos(), dados.idsDeFornecedores());
+
+        GeradorCarga gerador = new GeradorCarga(contexto, concorrencia);
+        // Aquecimento (JIT, pool de conexões, caches): o resultado é descartado
+        gerador.executar(taxa, Duration.ofSeconds(aquecimentoSegundos));
+        GeradorCarga.Resultado resultado = gerador.executar(taxa, Duration.ofSeconds(duracaoSegundos));
+
+        List<Latencias.Resumo> resumos = new ArrayList<>();
+        Latencias todas = new Latencias();
+        resultado.latencias().forEach((operacao, latencias) -> {
+            resumos.add(latencias.resumir(operacao.name(), resultado.duracaoSegundos()));
+            latencias.copiarPara(todas);
+        });
+        Latencias.Resumo total = todas.resumir("TOTAL", resultado.duracaoSegundos());
+        resumos.add(total);
+
+        relatar(resumos);
+        gravar(resumos);
+        assertThat(total.falhas())
+                .as("Requisições com falha")
+                .isLessThanOrEqualTo((int) (total.requisicoes() * falhasToleradasPercentual / 100));
+    }
+
+    private void registrarUsuarios(String baseUrl, List<String> emails, List<String> tokens) throws Exception {
+        HttpClient httpClient = HttpClient.newHttpClient();
+        ContextoCarga semUsuarios = new ContextoCarga(baseUrl, objectMapper, List.of(), List.of(), new long[0], new long[0]);
+        for (int i = 1; i <= usuarios; i++) {
+            String email = "usuario" + i + "@carga.com.br";
+            HttpResponse<byte[]> resposta = httpClient.send(
+                    semUsuarios.postPublico("/auth/register", new RegisterRequestDTO("Usuário Carga " + i, email, ContextoCarga.SENHA)).build(),
+                    HttpResponse.BodyHandlers.ofByteArray());
+            assertThat(resposta.statusCode()).as("Cadastro de " + email).isEqualTo(201);
+            emails.add(email);
+            tokens.add(objectMapper.readTree(resposta.body()).get("token").asText());
+        }
+    }
+
+    private void relatar(List<Latencias.Resumo> resumos) {
+        StringBuilder tabela = new StringBuilder(String.format("%n%-18s %11s %7s %9s %9s %9s %9s %9s%n",
+                "operação", "requisições", "falhas", "req/s", "p50 ms", "p99 ms", "p999 ms", "máx ms"));
+        for (Latencias.Resumo r : resumos) {
+            tabela.append(String.format("%-18s %11d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n", r.operacao(), r.requisicoes(),
+                    r.falhas(), r.vazaoPorSegundo(), r.p50Ms(), r.p99Ms(), r.p999Ms(), r.maximoMs()));
+        }
+        logger.info("Resultado da carga ({} req/s alvo, {} s):{}", taxa, duracaoSegundos, tabela);
+    }
+
+    private void gravar(List<Latencias.Resumo> resumos) throws Exception {
+        Map<String, Object> configuracao = new LinkedHashMap<>();
+        configuracao.put("produtos", produtos);
+        configuracao.put("fornecedores", fornecedores);
+        configuracao.put("movimentacoes", movimentacoes);
+        configuracao.put("usuarios", usuarios);
+        configuracao.put("taxaAlvo", taxa);
+        configuracao.put("duracaoSegundos", duracaoSegundos);
+        configuracao.put("concorrencia", concorrencia);
+
+        Map<String, Object> relatorio = new LinkedHashMap<>();
+        relatorio.put("configuracao", configuracao);
+        relatorio.put("operacoes", resumos);
+        File arquivo = new File(arquivoResultado);
+        if (arquivo.getParentFile() != null) {
+            arquivo.getParentFile().mkdirs();
+        }
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(arquivo, relatorio);
+        logger.info("Resultado gravado em {}", arquivo.getAbsolutePath());
+    }
+}
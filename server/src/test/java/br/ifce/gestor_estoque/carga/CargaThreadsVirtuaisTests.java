@@ -0,0 +1,21 @@
+package br.ifce.gestor_estoque.carga;
+
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * A mesma carga de {@link CargaTests}, com as requisições atendidas por threads virtuais. As duas
+ * rodam em sequência no {@code mvn -Pcarga test} e gravam resultados separados, para comparar
+ * {@code target/carga-resultado.json} (threads de plataforma) com {@code target/carga-resultado-virtual.json}.
+ * A diferença aparece com concorrência acima das 200 threads do Tomcat, por exemplo
+ * {@code -Dcarga.concorrencia=400 -Dcarga.taxa=600}; para checar pinning, acrescente
+ * {@code -DargLine=-Djdk.tracePinnedThreads=short}.
+ */
+@EnabledForJreRange(min = JRE.JAVA_21)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.threads.virtual.enabled=true",
+        "carga.resultado=target/carga-resultado-virtual.json"
+})
+class CargaThreadsVirtuaisTests extends CargaTests {
+}
@@ -0,0 +1,96 @@
+package br.ifce.gestor_estoque.carga;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Estado compartilhado pelas requisições da carga: endereço da aplicação, usuários e seus tokens
+ * (renovados pelas operações de login) e os IDs sorteados nas consultas e movimentações.
+ */
+final class ContextoCarga {
+
+    static final String SENHA = "senha-carga-123";
+
+    private static final Duration TEMPO_LIMITE = Duration.ofSeconds(30);
+
+    private final String baseUrl;
+    private final ObjectMapper objectMapper;
+    private final List<String> emails;
+    private final AtomicReferenceArray<String> tokens;
+    private final long[] produtoIds;
+    private final long[] fornecedorIds;
+
+    ContextoCarga(String baseUrl, ObjectMapper objectMapper, List<String> emails, List<String> tokens,
+                  long[] produtoIds, long[] fornecedorIds) {
+        this.baseUrl = baseUrl;
+        this.objectMapper = objectMapper;
+        this.emails = emails;
+        this.tokens = new AtomicReferenceArray<>(tokens.toArray(String[]::new));
+        this.produtoIds = produtoIds;
+        this.fornecedorIds = fornecedorIds;
+    }
+
+    int sortearUsuario() {
+        return ThreadLocalRandom.current().nextInt(emails.size());
+    }
+
+    String email(int usuario) {
+        return emails.get(usuario);
+    }
+
+    void renovarToken(int usuario, String token) {
+        tokens.set(usuario, token);
+    }
+
+    long sortearProduto() {
+        return produtoIds[ThreadLocalRandom.current().nextInt(produtoIds.length)];
+    }
+
+    long sortearFornecedor() {
+        return fornecedorIds[ThreadLocalRandom.current().nextInt(fornecedorIds.length)];
+    }
+
+    ObjectMapper objectMapper() {
+        return objectMapper;
+    }
+
+    HttpRequest.Builder get(String caminho) {
+        return autenticada(caminho).GET();
+    }
+
+    HttpRequest.Builder post(String caminho, Object corpo) {
+        return autenticada(caminho)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(json(corpo)));
+    }
+
+    HttpRequest.Builder postPublico(String caminho, Object corpo) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + caminho))
+                .timeout(TEMPO_LIMITE)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(json(corpo)));
+    }
+
+    private HttpRequest.Builder autenticada(String caminho) {
+        String token = tokens.get(sortearUsuario());
+        return HttpRequest.newBuilder(URI.create(baseUrl + caminho))
+                .timeout(TEMPO_LIMITE)
+                .header("Authorization", "Bearer " + token);
+    }
+
+    private byte[] json(Object corpo) {
+        try {
+            return objectMapper.writeValueAsBytes(corpo);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package br.ifce.gestor_estoque.carga;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Popula o banco com um catálogo sintético direto em SQL (generate_series), em segundos mesmo
+ * com centenas de milhares de linhas. As movimentações são distribuídas pelos últimos 365 dias
+ * e o estoque de cada produto fica igual ao saldo das suas movimentações (limitado a zero).
+ */
+final class DadosCarga {
+
+    static final String OBSERVACAO = "Carga sintética";
+
+    // Nomes montados a partir destas listas; as mesmas palavras são usadas como termos de busca
+    static final String[] TIPOS = {"Parafuso", "Porca", "Arruela", "Cabo", "Tomada", "Disjuntor",
+            "Lâmpada", "Tubo", "Conexão", "Registro", "Torneira", "Fita"};
+    static final String[] MATERIAIS = {"aço", "latão", "cobre", "PVC", "inox", "alumínio", "nylon", "zinco"};
+
+    private final JdbcTemplate jdbcTemplate;
+
+    DadosCarga(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    void gerar(int produtos, int fornecedores, int movimentacoes) {
+        // O PostgreSQL embarcado é compartilhado pelas execuções da mesma JVM (ex.: CargaThreadsVirtuaisTests)
+        jdbcTemplate.execute("""
+                TRUNCATE entrada_produto, saida_produto, estoque_delta_pendente, produto, fornecedor, users
+                RESTART IDENTITY CASCADE
+                """);
+
+        jdbcTemplate.update("""
+                INSERT INTO fornecedor (nome, contato_nome, contato_email, contato_telefone)
+                SELECT 'Fornecedor Carga ' || g, 'Contato ' || g, 'fornecedor' || g || '@carga.com.br',
+                       '(85) 3000-' || lpad(g::text, 4, '0')
+                FROM generate_series(1, ?) g
+                """, fornecedores);
+
+        jdbcTemplate.update("""
+                INSERT INTO produto (nome, descricao, preco, quantidade_estoque, unidade_medida, versao)
+                SELECT n.tipos[1 + g % cardinality(n.tipos)] || ' '
+                           || n.materiais[1 + (g / cardinality(n.tipos)) % cardinality(n.materiais)] || ' ' || g,
+                       'Produto sintético gerado para testes de carga',
+                       round(CAST(1 + random() * 500 AS numeric), 2), 0, 'UN', 0
+                FROM generate_series(1, ?) g,
+                     (SELECT CAST(? AS text[]) AS tipos, CAST(? AS text[]) AS materiais) n
+                """, produtos, literalArray(TIPOS), literalArray(MATERIAIS));
+
+        int entradas = movimentacoes / 2;
+        jdbcTemplate.update("""
+                INSERT INTO entrada_produto (id, produto_id, fornecedor_id, quantidade, data_movimentacao, preco_custo, observacao)
+                SELECT nextval('entrada_produto_seq'),
+                       p.ids[1 + floor(random() * cardinality(p.ids))::int],
+                       f.ids[1 + floor(random() * cardinality(f.ids))::int],
+                       10 + floor(random() * 90)::int,
+                       current_date - floor(random() * 365)::int,
+                       round(CAST(1 + random() * 300 AS numeric), 2),
+                       ?
+                FROM generate_series(1, ?) g,
+                     (SELECT array_agg(id) AS ids FROM produto) p,
+                     (SELECT array_agg(id) AS ids FROM fornecedor) f
+                """, OBSERVACAO, entradas);
+
+        // Saídas bem menores que as entradas, para o saldo de cada produto ficar positivo
+        jdbcTemplate.update("""
+                INSERT INTO saida_produto (id, produto_id, quantidade, data_movimentacao, motivo, cliente, observacao)
+                SELECT nextval('saida_produto_seq'),
+                       p.ids[1 + floor(random() * cardinality(p.ids))::int],
+                       1 + floor(random() * 5)::int,
+                       current_date - floor(random() * 365)::int,
+                       'Venda', 'Cliente ' || (g % 500), ?
+                FROM generate_series(1, ?) g,
+                     (SELECT array_agg(id) AS ids FROM produto) p
+                """, OBSERVACAO, movimentacoes - entradas);
+
+        jdbcTemplate.update("""
+                UPDATE produto p SET quantidade_estoque = GREATEST(0, p.quantidade_estoque
+                        + COALESCE((SELECT SUM(e.quantidade) FROM entrada_produto e WHERE e.produto_id = p.id AND e.observacao = ?), 0)
+                        - COALESCE((SELECT SUM(s.quantidade) FROM saida_produto s WHERE s.produto_id = p.id AND s.observacao = ?), 0))
+                """, OBSERVACAO, OBSERVACAO);
+
+        // Os totais e snapshots foram montados na inicialização, antes destas linhas existirem
+        jdbcTemplate.execute("TRUNCATE movimentacao_diaria, movimentacao_mensal, estoque_snapshot");
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    long[] idsDeProdutos() {
+        return jdbcTemplate.queryForList("SELECT id FROM produto ORDER BY id", Long.class)
+                .stream().mapToLong(Long::longValue).toArray();
+    }
+
+    long[] idsDeFornecedores() {
+        return jdbcTemplate.queryForList("SELECT id FROM fornecedor ORDER BY id", Long.class)
+                .stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static String literalArray(String[] valores) {
+        return "{" + String.join(",", valores) + "}";
+    }
+}
@@ -0,0 +1,83 @@
+package br.ifce.gestor_estoque.carga;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Gera carga em modelo aberto: as requisições partem em intervalos fixos para atingir a taxa alvo,
+ * independente de as anteriores já terem respondido. A latência é medida a partir do instante em que
+ * a requisição deveria ter partido, então a espera por uma thread livre também conta; medir só o tempo
+ * de resposta esconderia a fila que se forma quando o servidor não acompanha a taxa (omissão coordenada).
+ */
+final class GeradorCarga {
+
+    private final ContextoCarga contexto;
+    private final int concorrencia;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    GeradorCarga(ContextoCarga contexto, int concorrencia) {
+        this.contexto = contexto;
+        this.concorrencia = concorrencia;
+    }
+
+    Resultado executar(int requisicoesPorSegundo, Duration duracao) throws InterruptedException {
+        Map<Operacao, Latencias> latencias = new EnumMap<>(Operacao.class);
+        for (Operacao operacao : Operacao.values()) {
+            latencias.put(operacao, new Latencias());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(concorrencia);
+        long intervalo = TimeUnit.SECONDS.toNanos(1) / requisicoesPorSegundo;
+        long inicio = System.nanoTime();
+        long fim = inicio + duracao.toNanos();
+        try {
+            for (long previsto = inicio; previsto < fim; previsto += intervalo) {
+                long espera = previsto - System.nanoTime();
+                if (espera > 0) {
+                    LockSupport.parkNanos(espera);
+                }
+                Operacao operacao = Operacao.sortear();
+                long partida = previsto;
+                executor.execute(() -> executar(operacao, partida, latencias.get(operacao)));
+            }
+        } finally {
+            executor.shutdown();
+        }
+        if (!executor.awaitTermination(duracao.toSeconds() + 300, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+        return new Resultado(latencias, (System.nanoTime() - inicio) / 1_000_000_000.0);
+    }
+
+    private void executar(Operacao operacao, long partida, Latencias latencias) {
+        boolean sucesso;
+        try {
+            Operacao.Requisicao requisicao = operacao.criar(contexto);
+            HttpResponse<byte[]> resposta = httpClient.send(requisicao.request(), HttpResponse.BodyHandlers.ofByteArray());
+            sucesso = operacao.sucesso(resposta.statusCode());
+            if (sucesso) {
+                requisicao.aoResponder().aceitar(resposta);
+            }
+        } catch (IOException | RuntimeException e) {
+            sucesso = false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            sucesso = false;
+        }
+        latencias.registrar(System.nanoTime() - partida, sucesso);
+    }
+
+    record Resultado(Map<Operacao, Latencias> latencias, double duracaoSegundos) {
+    }
+}
@@ -0,0 +1,61 @@
+package br.ifce.gestor_estoque.carga;
+
+import java.util.Arrays;
+
+/**
+ * Latências (em nanossegundos) e falhas de uma operação da carga. Guarda todas as amostras:
+ * mesmo execuções longas ficam em poucos MB, e os percentis saem exatos.
+ */
+final class Latencias {
+
+    private long[] amostras = new long[1024];
+    private int quantidade;
+    private int falhas;
+
+    synchronized void registrar(long nanos, boolean sucesso) {
+        if (quantidade == amostras.length) {
+            amostras = Arrays.copyOf(amostras, quantidade * 2);
+        }
+        amostras[quantidade++] = nanos;
+        if (!sucesso) {
+            falhas++;
+        }
+    }
+
+    // Copia as amostras para outro acumulador (ex.: o total de todas as operações)
+    synchronized void copiarPara(Latencias destino) {
+        for (int i = 0; i < quantidade; i++) {
+            destino.registrar(amostras[i], true);
+        }
+        synchronized (destino) {
+            destino.falhas += falhas;
+        }
+    }
+
+    synchronized Resumo resumir(String operacao, double duracaoSegundos) {
+        long[] ordenadas = Arrays.copyOf(amostras, quantidade);
+        Arrays.sort(ordenadas);
+        return new Resumo(operacao, quantidade, falhas, quantidade / duracaoSegundos,
+                emMilissegundos(percentil(ordenadas, 0.50)),
+                emMilissegundos(percentil(ordenadas, 0.99)),
+                emMilissegundos(percentil(ordenadas, 0.999)),
+                emMilissegundos(quantidade == 0 ? 0 : ordenadas[quantidade - 1]));
+    }
+
+    // Método do posto mais próximo: o menor valor com pelo menos p das amostras abaixo ou iguais
+    private static long percentil(long[] ordenadas, double p) {
+        if (ordenadas.length == 0) {
+            return 0;
+        }
+        int posto = (int) Math.ceil(p * ordenadas.length);
+        return ordenadas[Math.max(0, posto - 1)];
+    }
+
+    private static double emMilissegundos(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+
+    public record Resumo(String operacao, int requisicoes, int falhas, double vazaoPorSegundo,
+                  double p50Ms, double p99Ms, double p999Ms, double maximoMs) {
+    }
+}
@@ -0,0 +1,132 @@
+package br.ifce.gestor_estoque.carga;
+
+import br.ifce.gestor_estoque.dto.LoginRequestDTO;
+import br.ifce.gestor_estoque.dto.estoque.EntradaProdutoRequest;
+import br.ifce.gestor_estoque.dto.estoque.SaidaProdutoRequest;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Operações da carga e o peso de cada uma no sorteio (somam 100), aproximando o uso real:
+ * muitas leituras de catálogo, movimentações frequentes, dashboard e logins ocasionais.
+ */
+enum Operacao {
+
+    LOGIN(5) {
+        @Override
+        Requisicao criar(ContextoCarga contexto) {
+            int usuario = contexto.sortearUsuario();
+            HttpRequest request = contexto.postPublico("/auth/login",
+                    new LoginRequestDTO(contexto.email(usuario), ContextoCarga.SENHA)).build();
+            return new Requisicao(request, resposta -> {
+                if (resposta.statusCode() == 200) {
+                    contexto.renovarToken(usuario, contexto.objectMapper().readTree(resposta.body()).get("token").asText());
+                }
+            });
+        }
+    },
+    LISTAR_PRODUTOS(25) {
+        @Override
+        Requisicao criar(ContextoCarga contexto) {
+            String ordenacao = ThreadLocalRandom.current().nextBoolean() ? "nome" : "estoque";
+            return new Requisicao(contexto.get("/api/produtos?tamanho=50&ordenacao=" + ordenacao).build());
+        }
+    },
+    CONSULTAR_PRODUTO(20) {
+        @Override
+        Requisicao criar(ContextoCarga contexto) {
+            return new Requisicao(contexto.get("/api/produtos/" + contexto.sortearProduto()).build());
+        }
+    },
+    BUSCAR_PRODUTOS(10) {
+        @Override
+        Requisicao criar(ContextoCarga contexto) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            String termo = DadosCarga.TIPOS[random.nextInt(DadosCarga.TIPOS.length)];
+            if (random.nextBoolean()) {
+                termo += " " + DadosCarga.MATERIAIS[random.nextInt(DadosCarga.MATERIAIS.length)];
+            }
+            return new Requisicao(contexto.get("/api/produtos/search?tamanho=20&q="
+                    + URLEncoder.encode(termo, StandardCharsets.UTF_8)).build());
+        }
+    },
+    CRIAR_ENTRADA(12) {
+        @Override
+        Requisicao criar(ContextoCarga contexto) {
+            EntradaProdutoRequest entrada = new EntradaProdutoRequest();
+            entrada.produtoId = contexto.sortearProduto();
+            entrada.fornecedorId = contexto.sortearFornecedor();
+            entrada.quantidade = 1 + ThreadLocalRandom.current().nextInt(50);
+            entrada.dataEntrada = LocalDate.now();
+            entrada.precoCusto = new BigDecimal("12.50");
+            entrada.observacao = DadosCarga.OBSERVACAO;
+            return new Requisicao(contexto.post("/api/entradas", entrada).build());
+        }
+    },
+    CRIAR_SAIDA(13) {
+        @Override
+        Requisicao criar(ContextoCarga contexto) {
+            SaidaProdutoRequest saida = new SaidaProdutoRequest();
+            saida.produtoId = contexto.sortearProduto();
+            saida.quantidade = 1 + ThreadLocalRandom.current().nextInt(3);
+            saida.dataSaida = LocalDate.now();
+            saida.motivo = "Venda";
+            saida.observacao = DadosCarga.OBSERVACAO;
+            return new Requisicao(contexto.post("/api/saidas", saida).build());
+        }
+
+        @Override
+        boolean sucesso(int status) {
+            // Recusa por estoque insuficiente é uma resposta válida da regra de negócio, não uma falha
+            return super.sucesso(status) || status == 400;
+        }
+    },
+    DASHBOARD(15) {
+        @Override
+        Requisicao criar(ContextoCarga contexto) {
+            return new Requisicao(contexto.get("/dashboard/overview").build());
+        }
+    };
+
+    private final int peso;
+
+    Operacao(int peso) {
+        this.peso = peso;
+    }
+
+    abstract Requisicao criar(ContextoCarga contexto);
+
+    boolean sucesso(int status) {
+        return status >= 200 && status < 300;
+    }
+
+    static Operacao sortear() {
+        int sorteio = ThreadLocalRandom.current().nextInt(100);
+        for (Operacao operacao : values()) {
+            sorteio -= operacao.peso;
+            if (sorteio < 0) {
+                return operacao;
+            }
+        }
+        throw new IllegalStateException("Os pesos das operações devem somar 100");
+    }
+
+    record Requisicao(HttpRequest request, AoResponder aoResponder) {
+        Requisicao(HttpRequest request) {
+            this(request, resposta -> {
+            });
+        }
+    }
+
+    @FunctionalInterface
+    interface AoResponder {
+        void aceitar(HttpResponse<byte[]> resposta) throws IOException;
+    }
+}
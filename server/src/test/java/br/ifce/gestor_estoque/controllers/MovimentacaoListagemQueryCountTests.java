@@ -0,0 +1,141 @@
+package br.ifce.gestor_estoque.controllers;
+
+import br.ifce.gestor_estoque.domain.estoque.EntradaProduto;
+import br.ifce.gestor_estoque.domain.estoque.Fornecedor;
+import br.ifce.gestor_estoque.domain.estoque.Produto;
+import br.ifce.gestor_estoque.domain.estoque.SaidaProduto;
+import br.ifce.gestor_estoque.domain.user.User;
+import br.ifce.gestor_estoque.infra.security.TokenService;
+import br.ifce.gestor_estoque.repositores.EntradaProdutoRepository;
+import br.ifce.gestor_estoque.repositores.FornecedorRepository;
+import br.ifce.gestor_estoque.repositores.ProdutoRepository;
+import br.ifce.gestor_estoque.repositores.SaidaProdutoRepository;
+import br.ifce.gestor_estoque.repositores.UserRepository;
+import br.ifce.gestor_estoque.support.EmbeddedPostgresSupport;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Garante que as listagens e consultas por ID de movimentações executam um número
+ * constante de comandos SQL, independente da quantidade de linhas (sem N+1).
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class MovimentacaoListagemQueryCountTests extends EmbeddedPostgresSupport {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private FornecedorRepository fornecedorRepository;
+
+    @Autowired
+    private EntradaProdutoRepository entradaProdutoRepository;
+
+    @Autowired
+    private SaidaProdutoRepository saidaProdutoRepository;
+
+    private String token;
+
+    @BeforeEach
+    void autenticar() throws Exception {
+        User user = userRepository.findByEmail("querycount@example.com")
+                .orElseGet(() -> userRepository.save(new User("Query Count", "querycount@example.com", "senha123")));
+        token = "Bearer " + tokenService.generateToken(user);
+        // Aquece o cache de principal para que a consulta do usuário não entre na contagem
+        mockMvc.perform(get("/user").header("Authorization", token)).andExpect(status().isOk());
+    }
+
+    @Test
+    void listagemDeEntradasNaoCresceComONumeroDeLinhas() throws Exception {
+        criarMovimentacoes(5);
+        long comPoucasLinhas = contarComandos("/api/entradas");
+        criarMovimentacoes(20);
+        long comMaisLinhas = contarComandos("/api/entradas");
+
+        assertThat(comMaisLinhas).isEqualTo(comPoucasLinhas);
+    }
+
+    @Test
+    void listagemDeSaidasNaoCresceComONumeroDeLinhas() throws Exception {
+        criarMovimentacoes(5);
+        long comPoucasLinhas = contarComandos("/api/saidas");
+        criarMovimentacoes(20);
+        long comMaisLinhas = contarComandos("/api/saidas");
+
+        assertThat(comMaisLinhas).isEqualTo(comPoucasLinhas);
+    }
+
+    @Test
+    void consultasPorIdUsamUmUnicoComando() throws Exception {
+        criarMovimentacoes(1);
+        Long entradaId = entradaProdutoRepository.findAll().get(0).getId();
+        Long saidaId = saidaProdutoRepository.findAll().get(0).getId();
+
+        assertThat(contarComandos("/api/entradas/" + entradaId)).isEqualTo(1);
+        assertThat(contarComandos("/api/saidas/" + saidaId)).isEqualTo(1);
+    }
+
+    private long contarComandos(String url) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(get(url).header("Authorization", token)).andExpect(status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+
+    // Cada movimentação referencia um produto e um fornecedor distintos, o pior caso para N+1
+    private void criarMovimentacoes(int quantidade) {
+        for (int i = 0; i < quantidade; i++) {
+            Produto produto = new Produto();
+            produto.setNome("Produto QC " + System.nanoTime());
+            produto.setPreco(new BigDecimal("10.00"));
+            produto.setQuantidadeEstoque(100);
+            produto.setUnidadeMedida("UN");
+            produto = produtoRepository.save(produto);
+
+            Fornecedor fornecedor = new Fornecedor();
+            fornecedor.setNome("Fornecedor QC " + System.nanoTime());
+            fornecedor.setContatoEmail("qc@example.com");
+            fornecedor = fornecedorRepository.save(fornecedor);
+
+            EntradaProduto entrada = new EntradaProduto();
+            entrada.setProduto(produto);
+            entrada.setFornecedor(fornecedor);
+            entrada.setQuantidade(10);
+            entrada.setDataEntrada(LocalDate.now());
+            entradaProdutoRepository.save(entrada);
+
+            SaidaProduto saida = new SaidaProduto();
+            saida.setProduto(produto);
+            saida.setQuantidade(1);
+            saida.setDataSaida(LocalDate.now());
+            saidaProdutoRepository.save(saida);
+        }
+    }
+}
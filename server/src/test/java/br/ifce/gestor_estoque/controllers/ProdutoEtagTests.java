@@ -0,0 +1,143 @@
+package br.ifce.gestor_estoque.controllers;
+
+import br.ifce.gestor_estoque.domain.user.User;
+import br.ifce.gestor_estoque.dto.estoque.ProdutoRequest;
+import br.ifce.gestor_estoque.dto.estoque.ProdutoResponse;
+import br.ifce.gestor_estoque.dto.estoque.SaidaProdutoRequest;
+import br.ifce.gestor_estoque.infra.security.TokenService;
+import br.ifce.gestor_estoque.repositores.UserRepository;
+import br.ifce.gestor_estoque.services.ProdutoService;
+import br.ifce.gestor_estoque.services.SaidaProdutoService;
+import br.ifce.gestor_estoque.support.EmbeddedPostgresSupport;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Garante que leituras repetidas de produtos respondem 304 pela ETag sem consultar o banco,
+ * que qualquer alteração confirmada (cadastro ou ajuste de estoque por uma saída) muda a ETag,
+ * e que uma alteração notificada por outra instância também a muda.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ProdutoEtagTests extends EmbeddedPostgresSupport {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Autowired
+    private SaidaProdutoService saidaProdutoService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String token;
+
+    @BeforeEach
+    void autenticar() throws Exception {
+        User user = userRepository.findByEmail("etag@example.com")
+                .orElseGet(() -> userRepository.save(new User("ETag", "etag@example.com", "senha123")));
+        token = "Bearer " + tokenService.generateToken(user);
+        // Aquece o cache de principal para que a consulta do usuário não entre na contagem
+        mockMvc.perform(get("/user").header("Authorization", token)).andExpect(status().isOk());
+    }
+
+    @Test
+    void listagemSemAlteracaoRespondeNaoModificadoSemConsultarOBanco() throws Exception {
+        criarProduto();
+        String etag = obterEtag("/api/produtos");
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(get("/api/produtos").header("Authorization", token).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void alteracoesConfirmadasMudamAEtag() throws Exception {
+        ProdutoResponse produto = criarProduto();
+        String etagLista = obterEtag("/api/produtos");
+        String etagProduto = obterEtag("/api/produtos/" + produto.id);
+
+        criarProduto();
+
+        assertThat(obterEtag("/api/produtos")).isNotEqualTo(etagLista);
+        assertThat(obterEtag("/api/produtos/" + produto.id)).isNotEqualTo(etagProduto);
+    }
+
+    @Test
+    void ajusteDeEstoqueMudaAEtag() throws Exception {
+        ProdutoResponse produto = criarProduto();
+        String etagLista = obterEtag("/api/produtos");
+        String etagProduto = obterEtag("/api/produtos/" + produto.id);
+
+        SaidaProdutoRequest saida = new SaidaProdutoRequest();
+        saida.produtoId = produto.id;
+        saida.quantidade = 2;
+        saida.dataSaida = LocalDate.now();
+        saida.motivo = "Venda";
+        saidaProdutoService.createSaida(saida);
+
+        assertThat(obterEtag("/api/produtos")).isNotEqualTo(etagLista);
+        assertThat(obterEtag("/api/produtos/" + produto.id)).isNotEqualTo(etagProduto);
+    }
+
+    @Test
+    void alteracaoEmOutraInstanciaMudaAEtag() throws Exception {
+        criarProduto();
+        String etagLista = obterEtag("/api/produtos");
+
+        // O que outra instância envia no commit de uma alteração de produto
+        jdbcTemplate.queryForObject("SELECT CAST(pg_notify('versao_colecoes', 'produtos') AS text)", String.class);
+
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> assertThat(obterEtag("/api/produtos")).isNotEqualTo(etagLista));
+    }
+
+    private String obterEtag(String url) throws Exception {
+        String etag = mockMvc.perform(get(url).header("Authorization", token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotBlank();
+        return etag;
+    }
+
+    private ProdutoResponse criarProduto() {
+        ProdutoRequest request = new ProdutoRequest();
+        request.nome = "Produto ETag " + System.nanoTime();
+        request.preco = new BigDecimal("10.00");
+        request.quantidadeEstoque = 5;
+        request.unidadeMedida = "UN";
+        return produtoService.createProduto(request);
+    }
+}
@@ -0,0 +1,73 @@
+package br.ifce.gestor_estoque.infra.cache;
+
+import br.ifce.gestor_estoque.domain.estoque.Produto;
+import br.ifce.gestor_estoque.domain.estoque.TipoMovimentacao;
+import br.ifce.gestor_estoque.repositores.ProdutoRepository;
+import br.ifce.gestor_estoque.services.EstoqueService;
+import br.ifce.gestor_estoque.support.EmbeddedPostgresSupport;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Garante que o cache de segundo nível atende as leituras de Produto por ID e que os ajustes de
+ * estoque por SQL não deixam no cache a quantidade anterior.
+ */
+@SpringBootTest
+class CacheProdutoTests extends EmbeddedPostgresSupport {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private EstoqueService estoqueService;
+
+    private Statistics statistics;
+    private Produto produto;
+
+    @BeforeEach
+    void criarProduto() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        produto = new Produto();
+        produto.setNome("Produto Cache " + System.nanoTime());
+        produto.setPreco(new BigDecimal("10.00"));
+        produto.setQuantidadeEstoque(10);
+        produto.setUnidadeMedida("UN");
+        produto = produtoRepository.save(produto);
+    }
+
+    @Test
+    void leituraPorIdRepetidaNaoConsultaOBanco() {
+        produtoRepository.findById(produto.getId()).orElseThrow();
+        statistics.clear();
+
+        produtoRepository.findById(produto.getId()).orElseThrow();
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void ajusteDeEstoqueInvalidaOProdutoEmCache() {
+        Produto carregado = produtoRepository.findById(produto.getId()).orElseThrow();
+
+        assertThat(estoqueService.ajustarEstoque(carregado, 5, TipoMovimentacao.ENTRADA)).isTrue();
+        assertThat(produtoRepository.findById(produto.getId()).orElseThrow().getQuantidadeEstoque()).isEqualTo(15);
+
+        assertThat(estoqueService.ajustarEstoque(carregado, -15, TipoMovimentacao.SAIDA)).isTrue();
+        Produto atualizado = produtoRepository.findById(produto.getId()).orElseThrow();
+        assertThat(atualizado.getQuantidadeEstoque()).isZero();
+        assertThat(atualizado.getVersao()).isEqualTo(carregado.getVersao() + 2);
+    }
+}
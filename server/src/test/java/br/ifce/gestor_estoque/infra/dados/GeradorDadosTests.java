@@ -0,0 +1,100 @@
+package br.ifce.gestor_estoque.infra.dados;
+
+import br.ifce.gestor_estoque.infra.cache.CacheProduto;
+import br.ifce.gestor_estoque.support.EmbeddedPostgresSupport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Garante que o gerador grava exatamente as movimentações pedidas, que o estoque de cada produto gerado é o
+ * saldo do seu histórico e que as vendas se concentram nos produtos mais populares.
+ * O banco embarcado é compartilhado pelos testes da JVM, então tudo o que foi gerado é removido no fim.
+ */
+@SpringBootTest
+class GeradorDadosTests extends EmbeddedPostgresSupport {
+
+    @Autowired
+    private GeradorDados geradorDados;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CacheProduto cacheProduto;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private long ultimoProduto;
+    private long ultimoFornecedor;
+
+    @BeforeEach
+    void lembrarUltimosIds() {
+        ultimoProduto = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM produto", Long.class);
+        ultimoFornecedor = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM fornecedor", Long.class);
+    }
+
+    // Sem isso, as milhares de vendas geradas para hoje passariam à frente das vendas criadas por outros testes.
+    // Em uma transação: a invalidação do cache de produtos exige uma, e as exclusões valem juntas
+    @AfterEach
+    void removerDadosGerados() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            cacheProduto.invalidarTodos();
+            List<String> tabelas = jdbcTemplate.queryForList("""
+                    SELECT c.table_name FROM information_schema.columns c
+                    JOIN information_schema.tables t ON t.table_schema = c.table_schema AND t.table_name = c.table_name
+                    WHERE c.table_schema = current_schema() AND c.column_name = 'produto_id' AND t.table_type = 'BASE TABLE'
+                    """, String.class);
+            tabelas.forEach(tabela -> jdbcTemplate.update("DELETE FROM " + tabela + " WHERE produto_id > ?", ultimoProduto));
+            jdbcTemplate.update("DELETE FROM produto WHERE id > ?", ultimoProduto);
+            jdbcTemplate.update("DELETE FROM fornecedor WHERE id > ?", ultimoFornecedor);
+        });
+    }
+
+    @Test
+    void estoqueConfereComOHistoricoGerado() throws Exception {
+        GeradorDados.Resultado resultado = geradorDados.gerar(new GeradorDados.Parametros(300, 5, 20_000, 60, 1.0, 7));
+        Timestamp fimDaGeracao = Timestamp.from(Instant.now());
+
+        assertThat(resultado.produtos()).isEqualTo(300);
+        assertThat(resultado.entradas() + resultado.saidas()).isEqualTo(20_000);
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM produto WHERE id > ? AND quantidade_estoque < 0",
+                Long.class, ultimoProduto)).isZero();
+        assertThat(jdbcTemplate.queryForObject("""
+                SELECT count(*) FROM produto p
+                WHERE p.id > ?
+                  AND p.quantidade_estoque <> COALESCE((SELECT SUM(e.quantidade) FROM entrada_produto e WHERE e.produto_id = p.id), 0)
+                                             - COALESCE((SELECT SUM(s.quantidade) FROM saida_produto s WHERE s.produto_id = p.id), 0)
+                """, Long.class, ultimoProduto)).isZero();
+
+        // Zipf com expoente 1 em 300 produtos: os 3 mais vendidos ficam com cerca de 29% das unidades
+        Double participacaoTopo = jdbcTemplate.queryForObject("""
+                SELECT SUM(total) FILTER (WHERE posicao <= 3) / SUM(total)
+                FROM (SELECT SUM(quantidade) AS total, row_number() OVER (ORDER BY SUM(quantidade) DESC) AS posicao
+                      FROM saida_produto WHERE produto_id > ? GROUP BY produto_id) t
+                """, Double.class, ultimoProduto);
+        assertThat(participacaoTopo).isGreaterThan(0.2);
+
+        // As vendas de hoje ficam espalhadas até o momento da geração, e não acumuladas nele
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM saida_produto WHERE produto_id > ? AND registrado_em > ?",
+                Long.class, ultimoProduto, fimDaGeracao)).isZero();
+        assertThat(jdbcTemplate.queryForObject("""
+                SELECT MAX(vendas) FROM (SELECT count(*) AS vendas FROM saida_produto WHERE produto_id > ? GROUP BY registrado_em) t
+                """, Long.class, ultimoProduto)).isLessThan(10L);
+
+        assertThat(jdbcTemplate.queryForObject("SELECT last_value FROM saida_produto_seq", Long.class))
+                .isGreaterThan(jdbcTemplate.queryForObject("SELECT MAX(id) FROM saida_produto", Long.class));
+    }
+}
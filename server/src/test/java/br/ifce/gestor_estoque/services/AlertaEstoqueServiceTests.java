@@ -0,0 +1,75 @@
+package br.ifce.gestor_estoque.services;
+
+import br.ifce.gestor_estoque.domain.estoque.NivelEstoque;
+import br.ifce.gestor_estoque.domain.estoque.Produto;
+import br.ifce.gestor_estoque.domain.estoque.TipoMovimentacao;
+import br.ifce.gestor_estoque.dto.estoque.AlertaEstoqueResponse;
+import br.ifce.gestor_estoque.dto.estoque.ProdutoRequest;
+import br.ifce.gestor_estoque.events.NivelEstoqueAlteradoEvent;
+import br.ifce.gestor_estoque.repositores.ProdutoRepository;
+import br.ifce.gestor_estoque.support.EmbeddedPostgresSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Garante que o motor de alertas avalia os limites de cada produto e publica um evento apenas quando
+ * o produto cruza o ponto de reposição ou o estoque mínimo, não a cada movimentação.
+ */
+@SpringBootTest
+@RecordApplicationEvents
+class AlertaEstoqueServiceTests extends EmbeddedPostgresSupport {
+
+    @Autowired
+    private AlertaEstoqueService alertaEstoqueService;
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private EstoqueService estoqueService;
+
+    @Autowired
+    private ApplicationEvents eventos;
+
+    @Test
+    void publicaSoNasMudancasDeNivel() {
+        ProdutoRequest request = new ProdutoRequest();
+        request.nome = "Produto Alerta " + System.nanoTime();
+        request.preco = new BigDecimal("10.00");
+        request.quantidadeEstoque = 20;
+        request.unidadeMedida = "UN";
+        request.estoqueMinimo = 5;
+        request.pontoReposicao = 8;
+        Long produtoId = produtoService.createProduto(request).id;
+        Produto produto = produtoRepository.findById(produtoId).orElseThrow();
+
+        estoqueService.ajustarEstoque(produto, -10, TipoMovimentacao.SAIDA); // 10: normal
+        estoqueService.ajustarEstoque(produto, -3, TipoMovimentacao.SAIDA); // 7: reposição
+        estoqueService.ajustarEstoque(produto, -1, TipoMovimentacao.SAIDA); // 6: continua em reposição
+        estoqueService.ajustarEstoque(produto, -2, TipoMovimentacao.SAIDA); // 4: estoque baixo
+
+        List<NivelEstoqueAlteradoEvent> transicoes = eventos.stream(NivelEstoqueAlteradoEvent.class)
+                .filter(evento -> evento.getProdutoId().equals(produtoId))
+                .toList();
+        assertThat(transicoes).extracting(NivelEstoqueAlteradoEvent::getNivelAtual)
+                .containsExactly(NivelEstoque.REPOSICAO, NivelEstoque.ESTOQUE_BAIXO);
+
+        List<AlertaEstoqueResponse> alertas = alertaEstoqueService.listar(null, 500, "estoque_baixo").itens();
+        assertThat(alertas).anySatisfy(alerta -> {
+            assertThat(alerta.produtoId()).isEqualTo(produtoId);
+            assertThat(alerta.quantidadeEstoque()).isEqualTo(4);
+            assertThat(alerta.estoqueMinimo()).isEqualTo(5);
+        });
+    }
+}
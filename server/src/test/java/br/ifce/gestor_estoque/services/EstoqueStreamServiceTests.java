@@ -0,0 +1,210 @@
+package br.ifce.gestor_estoque.services;
+
+import br.ifce.gestor_estoque.domain.estoque.TipoMovimentacao;
+import br.ifce.gestor_estoque.dto.estoque.EstoqueAlteradoResponse;
+import br.ifce.gestor_estoque.events.EstoqueAlteradoEvent;
+import br.ifce.gestor_estoque.support.EmbeddedPostgresSupport;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Garante que cada assinante do stream só recebe os produtos que pediu, que um buffer cheio descarta os eventos
+ * mais antigos sem que o heartbeat ocupe lugar nele, que um cliente desconectado sai do stream, e que uma escrita
+ * travada é desligada no prazo sem atrasar os demais assinantes.
+ * Os emitters são substituídos por um que grava os frames, e cada teste usa uma instância à parte do serviço.
+ */
+@SpringBootTest
+class EstoqueStreamServiceTests extends EmbeddedPostgresSupport {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void cadaAssinanteRecebeSoOsProdutosPedidos() {
+        EmitterGravado soProduto1 = new EmitterGravado();
+        EmitterGravado todos = new EmitterGravado();
+        EstoqueStreamService servico = servico(16, 2, 60_000, soProduto1, todos);
+        servico.assinar(Set.of(1L));
+        servico.assinar(Set.of());
+
+        servico.publicar(evento(1L, 10));
+        servico.publicar(evento(2L, 20));
+        servico.publicar(evento(1L, 11));
+
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> {
+            assertThat(soProduto1.frames).containsExactly("conectado", "estoque 1=10", "estoque 1=11");
+            assertThat(todos.frames).containsExactly("conectado", "estoque 1=10", "estoque 2=20", "estoque 1=11");
+        });
+    }
+
+    @Test
+    void bufferCheioDescartaOsMaisAntigosEHeartbeatNaoOcupaLugar() throws InterruptedException {
+        EmitterGravado emitter = new EmitterGravado();
+        EstoqueStreamService servico = servico(3, 1, 60_000, emitter);
+        servico.assinar(Set.of());
+
+        // O primeiro evento prende a escrita; os seguintes se acumulam no buffer de três
+        emitter.travar();
+        servico.publicar(evento(1L, 1));
+        assertThat(emitter.escrevendo.await(5, TimeUnit.SECONDS)).isTrue();
+        for (int quantidade = 2; quantidade <= 6; quantidade++) {
+            servico.publicar(evento(1L, quantidade));
+        }
+        // Com envio em andamento, o heartbeat é dispensado e não descarta nenhum evento
+        servico.enviarHeartbeats();
+        assertThat(meterRegistry.get("estoque.stream.descartados").counter().count()).isEqualTo(2);
+
+        emitter.liberar();
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> assertThat(emitter.frames)
+                .containsExactly("conectado", "estoque 1=1", "estoque 1=4", "estoque 1=5", "estoque 1=6"));
+
+        // Com o buffer vazio o heartbeat sai, e um evento publicado depois dele chega normalmente
+        // (repetido: a tarefa que escreveu o último evento pode ainda não ter terminado)
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> {
+            servico.enviarHeartbeats();
+            assertThat(emitter.frames).endsWith("heartbeat");
+        });
+        servico.publicar(evento(1L, 7));
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> assertThat(emitter.frames).endsWith("heartbeat", "estoque 1=7"));
+    }
+
+    @Test
+    void clienteDesconectadoSaiDoStream() {
+        EmitterGravado desconectado = new EmitterGravado();
+        EmitterGravado conectado = new EmitterGravado();
+        EstoqueStreamService servico = servico(16, 2, 60_000, desconectado, conectado);
+        servico.assinar(Set.of());
+        servico.assinar(Set.of());
+        assertThat(assinantes()).isEqualTo(2);
+
+        desconectado.desconectar();
+        servico.publicar(evento(1L, 1));
+
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> {
+            assertThat(assinantes()).isEqualTo(1);
+            assertThat(desconectado.completo).isTrue();
+            assertThat(conectado.frames).containsExactly("conectado", "estoque 1=1");
+        });
+        servico.publicar(evento(1L, 2));
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> assertThat(conectado.frames).endsWith("estoque 1=2"));
+        assertThat(desconectado.frames).containsExactly("conectado");
+    }
+
+    @Test
+    void escritaTravadaEDesligadaSemAtrasarOsDemais() throws InterruptedException {
+        EmitterGravado lento = new EmitterGravado();
+        EmitterGravado rapido = new EmitterGravado();
+        // Uma única thread de envio: sem o prazo, o assinante lento a prenderia para todos
+        EstoqueStreamService servico = servico(16, 1, 100, lento, rapido);
+        servico.assinar(Set.of(1L));
+        servico.assinar(Set.of(2L));
+
+        lento.travar();
+        servico.publicar(evento(1L, 1));
+        assertThat(lento.escrevendo.await(5, TimeUnit.SECONDS)).isTrue();
+        servico.publicar(evento(2L, 1));
+        assertThat(rapido.frames).containsExactly("conectado");
+
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> {
+            servico.encerrarEscritasTravadas();
+            assertThat(rapido.frames).containsExactly("conectado", "estoque 2=1");
+        });
+        assertThat(assinantes()).isEqualTo(1);
+        assertThat(meterRegistry.get("estoque.stream.lentos-encerrados").counter().count()).isEqualTo(1);
+
+        // O assinante desligado não recebe mais nada e é encerrado quando a escrita presa termina
+        servico.publicar(evento(1L, 2));
+        lento.liberar();
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> assertThat(lento.completo).isTrue());
+        assertThat(lento.frames).containsExactly("conectado", "estoque 1=1");
+    }
+
+    private EstoqueStreamService servico(int capacidadeBuffer, int threadsEnvio, long prazoEscritaMs, EmitterGravado... emitters) {
+        List<EmitterGravado> proximos = new CopyOnWriteArrayList<>(emitters);
+        return new EstoqueStreamService(meterRegistry, capacidadeBuffer, 60_000, 100, threadsEnvio, prazoEscritaMs, 4) {
+            @Override
+            SseEmitter criarEmitter() {
+                return proximos.remove(0);
+            }
+        };
+    }
+
+    private EstoqueAlteradoEvent evento(Long produtoId, int quantidadeAtual) {
+        return new EstoqueAlteradoEvent(produtoId, quantidadeAtual - 1, quantidadeAtual, new BigDecimal("10.00"), TipoMovimentacao.ENTRADA);
+    }
+
+    private double assinantes() {
+        return meterRegistry.get("estoque.stream.assinantes").gauge().value();
+    }
+
+    // Grava um resumo de cada frame; pode prender as escritas de eventos ou falhar como um cliente desconectado
+    private static class EmitterGravado extends SseEmitter {
+        private final List<String> frames = new CopyOnWriteArrayList<>();
+        private final CountDownLatch escrevendo = new CountDownLatch(1);
+        private volatile CountDownLatch trava;
+        private volatile boolean desconectado;
+        private volatile boolean completo;
+
+        void travar() {
+            trava = new CountDownLatch(1);
+        }
+
+        void liberar() {
+            trava.countDown();
+        }
+
+        void desconectar() {
+            desconectado = true;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            String frame = resumir(builder);
+            if (desconectado) {
+                throw new IOException("Conexão encerrada pelo cliente");
+            }
+            CountDownLatch atual = trava;
+            if (atual != null && frame.startsWith("estoque")) {
+                escrevendo.countDown();
+                try {
+                    atual.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+            }
+            frames.add(frame);
+        }
+
+        @Override
+        public void complete() {
+            completo = true;
+        }
+
+        private String resumir(SseEventBuilder builder) {
+            Set<DataWithMediaType> partes = builder.build();
+            for (DataWithMediaType parte : partes) {
+                if (parte.getData() instanceof EstoqueAlteradoResponse evento) {
+                    return "estoque " + evento.produtoId() + "=" + evento.quantidadeAtual();
+                }
+            }
+            String texto = partes.stream().map(parte -> parte.getData().toString()).collect(Collectors.joining());
+            return texto.contains("heartbeat") ? "heartbeat" : texto.contains("conectado") ? "conectado" : texto;
+        }
+    }
+}
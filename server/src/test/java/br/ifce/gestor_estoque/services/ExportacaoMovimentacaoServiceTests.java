@@ -0,0 +1,113 @@
+package br.ifce.gestor_estoque.services;
+
+import br.ifce.gestor_estoque.domain.estoque.Produto;
+import br.ifce.gestor_estoque.domain.estoque.SaidaProduto;
+import br.ifce.gestor_estoque.dto.estoque.FormatoExportacao;
+import br.ifce.gestor_estoque.exceptions.BusinessException;
+import br.ifce.gestor_estoque.repositores.ProdutoRepository;
+import br.ifce.gestor_estoque.repositores.SaidaProdutoRepository;
+import br.ifce.gestor_estoque.support.EmbeddedPostgresSupport;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Garante que a exportação por COPY aplica os filtros de período e produto, e que o NDJSON compactado
+ * traz um objeto JSON válido por linha, mesmo com aspas, vírgulas e barras nos textos.
+ */
+@SpringBootTest
+class ExportacaoMovimentacaoServiceTests extends EmbeddedPostgresSupport {
+
+    @Autowired
+    private ExportacaoMovimentacaoService exportacaoMovimentacaoService;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private SaidaProdutoRepository saidaProdutoRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Produto produto;
+
+    @BeforeEach
+    void criarSaidas() {
+        produto = new Produto();
+        produto.setNome("Produto Exportação " + System.nanoTime());
+        produto.setPreco(new BigDecimal("10.00"));
+        produto.setQuantidadeEstoque(100);
+        produto.setUnidadeMedida("UN");
+        produto = produtoRepository.save(produto);
+
+        criarSaida(LocalDate.of(2024, 1, 10), "Venda \"balcão\", loja 1 \\ centro");
+        criarSaida(LocalDate.of(2024, 2, 10), "Perda");
+        criarSaida(LocalDate.of(2024, 3, 10), "Ajuste");
+    }
+
+    @Test
+    void ndjsonCompactadoFiltraPorPeriodoEProduto() throws Exception {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        long linhas = exportacaoMovimentacaoService.exportarSaidas(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 2, 28),
+                produto.getId(), FormatoExportacao.NDJSON, () -> saida);
+
+        String conteudo;
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(saida.toByteArray()))) {
+            conteudo = new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        List<String> registros = conteudo.lines().toList();
+        assertThat(linhas).isEqualTo(2);
+        assertThat(registros).hasSize(2);
+        JsonNode primeiro = objectMapper.readTree(registros.get(0));
+        assertThat(primeiro.get("produtoId").asLong()).isEqualTo(produto.getId());
+        assertThat(primeiro.get("dataSaida").asText()).isEqualTo("2024-01-10");
+        assertThat(primeiro.get("motivo").asText()).isEqualTo("Venda \"balcão\", loja 1 \\ centro");
+        assertThat(objectMapper.readTree(registros.get(1)).get("motivo").asText()).isEqualTo("Perda");
+    }
+
+    @Test
+    void csvTemCabecalhoComOsCamposDaListagem() throws Exception {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        exportacaoMovimentacaoService.exportarSaidas(LocalDate.of(2024, 3, 1), null, produto.getId(), FormatoExportacao.CSV, () -> saida);
+
+        List<String> linhas = saida.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(linhas).hasSize(2);
+        assertThat(linhas.get(0)).isEqualTo("id,produtoId,produtoNome,quantidade,dataSaida,motivo,cliente,observacao");
+        assertThat(linhas.get(1)).contains(",2024-03-10,Ajuste,");
+    }
+
+    @Test
+    void periodoInvertidoERejeitadoAntesDeAbrirASaida() {
+        assertThatThrownBy(() -> exportacaoMovimentacaoService.exportarEntradas(LocalDate.of(2024, 2, 1), LocalDate.of(2024, 1, 1),
+                null, FormatoExportacao.CSV, () -> {
+                    throw new AssertionError("A saída não deveria ser aberta");
+                }))
+                .isInstanceOf(BusinessException.class);
+    }
+
+    private void criarSaida(LocalDate data, String motivo) {
+        SaidaProduto saida = new SaidaProduto();
+        saida.setProduto(produto);
+        saida.setQuantidade(1);
+        saida.setDataSaida(data);
+        saida.setMotivo(motivo);
+        saidaProdutoRepository.save(saida);
+    }
+}
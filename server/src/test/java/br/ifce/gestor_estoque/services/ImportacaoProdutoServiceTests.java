@@ -0,0 +1,89 @@
+package br.ifce.gestor_estoque.services;
+
+import br.ifce.gestor_estoque.domain.estoque.Produto;
+import br.ifce.gestor_estoque.dto.estoque.ImportacaoProdutosResponse;
+import br.ifce.gestor_estoque.exceptions.BusinessException;
+import br.ifce.gestor_estoque.repositores.ProdutoRepository;
+import br.ifce.gestor_estoque.support.EmbeddedPostgresSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Garante que a importação por CSV insere os produtos novos, atualiza pelo nome os existentes sem mexer no estoque
+ * e devolve as linhas inválidas, com o motivo, no arquivo de rejeitados.
+ */
+@SpringBootTest
+class ImportacaoProdutoServiceTests extends EmbeddedPostgresSupport {
+
+    @Autowired
+    private ImportacaoProdutoService importacaoProdutoService;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Test
+    void insereAtualizaERejeitaPorLinha() throws Exception {
+        String sufixo = Long.toString(System.nanoTime());
+        Produto existente = new Produto();
+        existente.setNome("Existente " + sufixo);
+        existente.setPreco(new BigDecimal("1.00"));
+        existente.setQuantidadeEstoque(7);
+        existente.setUnidadeMedida("UN");
+        existente = produtoRepository.save(existente);
+
+        String csv = """
+                unidadeMedida,nome,preco,quantidadeEstoque,descricao
+                CX,Novo %1$s,12.50,3,"Caixa, com vírgula"
+                KG,Existente %1$s,2.00,99,
+                UN,,5.00,1,sem nome
+                UN,Preço inválido %1$s,abc,1,
+                UN,Negativo %1$s,1.00,-1,
+                """.formatted(sufixo);
+
+        ImportacaoProdutosResponse resposta = importacaoProdutoService.importar(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(resposta.registros()).isEqualTo(5);
+        assertThat(resposta.aceitos()).isEqualTo(2);
+        assertThat(resposta.rejeitados()).isEqualTo(3);
+        assertThat(resposta.inseridos()).isEqualTo(1);
+        assertThat(resposta.atualizados()).isEqualTo(1);
+
+        Produto atualizado = produtoRepository.findById(existente.getId()).orElseThrow();
+        assertThat(atualizado.getPreco()).isEqualByComparingTo("2.00");
+        assertThat(atualizado.getUnidadeMedida()).isEqualTo("KG");
+        assertThat(atualizado.getQuantidadeEstoque()).isEqualTo(7);
+        assertThat(produtoRepository.findAll()).anySatisfy(produto -> {
+            assertThat(produto.getNome()).isEqualTo("Novo " + sufixo);
+            assertThat(produto.getDescricao()).isEqualTo("Caixa, com vírgula");
+            assertThat(produto.getQuantidadeEstoque()).isEqualTo(3);
+        });
+
+        String id = resposta.arquivoRejeitados().substring(resposta.arquivoRejeitados().lastIndexOf('/') + 1);
+        Path rejeitados = importacaoProdutoService.getArquivoRejeitados(UUID.fromString(id)).orElseThrow();
+        assertThat(Files.readAllLines(rejeitados))
+                .hasSize(4)
+                .anySatisfy(linha -> assertThat(linha).startsWith("4,O nome do produto não pode ser nulo ou vazio."))
+                .anySatisfy(linha -> assertThat(linha).startsWith("5,O preço não é um número válido"))
+                .anySatisfy(linha -> assertThat(linha).startsWith("6,A quantidade em estoque deve ser zero ou positiva."));
+    }
+
+    @Test
+    void cabecalhoSemColunaObrigatoriaNaoImportaNada() {
+        String csv = "nome,preco\nSem unidade,1.00\n";
+
+        assertThatThrownBy(() -> importacaoProdutoService.importar(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8))))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("quantidadeEstoque, unidadeMedida");
+    }
+}
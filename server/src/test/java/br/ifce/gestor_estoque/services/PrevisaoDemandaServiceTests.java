@@ -0,0 +1,97 @@
+package br.ifce.gestor_estoque.services;
+
+import br.ifce.gestor_estoque.domain.estoque.EntradaProduto;
+import br.ifce.gestor_estoque.domain.estoque.Fornecedor;
+import br.ifce.gestor_estoque.domain.estoque.Produto;
+import br.ifce.gestor_estoque.dto.estoque.PrevisaoDemandaResponse;
+import br.ifce.gestor_estoque.dto.estoque.SaidaProdutoRequest;
+import br.ifce.gestor_estoque.repositores.EntradaProdutoRepository;
+import br.ifce.gestor_estoque.repositores.FornecedorRepository;
+import br.ifce.gestor_estoque.repositores.ProdutoRepository;
+import br.ifce.gestor_estoque.support.EmbeddedPostgresSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Garante que a rotina de previsão estima a demanda a partir das saídas diárias e o prazo a partir do intervalo
+ * entre entregas do fornecedor, sugere compra só para quem chegou no ponto de reposição e que uma nova execução
+ * no mesmo dia continua do estado salvo sem alterar o resultado.
+ */
+@SpringBootTest
+class PrevisaoDemandaServiceTests extends EmbeddedPostgresSupport {
+
+    @Autowired
+    private PrevisaoDemandaService previsaoDemandaService;
+
+    @Autowired
+    private SaidaProdutoService saidaProdutoService;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private FornecedorRepository fornecedorRepository;
+
+    @Autowired
+    private EntradaProdutoRepository entradaProdutoRepository;
+
+    @Test
+    void calculaPontoDeReposicaoEQuantidadeSugerida() {
+        LocalDate ontem = LocalDate.now().minusDays(1);
+        Produto produto = new Produto();
+        produto.setNome("Produto Previsão " + System.nanoTime());
+        produto.setPreco(new BigDecimal("10.00"));
+        produto.setQuantidadeEstoque(300);
+        produto.setUnidadeMedida("UN");
+        produto = produtoRepository.save(produto);
+
+        Fornecedor fornecedor = new Fornecedor();
+        fornecedor.setNome("Fornecedor Previsão " + System.nanoTime());
+        fornecedor.setContatoEmail("previsao@example.com");
+        fornecedor = fornecedorRepository.save(fornecedor);
+
+        // Entregas a cada 5 dias, gravadas sem passar pelo estoque
+        for (int dias = 30; dias >= 15; dias -= 5) {
+            EntradaProduto entrada = new EntradaProduto();
+            entrada.setProduto(produto);
+            entrada.setFornecedor(fornecedor);
+            entrada.setQuantidade(50);
+            entrada.setDataEntrada(ontem.minusDays(dias));
+            entradaProdutoRepository.save(entrada);
+        }
+        // 10 unidades por dia durante 4 semanas: o estoque termina em 20
+        for (int dias = 27; dias >= 0; dias--) {
+            SaidaProdutoRequest request = new SaidaProdutoRequest();
+            request.produtoId = produto.getId();
+            request.quantidade = 10;
+            request.dataSaida = ontem.minusDays(dias);
+            request.motivo = "Venda";
+            saidaProdutoService.createSaida(request);
+        }
+
+        assertThat(previsaoDemandaService.executar(false)).isPositive();
+
+        PrevisaoDemandaResponse previsao = previsaoDemandaService.getPrevisao(produto.getId()).orElseThrow();
+        assertThat(previsao.demandaDiaria()).isCloseTo(10.0, within(0.01));
+        assertThat(previsao.prazoEntregaDias()).isCloseTo(5.0, within(0.01));
+        assertThat(previsao.fornecedorId()).isEqualTo(fornecedor.getId());
+        assertThat(previsao.quantidadeEstoque()).isEqualTo(20);
+        assertThat(previsao.pontoReposicao()).isEqualTo(50);
+        assertThat(previsao.quantidadeSugerida()).isEqualTo(170); // 50 + 14 dias de cobertura - 20 em estoque
+
+        previsaoDemandaService.executar(false);
+
+        PrevisaoDemandaResponse repetida = previsaoDemandaService.getPrevisao(produto.getId()).orElseThrow();
+        assertThat(repetida.demandaDiaria()).isEqualTo(previsao.demandaDiaria());
+        assertThat(repetida.pontoReposicao()).isEqualTo(previsao.pontoReposicao());
+        assertThat(previsaoDemandaService.listar(null, 500, fornecedor.getId(), true).itens())
+                .extracting(PrevisaoDemandaResponse::produtoId).containsExactly(produto.getId());
+    }
+}
@@ -0,0 +1,106 @@
+package br.ifce.gestor_estoque.services;
+
+import br.ifce.gestor_estoque.domain.estoque.Produto;
+import br.ifce.gestor_estoque.repositores.ProdutoRepository;
+import br.ifce.gestor_estoque.support.EmbeddedPostgresSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Garante as promessas da projeção assíncrona: uma variação confirmada que ficou sem entrada na fila
+ * (queda do processo) é recuperada e aplicada exatamente uma vez, mesmo reenfileirada várias vezes,
+ * e as variações do mesmo produto que chegam na mesma janela viram um único UPDATE.
+ */
+@SpringBootTest
+class ProjecaoEstoqueServiceTests extends EmbeddedPostgresSupport {
+
+    @Autowired
+    private ProjecaoEstoqueService projecaoEstoqueService;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void recuperaPendentesEAplicaCadaUmUmaVez() {
+        Long produtoId = criarProduto(10);
+        // Linhas confirmadas há um minuto que nunca chegaram à fila, como depois de uma queda do processo
+        Long primeira = inserirPendente(produtoId, 3, "1 minute");
+        Long segunda = inserirPendente(produtoId, 4, "1 minute");
+
+        // Duas recuperações seguidas enfileiram cada linha duas vezes
+        projecaoEstoqueService.recuperarPendentes();
+        projecaoEstoqueService.recuperarPendentes();
+
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> assertThat(pendentes(produtoId)).isZero());
+        assertThat(estoque(produtoId)).isEqualTo(17);
+
+        // Uma nova entrega de linhas já aplicadas não encontra o que reivindicar
+        projecaoEstoqueService.enfileirar(primeira);
+        projecaoEstoqueService.enfileirar(segunda);
+        projecaoEstoqueService.recuperarPendentes();
+        await().during(Duration.ofMillis(500)).atMost(Duration.ofSeconds(5))
+                .untilAsserted(() -> assertThat(estoque(produtoId)).isEqualTo(17));
+    }
+
+    @Test
+    void juntaAsVariacoesDoMesmoProdutoEmUmUpdate() {
+        Long produtoA = criarProduto(0);
+        Long produtoB = criarProduto(0);
+        // Recentes, para que a recuperação periódica não as enfileire separadamente no meio do teste
+        List<Long> ids = List.of(inserirPendente(produtoA, 1, "0 seconds"), inserirPendente(produtoA, 2, "0 seconds"),
+                inserirPendente(produtoA, 5, "0 seconds"), inserirPendente(produtoB, 7, "0 seconds"));
+
+        // Enfileiradas juntas, caem na mesma janela do worker
+        ids.forEach(projecaoEstoqueService::enfileirar);
+
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> {
+            assertThat(pendentes(produtoA)).isZero();
+            assertThat(pendentes(produtoB)).isZero();
+        });
+        assertThat(estoque(produtoA)).isEqualTo(8);
+        assertThat(estoque(produtoB)).isEqualTo(7);
+        // Cada UPDATE incrementa a versão uma vez: três variações do produto A, um único UPDATE
+        assertThat(versao(produtoA)).isEqualTo(1L);
+        assertThat(versao(produtoB)).isEqualTo(1L);
+    }
+
+    private Long criarProduto(int estoque) {
+        Produto produto = new Produto();
+        produto.setNome("Produto Projeção " + System.nanoTime());
+        produto.setPreco(new BigDecimal("10.00"));
+        produto.setQuantidadeEstoque(estoque);
+        produto.setUnidadeMedida("UN");
+        return produtoRepository.save(produto).getId();
+    }
+
+    private Long inserirPendente(Long produtoId, int delta, String idade) {
+        return jdbcTemplate.queryForObject("""
+                INSERT INTO estoque_delta_pendente (produto_id, delta, tipo, registrado_em)
+                VALUES (?, ?, 'ENTRADA', now() - CAST(? AS interval)) RETURNING id
+                """, Long.class, produtoId, delta, idade);
+    }
+
+    private long pendentes(Long produtoId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM estoque_delta_pendente WHERE produto_id = ?", Long.class, produtoId);
+    }
+
+    private int estoque(Long produtoId) {
+        return jdbcTemplate.queryForObject("SELECT quantidade_estoque FROM produto WHERE id = ?", Integer.class, produtoId);
+    }
+
+    private long versao(Long produtoId) {
+        return jdbcTemplate.queryForObject("SELECT versao FROM produto WHERE id = ?", Long.class, produtoId);
+    }
+}
@@ -0,0 +1,93 @@
+package br.ifce.gestor_estoque.services;
+
+import br.ifce.gestor_estoque.dto.TopSellersResponse;
+import br.ifce.gestor_estoque.dto.TopSellersResponse.TopSeller;
+import br.ifce.gestor_estoque.dto.estoque.ProdutoRequest;
+import br.ifce.gestor_estoque.dto.estoque.SaidaProdutoRequest;
+import br.ifce.gestor_estoque.exceptions.BusinessException;
+import br.ifce.gestor_estoque.support.EmbeddedPostgresSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Garante que o ranking de mais vendidos acompanha as saídas confirmadas (inclusive exclusões) e que a
+ * reconstrução a partir do banco chega ao mesmo resultado que o estado mantido pelos eventos.
+ * As quantidades ficam acima de qualquer outra venda da semana, então o resultado não depende dos demais testes.
+ */
+@SpringBootTest
+class RankingVendasServiceTests extends EmbeddedPostgresSupport {
+
+    @Autowired
+    private RankingVendasService rankingVendasService;
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Autowired
+    private SaidaProdutoService saidaProdutoService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void rankingSegueAsSaidasEAReconstrucao() {
+        // Vendas acima do maior total da semana, para que o topo não dependa do que outros testes gravaram
+        long base = jdbcTemplate.queryForObject("""
+                SELECT COALESCE(MAX(total), 0) FROM (
+                    SELECT SUM(quantidade) AS total FROM saida_produto
+                    WHERE registrado_em >= now() - interval '7 days' GROUP BY produto_id) t
+                """, Long.class);
+        Long campeao = criarProduto("Mais Vendido", base + 100);
+        Long segundo = criarProduto("Segundo", base + 100);
+
+        vender(campeao, base + 30);
+        Long estornada = vender(segundo, 25);
+        vender(segundo, base + 10);
+        saidaProdutoService.deleteSaida(estornada);
+
+        List<TopSeller> ultimaHora = topo(rankingVendasService.getMaisVendidos("1h", 50));
+        assertThat(ultimaHora).extracting(TopSeller::productId).containsExactly(campeao, segundo);
+        assertThat(ultimaHora).extracting(TopSeller::quantity).containsExactly(base + 30, base + 10);
+        assertThat(ultimaHora.get(0).name()).startsWith("Mais Vendido");
+
+        rankingVendasService.reconstruir();
+
+        assertThat(topo(rankingVendasService.getMaisVendidos("7d", 50)))
+                .extracting(TopSeller::productId, TopSeller::quantity)
+                .containsExactly(tuple(campeao, base + 30), tuple(segundo, base + 10));
+        assertThatThrownBy(() -> rankingVendasService.getMaisVendidos("30d", null))
+                .isInstanceOf(BusinessException.class);
+    }
+
+    private List<TopSeller> topo(TopSellersResponse resposta) {
+        return resposta.topSellers().subList(0, Math.min(2, resposta.topSellers().size()));
+    }
+
+    private Long criarProduto(String nome, long estoque) {
+        ProdutoRequest request = new ProdutoRequest();
+        request.nome = nome + " " + System.nanoTime();
+        request.preco = new BigDecimal("5.00");
+        request.quantidadeEstoque = (int) estoque;
+        request.unidadeMedida = "UN";
+        return produtoService.createProduto(request).id;
+    }
+
+    private Long vender(Long produtoId, long quantidade) {
+        SaidaProdutoRequest request = new SaidaProdutoRequest();
+        request.produtoId = produtoId;
+        request.quantidade = (int) quantidade;
+        request.dataSaida = LocalDate.now();
+        request.motivo = "Venda";
+        return saidaProdutoService.createSaida(request).id;
+    }
+}
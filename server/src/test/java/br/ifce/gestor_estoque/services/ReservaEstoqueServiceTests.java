@@ -0,0 +1,194 @@
+package br.ifce.gestor_estoque.services;
+
+import br.ifce.gestor_estoque.domain.estoque.Produto;
+import br.ifce.gestor_estoque.dto.estoque.ConfirmacaoReservaRequest;
+import br.ifce.gestor_estoque.dto.estoque.LoteMovimentacaoResponse;
+import br.ifce.gestor_estoque.dto.estoque.ReservaResponse;
+import br.ifce.gestor_estoque.dto.estoque.SaidaProdutoRequest;
+import br.ifce.gestor_estoque.exceptions.EstoqueInsuficienteException;
+import br.ifce.gestor_estoque.exceptions.NotFoundException;
+import br.ifce.gestor_estoque.infra.metricas.MetricasEstoque;
+import br.ifce.gestor_estoque.repositores.ProdutoRepository;
+import br.ifce.gestor_estoque.support.EmbeddedPostgresSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Garante que o estoque reservado fica de fora das saídas sem reserva (individuais e em lote), que reservar,
+ * confirmar e liberar mantêm o disponível coerente mesmo sob concorrência, que reservas vencidas voltam ao
+ * disponível, que a retenção de uma saída sem reserva só é devolvida depois de o estoque confirmado cair, e que
+ * a reconciliação corrige o estoque em memória a partir do banco.
+ */
+@SpringBootTest
+class ReservaEstoqueServiceTests extends EmbeddedPostgresSupport {
+
+    @Autowired
+    private ReservaEstoqueService reservaEstoqueService;
+
+    @Autowired
+    private SaidaProdutoService saidaProdutoService;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private MetricasEstoque metricasEstoque;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void saidasSemReservaNaoConsomemOEstoqueReservado() {
+        Long produtoId = criarProduto(10);
+        ReservaResponse reserva = reservaEstoqueService.reservar(produtoId, 8);
+
+        assertThatThrownBy(() -> saidaProdutoService.createSaida(saida(produtoId, 3)))
+                .isInstanceOf(EstoqueInsuficienteException.class);
+        saidaProdutoService.createSaida(saida(produtoId, 2));
+        LoteMovimentacaoResponse lote = saidaProdutoService.createSaidasEmLote(List.of(saida(produtoId, 1)));
+        assertThat(lote.sucessos()).isZero();
+        assertThat(reservaEstoqueService.disponivel(produtoId)).isZero();
+
+        ConfirmacaoReservaRequest confirmacao = new ConfirmacaoReservaRequest();
+        confirmacao.motivo = "Venda reservada";
+        assertThat(reservaEstoqueService.confirmar(reserva.id(), confirmacao).quantidade).isEqualTo(8);
+        assertThat(estoque(produtoId)).isZero();
+        assertThat(reservaEstoqueService.disponivel(produtoId)).isZero();
+        assertThatThrownBy(() -> reservaEstoqueService.confirmar(reserva.id(), confirmacao))
+                .isInstanceOf(NotFoundException.class);
+    }
+
+    @Test
+    void retencaoSoSaiDepoisQueOEstoqueConfirmadoCai() {
+        Long produtoId = criarProduto(10);
+        assertThat(reservaEstoqueService.disponivel(produtoId)).isEqualTo(10);
+        AtomicInteger disponivelNoFim = new AtomicInteger(-1);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            // Registrada antes da retenção, com a mesma ordem: roda entre o evento de estoque e a devolução
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    disponivelNoFim.set(reservaEstoqueService.disponivel(produtoId));
+                }
+            });
+            saidaProdutoService.createSaida(saida(produtoId, 3));
+        });
+
+        // Estoque já descontado e retenção ainda ativa: nunca mais disponível que o estoque real
+        assertThat(disponivelNoFim.get()).isEqualTo(4);
+        assertThat(reservaEstoqueService.disponivel(produtoId)).isEqualTo(7);
+    }
+
+    @Test
+    void reservasConcorrentesNaoPassamDoEstoque() throws Exception {
+        Long produtoId = criarProduto(100);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<Boolean>> tentativas = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                tentativas.add(() -> {
+                    try {
+                        reservaEstoqueService.reservar(produtoId, 1);
+                        return true;
+                    } catch (EstoqueInsuficienteException e) {
+                        return false;
+                    }
+                });
+            }
+            int reservadas = 0;
+            for (Future<Boolean> tentativa : executor.invokeAll(tentativas)) {
+                reservadas += tentativa.get() ? 1 : 0;
+            }
+            assertThat(reservadas).isEqualTo(100);
+            assertThat(reservaEstoqueService.disponivel(produtoId)).isZero();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void liberarEVencerDevolvemAoDisponivel() {
+        Long produtoId = criarProduto(5);
+        ReservaResponse reserva = reservaEstoqueService.reservar(produtoId, 5);
+        assertThatThrownBy(() -> reservaEstoqueService.reservar(produtoId, 1)).isInstanceOf(EstoqueInsuficienteException.class);
+
+        reservaEstoqueService.liberar(reserva.id());
+        assertThat(reservaEstoqueService.disponivel(produtoId)).isEqualTo(5);
+        assertThatThrownBy(() -> reservaEstoqueService.liberar(reserva.id())).isInstanceOf(NotFoundException.class);
+
+        // Instância à parte com prazo zero: toda reserva vence logo depois de criada
+        ReservaEstoqueService semPrazo = new ReservaEstoqueService(produtoRepository, saidaProdutoService, metricasEstoque, 0, 4);
+        semPrazo.reservar(produtoId, 5);
+        await().untilAsserted(() -> {
+            semPrazo.expirarReservas();
+            assertThat(semPrazo.disponivel(produtoId)).isEqualTo(5);
+        });
+        ReservaResponse vencida = semPrazo.reservar(produtoId, 5);
+        await().until(() -> Instant.now().isAfter(vencida.expiraEm()));
+        assertThatThrownBy(() -> semPrazo.confirmar(vencida.id(), new ConfirmacaoReservaRequest()))
+                .isInstanceOf(NotFoundException.class);
+        assertThat(semPrazo.disponivel(produtoId)).isEqualTo(5);
+        assertThat(estoque(produtoId)).isEqualTo(5);
+    }
+
+    @Test
+    void reconciliacaoCorrigeOEstoqueEmMemoria() {
+        Long produtoId = criarProduto(10);
+        assertThat(reservaEstoqueService.disponivel(produtoId)).isEqualTo(10);
+
+        // Alteração feita por fora da aplicação, sem evento de estoque
+        jdbcTemplate.update("UPDATE produto SET quantidade_estoque = 4 WHERE id = ?", produtoId);
+        assertThat(reservaEstoqueService.disponivel(produtoId)).isEqualTo(10);
+
+        reservaEstoqueService.reconciliar();
+        assertThat(reservaEstoqueService.disponivel(produtoId)).isEqualTo(4);
+        assertThatThrownBy(() -> reservaEstoqueService.reservar(produtoId, 5)).isInstanceOf(EstoqueInsuficienteException.class);
+    }
+
+    private Long criarProduto(int estoque) {
+        Produto produto = new Produto();
+        produto.setNome("Produto Reserva " + System.nanoTime());
+        produto.setPreco(new BigDecimal("10.00"));
+        produto.setQuantidadeEstoque(estoque);
+        produto.setUnidadeMedida("UN");
+        return produtoRepository.save(produto).getId();
+    }
+
+    private SaidaProdutoRequest saida(Long produtoId, int quantidade) {
+        SaidaProdutoRequest request = new SaidaProdutoRequest();
+        request.produtoId = produtoId;
+        request.quantidade = quantidade;
+        request.dataSaida = LocalDate.now();
+        request.motivo = "Venda";
+        return request;
+    }
+
+    private int estoque(Long produtoId) {
+        return jdbcTemplate.queryForObject("SELECT quantidade_estoque FROM produto WHERE id = ?", Integer.class, produtoId);
+    }
+}
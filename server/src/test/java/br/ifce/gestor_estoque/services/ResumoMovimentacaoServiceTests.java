@@ -0,0 +1,161 @@
+package br.ifce.gestor_estoque.services;
+
+import br.ifce.gestor_estoque.domain.estoque.Fornecedor;
+import br.ifce.gestor_estoque.domain.estoque.Produto;
+import br.ifce.gestor_estoque.dto.estoque.AgrupamentoRelatorio;
+import br.ifce.gestor_estoque.dto.estoque.EntradaProdutoRequest;
+import br.ifce.gestor_estoque.dto.estoque.SaidaProdutoRequest;
+import br.ifce.gestor_estoque.dto.estoque.TotaisMovimentacaoProdutoResponse;
+import br.ifce.gestor_estoque.dto.estoque.TotaisMovimentacaoResponse;
+import br.ifce.gestor_estoque.repositores.FornecedorRepository;
+import br.ifce.gestor_estoque.repositores.ProdutoRepository;
+import br.ifce.gestor_estoque.support.EmbeddedPostgresSupport;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Garante que os totais diários e mensais continuam iguais à soma direta das movimentações depois de inclusões,
+ * edições (trocando produto, data e quantidade) e exclusões, que linhas zeradas são removidas, e que os
+ * relatórios por mês juntam meses inteiros e pontas diárias corretamente em intervalos que cruzam meses.
+ */
+@SpringBootTest
+class ResumoMovimentacaoServiceTests extends EmbeddedPostgresSupport {
+
+    // Totais calculados direto das movimentações, no mesmo formato dos relatórios
+    private static final String TOTAIS_DIRETOS = """
+            SELECT %s AS periodo, SUM(m.entrada) AS entrada, SUM(m.saida) AS saida,
+                   CAST(SUM(m.valor) AS numeric(19, 2)) AS valor, COUNT(*) AS movimentacoes
+            FROM (
+                SELECT e.data_movimentacao AS data, e.quantidade AS entrada, 0 AS saida,
+                       COALESCE(e.preco_custo * e.quantidade, 0) AS valor
+                FROM entrada_produto e WHERE e.produto_id = ? AND e.data_movimentacao BETWEEN ? AND ?
+                UNION ALL
+                SELECT s.data_movimentacao, 0, s.quantidade, 0
+                FROM saida_produto s WHERE s.produto_id = ? AND s.data_movimentacao BETWEEN ? AND ?
+            ) m
+            GROUP BY 1
+            ORDER BY 1
+            """;
+
+    @Autowired
+    private ResumoMovimentacaoService resumoMovimentacaoService;
+
+    @Autowired
+    private EntradaProdutoService entradaProdutoService;
+
+    @Autowired
+    private SaidaProdutoService saidaProdutoService;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private FornecedorRepository fornecedorRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void totaisAcompanhamInclusoesEdicoesEExclusoes() {
+        Long produtoA = criarProduto("A");
+        Long produtoB = criarProduto("B");
+        Fornecedor fornecedor = new Fornecedor();
+        fornecedor.setNome("Fornecedor Resumo " + System.nanoTime());
+        fornecedor.setContatoEmail("resumo@example.com");
+        Long fornecedorId = fornecedorRepository.save(fornecedor).getId();
+
+        entradaProdutoService.createEntrada(entrada(produtoA, fornecedorId, 40, LocalDate.of(2024, 1, 30), "2.50"));
+        Long entradaEditada = entradaProdutoService.createEntrada(entrada(produtoA, fornecedorId, 30, LocalDate.of(2024, 2, 15), "1.00")).id;
+        entradaProdutoService.createEntrada(entrada(produtoB, fornecedorId, 20, LocalDate.of(2024, 3, 1), "3.00"));
+        Long saidaEditada = saidaProdutoService.createSaida(saida(produtoA, 5, LocalDate.of(2024, 1, 31))).id;
+        Long saidaExcluida = saidaProdutoService.createSaida(saida(produtoA, 7, LocalDate.of(2024, 2, 29))).id;
+        saidaProdutoService.createSaida(saida(produtoB, 4, LocalDate.of(2024, 3, 2)));
+
+        // Cada edição troca produto, data (e mês) e quantidade; a exclusão esvazia o fevereiro do produto A
+        entradaProdutoService.updateEntrada(entradaEditada, entrada(produtoB, fornecedorId, 25, LocalDate.of(2024, 3, 31), "2.00"));
+        saidaProdutoService.updateSaida(saidaEditada, saida(produtoB, 3, LocalDate.of(2024, 2, 1)));
+        saidaProdutoService.deleteSaida(saidaExcluida);
+
+        for (Long produtoId : List.of(produtoA, produtoB)) {
+            assertThat(resumoMovimentacaoService.totalizarPorPeriodo(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 4, 30),
+                    AgrupamentoRelatorio.DIA, produtoId))
+                    .containsExactlyElementsOf(totaisDiretos("data", produtoId, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 4, 30)));
+            // Pontas parciais nos dois lados, só pontas dentro de um mês, e meses inteiros sem pontas
+            for (LocalDate[] intervalo : List.of(
+                    new LocalDate[]{LocalDate.of(2024, 1, 31), LocalDate.of(2024, 3, 1)},
+                    new LocalDate[]{LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 29)},
+                    new LocalDate[]{LocalDate.of(2024, 3, 2), LocalDate.of(2024, 3, 31)},
+                    new LocalDate[]{LocalDate.of(2024, 1, 1), LocalDate.of(2024, 3, 31)})) {
+                assertThat(resumoMovimentacaoService.totalizarPorPeriodo(intervalo[0], intervalo[1], AgrupamentoRelatorio.MES, produtoId))
+                        .as("%s a %s", intervalo[0], intervalo[1])
+                        .containsExactlyElementsOf(totaisDiretos("CAST(date_trunc('month', data) AS date)", produtoId, intervalo[0], intervalo[1]));
+            }
+        }
+
+        List<TotaisMovimentacaoProdutoResponse> porProduto = resumoMovimentacaoService.totalizarPorProduto(
+                LocalDate.of(2024, 1, 30), LocalDate.of(2024, 3, 1));
+        assertThat(porProduto).filteredOn(totais -> totais.produtoId().equals(produtoA)).singleElement().satisfies(totais -> {
+            assertThat(totais.quantidadeEntrada()).isEqualTo(40L);
+            assertThat(totais.quantidadeSaida()).isZero();
+            assertThat(totais.valorEntrada()).isEqualByComparingTo("100.00");
+            assertThat(totais.quantidadeMovimentacoes()).isEqualTo(1L);
+        });
+        assertThat(porProduto).filteredOn(totais -> totais.produtoId().equals(produtoB)).singleElement().satisfies(totais -> {
+            assertThat(totais.quantidadeEntrada()).isEqualTo(20L);
+            assertThat(totais.quantidadeSaida()).isEqualTo(3L);
+            assertThat(totais.valorEntrada()).isEqualByComparingTo("60.00");
+            assertThat(totais.quantidadeMovimentacoes()).isEqualTo(2L);
+        });
+
+        // Linhas que ficaram sem movimentações não sobram zeradas
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM movimentacao_diaria WHERE produto_id = ? AND quantidade_movimentacoes = 0",
+                Long.class, produtoA)).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM movimentacao_diaria WHERE produto_id = ?", Long.class, produtoA))
+                .isEqualTo(1L);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM movimentacao_mensal WHERE produto_id = ? AND mes = ?",
+                Long.class, produtoA, LocalDate.of(2024, 2, 1))).isZero();
+    }
+
+    private List<TotaisMovimentacaoResponse> totaisDiretos(String periodo, Long produtoId, LocalDate inicio, LocalDate fim) {
+        return jdbcTemplate.query(TOTAIS_DIRETOS.formatted(periodo), (rs, linha) -> new TotaisMovimentacaoResponse(
+                        rs.getObject("periodo", LocalDate.class), rs.getLong("entrada"), rs.getLong("saida"),
+                        rs.getBigDecimal("valor"), rs.getLong("movimentacoes")),
+                produtoId, inicio, fim, produtoId, inicio, fim);
+    }
+
+    private Long criarProduto(String sufixo) {
+        Produto produto = new Produto();
+        produto.setNome("Produto Resumo " + sufixo + " " + System.nanoTime());
+        produto.setPreco(new BigDecimal("10.00"));
+        produto.setQuantidadeEstoque(100);
+        produto.setUnidadeMedida("UN");
+        return produtoRepository.save(produto).getId();
+    }
+
+    private EntradaProdutoRequest entrada(Long produtoId, Long fornecedorId, int quantidade, LocalDate data, String precoCusto) {
+        EntradaProdutoRequest request = new EntradaProdutoRequest();
+        request.produtoId = produtoId;
+        request.fornecedorId = fornecedorId;
+        request.quantidade = quantidade;
+        request.dataEntrada = data;
+        request.precoCusto = new BigDecimal(precoCusto);
+        return request;
+    }
+
+    private SaidaProdutoRequest saida(Long produtoId, int quantidade, LocalDate data) {
+        SaidaProdutoRequest request = new SaidaProdutoRequest();
+        request.produtoId = produtoId;
+        request.quantidade = quantidade;
+        request.dataSaida = data;
+        request.motivo = "Venda";
+        return request;
+    }
+}
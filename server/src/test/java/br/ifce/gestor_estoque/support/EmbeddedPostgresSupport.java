@@ -0,0 +1,43 @@
+package br.ifce.gestor_estoque.support;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Base para testes de integração que sobem a aplicação contra um PostgreSQL embarcado,
+ * iniciado localmente a partir dos binários do Zonky (sem Docker nem rede).
+ * A instância é compartilhada por todos os testes da JVM.
+ */
+public abstract class EmbeddedPostgresSupport {
+
+    private static EmbeddedPostgres postgres;
+
+    protected static synchronized EmbeddedPostgres postgres() {
+        if (postgres == null) {
+            try {
+                postgres = EmbeddedPostgres.start();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Não foi possível iniciar o PostgreSQL embarcado", e);
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    postgres.close();
+                } catch (IOException ignored) {
+                    // O processo está encerrando
+                }
+            }));
+        }
+        return postgres;
+    }
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres().getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+}